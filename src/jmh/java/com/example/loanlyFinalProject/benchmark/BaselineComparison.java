@@ -0,0 +1,120 @@
+package com.example.loanlyFinalProject.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result with the committed baseline and prints the change per benchmark.
+ * Scores are average times, so a higher score is a slowdown. A benchmark counts as regressed when
+ * it is slower by more than the threshold and by more than the two runs' combined error, so noise
+ * on a shared runner is not reported as a regression.
+ *
+ * <p>Arguments: {@code <result.json> <baseline.json> <threshold> <failOnRegression>}.
+ */
+public final class BaselineComparison {
+
+  private BaselineComparison() {}
+
+  public static void main(String[] args) throws IOException {
+    Path resultFile = Path.of(args[0]);
+    Path baselineFile = Path.of(args[1]);
+    double threshold = Double.parseDouble(args[2]);
+    boolean failOnRegression = Boolean.parseBoolean(args[3]);
+
+    if (!Files.exists(resultFile)) {
+      System.out.println("No benchmark result at " + resultFile + ", nothing to compare");
+      return;
+    }
+    if (!Files.exists(baselineFile)) {
+      System.out.println(
+          "No baseline at " + baselineFile + "; copy " + resultFile + " there to record one");
+      return;
+    }
+
+    Map<String, Score> results = read(resultFile);
+    Map<String, Score> baseline = read(baselineFile);
+
+    int regressions = 0;
+    System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+    for (Map.Entry<String, Score> entry : new TreeMap<>(results).entrySet()) {
+      Score current = entry.getValue();
+      Score before = baseline.get(entry.getKey());
+      if (before == null) {
+        System.out.printf("%-90s %14s %14s %9s%n", entry.getKey(), "-", current.format(), "new");
+        continue;
+      }
+      double change = (current.value - before.value) / before.value;
+      boolean regressed =
+          change > threshold && current.value - before.value > current.error + before.error;
+      if (regressed) {
+        regressions++;
+      }
+      System.out.printf(
+          "%-90s %14s %14s %+8.1f%%%s%n",
+          entry.getKey(),
+          before.format(),
+          current.format(),
+          change * 100,
+          regressed ? "  REGRESSED" : "");
+    }
+
+    if (regressions > 0) {
+      String message =
+          regressions
+              + " benchmark(s) slower than the baseline by more than "
+              + Math.round(threshold * 100)
+              + "%";
+      if (failOnRegression) {
+        System.err.println(message);
+        System.exit(1);
+      }
+      System.out.println(message);
+    }
+  }
+
+  private static Map<String, Score> read(Path file) throws IOException {
+    Map<String, Score> scores = new LinkedHashMap<>();
+    for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+      StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+      JsonNode params = run.path("params");
+      Iterator<Map.Entry<String, JsonNode>> it = params.fields();
+      while (it.hasNext()) {
+        Map.Entry<String, JsonNode> param = it.next();
+        key.append(key.indexOf("[") < 0 ? " [" : ", ")
+            .append(param.getKey())
+            .append('=')
+            .append(param.getValue().asText());
+      }
+      if (params.size() > 0) {
+        key.append(']');
+      }
+      JsonNode metric = run.path("primaryMetric");
+      scores.put(
+          key.toString().replace("com.example.loanlyFinalProject.", ""),
+          new Score(
+              metric.path("score").asDouble(),
+              errorOf(metric.path("scoreError")),
+              metric.path("scoreUnit").asText()));
+    }
+    return scores;
+  }
+
+  // JMH writes "NaN" when there were too few iterations to estimate the error
+  private static double errorOf(JsonNode node) {
+    double error = node.asDouble(0);
+    return Double.isNaN(error) ? 0 : error;
+  }
+
+  private record Score(double value, double error, String unit) {
+    String format() {
+      return String.format("%.3f %s", value, unit);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.example.loanlyFinalProject.benchmark;
+
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.PlafondDocument;
+import com.example.loanlyFinalProject.entity.Role;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/** Entities shaped like production rows, built the same way on every run. */
+public final class Fixtures {
+
+  /** Base64 HMAC-SHA256 key, as {@code jwt.secret} holds it. */
+  public static final String JWT_SECRET;
+
+  static {
+    byte[] key = new byte[32];
+    new Random(1).nextBytes(key);
+    JWT_SECRET = Base64.getEncoder().encodeToString(key);
+  }
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+  private Fixtures() {}
+
+  public static User customer(long id) {
+    return User.builder()
+        .id(id)
+        .username("customer" + id)
+        .email("customer" + id + "@example.com")
+        .password("$2a$10$abcdefghijklmnopqrstuv")
+        .fullName("Customer Number " + id)
+        .phone("08123456789")
+        .isActive(true)
+        .createdAt(NOW)
+        .roles(Set.of(Role.builder().id(1L).name("CUSTOMER").build()))
+        .build();
+  }
+
+  /** Active tiers of increasing size, in no particular order. */
+  public static List<Plafond> plafonds(int count) {
+    List<Plafond> plafonds = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      long tier = (i * 7L) % count + 1;
+      plafonds.add(
+          Plafond.builder()
+              .id(tier)
+              .name("Tier " + tier)
+              .description("Credit line up to " + tier * 5_000_000)
+              .maxAmount(BigDecimal.valueOf(tier * 5_000_000, 0).setScale(2))
+              .isActive(true)
+              .createdAt(NOW)
+              .build());
+    }
+    return plafonds;
+  }
+
+  /** An approved application with its applicant detail and {@code documents} uploaded files. */
+  public static UserPlafond approvedApplication(long id, int documents) {
+    User staff = User.builder().id(2L).username("marketing").fullName("Marketing").build();
+    UserPlafond application =
+        UserPlafond.builder()
+            .id(id)
+            .user(customer(id))
+            .plafond(plafonds(1).get(0))
+            .registeredAt(NOW.minusDays(3))
+            .status(UserPlafond.PlafondApplicationStatus.APPROVED)
+            .approvedLimit(new BigDecimal("5000000.00"))
+            .usedAmount(new BigDecimal("1250000.00"))
+            .reviewedBy(staff)
+            .reviewedAt(NOW.minusDays(2))
+            .approvedBy(staff)
+            .approvedAt(NOW.minusDays(1))
+            .nik("3174012345678901")
+            .birthPlace("Jakarta")
+            .birthDate(LocalDate.of(1990, 5, 17))
+            .maritalStatus("MARRIED")
+            .occupation("Engineer")
+            .monthlyIncome(new BigDecimal("15000000.00"))
+            .phone("08123456789")
+            .npwp("123456789012345")
+            .bankName("BCA")
+            .accountNumber("1234567890")
+            .applicationLatitude(new BigDecimal("-6.2000000"))
+            .applicationLongitude(new BigDecimal("106.8166660"))
+            .build();
+    for (int i = 0; i < documents; i++) {
+      String sha = String.format("%064x", id * 31 + i);
+      String blob = "/uploads/blobs/" + sha.substring(0, 2) + "/" + sha.substring(2, 4) + "/" + sha;
+      application
+          .getDocuments()
+          .add(
+              PlafondDocument.builder()
+                  .id(id * 10 + i)
+                  .userPlafond(application)
+                  .documentType(PlafondDocument.DocumentType.values()[i % 7])
+                  .fileUrl(blob + ".jpg")
+                  .previewUrl(blob.replace("/blobs/", "/derivatives/") + "-preview.jpg")
+                  .thumbnailUrl(blob.replace("/blobs/", "/derivatives/") + "-thumb.jpg")
+                  .fileName("document-" + i + ".jpg")
+                  .uploadedAt(NOW.minusDays(3))
+                  .build());
+    }
+    return application;
+  }
+}
@@ -0,0 +1,41 @@
+package com.example.loanlyFinalProject.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Fixed-answer implementations of repository interfaces, so a benchmark measures the code around a
+ * query and not a database or a mocking framework. A method without an answer throws, which keeps a
+ * benchmark from silently measuring a default.
+ */
+public final class Stubs {
+
+  private Stubs() {}
+
+  /** A {@code type} whose methods return {@code answers.get(methodName).apply(args)}. */
+  public static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+    Object stub =
+        Proxy.newProxyInstance(
+            type.getClassLoader(),
+            new Class<?>[] {type},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "toString":
+                  return "Stub " + type.getSimpleName();
+                case "hashCode":
+                  return System.identityHashCode(proxy);
+                case "equals":
+                  return proxy == args[0];
+                default:
+                  Function<Object[], Object> answer = answers.get(method.getName());
+                  if (answer == null) {
+                    throw new UnsupportedOperationException(
+                        type.getSimpleName() + "." + method.getName() + " is not stubbed");
+                  }
+                  return answer.apply(args);
+              }
+            });
+    return type.cast(stub);
+  }
+}
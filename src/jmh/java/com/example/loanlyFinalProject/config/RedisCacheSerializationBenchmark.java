@@ -0,0 +1,79 @@
+package com.example.loanlyFinalProject.config;
+
+import com.example.loanlyFinalProject.benchmark.Fixtures;
+import com.example.loanlyFinalProject.dto.response.PlafondResponse;
+import com.example.loanlyFinalProject.entity.Plafond;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+/**
+ * The cache's value serializer on the {@code plafonds} entries: the list of active tiers behind
+ * {@code 'all'} and a single tier behind its id. Every cache hit pays the read, every miss the
+ * write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisCacheSerializationBenchmark {
+
+  private GenericJackson2JsonRedisSerializer serializer;
+  private List<PlafondResponse> allPlafonds;
+  private PlafondResponse onePlafond;
+  private byte[] allPlafondsBytes;
+  private byte[] onePlafondBytes;
+
+  @Setup
+  public void setUp() {
+    serializer = RedisConfig.valueSerializer();
+    allPlafonds = new ArrayList<>();
+    for (Plafond p : Fixtures.plafonds(10)) {
+      allPlafonds.add(
+          PlafondResponse.builder()
+              .id(p.getId())
+              .name(p.getName())
+              .description(p.getDescription())
+              .maxAmount(p.getMaxAmount())
+              .isActive(p.getIsActive())
+              .createdAt(p.getCreatedAt())
+              .build());
+    }
+    onePlafond = allPlafonds.get(0);
+    allPlafondsBytes = serializer.serialize(allPlafonds);
+    onePlafondBytes = serializer.serialize(onePlafond);
+  }
+
+  @Benchmark
+  public byte[] serializeAllPlafonds() {
+    return serializer.serialize(allPlafonds);
+  }
+
+  @Benchmark
+  public Object deserializeAllPlafonds() {
+    return serializer.deserialize(allPlafondsBytes);
+  }
+
+  @Benchmark
+  public byte[] serializeOnePlafond() {
+    return serializer.serialize(onePlafond);
+  }
+
+  @Benchmark
+  public Object deserializeOnePlafond() {
+    return serializer.deserialize(onePlafondBytes);
+  }
+}
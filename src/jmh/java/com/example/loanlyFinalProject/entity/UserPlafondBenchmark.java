@@ -0,0 +1,44 @@
+package com.example.loanlyFinalProject.entity;
+
+import com.example.loanlyFinalProject.benchmark.Fixtures;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** The remaining limit, read for every application response and disbursement check. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPlafondBenchmark {
+
+  private UserPlafond application;
+  private BigDecimal disbursement;
+
+  @Setup
+  public void setUp() {
+    application = Fixtures.approvedApplication(7L, 0);
+    disbursement = new BigDecimal("1000000.00");
+  }
+
+  @Benchmark
+  public BigDecimal getAvailableLimit() {
+    return application.getAvailableLimit();
+  }
+
+  @Benchmark
+  public boolean canDisburse() {
+    return application.canDisburse(disbursement);
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.loanlyFinalProject.loan;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The disbursement interest calculation as {@code DisbursementService} runs it, from the request's
+ * BigDecimal amount and rate to the stored interest, and the installment schedules of the preview.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanCalculatorBenchmark {
+
+  @Param({"12", "36"})
+  public int tenor;
+
+  private BigDecimal amount;
+  private BigDecimal interestRate;
+  private InstallmentSchedule schedule;
+
+  @Setup
+  public void setUp() {
+    amount = new BigDecimal("7350000.00");
+    interestRate = new BigDecimal("1.75");
+    schedule = new InstallmentSchedule(tenor);
+  }
+
+  @Benchmark
+  public BigDecimal disbursementInterest() {
+    return LoanCalculator.fromMinorUnits(
+        LoanCalculator.flatInterest(
+            LoanCalculator.toMinorUnits(amount),
+            LoanCalculator.toBasisPoints(interestRate),
+            tenor));
+  }
+
+  @Benchmark
+  public InstallmentSchedule flatSchedule() {
+    return LoanCalculator.flat(
+        LoanCalculator.toMinorUnits(amount),
+        LoanCalculator.toBasisPoints(interestRate),
+        tenor,
+        schedule);
+  }
+
+  @Benchmark
+  public InstallmentSchedule annuitySchedule() {
+    return LoanCalculator.annuity(
+        LoanCalculator.toMinorUnits(amount),
+        LoanCalculator.toBasisPoints(interestRate),
+        tenor,
+        schedule);
+  }
+}
@@ -0,0 +1,182 @@
+package com.example.loanlyFinalProject.security;
+
+import com.example.loanlyFinalProject.benchmark.Fixtures;
+import com.example.loanlyFinalProject.benchmark.Stubs;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import com.example.loanlyFinalProject.tracing.LatencyBreakdown;
+import com.example.loanlyFinalProject.tracing.ObservedRedisTemplate;
+import com.example.loanlyFinalProject.tracing.SampledTracePredicate;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * The authentication filter from bearer header to security context, with the user lookup answered
+ * from memory: what every authenticated request pays before reaching a controller.
+ *
+ * <p>The other two variants run inside a server span, sampled like the application by default, and
+ * look the token up through a real {@code RedisTemplate} over a stub connection. Their difference
+ * is what the dependency tracing adds to the server span Spring Boot already creates: the blacklist
+ * lookup timed for the slow-request breakdown, and as a Redis span when the request is sampled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+  private static final double SAMPLING_PROBABILITY = 0.1;
+
+  private JwtAuthenticationFilter filter;
+  private JwtAuthenticationFilter serverSpanOnlyFilter;
+  private JwtAuthenticationFilter tracedFilter;
+  private ObservationRegistry observationRegistry;
+  private SdkTracerProvider tracerProvider;
+  private String authorization;
+
+  @Setup
+  public void setUp() {
+    User customer = Fixtures.customer(42L);
+    UserRepository users =
+        Stubs.of(UserRepository.class, Map.of("findByIdWithRoles", args -> Optional.of(customer)));
+    JwtService jwtService = JwtServiceBenchmark.jwtService();
+    filter = new JwtAuthenticationFilter(jwtService, new CustomUserDetailsService(users));
+    authorization = "Bearer " + jwtService.generateToken(new CustomUserDetails(customer));
+
+    tracerProvider =
+        SdkTracerProvider.builder()
+            .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(SAMPLING_PROBABILITY)))
+            .addSpanProcessor(BatchSpanProcessor.builder(new DiscardingExporter()).build())
+            .build();
+    OtelTracer tracer =
+        new OtelTracer(tracerProvider.get("benchmark"), new OtelCurrentTraceContext(), event -> {});
+    observationRegistry = ObservationRegistry.create();
+    observationRegistry
+        .observationConfig()
+        .observationPredicate(new SampledTracePredicate())
+        .observationHandler(new DefaultTracingObservationHandler(tracer));
+    serverSpanOnlyFilter =
+        new JwtAuthenticationFilter(
+            JwtServiceBenchmark.jwtService(emptyBlacklist(new RedisTemplate<>())),
+            new CustomUserDetailsService(users));
+    tracedFilter =
+        new JwtAuthenticationFilter(
+            JwtServiceBenchmark.jwtService(
+                emptyBlacklist(new ObservedRedisTemplate<>(observationRegistry))),
+            new CustomUserDetailsService(users));
+  }
+
+  @TearDown
+  public void tearDown() {
+    tracerProvider.close();
+  }
+
+  @Benchmark
+  public Object authenticatedRequest() throws Exception {
+    return authenticate(filter);
+  }
+
+  @Benchmark
+  public Object authenticatedRequestServerSpanOnly() throws Exception {
+    Observation server = Observation.start("http.server.requests", observationRegistry);
+    try (Observation.Scope scope = server.openScope()) {
+      return authenticate(serverSpanOnlyFilter);
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Benchmark
+  public Object authenticatedRequestTraced() throws Exception {
+    LatencyBreakdown breakdown = LatencyBreakdown.start();
+    Observation server = Observation.start("http.server.requests", observationRegistry);
+    try (Observation.Scope scope = server.openScope()) {
+      return authenticate(tracedFilter);
+    } finally {
+      server.stop();
+      breakdown.stop();
+    }
+  }
+
+  private Object authenticate(JwtAuthenticationFilter authenticationFilter) throws Exception {
+    MockHttpServletRequest request =
+        new MockHttpServletRequest("GET", "/api/customer/plafonds/applications");
+    request.addHeader("Authorization", authorization);
+    try {
+      authenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+      return request.getAttribute("userId");
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+  }
+
+  /** Sets up a template whose connection finds no key, so the real template code path runs. */
+  private static RedisTemplate<String, Object> emptyBlacklist(
+      RedisTemplate<String, Object> template) {
+    RedisKeyCommands keys = Stubs.of(RedisKeyCommands.class, Map.of("exists", args -> false));
+    RedisConnection connection =
+        Stubs.of(
+            RedisConnection.class,
+            Map.of(
+                "keyCommands", args -> keys, "isPipelined", args -> false, "close", args -> null));
+    template.setConnectionFactory(
+        Stubs.of(RedisConnectionFactory.class, Map.of("getConnection", args -> connection)));
+    template.setKeySerializer(new StringRedisSerializer());
+    template.afterPropertiesSet();
+    return template;
+  }
+
+  /** Sampled spans are batched as for export, then dropped. */
+  private static class DiscardingExporter implements SpanExporter {
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+      return CompletableResultCode.ofSuccess();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.example.loanlyFinalProject.security;
+
+import com.example.loanlyFinalProject.benchmark.Fixtures;
+import com.example.loanlyFinalProject.service.TokenBlacklistService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Token checks done on every authenticated request. The blacklist answers from memory, so only the
+ * parsing and signature work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+  private JwtService jwtService;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    jwtService = jwtService();
+    token = jwtService.generateToken(new CustomUserDetails(Fixtures.customer(42L)));
+  }
+
+  @Benchmark
+  public boolean validateToken() {
+    return jwtService.validateToken(token);
+  }
+
+  @Benchmark
+  public Long getUserIdFromToken() {
+    return jwtService.getUserIdFromToken(token);
+  }
+
+  /** A JwtService with an always-empty blacklist, configured like the application. */
+  static JwtService jwtService() {
+    return jwtService(
+        new RedisTemplate<>() {
+          @Override
+          public Boolean hasKey(String key) {
+            return false;
+          }
+        });
+  }
+
+  /** A JwtService configured like the application, checking its blacklist in {@code redis}. */
+  static JwtService jwtService(RedisTemplate<String, Object> redis) {
+    JwtService jwtService = new JwtService(new TokenBlacklistService(redis));
+    ReflectionTestUtils.setField(jwtService, "jwtSecret", Fixtures.JWT_SECRET);
+    ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86_400_000L);
+    return jwtService;
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.loanlyFinalProject.service;
+
+import com.example.loanlyFinalProject.benchmark.Fixtures;
+import com.example.loanlyFinalProject.benchmark.Stubs;
+import com.example.loanlyFinalProject.dto.response.PlafondResponse;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Filtering, sorting and mapping the active tiers above a customer's current one. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreditEligibilityBenchmark {
+
+  @Param({"10", "100"})
+  public int plafonds;
+
+  private CreditEligibilityService service;
+  private BigDecimal newCustomer;
+  private BigDecimal tierUp;
+
+  @Setup
+  public void setUp() {
+    List<Plafond> active = Fixtures.plafonds(plafonds);
+    PlafondRepository repository =
+        Stubs.of(PlafondRepository.class, Map.of("findAllActive", args -> active));
+    service = new CreditEligibilityService(null, repository, null);
+    newCustomer = BigDecimal.ZERO;
+    tierUp = active.get(active.size() / 2).getMaxAmount();
+  }
+
+  @Benchmark
+  public List<PlafondResponse> eligiblePlafondsNewCustomer() {
+    return service.getEligiblePlafonds(newCustomer);
+  }
+
+  @Benchmark
+  public List<PlafondResponse> eligiblePlafondsTierUp() {
+    return service.getEligiblePlafonds(tierUp);
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.loanlyFinalProject.service;
+
+import com.example.loanlyFinalProject.benchmark.Fixtures;
+import com.example.loanlyFinalProject.benchmark.Stubs;
+import com.example.loanlyFinalProject.dto.response.UserPlafondResponse;
+import com.example.loanlyFinalProject.entity.PlafondHistory;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.repository.PlafondHistoryRepository;
+import com.example.loanlyFinalProject.storage.DocumentUrlSigner;
+import java.time.Clock;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapping an application to its response, which every application endpoint does per row: the
+ * applicant detail, the review note lookup (answered from memory here) and a signed URL for each
+ * document and its derivatives.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlafondApplicationMappingBenchmark {
+
+  @Param({"0", "5"})
+  public int documents;
+
+  private PlafondApplicationService service;
+  private UserPlafond application;
+
+  @Setup
+  public void setUp() {
+    application = Fixtures.approvedApplication(7L, documents);
+    PlafondHistory review =
+        PlafondHistory.builder().userPlafond(application).note("Documents complete").build();
+    PlafondHistoryRepository histories =
+        Stubs.of(
+            PlafondHistoryRepository.class,
+            Map.of("findMarketingReviewByApplicationId", args -> Optional.of(review)));
+    DocumentUrlSigner urlSigner =
+        new DocumentUrlSigner(Fixtures.JWT_SECRET, 300, Clock.systemUTC());
+    StorageService storageService =
+        new StorageService(null, null, null, null, urlSigner, null, null, null);
+    service =
+        new PlafondApplicationService(
+            null, null, histories, null, null, null, null, storageService, null, null);
+  }
+
+  @Benchmark
+  public UserPlafondResponse mapToResponse() {
+    return service.mapToResponse(application);
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.loanlyFinalProject.concurrency;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks shared out by key hash. Callers that use the same key always get the same
+ * lock, so work for one key is serialized, while different keys mostly land on different stripes
+ * and do not wait for each other. Memory stays bounded however many keys there are, at the cost of
+ * the occasional false collision between two keys on one stripe.
+ *
+ * <p>This only serializes callers inside one JVM; anything that must hold across instances needs a
+ * database constraint behind it.
+ */
+public final class StripedLock {
+
+  private final Lock[] stripes;
+  private final int mask;
+
+  public StripedLock(int stripes) {
+    if (stripes <= 0) {
+      throw new IllegalArgumentException("stripes must be positive: " + stripes);
+    }
+    int size = stripes == 1 ? 1 : Integer.highestOneBit((stripes - 1) << 1); // Next power of two
+    this.stripes = new Lock[size];
+    for (int i = 0; i < size; i++) {
+      this.stripes[i] = new ReentrantLock();
+    }
+    this.mask = size - 1;
+  }
+
+  /** The lock guarding the given key. */
+  public Lock get(Object key) {
+    return stripes[indexFor(key)];
+  }
+
+  public int size() {
+    return stripes.length;
+  }
+
+  int indexFor(Object key) {
+    int h = key.hashCode();
+    // Spread the high bits down: sequential ids would otherwise differ only in the low bits
+    h ^= (h >>> 16);
+    h *= 0x85ebca6b;
+    h ^= (h >>> 13);
+    return h & mask;
+  }
+}
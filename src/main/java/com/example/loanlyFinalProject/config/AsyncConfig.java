@@ -0,0 +1,52 @@
+package com.example.loanlyFinalProject.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors for background work. Queues are bounded so a burst cannot pile up in memory: a full
+ * notification queue makes the submitting thread run the task itself, and a full derivative queue
+ * rejects the task, leaving the document for the derivative sweep. Tasks carry the submitting
+ * request's trace context, so their spans join its trace.
+ */
+@Configuration
+public class AsyncConfig {
+
+  public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+  public static final String DERIVATIVE_EXECUTOR = "derivativeExecutor";
+
+  @Bean(name = NOTIFICATION_EXECUTOR)
+  public ThreadPoolTaskExecutor notificationExecutor(
+      @Value("${app.notifications.executor.pool-size:4}") int poolSize,
+      @Value("${app.notifications.executor.queue-capacity:500}") int queueCapacity) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setThreadNamePrefix("notify-");
+    executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+    return executor;
+  }
+
+  @Bean(name = DERIVATIVE_EXECUTOR)
+  public ThreadPoolTaskExecutor derivativeExecutor(
+      @Value("${app.document.derivatives.pool-size:2}") int poolSize,
+      @Value("${app.document.derivatives.queue-capacity:200}") int queueCapacity) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setThreadNamePrefix("derive-");
+    executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+    executor.setWaitForTasksToCompleteOnShutdown(false); // Unfinished work stays PENDING
+    return executor;
+  }
+}
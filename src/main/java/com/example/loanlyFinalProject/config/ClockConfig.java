@@ -0,0 +1,15 @@
+package com.example.loanlyFinalProject.config;
+
+import java.time.Clock;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Time source for schedulers, replaceable by a fixed or simulated clock in tests. */
+@Configuration
+public class ClockConfig {
+
+  @Bean
+  public Clock clock() {
+    return Clock.systemDefaultZone();
+  }
+}
@@ -0,0 +1,102 @@
+package com.example.loanlyFinalProject.config;
+
+import com.example.loanlyFinalProject.datasource.FetchSizeDataSource;
+import com.example.loanlyFinalProject.datasource.ObservedDataSource;
+import com.example.loanlyFinalProject.datasource.StatementListener;
+import com.example.loanlyFinalProject.datasource.WorkloadRoutingDataSource;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * One HikariCP pool per {@link WorkloadType}, behind a routing data source. Staff reporting and
+ * background jobs get their own pools so they cannot starve customer-facing requests. Pool metrics
+ * (acquire time, usage, pending threads) are published to Micrometer tagged with the pool name,
+ * e.g. {@code hikaricp.connections.acquire{pool="loanly-reporting"}}. Checkouts and statements are
+ * observed for request tracing ({@link ObservedDataSource}), and statements are reported to the
+ * query statistics ({@code QueryStats}).
+ */
+@Configuration
+@EnableConfigurationProperties({DataSourcePoolProperties.class, QueryStatsProperties.class})
+@Slf4j
+public class DataSourceConfig {
+
+  private final List<HikariDataSource> createdPools = new ArrayList<>();
+
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      DataSourceProperties dataSourceProperties,
+      DataSourcePoolProperties poolProperties,
+      ObjectProvider<MeterRegistry> meterRegistry,
+      ObjectProvider<ObservationRegistry> observationRegistry,
+      ObjectProvider<StatementListener> statementListener) {
+    Map<Object, Object> pools = new HashMap<>();
+    for (WorkloadType type : WorkloadType.values()) {
+      pools.put(
+          type,
+          createPool(
+              type,
+              dataSourceProperties,
+              poolProperties.pool(type),
+              meterRegistry.getIfAvailable()));
+    }
+
+    WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource();
+    routing.setTargetDataSources(pools);
+    routing.setDefaultTargetDataSource(pools.get(WorkloadType.OLTP));
+    routing.afterPropertiesSet();
+    return new ObservedDataSource(
+        routing,
+        observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP),
+        statementListener.getIfAvailable(() -> StatementListener.NONE));
+  }
+
+  private DataSource createPool(
+      WorkloadType type,
+      DataSourceProperties dataSourceProperties,
+      DataSourcePoolProperties.Pool pool,
+      MeterRegistry meterRegistry) {
+    HikariDataSource hikari =
+        dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    hikari.setPoolName("loanly-" + type.name().toLowerCase(Locale.ROOT).replace('_', '-'));
+    hikari.setMaximumPoolSize(pool.getMaximumPoolSize());
+    hikari.setMinimumIdle(pool.getMinimumIdle());
+    hikari.setConnectionTimeout(pool.getConnectionTimeoutMs());
+    if (meterRegistry != null) {
+      hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    }
+    createdPools.add(hikari);
+
+    log.info(
+        "Connection pool {}: max={}, minIdle={}, timeout={}ms, fetchSize={}",
+        hikari.getPoolName(),
+        pool.getMaximumPoolSize(),
+        pool.getMinimumIdle(),
+        pool.getConnectionTimeoutMs(),
+        pool.getFetchSize());
+
+    return pool.getFetchSize() > 0 ? new FetchSizeDataSource(hikari, pool.getFetchSize()) : hikari;
+  }
+
+  @PreDestroy
+  public void closePools() {
+    createdPools.forEach(HikariDataSource::close);
+  }
+}
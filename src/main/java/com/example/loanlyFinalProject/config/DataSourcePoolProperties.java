@@ -0,0 +1,30 @@
+package com.example.loanlyFinalProject.config;
+
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Per-workload connection pool settings ({@code app.datasource.pools.*}). */
+@ConfigurationProperties(prefix = "app.datasource")
+@Getter
+@Setter
+public class DataSourcePoolProperties {
+
+  private Map<WorkloadType, Pool> pools = new EnumMap<>(WorkloadType.class);
+
+  public Pool pool(WorkloadType type) {
+    return pools.getOrDefault(type, new Pool());
+  }
+
+  @Getter
+  @Setter
+  public static class Pool {
+    private int maximumPoolSize = 10;
+    private int minimumIdle = 2;
+    private long connectionTimeoutMs = 30000;
+    private int fetchSize = 0; // 0 = driver default
+  }
+}
@@ -0,0 +1,102 @@
+package com.example.loanlyFinalProject.config;
+
+import com.example.loanlyFinalProject.storage.DocumentStore;
+import com.example.loanlyFinalProject.storage.LocalDocumentStore;
+import com.example.loanlyFinalProject.storage.S3DocumentStore;
+import java.net.URI;
+import java.nio.file.Paths;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+/** Selects the document store backend with {@code app.document.store.type}. */
+@Configuration
+@EnableConfigurationProperties(DocumentStoreProperties.class)
+@Slf4j
+public class DocumentStoreConfig {
+
+  @Bean
+  @ConditionalOnProperty(
+      name = "app.document.store.type",
+      havingValue = "local",
+      matchIfMissing = true)
+  public DocumentStore localDocumentStore(@Value("${file.upload-dir:uploads}") String uploadDir) {
+    return new LocalDocumentStore(Paths.get(uploadDir));
+  }
+
+  @Bean(destroyMethod = "close")
+  @ConditionalOnProperty(name = "app.document.store.type", havingValue = "s3")
+  public S3AsyncClient documentS3Client(DocumentStoreProperties properties) {
+    DocumentStoreProperties.S3 s3 = properties.getS3();
+    S3AsyncClientBuilder builder =
+        S3AsyncClient.builder()
+            .region(Region.of(s3.getRegion()))
+            .credentialsProvider(credentials(s3))
+            .serviceConfiguration(configuration(s3));
+    if (StringUtils.hasText(s3.getEndpoint())) {
+      builder.endpointOverride(URI.create(s3.getEndpoint()));
+    }
+    return builder.build();
+  }
+
+  @Bean(destroyMethod = "close")
+  @ConditionalOnProperty(name = "app.document.store.type", havingValue = "s3")
+  public S3Presigner documentS3Presigner(DocumentStoreProperties properties) {
+    DocumentStoreProperties.S3 s3 = properties.getS3();
+    S3Presigner.Builder builder =
+        S3Presigner.builder()
+            .region(Region.of(s3.getRegion()))
+            .credentialsProvider(credentials(s3))
+            .serviceConfiguration(configuration(s3));
+    if (StringUtils.hasText(s3.getEndpoint())) {
+      builder.endpointOverride(URI.create(s3.getEndpoint()));
+    }
+    return builder.build();
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "app.document.store.type", havingValue = "s3")
+  public DocumentStore s3DocumentStore(
+      S3AsyncClient documentS3Client,
+      S3Presigner documentS3Presigner,
+      DocumentStoreProperties properties) {
+    DocumentStoreProperties.S3 s3 = properties.getS3();
+    if (!StringUtils.hasText(s3.getBucket())) {
+      throw new IllegalStateException("app.document.store.s3.bucket is required");
+    }
+    log.info("Documents are stored in bucket {} at {}", s3.getBucket(), s3.getEndpoint());
+    return new S3DocumentStore(
+        documentS3Client,
+        documentS3Presigner,
+        s3.getBucket(),
+        s3.getPartSize().toBytes(),
+        s3.getMultipartThreshold().toBytes(),
+        s3.getMaxConcurrentParts());
+  }
+
+  private static AwsCredentialsProvider credentials(DocumentStoreProperties.S3 s3) {
+    return StaticCredentialsProvider.create(
+        AwsBasicCredentials.create(s3.getAccessKey(), s3.getSecretKey()));
+  }
+
+  // Path-style for R2 and MinIO; plain signed bodies, as not every S3-compatible service takes
+  // aws-chunked uploads
+  private static S3Configuration configuration(DocumentStoreProperties.S3 s3) {
+    return S3Configuration.builder()
+        .pathStyleAccessEnabled(s3.isPathStyle())
+        .chunkedEncodingEnabled(false)
+        .build();
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.loanlyFinalProject.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/** Where document bytes are kept ({@code app.document.store.*}). */
+@ConfigurationProperties(prefix = "app.document.store")
+@Getter
+@Setter
+public class DocumentStoreProperties {
+
+  private Type type = Type.LOCAL;
+  private S3 s3 = new S3();
+
+  public enum Type {
+    LOCAL, // file.upload-dir on this node
+    S3 // S3-compatible bucket shared by all nodes
+  }
+
+  @Getter
+  @Setter
+  public static class S3 {
+    private String endpoint; // e.g. https://<account>.r2.cloudflarestorage.com; AWS if empty
+    private String region = "auto";
+    private String bucket;
+    private String accessKey;
+    private String secretKey;
+    private boolean pathStyle = true;
+    private DataSize partSize = DataSize.ofMegabytes(5); // S3 minimum
+    private DataSize multipartThreshold = DataSize.ofMegabytes(8);
+    private int maxConcurrentParts = 4;
+  }
+}
@@ -61,4 +61,16 @@ public class FirebaseConfig {
     }
     return com.google.firebase.auth.FirebaseAuth.getInstance();
   }
+
+  @org.springframework.context.annotation.Bean
+  @org.springframework.boot.autoconfigure.condition.ConditionalOnProperty(
+      name = "firebase.enabled",
+      havingValue = "true",
+      matchIfMissing = true)
+  public com.google.firebase.messaging.FirebaseMessaging firebaseMessaging() {
+    if (FirebaseApp.getApps().isEmpty()) {
+      return null;
+    }
+    return com.google.firebase.messaging.FirebaseMessaging.getInstance();
+  }
 }
@@ -0,0 +1,33 @@
+package com.example.loanlyFinalProject.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Slow-query and N+1 detection settings ({@code app.query-stats.*}). */
+@ConfigurationProperties(prefix = "app.query-stats")
+@Getter
+@Setter
+public class QueryStatsProperties {
+
+  /** Executions at least this slow are kept as slow queries, with their call site. */
+  private long slowQueryMs = 200;
+
+  /** Requests running more statements than this are flagged. */
+  private int maxStatementsPerRequest = 100;
+
+  /** Requests running the same select (up to its parameters) this often are flagged as N+1. */
+  private int repeatedSelectThreshold = 10;
+
+  /** Distinct slow queries kept; slow executions of further ones are only counted. */
+  private int maxTrackedQueries = 1000;
+
+  /** Slow queries listed by the endpoint, slowest first. */
+  private int topQueries = 20;
+
+  /** Flagged requests listed by the endpoint, latest first. */
+  private int recentFlaggedRequests = 50;
+
+  /** Test mode: requests flagged as N+1 fail with {@code RepeatedSelectException}. */
+  private boolean failOnRepeatedSelects = false;
+}
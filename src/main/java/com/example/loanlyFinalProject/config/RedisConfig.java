@@ -1,11 +1,14 @@
 package com.example.loanlyFinalProject.config;
 
+import com.example.loanlyFinalProject.tracing.ObservedRedisTemplate;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.observation.ObservationRegistry;
 import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -21,11 +24,19 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 @EnableCaching
 public class RedisConfig {
 
+  /**
+   * Value serializer of the cache and the template: JSON with type information, written with its
+   * own ObjectMapper.
+   */
+  public static GenericJackson2JsonRedisSerializer valueSerializer() {
+    return new GenericJackson2JsonRedisSerializer(createRedisObjectMapper());
+  }
+
   /**
    * Create ObjectMapper specifically for Redis serialization. This is NOT exposed as a @Bean to
    * avoid conflicts with Spring's default ObjectMapper.
    */
-  private ObjectMapper createRedisObjectMapper() {
+  private static ObjectMapper createRedisObjectMapper() {
     ObjectMapper objectMapper = new ObjectMapper();
     objectMapper.registerModule(new JavaTimeModule());
     objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -36,12 +47,16 @@ public class RedisConfig {
     return objectMapper;
   }
 
+  /** Operations are observed for request tracing, see {@link ObservedRedisTemplate}. */
   @Bean
-  public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
-    GenericJackson2JsonRedisSerializer serializer =
-        new GenericJackson2JsonRedisSerializer(createRedisObjectMapper());
+  public RedisTemplate<String, Object> redisTemplate(
+      RedisConnectionFactory connectionFactory,
+      ObjectProvider<ObservationRegistry> observationRegistry) {
+    GenericJackson2JsonRedisSerializer serializer = valueSerializer();
 
-    RedisTemplate<String, Object> template = new RedisTemplate<>();
+    RedisTemplate<String, Object> template =
+        new ObservedRedisTemplate<>(
+            observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
     template.setConnectionFactory(connectionFactory);
     template.setKeySerializer(new StringRedisSerializer());
     template.setValueSerializer(serializer);
@@ -53,8 +68,7 @@ public class RedisConfig {
 
   @Bean
   public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-    GenericJackson2JsonRedisSerializer serializer =
-        new GenericJackson2JsonRedisSerializer(createRedisObjectMapper());
+    GenericJackson2JsonRedisSerializer serializer = valueSerializer();
 
     RedisCacheConfiguration config =
         RedisCacheConfiguration.defaultCacheConfig()
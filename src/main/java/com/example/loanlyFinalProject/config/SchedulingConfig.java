@@ -0,0 +1,36 @@
+package com.example.loanlyFinalProject.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Schedulers for {@code @Scheduled} jobs. The installment timing wheel ticks on a thread of its
+ * own, so a long cron job (sweeps, garbage collection, reconciliation hand-off) on the shared
+ * scheduler cannot hold back due-date transitions.
+ */
+@Configuration
+public class SchedulingConfig {
+
+  public static final String INSTALLMENT_WHEEL_SCHEDULER = "installmentWheelScheduler";
+
+  /**
+   * Shared scheduler, configured by {@code spring.task.scheduling.*}. Declared here because Boot
+   * backs off its own as soon as another TaskScheduler bean exists.
+   */
+  @Bean(name = "taskScheduler")
+  @Primary
+  public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+    return builder.build();
+  }
+
+  @Bean(name = INSTALLMENT_WHEEL_SCHEDULER)
+  public ThreadPoolTaskScheduler installmentWheelScheduler() {
+    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setPoolSize(1);
+    scheduler.setThreadNamePrefix("due-wheel-");
+    return scheduler;
+  }
+}
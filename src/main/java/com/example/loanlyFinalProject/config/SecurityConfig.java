@@ -1,6 +1,8 @@
 package com.example.loanlyFinalProject.config;
 
+import com.example.loanlyFinalProject.idempotency.IdempotencyFilter;
 import com.example.loanlyFinalProject.security.JwtAuthenticationFilter;
+import com.example.loanlyFinalProject.security.ScrapeTokenAuthenticationFilter;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -18,6 +20,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -30,13 +33,15 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 public class SecurityConfig {
 
   private final JwtAuthenticationFilter jwtAuthenticationFilter;
+  private final ScrapeTokenAuthenticationFilter scrapeTokenAuthenticationFilter;
+  private final IdempotencyFilter idempotencyFilter;
   private final UserDetailsService userDetailsService;
 
   // Public endpoints that don't require authentication
   private static final String[] PUBLIC_ENDPOINTS = {
     "/api/auth/**",
     "/api/public/**",
-    "/uploads/**",
+    "/files/**", // Authorized by the signature in the URL
     "/swagger-ui/**",
     "/swagger-ui.html",
     "/v3/api-docs/**",
@@ -67,10 +72,19 @@ public class SecurityConfig {
                     .hasAnyRole("SUPER_ADMIN", "CUSTOMER")
                     .requestMatchers("/api/profile/**")
                     .authenticated()
+                    .requestMatchers("/actuator/metrics", "/actuator/metrics/**")
+                    .hasRole("SUPER_ADMIN")
+                    .requestMatchers("/actuator/queries")
+                    .hasRole("SUPER_ADMIN")
+                    .requestMatchers(ScrapeTokenAuthenticationFilter.PROMETHEUS_PATH)
+                    .hasAnyRole("SUPER_ADMIN", ScrapeTokenAuthenticationFilter.SCRAPER_ROLE)
                     .anyRequest()
                     .authenticated())
         .authenticationProvider(authenticationProvider())
-        .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+        .addFilterBefore(scrapeTokenAuthenticationFilter, JwtAuthenticationFilter.class)
+        // After authorization: needs the user id, and must not claim keys for rejected requests
+        .addFilterAfter(idempotencyFilter, AuthorizationFilter.class);
 
     return http.build();
   }
@@ -99,8 +113,11 @@ public class SecurityConfig {
     CorsConfiguration configuration = new CorsConfiguration();
     configuration.setAllowedOrigins(
         List.of("https://fe-loanlyfinalproject.vercel.app", "http://localhost:4200"));
-    configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+    configuration.setAllowedMethods(
+        List.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
     configuration.setAllowedHeaders(List.of("*"));
+    // Resumable uploads report their progress in headers
+    configuration.setExposedHeaders(List.of("Location", "Upload-Offset", "Upload-Length"));
     configuration.setAllowCredentials(true);
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
     source.registerCorsConfiguration("/**", configuration);
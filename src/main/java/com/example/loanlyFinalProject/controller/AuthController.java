@@ -10,6 +10,8 @@ import com.example.loanlyFinalProject.dto.response.AuthResponse;
 import com.example.loanlyFinalProject.security.JwtService;
 import com.example.loanlyFinalProject.service.AuthService;
 import com.example.loanlyFinalProject.service.TokenBlacklistService;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -24,6 +26,7 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 @Tag(name = "Authentication", description = "Authentication and authorization endpoints")
+@Observed(name = Observations.CONTROLLER)
 public class AuthController {
 
   private final AuthService authService;
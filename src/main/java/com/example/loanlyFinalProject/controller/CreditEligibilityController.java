@@ -3,6 +3,8 @@ package com.example.loanlyFinalProject.controller;
 import com.example.loanlyFinalProject.dto.response.ApiResponse;
 import com.example.loanlyFinalProject.dto.response.CreditEligibilityResponse;
 import com.example.loanlyFinalProject.service.CreditEligibilityService;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -17,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 @Tag(
     name = "Credit Eligibility",
     description = "Endpoints for checking credit eligibility and tier-up requirements")
+@Observed(name = Observations.CONTROLLER)
 public class CreditEligibilityController {
 
   private final CreditEligibilityService creditEligibilityService;
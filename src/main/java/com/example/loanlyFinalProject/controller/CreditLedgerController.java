@@ -0,0 +1,89 @@
+package com.example.loanlyFinalProject.controller;
+
+import com.example.loanlyFinalProject.dto.response.ApiResponse;
+import com.example.loanlyFinalProject.dto.response.CreditBalanceResponse;
+import com.example.loanlyFinalProject.dto.response.CreditLedgerEntryResponse;
+import com.example.loanlyFinalProject.dto.response.ReconciliationReportResponse;
+import com.example.loanlyFinalProject.service.CreditLedgerService;
+import com.example.loanlyFinalProject.service.CreditReconciliationService;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.annotation.Observed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/credit-lines")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('SUPER_ADMIN')")
+@Tag(name = "Credit Ledger (Admin)", description = "Credit line ledger and balance replay")
+@SecurityRequirement(name = "Bearer Authentication")
+@Observed(name = Observations.CONTROLLER)
+public class CreditLedgerController {
+
+  private final CreditLedgerService creditLedgerService;
+  private final CreditReconciliationService creditReconciliationService;
+
+  @GetMapping("/{userPlafondId}/ledger")
+  @Operation(
+      summary = "Get ledger entries",
+      description = "Returns every ledger entry of a credit line, oldest first")
+  public ResponseEntity<ApiResponse<List<CreditLedgerEntryResponse>>> getLedger(
+      @PathVariable Long userPlafondId) {
+    List<CreditLedgerEntryResponse> entries = creditLedgerService.getEntries(userPlafondId);
+    return ResponseEntity.ok(ApiResponse.success("Ledger entries retrieved", entries));
+  }
+
+  @GetMapping("/{userPlafondId}/balance")
+  @Operation(
+      summary = "Replay balance",
+      description =
+          "Rebuilds the used amount of a credit line as of a timestamp (default: now) from the"
+              + " latest checkpoint and the ledger entries written after it")
+  public ResponseEntity<ApiResponse<CreditBalanceResponse>> replayBalance(
+      @PathVariable Long userPlafondId,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime asOf) {
+    CreditBalanceResponse balance =
+        creditLedgerService.replayBalance(userPlafondId, asOf != null ? asOf : LocalDateTime.now());
+    return ResponseEntity.ok(ApiResponse.success("Balance replayed", balance));
+  }
+
+  // ========== RECONCILIATION ==========
+
+  @PostMapping("/reconciliation")
+  @Operation(
+      summary = "Start reconciliation",
+      description =
+          "Starts a background run comparing every credit line's used amount with its"
+              + " non-cancelled disbursements. With autoCorrect, mismatches are fixed through"
+              + " ADJUST ledger entries")
+  public ResponseEntity<ApiResponse<ReconciliationReportResponse>> startReconciliation(
+      @RequestParam(defaultValue = "false") boolean autoCorrect) {
+    if (!creditReconciliationService.start(autoCorrect)) {
+      return ResponseEntity.ok(
+          ApiResponse.success(
+              "Reconciliation is already running", creditReconciliationService.getLastReport()));
+    }
+    return ResponseEntity.ok(ApiResponse.success("Reconciliation started"));
+  }
+
+  @GetMapping("/reconciliation")
+  @Operation(
+      summary = "Get reconciliation report",
+      description = "Returns the report of the running or last finished reconciliation")
+  public ResponseEntity<ApiResponse<ReconciliationReportResponse>> getReconciliationReport() {
+    ReconciliationReportResponse report = creditReconciliationService.getLastReport();
+    if (report == null) {
+      return ResponseEntity.ok(ApiResponse.success("No reconciliation has run yet", null));
+    }
+    return ResponseEntity.ok(ApiResponse.success("Reconciliation report retrieved", report));
+  }
+}
@@ -6,6 +6,8 @@ import com.example.loanlyFinalProject.entity.Role;
 import com.example.loanlyFinalProject.entity.User;
 import com.example.loanlyFinalProject.repository.CustomerProfileRepository;
 import com.example.loanlyFinalProject.repository.UserRepository;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -27,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 @Tag(name = "Customer Profile", description = "Customer profile management endpoints")
 @SecurityRequirement(name = "Bearer Authentication")
+@Observed(name = Observations.CONTROLLER)
 public class CustomerController {
 
   private final UserRepository userRepository;
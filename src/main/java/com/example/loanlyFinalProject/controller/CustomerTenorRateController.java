@@ -6,6 +6,8 @@ import com.example.loanlyFinalProject.entity.UserPlafond;
 import com.example.loanlyFinalProject.exception.ResourceNotFoundException;
 import com.example.loanlyFinalProject.repository.UserPlafondRepository;
 import com.example.loanlyFinalProject.service.TenorRateService;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,6 +25,7 @@ import org.springframework.web.bind.annotation.*;
 @Tag(
     name = "Tenor Rates (Customer)",
     description = "Get interest rates for customer's plafond tier")
+@Observed(name = Observations.CONTROLLER)
 public class CustomerTenorRateController {
 
   private final TenorRateService tenorRateService;
@@ -1,28 +1,44 @@
 package com.example.loanlyFinalProject.controller;
 
+import com.example.loanlyFinalProject.dto.request.BulkDisbursementRequest;
 import com.example.loanlyFinalProject.dto.request.DisbursementRequest;
 import com.example.loanlyFinalProject.dto.response.ApiResponse;
+import com.example.loanlyFinalProject.dto.response.BulkDisbursementResult;
+import com.example.loanlyFinalProject.dto.response.DisbursementQuoteResponse;
 import com.example.loanlyFinalProject.dto.response.DisbursementResponse;
+import com.example.loanlyFinalProject.dto.response.WorkQueueClaimResponse;
+import com.example.loanlyFinalProject.loan.InterestType;
+import com.example.loanlyFinalProject.service.BankTransferFileWriter;
 import com.example.loanlyFinalProject.service.DisbursementService;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 @Tag(name = "Disbursement", description = "Fund disbursement from approved credit limit")
 @SecurityRequirement(name = "Bearer Authentication")
+@Observed(name = Observations.CONTROLLER)
 public class DisbursementController {
 
   private final DisbursementService disbursementService;
+  private final BankTransferFileWriter bankTransferFileWriter;
 
   // ========== CUSTOMER ENDPOINTS ==========
 
@@ -40,6 +56,25 @@ public class DisbursementController {
                 "Disbursement request submitted. Waiting for Back Office processing.", response));
   }
 
+  @GetMapping("/customer/disbursements/quote")
+  @Operation(
+      summary = "Quote disbursement (Customer)",
+      description =
+          "Previews interest, total and the full installment schedule (FLAT or ANNUITY) of a"
+              + " disbursement without submitting it")
+  @PreAuthorize("hasAnyRole('CUSTOMER', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<DisbursementQuoteResponse>> quoteDisbursement(
+      @RequestAttribute("userId") Long userId,
+      @RequestParam Long userPlafondId,
+      @RequestParam BigDecimal amount,
+      @RequestParam Integer tenorMonth,
+      @RequestParam(defaultValue = "FLAT") InterestType interestType) {
+    DisbursementQuoteResponse quote =
+        disbursementService.quoteDisbursement(
+            userId, userPlafondId, amount, tenorMonth, interestType);
+    return ResponseEntity.ok(ApiResponse.success("Disbursement quote calculated", quote));
+  }
+
   @GetMapping("/customer/disbursements")
   @Operation(
       summary = "Get my disbursements (Customer)",
@@ -75,6 +110,32 @@ public class DisbursementController {
     return ResponseEntity.ok(ApiResponse.success("Pending disbursements retrieved", disbursements));
   }
 
+  @PostMapping("/back-office/disbursements/claim")
+  @Operation(
+      summary = "Claim next disbursements (Back Office)",
+      description =
+          "Leases the next unclaimed PENDING disbursements to the caller. Other back office users"
+              + " cannot process or cancel them until the lease expires or is released")
+  @PreAuthorize("hasAnyRole('BACK_OFFICE', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<WorkQueueClaimResponse<DisbursementResponse>>>
+      claimDisbursements(
+          @RequestAttribute("userId") Long userId, @RequestParam(defaultValue = "10") int limit) {
+    WorkQueueClaimResponse<DisbursementResponse> claim =
+        disbursementService.claimDisbursements(userId, limit);
+    return ResponseEntity.ok(ApiResponse.success("Disbursements claimed", claim));
+  }
+
+  @PostMapping("/back-office/disbursements/{disbursementId}/release")
+  @Operation(
+      summary = "Release claimed disbursement (Back Office)",
+      description = "Returns a claimed disbursement to the pending queue")
+  @PreAuthorize("hasAnyRole('BACK_OFFICE', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<Void>> releaseDisbursement(
+      @RequestAttribute("userId") Long userId, @PathVariable Long disbursementId) {
+    disbursementService.releaseDisbursement(userId, disbursementId);
+    return ResponseEntity.ok(ApiResponse.success("Disbursement released"));
+  }
+
   @PostMapping("/back-office/disbursements/{disbursementId}/process")
   @Operation(
       summary = "Process disbursement (Back Office)",
@@ -90,6 +151,69 @@ public class DisbursementController {
         ApiResponse.success("Disbursement has been processed successfully", response));
   }
 
+  @PostMapping("/back-office/disbursements/bulk-process")
+  @Operation(
+      summary = "Bulk process disbursements (Back Office)",
+      description =
+          "Disburses the selected PENDING disbursements in one transaction and returns the bank"
+              + " bulk-transfer file, grouped by bank. Skipped ids are counted in X-Skipped-Count;"
+              + " X-Batch-Id fetches the file again")
+  @PreAuthorize("hasAnyRole('BACK_OFFICE', 'SUPER_ADMIN')")
+  public ResponseEntity<StreamingResponseBody> processDisbursements(
+      @RequestAttribute("userId") Long userId,
+      @Valid @RequestBody BulkDisbursementRequest request,
+      @RequestParam(defaultValue = "CSV") BankTransferFileWriter.Format format) {
+    BulkDisbursementResult result =
+        disbursementService.processDisbursements(
+            userId, request.getDisbursementIds(), request.getNote());
+
+    String filename =
+        "bulk-transfer-"
+            + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+            + "."
+            + format.getExtension();
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .header("X-Processed-Count", String.valueOf(result.getProcessedCount()))
+            .header("X-Skipped-Count", String.valueOf(result.getSkippedIds().size()))
+            .header("X-Total-Amount", result.getTotalAmount().toPlainString());
+    if (result.getBatchId() != null) {
+      response.header("X-Batch-Id", String.valueOf(result.getBatchId()));
+    }
+    return transferFile(response, result.getTransfers(), format, filename);
+  }
+
+  @GetMapping("/back-office/disbursements/batches/{batchId}/transfer-file")
+  @Operation(
+      summary = "Bank transfer file of a bulk run (Back Office)",
+      description =
+          "Generates the bank bulk-transfer file of an earlier bulk run again, e.g. when the"
+              + " response of the run was lost")
+  @PreAuthorize("hasAnyRole('BACK_OFFICE', 'SUPER_ADMIN')")
+  public ResponseEntity<StreamingResponseBody> getBatchTransferFile(
+      @PathVariable Long batchId,
+      @RequestParam(defaultValue = "CSV") BankTransferFileWriter.Format format) {
+    List<BulkDisbursementResult.BankTransfer> transfers =
+        disbursementService.getBatchTransfers(batchId);
+    return transferFile(
+        ResponseEntity.ok(),
+        transfers,
+        format,
+        "bulk-transfer-batch-" + batchId + "." + format.getExtension());
+  }
+
+  private ResponseEntity<StreamingResponseBody> transferFile(
+      ResponseEntity.BodyBuilder response,
+      List<BulkDisbursementResult.BankTransfer> transfers,
+      BankTransferFileWriter.Format format,
+      String filename) {
+    StreamingResponseBody body = out -> bankTransferFileWriter.write(transfers, format, out);
+    return response
+        .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+        .body(body);
+  }
+
   @PostMapping("/back-office/disbursements/{disbursementId}/cancel")
   @Operation(
       summary = "Cancel disbursement (Back Office)",
@@ -0,0 +1,211 @@
+package com.example.loanlyFinalProject.controller;
+
+import com.example.loanlyFinalProject.service.StorageService;
+import com.example.loanlyFinalProject.storage.ContentAddressedStore;
+import com.example.loanlyFinalProject.storage.DocumentUrlSigner;
+import com.example.loanlyFinalProject.storage.StoredFile;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.annotation.Observed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Serves uploaded documents behind signed URLs (see {@link DocumentUrlSigner}). Supports
+ * conditional requests and single byte ranges, so viewers can resume or page through large PDFs.
+ * The body is handed to Tomcat's sendfile when the connector supports it and copied with {@link
+ * FileChannel#transferTo} otherwise; neither path reads the file into the heap. Failures are bare
+ * status codes, so a download link never reveals whether a file exists to someone without a valid
+ * signature. Documents held in object storage are redirected to a pre-signed URL of the store.
+ */
+@Controller
+@RequiredArgsConstructor
+@Tag(name = "Files", description = "Signed document downloads")
+@Observed(name = Observations.CONTROLLER)
+public class FileController {
+
+  // Tomcat request attributes for handing the response body to sendfile
+  static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+  private final StorageService storageService;
+  private final Clock clock;
+
+  @RequestMapping(
+      value = DocumentUrlSigner.PATH_PREFIX + "**",
+      method = {RequestMethod.GET, RequestMethod.HEAD})
+  @Operation(
+      summary = "Download document",
+      description =
+          "Download a document through a signed URL from an application response. Supports"
+              + " If-None-Match, Range and If-Range")
+  public void download(
+      @RequestParam long expires,
+      @RequestParam String sig,
+      HttpServletRequest request,
+      HttpServletResponse response)
+      throws IOException {
+    String relativePath =
+        PATH_HELPER
+            .getPathWithinApplication(request)
+            .substring(DocumentUrlSigner.PATH_PREFIX.length());
+    if (!storageService.verifySignedUrl(relativePath, expires, sig)) {
+      response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+    Optional<URI> direct = storageService.directDownloadUrl(relativePath);
+    if (direct.isPresent()) {
+      // Held in object storage: the client fetches the bytes from there
+      response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-store");
+      response.setHeader(HttpHeaders.LOCATION, direct.get().toString());
+      response.setStatus(HttpServletResponse.SC_FOUND);
+      return;
+    }
+    Optional<StoredFile> found = storageService.storedFile(relativePath);
+    if (found.isEmpty()) {
+      response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
+    StoredFile file = found.get();
+
+    long maxAge = Math.max(0, expires - clock.instant().getEpochSecond());
+    response.setHeader(HttpHeaders.ETAG, file.etag());
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    response.setHeader(
+        HttpHeaders.CACHE_CONTROL,
+        "private, max-age="
+            + maxAge
+            + (ContentAddressedStore.isBlob(relativePath) ? ", immutable" : ""));
+
+    if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), file.etag())) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+
+    long start = 0;
+    long end = file.size() - 1;
+    String range = request.getHeader(HttpHeaders.RANGE);
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (range != null && (ifRange == null || ifRange.equals(file.etag()))) {
+      long[] bounds = parseRange(range, file.size());
+      if (bounds == null) {
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.size());
+        response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        return;
+      }
+      if (bounds.length == 2) {
+        start = bounds[0];
+        end = bounds[1];
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setHeader(
+            HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + file.size());
+      }
+    }
+
+    long length = end - start + 1;
+    response.setContentType(file.contentType());
+    response.setContentLengthLong(length);
+    if (RequestMethod.HEAD.name().equals(request.getMethod()) || length == 0) {
+      return;
+    }
+
+    if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+      request.setAttribute(SENDFILE_FILENAME, file.path().toString());
+      request.setAttribute(SENDFILE_START, start);
+      request.setAttribute(SENDFILE_END, end + 1); // Exclusive
+      return;
+    }
+    try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+      OutputStream out = response.getOutputStream();
+      WritableByteChannel target = Channels.newChannel(out);
+      long position = start;
+      long remaining = length;
+      while (remaining > 0) {
+        long sent = channel.transferTo(position, remaining, target);
+        if (sent <= 0) {
+          break; // Truncated underneath us; the client sees a short body
+        }
+        position += sent;
+        remaining -= sent;
+      }
+      out.flush();
+    }
+  }
+
+  // ========== HELPER METHODS ==========
+
+  private static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.equals("*") || tag.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Bounds of a single byte range, inclusive. Returns an empty array to serve the whole file (an
+   * unparseable header or several ranges, which RFC 9110 lets a server ignore) and null when the
+   * range lies beyond the end of the file.
+   */
+  static long[] parseRange(String header, long size) {
+    if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+      return new long[0];
+    }
+    String spec = header.substring("bytes=".length()).trim();
+    int dash = spec.indexOf('-');
+    if (dash < 0) {
+      return new long[0];
+    }
+    try {
+      String first = spec.substring(0, dash).trim();
+      String last = spec.substring(dash + 1).trim();
+      if (first.isEmpty()) {
+        long suffix = Long.parseLong(last); // Last N bytes
+        if (suffix <= 0 || size == 0) {
+          return null;
+        }
+        return new long[] {Math.max(0, size - suffix), size - 1};
+      }
+      long start = Long.parseLong(first);
+      long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+      if (start < 0 || (!last.isEmpty() && Long.parseLong(last) < start)) {
+        return new long[0];
+      }
+      if (start >= size) {
+        return null;
+      }
+      return new long[] {start, end};
+    } catch (NumberFormatException e) {
+      return new long[0];
+    }
+  }
+}
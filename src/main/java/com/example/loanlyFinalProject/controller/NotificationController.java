@@ -3,6 +3,8 @@ package com.example.loanlyFinalProject.controller;
 import com.example.loanlyFinalProject.dto.response.ApiResponse;
 import com.example.loanlyFinalProject.dto.response.NotificationResponse;
 import com.example.loanlyFinalProject.service.NotificationService;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 @Tag(name = "Notifications", description = "User notification endpoints")
 @SecurityRequirement(name = "Bearer Authentication")
+@Observed(name = Observations.CONTROLLER)
 public class NotificationController {
 
   private final NotificationService notificationService;
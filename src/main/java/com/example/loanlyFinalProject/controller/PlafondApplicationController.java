@@ -1,36 +1,53 @@
 package com.example.loanlyFinalProject.controller;
 
+import com.example.loanlyFinalProject.dto.request.DirectUploadCompleteRequest;
+import com.example.loanlyFinalProject.dto.request.DirectUploadRequest;
 import com.example.loanlyFinalProject.dto.request.PlafondApplicationRequest;
 import com.example.loanlyFinalProject.dto.request.PlafondReviewRequest;
+import com.example.loanlyFinalProject.dto.request.ResumableUploadRequest;
 import com.example.loanlyFinalProject.dto.response.ApiResponse;
+import com.example.loanlyFinalProject.dto.response.DirectUploadResponse;
+import com.example.loanlyFinalProject.dto.response.ResumableUploadResponse;
 import com.example.loanlyFinalProject.dto.response.UserPlafondResponse;
+import com.example.loanlyFinalProject.dto.response.WorkQueueClaimResponse;
 import com.example.loanlyFinalProject.entity.PlafondDocument;
 import com.example.loanlyFinalProject.service.PlafondApplicationService;
+import com.example.loanlyFinalProject.service.ResumableUploadService;
 import com.example.loanlyFinalProject.service.StorageService;
+import com.example.loanlyFinalProject.service.WorkQueueService;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
 
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 @Tag(name = "Plafond Application", description = "Credit limit application workflow")
 @SecurityRequirement(name = "Bearer Authentication")
+@Observed(name = Observations.CONTROLLER)
 public class PlafondApplicationController {
 
   private final PlafondApplicationService applicationService;
   private final StorageService storageService;
+  private final ResumableUploadService resumableUploadService;
 
   // ========== CUSTOMER ENDPOINTS ==========
 
@@ -85,23 +102,180 @@ public class PlafondApplicationController {
       consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
   @Operation(
       summary = "Upload document (Customer)",
-      description = "Upload document for plafond application")
+      description =
+          "Upload document for plafond application. Multipart form with a 'file' part (JPEG, PNG,"
+              + " WEBP or PDF) and a 'documentType' field; the body is streamed to storage")
   @PreAuthorize("hasAnyRole('CUSTOMER', 'SUPER_ADMIN')")
   public ResponseEntity<ApiResponse<Map<String, Object>>> uploadDocument(
+      @PathVariable Long applicationId, HttpServletRequest request) {
+    PlafondDocument document = storageService.uploadPlafondDocument(applicationId, request);
+    return ResponseEntity.ok(
+        ApiResponse.success(
+            "Document uploaded successfully",
+            Map.of(
+                "documentId", document.getId(),
+                "fileUrl", storageService.signedUrl(document.getFileUrl()),
+                "documentType", document.getDocumentType().name())));
+  }
+
+  @PostMapping("/customer/plafonds/applications/{applicationId}/documents/direct")
+  @Operation(
+      summary = "Start direct document upload (Customer)",
+      description =
+          "Get a pre-signed URL to upload a document straight to object storage. The client"
+              + " declares the size, type and SHA-256, sends the bytes to the URL with the returned"
+              + " headers, then completes the upload with the ticket. 409 when direct uploads are"
+              + " not available")
+  @PreAuthorize("hasAnyRole('CUSTOMER', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<DirectUploadResponse>> startDirectUpload(
+      @RequestAttribute("userId") Long userId,
+      @PathVariable Long applicationId,
+      @Valid @RequestBody DirectUploadRequest request) {
+    DirectUploadResponse upload = storageService.startDirectUpload(userId, applicationId, request);
+    return ResponseEntity.ok(ApiResponse.success("Upload URL issued", upload));
+  }
+
+  @PostMapping("/customer/plafonds/applications/{applicationId}/documents/direct/complete")
+  @Operation(
+      summary = "Complete direct document upload (Customer)",
+      description = "Record a document uploaded with a pre-signed URL")
+  @PreAuthorize("hasAnyRole('CUSTOMER', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<Map<String, Object>>> completeDirectUpload(
+      @RequestAttribute("userId") Long userId,
       @PathVariable Long applicationId,
-      @RequestParam("file") MultipartFile file,
-      @RequestParam("documentType") PlafondDocument.DocumentType documentType) {
+      @Valid @RequestBody DirectUploadCompleteRequest request) {
     PlafondDocument document =
-        storageService.uploadPlafondDocument(applicationId, file, documentType);
+        storageService.completeDirectUpload(userId, applicationId, request.getTicket());
+    return ResponseEntity.ok(
+        ApiResponse.success(
+            "Document uploaded successfully",
+            Map.of(
+                "documentId", document.getId(),
+                "fileUrl", storageService.signedUrl(document.getFileUrl()),
+                "documentType", document.getDocumentType().name())));
+  }
+
+  @PostMapping("/customer/plafonds/applications/{applicationId}/documents/uploads")
+  @Operation(
+      summary = "Start resumable document upload (Customer)",
+      description =
+          "Start a document upload that can be resumed after a dropped connection. Send the bytes"
+              + " with PATCH to the returned Location, each chunk at the current Upload-Offset,"
+              + " then complete the upload")
+  @PreAuthorize("hasAnyRole('CUSTOMER', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<ResumableUploadResponse>> createResumableUpload(
+      @RequestAttribute("userId") Long userId,
+      @PathVariable Long applicationId,
+      @Valid @RequestBody ResumableUploadRequest request) {
+    ResumableUploadResponse upload = resumableUploadService.create(userId, applicationId, request);
+    return ResponseEntity.created(
+            URI.create(
+                "/api/customer/plafonds/applications/"
+                    + applicationId
+                    + "/documents/uploads/"
+                    + upload.getUploadId()))
+        .headers(uploadHeaders(upload))
+        .body(ApiResponse.success("Upload started", upload));
+  }
+
+  @RequestMapping(
+      value = "/customer/plafonds/applications/{applicationId}/documents/uploads/{uploadId}",
+      method = RequestMethod.HEAD)
+  @Operation(
+      summary = "Get resumable upload offset (Customer)",
+      description = "Returns the Upload-Offset the next chunk must start at")
+  @PreAuthorize("hasAnyRole('CUSTOMER', 'SUPER_ADMIN')")
+  public ResponseEntity<Void> getResumableUploadOffset(
+      @RequestAttribute("userId") Long userId,
+      @PathVariable Long applicationId,
+      @PathVariable UUID uploadId) {
+    ResumableUploadResponse upload = resumableUploadService.offset(userId, applicationId, uploadId);
+    return ResponseEntity.ok().headers(uploadHeaders(upload)).build();
+  }
+
+  @PatchMapping(
+      value = "/customer/plafonds/applications/{applicationId}/documents/uploads/{uploadId}",
+      consumes = "application/offset+octet-stream")
+  @Operation(
+      summary = "Upload document chunk (Customer)",
+      description =
+          "Append the request body at Upload-Offset, which must be the upload's current offset"
+              + " (409 otherwise). The bytes that arrive are kept even if the connection drops")
+  @PreAuthorize("hasAnyRole('CUSTOMER', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<ResumableUploadResponse>> appendResumableUpload(
+      @RequestAttribute("userId") Long userId,
+      @PathVariable Long applicationId,
+      @PathVariable UUID uploadId,
+      @RequestHeader("Upload-Offset") long offset,
+      HttpServletRequest request)
+      throws IOException {
+    ResumableUploadResponse upload =
+        resumableUploadService.append(
+            userId,
+            applicationId,
+            uploadId,
+            offset,
+            request.getContentLengthLong(),
+            request.getInputStream());
+    return ResponseEntity.ok()
+        .headers(uploadHeaders(upload))
+        .body(ApiResponse.success("Chunk uploaded", upload));
+  }
+
+  @PostMapping(
+      "/customer/plafonds/applications/{applicationId}/documents/uploads/{uploadId}/complete")
+  @Operation(
+      summary = "Complete resumable document upload (Customer)",
+      description = "Record a document once all of its bytes have been uploaded")
+  @PreAuthorize("hasAnyRole('CUSTOMER', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<Map<String, Object>>> completeResumableUpload(
+      @RequestAttribute("userId") Long userId,
+      @PathVariable Long applicationId,
+      @PathVariable UUID uploadId) {
+    PlafondDocument document = resumableUploadService.complete(userId, applicationId, uploadId);
     return ResponseEntity.ok(
         ApiResponse.success(
             "Document uploaded successfully",
             Map.of(
                 "documentId", document.getId(),
-                "fileUrl", document.getFileUrl(),
+                "fileUrl", storageService.signedUrl(document.getFileUrl()),
                 "documentType", document.getDocumentType().name())));
   }
 
+  @DeleteMapping("/customer/plafonds/applications/{applicationId}/documents/uploads/{uploadId}")
+  @Operation(
+      summary = "Cancel resumable document upload (Customer)",
+      description = "Abandon an upload and delete the bytes received so far")
+  @PreAuthorize("hasAnyRole('CUSTOMER', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<Void>> cancelResumableUpload(
+      @RequestAttribute("userId") Long userId,
+      @PathVariable Long applicationId,
+      @PathVariable UUID uploadId) {
+    resumableUploadService.cancel(userId, applicationId, uploadId);
+    return ResponseEntity.ok(ApiResponse.success("Upload cancelled"));
+  }
+
+  @DeleteMapping("/customer/plafonds/applications/{applicationId}/documents/{documentId}")
+  @Operation(
+      summary = "Remove document (Customer)",
+      description = "Remove a document from an application that is still pending review")
+  @PreAuthorize("hasAnyRole('CUSTOMER', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<Void>> deleteDocument(
+      @RequestAttribute("userId") Long userId,
+      @PathVariable Long applicationId,
+      @PathVariable Long documentId) {
+    storageService.deletePlafondDocument(userId, applicationId, documentId);
+    return ResponseEntity.ok(ApiResponse.success("Document removed"));
+  }
+
+  private static HttpHeaders uploadHeaders(ResumableUploadResponse upload) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set("Upload-Offset", Long.toString(upload.getOffset()));
+    headers.set("Upload-Length", Long.toString(upload.getLength()));
+    headers.setCacheControl(CacheControl.noStore());
+    return headers;
+  }
+
   // ========== MARKETING ENDPOINTS ==========
 
   @GetMapping("/marketing/plafond-applications/pending")
@@ -114,6 +288,33 @@ public class PlafondApplicationController {
     return ResponseEntity.ok(ApiResponse.success("Pending applications retrieved", applications));
   }
 
+  @PostMapping("/marketing/plafond-applications/claim")
+  @Operation(
+      summary = "Claim next applications (Marketing)",
+      description =
+          "Leases the next unclaimed applications waiting for review to the caller. Other"
+              + " reviewers cannot review them until the lease expires or is released")
+  @PreAuthorize("hasAnyRole('MARKETING', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<WorkQueueClaimResponse<UserPlafondResponse>>>
+      claimPendingReviewApplications(
+          @RequestAttribute("userId") Long userId, @RequestParam(defaultValue = "10") int limit) {
+    WorkQueueClaimResponse<UserPlafondResponse> claim =
+        applicationService.claimApplications(userId, WorkQueueService.Queue.PLAFOND_REVIEW, limit);
+    return ResponseEntity.ok(ApiResponse.success("Applications claimed", claim));
+  }
+
+  @PostMapping("/marketing/plafond-applications/{applicationId}/release")
+  @Operation(
+      summary = "Release claimed application (Marketing)",
+      description = "Returns a claimed application to the review queue")
+  @PreAuthorize("hasAnyRole('MARKETING', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<Void>> releasePendingReviewApplication(
+      @RequestAttribute("userId") Long userId, @PathVariable Long applicationId) {
+    applicationService.releaseApplication(
+        userId, WorkQueueService.Queue.PLAFOND_REVIEW, applicationId);
+    return ResponseEntity.ok(ApiResponse.success("Application released"));
+  }
+
   @PostMapping("/marketing/plafond-applications/review")
   @Operation(
       summary = "Review application (Marketing)",
@@ -142,6 +343,34 @@ public class PlafondApplicationController {
         ApiResponse.success("Waiting approval applications retrieved", applications));
   }
 
+  @PostMapping("/branch-manager/plafond-applications/claim")
+  @Operation(
+      summary = "Claim next applications (Branch Manager)",
+      description =
+          "Leases the next unclaimed applications waiting for approval to the caller. Other"
+              + " branch managers cannot approve them until the lease expires or is released")
+  @PreAuthorize("hasAnyRole('BRANCH_MANAGER', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<WorkQueueClaimResponse<UserPlafondResponse>>>
+      claimWaitingApprovalApplications(
+          @RequestAttribute("userId") Long userId, @RequestParam(defaultValue = "10") int limit) {
+    WorkQueueClaimResponse<UserPlafondResponse> claim =
+        applicationService.claimApplications(
+            userId, WorkQueueService.Queue.PLAFOND_APPROVAL, limit);
+    return ResponseEntity.ok(ApiResponse.success("Applications claimed", claim));
+  }
+
+  @PostMapping("/branch-manager/plafond-applications/{applicationId}/release")
+  @Operation(
+      summary = "Release claimed application (Branch Manager)",
+      description = "Returns a claimed application to the approval queue")
+  @PreAuthorize("hasAnyRole('BRANCH_MANAGER', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<Void>> releaseWaitingApprovalApplication(
+      @RequestAttribute("userId") Long userId, @PathVariable Long applicationId) {
+    applicationService.releaseApplication(
+        userId, WorkQueueService.Queue.PLAFOND_APPROVAL, applicationId);
+    return ResponseEntity.ok(ApiResponse.success("Application released"));
+  }
+
   @PostMapping("/branch-manager/plafond-applications/approve")
   @Operation(
       summary = "Approve application (Branch Manager)",
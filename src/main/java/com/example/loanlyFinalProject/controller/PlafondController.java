@@ -4,6 +4,8 @@ import com.example.loanlyFinalProject.dto.request.PlafondRequest;
 import com.example.loanlyFinalProject.dto.response.ApiResponse;
 import com.example.loanlyFinalProject.dto.response.PlafondResponse;
 import com.example.loanlyFinalProject.service.PlafondService;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 @RestController
 @RequiredArgsConstructor
 @Tag(name = "Plafond", description = "Plafond management endpoints")
+@Observed(name = Observations.CONTROLLER)
 public class PlafondController {
 
   private final PlafondService plafondService;
@@ -4,6 +4,8 @@ import com.example.loanlyFinalProject.dto.request.ChangePasswordRequest;
 import com.example.loanlyFinalProject.dto.response.ApiResponse;
 import com.example.loanlyFinalProject.entity.User;
 import com.example.loanlyFinalProject.repository.UserRepository;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,6 +25,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 @Tag(name = "Profile", description = "Generic profile management endpoints for all roles")
 @SecurityRequirement(name = "Bearer Authentication")
+@Observed(name = Observations.CONTROLLER)
 public class ProfileController {
 
   private final UserRepository userRepository;
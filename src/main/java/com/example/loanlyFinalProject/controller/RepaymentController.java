@@ -0,0 +1,113 @@
+package com.example.loanlyFinalProject.controller;
+
+import com.example.loanlyFinalProject.dto.request.PaymentRequest;
+import com.example.loanlyFinalProject.dto.response.AccrualReportResponse;
+import com.example.loanlyFinalProject.dto.response.ApiResponse;
+import com.example.loanlyFinalProject.dto.response.LoanRepaymentResponse;
+import com.example.loanlyFinalProject.dto.response.PaymentResponse;
+import com.example.loanlyFinalProject.service.InstallmentAccrualService;
+import com.example.loanlyFinalProject.service.RepaymentService;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.annotation.Observed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@Tag(name = "Repayment", description = "Installments and payments of disbursed loans")
+@SecurityRequirement(name = "Bearer Authentication")
+@Observed(name = Observations.CONTROLLER)
+public class RepaymentController {
+
+  private final RepaymentService repaymentService;
+  private final InstallmentAccrualService installmentAccrualService;
+
+  // ========== CUSTOMER ENDPOINTS ==========
+
+  @GetMapping("/customer/disbursements/{disbursementId}/repayment")
+  @Operation(
+      summary = "Get my repayment status (Customer)",
+      description = "Returns installments, payments and outstanding amount of a loan")
+  @PreAuthorize("hasAnyRole('CUSTOMER', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<LoanRepaymentResponse>> getMyRepayment(
+      @RequestAttribute("userId") Long userId, @PathVariable Long disbursementId) {
+    LoanRepaymentResponse response =
+        repaymentService.getRepaymentForCustomer(userId, disbursementId);
+    return ResponseEntity.ok(ApiResponse.success("Repayment status retrieved", response));
+  }
+
+  // ========== BACK OFFICE ENDPOINTS ==========
+
+  @GetMapping("/back-office/disbursements/{disbursementId}/repayment")
+  @Operation(
+      summary = "Get repayment status (Back Office)",
+      description = "Returns installments, payments and outstanding amount of a loan")
+  @PreAuthorize("hasAnyRole('BACK_OFFICE', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<LoanRepaymentResponse>> getRepayment(
+      @PathVariable Long disbursementId) {
+    LoanRepaymentResponse response = repaymentService.getRepayment(disbursementId);
+    return ResponseEntity.ok(ApiResponse.success("Repayment status retrieved", response));
+  }
+
+  @PostMapping("/back-office/disbursements/{disbursementId}/payments")
+  @Operation(
+      summary = "Post payment (Back Office)",
+      description =
+          "Records a received repayment. It is allocated to the oldest unpaid installments,"
+              + " penalty and interest first, and the repaid principal is returned to the credit line")
+  @PreAuthorize("hasAnyRole('BACK_OFFICE', 'SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<PaymentResponse>> postPayment(
+      @RequestAttribute("userId") Long userId,
+      @PathVariable Long disbursementId,
+      @Valid @RequestBody PaymentRequest request) {
+    PaymentResponse response = repaymentService.postPayment(userId, disbursementId, request);
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .body(ApiResponse.success("Payment has been posted", response));
+  }
+
+  // ========== ADMIN ENDPOINTS ==========
+
+  @PostMapping("/admin/installments/accrual")
+  @Operation(
+      summary = "Start end-of-day accrual (Admin)",
+      description =
+          "Starts a background run that marks unpaid installments past grace as OVERDUE and"
+              + " accrues their late penalty up to the business date (default: yesterday)")
+  @PreAuthorize("hasRole('SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<AccrualReportResponse>> startAccrual(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate businessDate) {
+    LocalDate date = businessDate != null ? businessDate : LocalDate.now().minusDays(1);
+    if (!installmentAccrualService.start(date)) {
+      return ResponseEntity.ok(
+          ApiResponse.success(
+              "Accrual is already running", installmentAccrualService.getLastReport()));
+    }
+    return ResponseEntity.ok(ApiResponse.success("Accrual started"));
+  }
+
+  @GetMapping("/admin/installments/accrual")
+  @Operation(
+      summary = "Get accrual report (Admin)",
+      description =
+          "Returns the report of the running or last finished accrual, with throughput and"
+              + " per-partition timings")
+  @PreAuthorize("hasRole('SUPER_ADMIN')")
+  public ResponseEntity<ApiResponse<AccrualReportResponse>> getAccrualReport() {
+    AccrualReportResponse report = installmentAccrualService.getLastReport();
+    if (report == null) {
+      return ResponseEntity.ok(ApiResponse.success("No accrual has run yet", null));
+    }
+    return ResponseEntity.ok(ApiResponse.success("Accrual report retrieved", report));
+  }
+}
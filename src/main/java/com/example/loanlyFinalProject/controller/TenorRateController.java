@@ -4,6 +4,8 @@ import com.example.loanlyFinalProject.dto.request.TenorRateRequest;
 import com.example.loanlyFinalProject.dto.response.ApiResponse;
 import com.example.loanlyFinalProject.dto.response.TenorRateResponse;
 import com.example.loanlyFinalProject.service.TenorRateService;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -20,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('SUPER_ADMIN')")
 @Tag(name = "Tenor Rates (Admin)", description = "Manage interest rates per plafond tier")
+@Observed(name = Observations.CONTROLLER)
 public class TenorRateController {
 
   private final TenorRateService tenorRateService;
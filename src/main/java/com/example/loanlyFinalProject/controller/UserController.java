@@ -5,6 +5,8 @@ import com.example.loanlyFinalProject.entity.Role;
 import com.example.loanlyFinalProject.entity.User;
 import com.example.loanlyFinalProject.repository.RoleRepository;
 import com.example.loanlyFinalProject.repository.UserRepository;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -29,6 +31,7 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 @Tag(name = "User Management", description = "Admin endpoints for user management")
 @SecurityRequirement(name = "Bearer Authentication")
+@Observed(name = Observations.CONTROLLER)
 public class UserController {
 
   private final UserRepository userRepository;
@@ -0,0 +1,671 @@
+package com.example.loanlyFinalProject.datagen;
+
+import com.example.loanlyFinalProject.entity.Disbursement.DisbursementStatus;
+import com.example.loanlyFinalProject.entity.Notification.NotificationType;
+import com.example.loanlyFinalProject.entity.PlafondDocument.DerivativeStatus;
+import com.example.loanlyFinalProject.entity.PlafondDocument.DocumentType;
+import com.example.loanlyFinalProject.entity.UserPlafond.PlafondApplicationStatus;
+import com.example.loanlyFinalProject.loan.LoanCalculator;
+import com.example.loanlyFinalProject.storage.ContentAddressedStore;
+import com.example.loanlyFinalProject.storage.DerivativeKind;
+import com.example.loanlyFinalProject.storage.DocumentContentType;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Produces the rows of one synthetic customer: the user, their credit line applications with review
+ * history and documents, disbursements against approved lines, and the notifications the services
+ * would have sent along the way.
+ *
+ * <p>Every value is drawn from a random stream seeded with the run seed and the customer number, so
+ * a customer comes out the same no matter which writer generates it. The shapes follow what the app
+ * sees in production: most customers hold one line, some move up a tier, and only the newest
+ * application can still be open. Disbursement counts are heavy-tailed. A line's used amount is the
+ * sum of its non-cancelled disbursements, so the generated data passes reconciliation.
+ */
+final class CustomerGenerator {
+
+  static final int MAX_APPLICATIONS = 4;
+  static final int MAX_DOCUMENTS = 4;
+  static final int MAX_DISBURSEMENTS = 6;
+
+  private static final int[] APPLICATION_COUNT_WEIGHTS = {30, 55, 10, 4, 1};
+  private static final int OPEN_WINDOW_DAYS = 14;
+  private static final BigDecimal MIN_DISBURSEMENT = new BigDecimal("500000");
+  private static final BigDecimal DISBURSEMENT_STEP = new BigDecimal("50000");
+
+  private static final String[] FIRST_NAMES = {
+    "Andi", "Budi", "Citra", "Dewi", "Eko", "Fitri", "Gilang", "Hana", "Indra", "Joko", "Kartika",
+    "Lestari", "Made", "Nur", "Putri", "Rizky", "Sari", "Teguh", "Wahyu", "Yuni"
+  };
+  private static final String[] LAST_NAMES = {
+    "Pratama",
+    "Santoso",
+    "Wijaya",
+    "Saputra",
+    "Hidayat",
+    "Kusuma",
+    "Nugroho",
+    "Lestari",
+    "Siregar",
+    "Simanjuntak",
+    "Gunawan",
+    "Setiawan",
+    "Halim",
+    "Susanto",
+    "Rahmawati"
+  };
+  private static final String[] CITIES = {
+    "Jakarta",
+    "Surabaya",
+    "Bandung",
+    "Medan",
+    "Semarang",
+    "Makassar",
+    "Palembang",
+    "Yogyakarta",
+    "Denpasar",
+    "Balikpapan"
+  };
+  private static final double[][] CITY_COORDINATES = {
+    {-6.2088, 106.8456}, {-7.2575, 112.7521}, {-6.9175, 107.6191}, {3.5952, 98.6722},
+    {-6.9667, 110.4167}, {-5.1477, 119.4327}, {-2.9761, 104.7754}, {-7.7956, 110.3695},
+    {-8.6705, 115.2126}, {-1.2379, 116.8529}
+  };
+  private static final String[] OCCUPATIONS = {
+    "Karyawan Swasta",
+    "Pegawai Negeri",
+    "Wiraswasta",
+    "Guru",
+    "Perawat",
+    "Pedagang",
+    "Driver Online"
+  };
+  private static final String[] MARITAL_STATUSES = {"BELUM_MENIKAH", "MENIKAH", "CERAI"};
+  private static final String[] BANKS = {"BCA", "BRI", "BNI", "Mandiri", "BSI", "CIMB Niaga"};
+  private static final DocumentContentType[] DOCUMENT_CONTENT_TYPES = {
+    DocumentContentType.JPEG, DocumentContentType.PDF, DocumentContentType.PNG
+  };
+  private static final int[] DOCUMENT_CONTENT_TYPE_WEIGHTS = {70, 20, 10};
+  private static final String[] REJECTION_NOTES = {
+    "Dokumen tidak lengkap", "Penghasilan tidak memenuhi syarat", "Data tidak sesuai dengan KTP"
+  };
+
+  private final ReferenceData reference;
+  private final long seed;
+  private final int days;
+  private final Map<GeneratedTable, Long> idBase;
+
+  CustomerGenerator(
+      ReferenceData reference, long seed, int days, Map<GeneratedTable, Long> idBase) {
+    this.reference = reference;
+    this.seed = seed;
+    this.days = days;
+    this.idBase = idBase;
+  }
+
+  /** Plafond tier with the tenors that can be drawn against it. */
+  record PlafondTier(long id, String name, BigDecimal maxAmount, List<TenorOption> tenors) {}
+
+  record TenorOption(int tenorMonth, BigDecimal interestRate) {}
+
+  /** Rows the generator refers to but does not create, read once before the run. */
+  record ReferenceData(
+      List<PlafondTier> plafonds,
+      long customerRoleId,
+      long marketingUserId,
+      long branchManagerUserId,
+      long backOfficeUserId,
+      String passwordHash,
+      LocalDateTime now) {}
+
+  /** Rows of one or more customers, per table, in column order of {@link GeneratedTable}. */
+  static final class Rows {
+    private final Map<GeneratedTable, List<Object[]>> byTable = new EnumMap<>(GeneratedTable.class);
+
+    Rows() {
+      for (GeneratedTable table : GeneratedTable.values()) {
+        byTable.put(table, new ArrayList<>());
+      }
+    }
+
+    List<Object[]> of(GeneratedTable table) {
+      return byTable.get(table);
+    }
+
+    void add(GeneratedTable table, Object... values) {
+      byTable.get(table).add(values);
+    }
+
+    int size() {
+      return byTable.values().stream().mapToInt(List::size).sum();
+    }
+  }
+
+  /**
+   * Scrambles a seed. SplittableRandom streams whose seeds differ by a multiple of its increment
+   * overlap, which sequential customer numbers would otherwise run into.
+   */
+  private static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /** Appends the rows of customer {@code customer} (0-based within this run) to {@code out}. */
+  void generate(long customer, Rows out) {
+    new Customer(customer, out).generate();
+  }
+
+  private final class Customer {
+    private final long customer;
+    private final Rows out;
+    private final SplittableRandom random;
+    private final long userId;
+    private final int[] used = new int[GeneratedTable.values().length];
+
+    private Customer(long customer, Rows out) {
+      this.customer = customer;
+      this.out = out;
+      this.userId = nextId(GeneratedTable.USERS);
+      // Keyed on the user id, so a second run on the same database does not repeat the first
+      this.random = new SplittableRandom(mix64(seed ^ mix64(userId)));
+    }
+
+    private void generate() {
+      LocalDateTime now = reference.now();
+      // Sign-ups grow over time: more customers joined recently than at the start of the window
+      long spreadMinutes = days * 24L * 60L;
+      LocalDateTime createdAt =
+          now.minusMinutes((long) (spreadMinutes * (1 - Math.sqrt(random.nextDouble()))));
+
+      String firstName = pick(FIRST_NAMES);
+      String lastName = pick(LAST_NAMES);
+      String username = "customer" + userId;
+      String phone = "08" + digits(10);
+      out.add(
+          GeneratedTable.USERS,
+          userId,
+          username,
+          username + "@loanly.test",
+          reference.passwordHash(),
+          firstName + " " + lastName,
+          phone,
+          true,
+          createdAt,
+          createdAt,
+          null);
+      out.add(GeneratedTable.USER_ROLES, userId, reference.customerRoleId());
+
+      Profile profile = new Profile(phone, createdAt);
+      int applications = weighted(APPLICATION_COUNT_WEIGHTS);
+      List<PlafondTier> plafonds = reference.plafonds();
+      // Most customers start on the smallest tier and move up one tier per new application
+      int tier = random.nextInt(100) < 70 ? 0 : random.nextInt(Math.min(2, plafonds.size()));
+      LocalDateTime cursor = createdAt.plusMinutes(random.nextLong(3 * 24 * 60));
+      for (int i = 0; i < applications && cursor.isBefore(now); i++) {
+        boolean last = i == applications - 1;
+        PlafondTier plafond = plafonds.get(Math.min(tier + i, plafonds.size() - 1));
+        cursor = application(plafond, profile, cursor, last);
+        cursor = cursor.plusDays(30 + random.nextInt(240));
+      }
+    }
+
+    /** Writes one application and everything hanging off it; returns when it was settled. */
+    private LocalDateTime application(
+        PlafondTier plafond, Profile profile, LocalDateTime registeredAt, boolean last) {
+      LocalDateTime now = reference.now();
+      long applicationId = nextId(GeneratedTable.USER_PLAFONDS);
+
+      // Only the newest application may still be in the review queue
+      boolean recent = registeredAt.isAfter(now.minusDays(OPEN_WINDOW_DAYS));
+      PlafondApplicationStatus status;
+      if (last && recent) {
+        status =
+            switch (weighted(6, 4, 72, 18)) {
+              case 0 -> PlafondApplicationStatus.PENDING_REVIEW;
+              case 1 -> PlafondApplicationStatus.WAITING_APPROVAL;
+              case 2 -> PlafondApplicationStatus.APPROVED;
+              default -> PlafondApplicationStatus.REJECTED;
+            };
+      } else {
+        status =
+            random.nextInt(100) < 85
+                ? PlafondApplicationStatus.APPROVED
+                : PlafondApplicationStatus.REJECTED;
+      }
+      boolean rejectedByMarketing =
+          status == PlafondApplicationStatus.REJECTED && random.nextBoolean();
+
+      history(
+          applicationId,
+          PlafondApplicationStatus.PENDING_REVIEW,
+          PlafondApplicationStatus.PENDING_REVIEW,
+          userId,
+          "CUSTOMER",
+          "Application submitted",
+          registeredAt);
+      notification(
+          "Pengajuan Limit Kredit Diterima",
+          "Pengajuan limit kredit Anda untuk " + plafond.name() + " sedang dalam proses review.",
+          NotificationType.LOAN_SUBMITTED,
+          applicationId,
+          registeredAt);
+      documents(applicationId, registeredAt);
+
+      LocalDateTime settledAt = registeredAt;
+      Long reviewedBy = null;
+      LocalDateTime reviewedAt = null;
+      Long approvedBy = null;
+      LocalDateTime approvedAt = null;
+      BigDecimal approvedLimit = null;
+      String rejectionNote = null;
+      if (status != PlafondApplicationStatus.PENDING_REVIEW) {
+        settledAt = clamp(registeredAt.plusMinutes(120 + random.nextLong(3 * 24 * 60)));
+        if (rejectedByMarketing) {
+          rejectionNote = pick(REJECTION_NOTES);
+          history(
+              applicationId,
+              PlafondApplicationStatus.PENDING_REVIEW,
+              PlafondApplicationStatus.REJECTED,
+              reference.marketingUserId(),
+              "MARKETING",
+              rejectionNote,
+              settledAt);
+          notification(
+              "Pengajuan Ditolak",
+              "Mohon maaf, pengajuan limit kredit Anda tidak memenuhi kriteria. " + rejectionNote,
+              NotificationType.LOAN_REJECTED,
+              applicationId,
+              settledAt);
+        } else {
+          reviewedBy = reference.marketingUserId();
+          reviewedAt = settledAt;
+          history(
+              applicationId,
+              PlafondApplicationStatus.PENDING_REVIEW,
+              PlafondApplicationStatus.WAITING_APPROVAL,
+              reviewedBy,
+              "MARKETING",
+              "Dokumen lengkap",
+              reviewedAt);
+          notification(
+              "Pengajuan Disetujui Marketing",
+              "Pengajuan limit kredit Anda telah diverifikasi dan menunggu persetujuan final.",
+              NotificationType.LOAN_REVIEWED,
+              applicationId,
+              reviewedAt);
+        }
+      }
+      if (status == PlafondApplicationStatus.APPROVED
+          || (status == PlafondApplicationStatus.REJECTED && !rejectedByMarketing)) {
+        settledAt = clamp(settledAt.plusMinutes(60 + random.nextLong(2 * 24 * 60)));
+        if (status == PlafondApplicationStatus.APPROVED) {
+          approvedBy = reference.branchManagerUserId();
+          approvedAt = settledAt;
+          approvedLimit = approvedLimit(plafond.maxAmount());
+          history(
+              applicationId,
+              PlafondApplicationStatus.WAITING_APPROVAL,
+              PlafondApplicationStatus.APPROVED,
+              approvedBy,
+              "BRANCH_MANAGER",
+              "Disetujui",
+              approvedAt);
+          notification(
+              "Limit Kredit Disetujui!",
+              "Selamat! Anda mendapat limit kredit sebesar Rp "
+                  + approvedLimit
+                  + ". Anda dapat melakukan pencairan kapan saja.",
+              NotificationType.LOAN_APPROVED,
+              applicationId,
+              approvedAt);
+        } else {
+          rejectionNote = pick(REJECTION_NOTES);
+          history(
+              applicationId,
+              PlafondApplicationStatus.WAITING_APPROVAL,
+              PlafondApplicationStatus.REJECTED,
+              reference.branchManagerUserId(),
+              "BRANCH_MANAGER",
+              rejectionNote,
+              settledAt);
+          notification(
+              "Pengajuan Ditolak",
+              "Mohon maaf, pengajuan limit kredit Anda tidak disetujui. " + rejectionNote,
+              NotificationType.LOAN_REJECTED,
+              applicationId,
+              settledAt);
+        }
+      }
+
+      BigDecimal usedAmount = BigDecimal.ZERO.setScale(2);
+      if (approvedLimit != null) {
+        usedAmount = disbursements(applicationId, plafond, approvedLimit, approvedAt);
+      }
+
+      double[] city = CITY_COORDINATES[profile.city];
+      out.add(
+          GeneratedTable.USER_PLAFONDS,
+          applicationId,
+          0L,
+          userId,
+          plafond.id(),
+          registeredAt,
+          status.name(),
+          approvedLimit,
+          usedAmount,
+          reviewedBy,
+          approvedBy,
+          reviewedAt,
+          approvedAt,
+          rejectionNote,
+          profile.nik,
+          CITIES[profile.birthCity],
+          profile.birthDate,
+          profile.maritalStatus,
+          profile.occupation,
+          profile.monthlyIncome,
+          profile.phone,
+          profile.npwp,
+          profile.bankName,
+          profile.accountNumber,
+          coordinate(city[0]),
+          coordinate(city[1]));
+      return settledAt;
+    }
+
+    /** Draws against an approved line; returns the line's used amount. */
+    private BigDecimal disbursements(
+        long applicationId, PlafondTier plafond, BigDecimal limit, LocalDateTime approvedAt) {
+      LocalDateTime now = reference.now();
+      // Heavy tail: many lines are never drawn or drawn once, a few are drawn repeatedly
+      int count = 0;
+      if (random.nextInt(100) >= 15) {
+        count = 1;
+        while (count < MAX_DISBURSEMENTS && random.nextDouble() < 0.45) {
+          count++;
+        }
+      }
+      BigDecimal used = BigDecimal.ZERO.setScale(2);
+      LocalDateTime requestedAt = approvedAt;
+      for (int i = 0; i < count; i++) {
+        requestedAt = requestedAt.plusMinutes((long) (-Math.log(1 - random.nextDouble()) * 43_200));
+        BigDecimal remaining = limit.subtract(used);
+        if (!requestedAt.isBefore(now) || remaining.compareTo(MIN_DISBURSEMENT) < 0) {
+          break;
+        }
+        BigDecimal amount =
+            remaining
+                .multiply(BigDecimal.valueOf(0.1 + random.nextDouble() * 0.5))
+                .divide(DISBURSEMENT_STEP, 0, RoundingMode.DOWN)
+                .multiply(DISBURSEMENT_STEP)
+                .max(MIN_DISBURSEMENT)
+                .setScale(2);
+        TenorOption tenor = plafond.tenors().get(random.nextInt(plafond.tenors().size()));
+        BigDecimal interest =
+            LoanCalculator.fromMinorUnits(
+                LoanCalculator.flatInterest(
+                    LoanCalculator.toMinorUnits(amount),
+                    LoanCalculator.toBasisPoints(tenor.interestRate()),
+                    tenor.tenorMonth()));
+        BigDecimal total = amount.add(interest);
+
+        DisbursementStatus status;
+        if (requestedAt.isAfter(now.minusDays(3)) && random.nextInt(100) < 60) {
+          status = DisbursementStatus.PENDING;
+        } else {
+          status =
+              random.nextInt(100) < 92
+                  ? DisbursementStatus.DISBURSED
+                  : DisbursementStatus.CANCELLED;
+        }
+        long disbursementId = nextId(GeneratedTable.DISBURSEMENTS);
+        LocalDateTime settledAt =
+            status == DisbursementStatus.PENDING
+                ? null
+                : clamp(requestedAt.plusMinutes(60 + random.nextLong(2 * 24 * 60)));
+        String note =
+            status == DisbursementStatus.CANCELLED ? "Dibatalkan atas permintaan nasabah" : null;
+        double[] city = CITY_COORDINATES[random.nextInt(CITY_COORDINATES.length)];
+        out.add(
+            GeneratedTable.DISBURSEMENTS,
+            disbursementId,
+            0L,
+            applicationId,
+            amount,
+            tenor.interestRate(),
+            tenor.tenorMonth(),
+            interest,
+            total,
+            status.name(),
+            requestedAt,
+            status == DisbursementStatus.DISBURSED ? settledAt : null,
+            status == DisbursementStatus.DISBURSED ? reference.backOfficeUserId() : null,
+            note,
+            coordinate(city[0]),
+            coordinate(city[1]));
+
+        notification(
+            "Permintaan Pencairan Dikirim",
+            "Pencairan sebesar Rp "
+                + amount
+                + " dengan tenor "
+                + tenor.tenorMonth()
+                + " bulan sedang diproses. Total yang harus dibayar: Rp "
+                + total,
+            NotificationType.LOAN_SUBMITTED,
+            disbursementId,
+            requestedAt);
+        if (status == DisbursementStatus.DISBURSED) {
+          notification(
+              "Dana Telah Dicairkan!",
+              "Pencairan sebesar Rp "
+                  + amount
+                  + " telah berhasil diproses. Total yang harus dibayar: Rp "
+                  + total,
+              NotificationType.LOAN_DISBURSED,
+              disbursementId,
+              settledAt);
+        } else if (status == DisbursementStatus.CANCELLED) {
+          notification(
+              "Pencairan Dibatalkan",
+              "Pencairan sebesar Rp " + amount + " dibatalkan. Alasan: " + note,
+              NotificationType.LOAN_REJECTED,
+              disbursementId,
+              settledAt);
+        }
+        if (status != DisbursementStatus.CANCELLED) {
+          used = used.add(amount);
+        }
+      }
+      return used;
+    }
+
+    private void documents(long applicationId, LocalDateTime uploadedAt) {
+      documentRow(applicationId, DocumentType.KTP, uploadedAt);
+      documentRow(applicationId, DocumentType.SLIP_GAJI, uploadedAt);
+      if (random.nextBoolean()) {
+        documentRow(applicationId, DocumentType.KK, uploadedAt);
+      }
+      if (random.nextInt(100) < 40) {
+        documentRow(applicationId, DocumentType.NPWP, uploadedAt);
+      }
+    }
+
+    private void documentRow(long applicationId, DocumentType type, LocalDateTime uploadedAt) {
+      DocumentContentType contentType =
+          DOCUMENT_CONTENT_TYPES[weighted(DOCUMENT_CONTENT_TYPE_WEIGHTS)];
+      // Phone photos and scans: log-normal around 600 KB, capped below the upload limit
+      long size = Math.min(4_500_000L, Math.max(20_000L, (long) Math.exp(13.3 + 0.6 * gaussian())));
+      String sha256 = sha256();
+      out.add(
+          GeneratedTable.DOCUMENT_BLOBS, sha256, contentType.getMimeType(), size, 1, uploadedAt);
+      out.add(
+          GeneratedTable.PLAFOND_DOCUMENTS,
+          nextId(GeneratedTable.PLAFOND_DOCUMENTS),
+          applicationId,
+          type.name(),
+          ContentAddressedStore.relativePath(sha256, contentType),
+          type.name().toLowerCase() + contentType.getExtension(),
+          contentType.getMimeType(),
+          size,
+          sha256,
+          ContentAddressedStore.derivativePath(sha256, DerivativeKind.PREVIEW),
+          ContentAddressedStore.derivativePath(sha256, DerivativeKind.THUMBNAIL),
+          DerivativeStatus.READY.name(),
+          uploadedAt);
+    }
+
+    private void history(
+        long applicationId,
+        PlafondApplicationStatus previous,
+        PlafondApplicationStatus next,
+        long actorId,
+        String role,
+        String note,
+        LocalDateTime at) {
+      out.add(
+          GeneratedTable.PLAFOND_HISTORIES,
+          nextId(GeneratedTable.PLAFOND_HISTORIES),
+          applicationId,
+          previous.name(),
+          next.name(),
+          actorId,
+          role,
+          note,
+          at);
+    }
+
+    private void notification(
+        String title, String message, NotificationType type, long referenceId, LocalDateTime at) {
+      LocalDateTime now = reference.now();
+      // Old notifications have mostly been opened, fresh ones mostly not
+      boolean old = at.isBefore(now.minusDays(7));
+      boolean read = random.nextInt(100) < (old ? 90 : 40);
+      LocalDateTime readAt = read ? clamp(at.plusMinutes(5 + random.nextLong(2 * 24 * 60))) : null;
+      out.add(
+          GeneratedTable.NOTIFICATIONS,
+          nextId(GeneratedTable.NOTIFICATIONS),
+          userId,
+          title,
+          message,
+          type.name(),
+          referenceId,
+          read,
+          at,
+          readAt);
+    }
+
+    private long nextId(GeneratedTable table) {
+      int n = used[table.ordinal()]++;
+      if (n >= table.slotsPerCustomer) {
+        throw new IllegalStateException(
+            "Customer " + customer + " ran out of " + table.tableName + " id slots");
+      }
+      return idBase.get(table) + customer * table.slotsPerCustomer + n + 1;
+    }
+
+    private BigDecimal approvedLimit(BigDecimal maxAmount) {
+      double factor =
+          switch (weighted(70, 20, 10)) {
+            case 0 -> 1.0;
+            case 1 -> 0.75;
+            default -> 0.5;
+          };
+      return maxAmount
+          .multiply(BigDecimal.valueOf(factor))
+          .divide(DISBURSEMENT_STEP, 0, RoundingMode.DOWN)
+          .multiply(DISBURSEMENT_STEP)
+          .setScale(2);
+    }
+
+    private LocalDateTime clamp(LocalDateTime at) {
+      return at.isAfter(reference.now()) ? reference.now() : at;
+    }
+
+    private BigDecimal coordinate(double center) {
+      return BigDecimal.valueOf(center + (random.nextDouble() - 0.5) * 0.2)
+          .setScale(7, RoundingMode.HALF_UP);
+    }
+
+    private String sha256() {
+      StringBuilder hex = new StringBuilder(64);
+      for (int i = 0; i < 4; i++) {
+        String word = Long.toHexString(random.nextLong());
+        hex.append("0".repeat(16 - word.length())).append(word);
+      }
+      return hex.toString();
+    }
+
+    private String digits(int length) {
+      StringBuilder digits = new StringBuilder(length);
+      for (int i = 0; i < length; i++) {
+        digits.append((char) ('0' + random.nextInt(10)));
+      }
+      return digits.toString();
+    }
+
+    private double gaussian() {
+      // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+      return Math.sqrt(-2 * Math.log(1 - random.nextDouble()))
+          * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private String pick(String[] values) {
+      return values[random.nextInt(values.length)];
+    }
+
+    private int weighted(int... weights) {
+      int total = 0;
+      for (int weight : weights) {
+        total += weight;
+      }
+      int draw = random.nextInt(total);
+      for (int i = 0; i < weights.length; i++) {
+        draw -= weights[i];
+        if (draw < 0) {
+          return i;
+        }
+      }
+      return weights.length - 1;
+    }
+
+    /** Applicant details, shared by all applications of the customer. */
+    private final class Profile {
+      final String nik = digits(16);
+      final int birthCity = random.nextInt(CITIES.length);
+      final int city = random.nextInt(CITIES.length);
+      final LocalDate birthDate;
+      final String maritalStatus = pick(MARITAL_STATUSES);
+      final String occupation = pick(OCCUPATIONS);
+      final BigDecimal monthlyIncome;
+      final String phone;
+      final String npwp = random.nextInt(100) < 40 ? digits(15) : null;
+      final String bankName = pick(BANKS);
+      final String accountNumber = digits(10);
+
+      Profile(String phone, LocalDateTime createdAt) {
+        this.phone = phone;
+        this.birthDate =
+            createdAt
+                .toLocalDate()
+                .minusYears(21 + random.nextInt(40))
+                .minusDays(random.nextInt(365));
+        // Log-normal around Rp 7 juta
+        this.monthlyIncome =
+            BigDecimal.valueOf(Math.max(2_500_000L, (long) Math.exp(15.76 + 0.55 * gaussian())))
+                .divide(BigDecimal.valueOf(100_000), 0, RoundingMode.DOWN)
+                .multiply(BigDecimal.valueOf(100_000))
+                .setScale(2);
+      }
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.example.loanlyFinalProject.datagen;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Settings of the synthetic data generator ({@code datagen.*}). */
+@ConfigurationProperties(prefix = "datagen")
+@Getter
+@Setter
+public class DataGeneratorProperties {
+
+  /** Customers to create; each brings about 15 rows across the tables. */
+  private int customers = 100_000;
+
+  /** Same seed and starting database, same rows, however many writers run. */
+  private long seed = 42;
+
+  /** Parallel writers, each on its own connection. */
+  private int writers = 4;
+
+  /** Customers per transaction; their rows go out as one JDBC batch per table. */
+  private int chunkSize = 500;
+
+  /** Registrations are spread over this many days before now, weighted towards recent ones. */
+  private int days = 730;
+
+  /** Password of every generated customer (hashed once). */
+  private String customerPassword = "Customer@123";
+}
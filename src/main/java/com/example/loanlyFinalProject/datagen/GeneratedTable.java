@@ -0,0 +1,137 @@
+package com.example.loanlyFinalProject.datagen;
+
+import java.util.List;
+
+/**
+ * Tables the generator fills, in foreign key order. Identity ids are assigned by the generator, not
+ * the database: each customer owns a fixed slot range per table ({@link #slotsPerCustomer}), so a
+ * customer's rows are the same whichever writer produces them and in whatever order. Unused slots
+ * leave gaps in the ids.
+ */
+enum GeneratedTable {
+  USERS(
+      "users",
+      1,
+      "id",
+      "username",
+      "email",
+      "password",
+      "full_name",
+      "phone",
+      "is_active",
+      "created_at",
+      "updated_at",
+      "fcm_token"),
+  USER_ROLES("user_roles", 0, "user_id", "role_id"),
+  USER_PLAFONDS(
+      "user_plafonds",
+      CustomerGenerator.MAX_APPLICATIONS,
+      "id",
+      "version",
+      "user_id",
+      "plafond_id",
+      "registered_at",
+      "status",
+      "approved_limit",
+      "used_amount",
+      "reviewed_by",
+      "approved_by",
+      "reviewed_at",
+      "approved_at",
+      "rejection_note",
+      "nik",
+      "birth_place",
+      "birth_date",
+      "marital_status",
+      "occupation",
+      "monthly_income",
+      "phone",
+      "npwp",
+      "bank_name",
+      "account_number",
+      "application_latitude",
+      "application_longitude"),
+  PLAFOND_HISTORIES(
+      "plafond_histories",
+      CustomerGenerator.MAX_APPLICATIONS * 3,
+      "id",
+      "user_plafond_id",
+      "previous_status",
+      "new_status",
+      "action_by_user_id",
+      "action_by_role",
+      "note",
+      "created_at"),
+  DOCUMENT_BLOBS(
+      "document_blobs", 0, "sha256", "content_type", "size_bytes", "ref_count", "created_at"),
+  PLAFOND_DOCUMENTS(
+      "plafond_documents",
+      CustomerGenerator.MAX_APPLICATIONS * CustomerGenerator.MAX_DOCUMENTS,
+      "id",
+      "user_plafond_id",
+      "document_type",
+      "file_url",
+      "file_name",
+      "content_type",
+      "size_bytes",
+      "content_sha256",
+      "preview_url",
+      "thumbnail_url",
+      "derivative_status",
+      "uploaded_at"),
+  DISBURSEMENTS(
+      "disbursements",
+      CustomerGenerator.MAX_APPLICATIONS * CustomerGenerator.MAX_DISBURSEMENTS,
+      "id",
+      "version",
+      "user_plafond_id",
+      "amount",
+      "interest_rate",
+      "tenor_month",
+      "interest_amount",
+      "total_amount",
+      "status",
+      "requested_at",
+      "disbursed_at",
+      "disbursed_by",
+      "note",
+      "request_latitude",
+      "request_longitude"),
+  NOTIFICATIONS(
+      "notifications",
+      // Up to three per application, two per disbursement (requested, then settled)
+      CustomerGenerator.MAX_APPLICATIONS * (3 + 2 * CustomerGenerator.MAX_DISBURSEMENTS),
+      "id",
+      "user_id",
+      "title",
+      "message",
+      "notification_type",
+      "reference_id",
+      "is_read",
+      "created_at",
+      "read_at");
+
+  final String tableName;
+  final int slotsPerCustomer; // 0 = no identity column
+  final List<String> columns;
+
+  GeneratedTable(String tableName, int slotsPerCustomer, String... columns) {
+    this.tableName = tableName;
+    this.slotsPerCustomer = slotsPerCustomer;
+    this.columns = List.of(columns);
+  }
+
+  boolean hasIdentity() {
+    return slotsPerCustomer > 0;
+  }
+
+  String insertSql() {
+    return "INSERT INTO "
+        + tableName
+        + " ("
+        + String.join(", ", columns)
+        + ") VALUES ("
+        + String.join(", ", columns.stream().map(c -> "?").toList())
+        + ")";
+  }
+}
@@ -0,0 +1,342 @@
+package com.example.loanlyFinalProject.datagen;
+
+import com.example.loanlyFinalProject.datagen.CustomerGenerator.PlafondTier;
+import com.example.loanlyFinalProject.datagen.CustomerGenerator.ReferenceData;
+import com.example.loanlyFinalProject.datagen.CustomerGenerator.Rows;
+import com.example.loanlyFinalProject.datagen.CustomerGenerator.TenorOption;
+import com.example.loanlyFinalProject.datasource.WorkloadContext;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the database with production-sized synthetic data for performance work.
+ *
+ * <p>Runs once the app has started (so roles, staff users, plafonds and tenor rates exist), then
+ * exits:
+ *
+ * <pre>
+ *   mvn -Pdatagen -Dspring-boot.run.arguments=--datagen.customers=500000
+ *   java -jar app.jar --spring.profiles.active=datagen --datagen.customers=500000
+ * </pre>
+ *
+ * The first form writes to a file-based H2 database under {@code target/datagen}; the second to
+ * whatever {@code spring.datasource.url} points at. Rows bypass JPA: customers are split into
+ * chunks that parallel writers take in turn, and each chunk goes out as one JDBC batch per table in
+ * a single transaction. Ids are assigned here, above the current maximum of each table (see {@link
+ * GeneratedTable}), so the writers never wait on each other and the same seed always gives the same
+ * rows.
+ *
+ * <p>On SQL Server, add {@code useBulkCopyForBatchInsert=true} to the JDBC URL to have the driver
+ * turn the batches into bulk copies.
+ */
+@Component
+@Profile("datagen")
+@EnableConfigurationProperties(DataGeneratorProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataGenerator {
+
+  private final DataGeneratorProperties properties;
+  private final DataSource dataSource;
+  private final PasswordEncoder passwordEncoder;
+  private final ApplicationContext context;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    int exitCode = 0;
+    try {
+      generate();
+    } catch (RuntimeException e) {
+      log.error("Data generation failed", e);
+      exitCode = 1;
+    }
+    int code = exitCode;
+    System.exit(SpringApplication.exit(context, () -> code));
+  }
+
+  /**
+   * Generates {@code datagen.customers} customers on top of what the database already holds.
+   *
+   * @return rows written
+   */
+  public long generate() {
+    WorkloadType previous = WorkloadContext.enter(WorkloadType.BACKGROUND_JOBS);
+    try {
+      Map<GeneratedTable, Long> idBase = new EnumMap<>(GeneratedTable.class);
+      ReferenceData reference;
+      boolean sqlServer;
+      try (Connection connection = dataSource.getConnection()) {
+        sqlServer = connection.getMetaData().getDatabaseProductName().contains("SQL Server");
+        reference = loadReferenceData(connection);
+        for (GeneratedTable table : GeneratedTable.values()) {
+          if (table.hasIdentity()) {
+            idBase.put(table, maxId(connection, table));
+          }
+        }
+      }
+      CustomerGenerator generator =
+          new CustomerGenerator(reference, properties.getSeed(), properties.getDays(), idBase);
+      long rows = write(generator, sqlServer);
+      if (!sqlServer) {
+        restartIdentities();
+      }
+      return rows;
+    } catch (SQLException e) {
+      throw new IllegalStateException("Data generation failed", e);
+    } finally {
+      WorkloadContext.restore(previous);
+    }
+  }
+
+  // ========== Writers ==========
+
+  private long write(CustomerGenerator generator, boolean sqlServer) {
+    int customers = properties.getCustomers();
+    int chunkSize = properties.getChunkSize();
+    int chunks = (customers + chunkSize - 1) / chunkSize;
+    int writers = Math.max(1, Math.min(properties.getWriters(), chunks));
+    AtomicInteger nextChunk = new AtomicInteger();
+    AtomicLong written = new AtomicLong();
+    AtomicInteger customersDone = new AtomicInteger();
+    long started = System.nanoTime();
+
+    log.info(
+        "Generating {} customers in {} chunks with {} writers (seed {})",
+        customers,
+        chunks,
+        writers,
+        properties.getSeed());
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            writers,
+            runnable -> {
+              Thread thread = new Thread(runnable, "datagen-writer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int w = 0; w < writers; w++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  WorkloadType previous = WorkloadContext.enter(WorkloadType.BACKGROUND_JOBS);
+                  try (Connection connection = dataSource.getConnection()) {
+                    connection.setAutoCommit(false);
+                    int chunk;
+                    while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                      int from = chunk * chunkSize;
+                      int to = Math.min(customers, from + chunkSize);
+                      Rows rows = new Rows();
+                      for (int customer = from; customer < to; customer++) {
+                        generator.generate(customer, rows);
+                      }
+                      insert(connection, rows, sqlServer);
+                      connection.commit();
+                      long total = written.addAndGet(rows.size());
+                      int done = customersDone.addAndGet(to - from);
+                      logProgress(done, customers, total, started);
+                    }
+                  } finally {
+                    WorkloadContext.restore(previous);
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Data generation interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Data generation failed", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+
+    double seconds = (System.nanoTime() - started) / 1e9;
+    log.info(
+        "Generated {} customers, {} rows in {}s ({} rows/s)",
+        customers,
+        written.get(),
+        String.format("%.1f", seconds),
+        Math.round(written.get() / Math.max(seconds, 0.001)));
+    return written.get();
+  }
+
+  private void insert(Connection connection, Rows rows, boolean sqlServer) throws SQLException {
+    for (GeneratedTable table : GeneratedTable.values()) {
+      List<Object[]> tableRows = rows.of(table);
+      if (tableRows.isEmpty()) {
+        continue;
+      }
+      // IDENTITY_INSERT is per session, and only one table per session may have it on
+      boolean explicitIdentity = sqlServer && table.hasIdentity();
+      if (explicitIdentity) {
+        execute(connection, "SET IDENTITY_INSERT " + table.tableName + " ON");
+      }
+      try (PreparedStatement statement = connection.prepareStatement(table.insertSql())) {
+        for (Object[] row : tableRows) {
+          for (int i = 0; i < row.length; i++) {
+            statement.setObject(i + 1, row[i]);
+          }
+          statement.addBatch();
+        }
+        statement.executeBatch();
+      } finally {
+        if (explicitIdentity) {
+          execute(connection, "SET IDENTITY_INSERT " + table.tableName + " OFF");
+        }
+      }
+    }
+  }
+
+  private void logProgress(int done, int customers, long rows, long started) {
+    int chunkSize = properties.getChunkSize();
+    // Roughly every 5%, and at the end
+    int step = Math.max(chunkSize, customers / 20 / chunkSize * chunkSize);
+    if (done % step < chunkSize || done == customers) {
+      double seconds = (System.nanoTime() - started) / 1e9;
+      log.info(
+          "Generated {}/{} customers, {} rows ({} rows/s)",
+          done,
+          customers,
+          rows,
+          Math.round(rows / Math.max(seconds, 0.001)));
+    }
+  }
+
+  // ========== Reference data ==========
+
+  private ReferenceData loadReferenceData(Connection connection) throws SQLException {
+    List<PlafondTier> plafonds = new ArrayList<>();
+    // Booleans are bound, not written as 1: H2 does not compare BOOLEAN with INTEGER
+    try (PreparedStatement statement =
+        connection.prepareStatement(
+            "SELECT id, name, max_amount FROM plafonds"
+                + " WHERE is_active = ? AND deleted_at IS NULL ORDER BY max_amount, id")) {
+      statement.setBoolean(1, true);
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          long id = rs.getLong(1);
+          List<TenorOption> tenors = tenors(connection, id);
+          if (!tenors.isEmpty()) {
+            plafonds.add(new PlafondTier(id, rs.getString(2), rs.getBigDecimal(3), tenors));
+          }
+        }
+      }
+    }
+    if (plafonds.isEmpty()) {
+      throw new IllegalStateException("No active plafond with tenor rates to generate against");
+    }
+    return new ReferenceData(
+        List.copyOf(plafonds),
+        roleId(connection, "CUSTOMER"),
+        userWithRole(connection, "MARKETING"),
+        userWithRole(connection, "BRANCH_MANAGER"),
+        userWithRole(connection, "BACK_OFFICE"),
+        passwordEncoder.encode(properties.getCustomerPassword()),
+        // Whole days, so that runs on the same day produce the same rows
+        LocalDate.now().atStartOfDay());
+  }
+
+  private List<TenorOption> tenors(Connection connection, long plafondId) throws SQLException {
+    List<TenorOption> tenors = new ArrayList<>();
+    try (PreparedStatement statement =
+        connection.prepareStatement(
+            "SELECT tenor_month, interest_rate FROM tenor_rates"
+                + " WHERE plafond_id = ? AND is_active = ? ORDER BY tenor_month")) {
+      statement.setLong(1, plafondId);
+      statement.setBoolean(2, true);
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          tenors.add(new TenorOption(rs.getInt(1), rs.getBigDecimal(2)));
+        }
+      }
+    }
+    return tenors;
+  }
+
+  private long roleId(Connection connection, String role) throws SQLException {
+    return single(connection, "SELECT id FROM roles WHERE name = ?", role);
+  }
+
+  private long userWithRole(Connection connection, String role) throws SQLException {
+    return single(
+        connection,
+        "SELECT MIN(ur.user_id) FROM user_roles ur JOIN roles r ON r.id = ur.role_id"
+            + " WHERE r.name = ?",
+        role);
+  }
+
+  private long single(Connection connection, String sql, String parameter) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setString(1, parameter);
+      try (ResultSet rs = statement.executeQuery()) {
+        if (!rs.next() || rs.getObject(1) == null) {
+          throw new IllegalStateException("Missing reference row for " + parameter);
+        }
+        return rs.getLong(1);
+      }
+    }
+  }
+
+  private long maxId(Connection connection, GeneratedTable table) throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("SELECT MAX(id) FROM " + table.tableName)) {
+      rs.next();
+      BigDecimal max = rs.getBigDecimal(1);
+      return max == null ? 0 : max.longValue();
+    }
+  }
+
+  // ========== Identity columns ==========
+
+  /** H2 identities do not move past explicitly inserted ids; SQL Server's do. */
+  private void restartIdentities() throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      for (GeneratedTable table : GeneratedTable.values()) {
+        if (table.hasIdentity()) {
+          long next = maxId(connection, table) + 1;
+          execute(
+              connection,
+              "ALTER TABLE " + table.tableName + " ALTER COLUMN id RESTART WITH " + next);
+        }
+      }
+    }
+  }
+
+  private static void execute(Connection connection, String sql) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package com.example.loanlyFinalProject.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Applies a default fetch size to every statement created on this data source. JDBC drivers have no
+ * pool-wide setting for it, so connections are wrapped and each new statement is adjusted.
+ */
+public class FetchSizeDataSource extends DelegatingDataSource {
+
+  private final int fetchSize;
+
+  public FetchSizeDataSource(DataSource target, int fetchSize) {
+    super(target);
+    this.fetchSize = fetchSize;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrap(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return wrap(super.getConnection(username, password));
+  }
+
+  private Connection wrap(Connection connection) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              Object result;
+              try {
+                result = method.invoke(connection, args);
+              } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+              }
+              if (result instanceof Statement statement) {
+                statement.setFetchSize(fetchSize);
+              }
+              return result;
+            });
+  }
+}
@@ -0,0 +1,114 @@
+package com.example.loanlyFinalProject.datasource;
+
+import com.example.loanlyFinalProject.tracing.Dependency;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Times connection checkouts ({@link Dependency#POOL}, observed as {@link
+ * Observations#JDBC_CONNECTION}) and statement executions ({@link Dependency#DB}, observed as
+ * {@link Observations#JDBC_QUERY} with the SQL as a span attribute). Connections and statements are
+ * wrapped like in {@link FetchSizeDataSource}; reading a result set is not timed.
+ */
+public class ObservedDataSource extends DelegatingDataSource {
+
+  private final ObservationRegistry observationRegistry;
+  private final StatementListener statementListener;
+
+  public ObservedDataSource(
+      DataSource target,
+      ObservationRegistry observationRegistry,
+      StatementListener statementListener) {
+    super(target);
+    this.observationRegistry = observationRegistry;
+    this.statementListener = statementListener;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrap(
+        Dependency.POOL.call(
+            Observation.createNotStarted(Observations.JDBC_CONNECTION, observationRegistry),
+            () -> super.getConnection()));
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return wrap(
+        Dependency.POOL.call(
+            Observation.createNotStarted(Observations.JDBC_CONNECTION, observationRegistry),
+            () -> super.getConnection(username, password)));
+  }
+
+  private Connection wrap(Connection connection) {
+    return (Connection)
+        proxy(
+            Connection.class,
+            connection,
+            (method, args) -> {
+              Object result = invoke(method, connection, args);
+              if (result instanceof Statement statement) {
+                String sql =
+                    args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return proxy(method.getReturnType(), statement, observeExecutions(statement, sql));
+              }
+              return result;
+            });
+  }
+
+  private Invocation observeExecutions(Statement statement, String preparedSql) {
+    return (method, args) -> {
+      if (!method.getName().startsWith("execute")) {
+        return invoke(method, statement, args);
+      }
+      String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+      Observation observation =
+          Observation.createNotStarted(Observations.JDBC_QUERY, observationRegistry)
+              .contextualName("jdbc " + method.getName())
+              .lowCardinalityKeyValue("jdbc.operation", method.getName());
+      if (sql != null && !observation.isNoop()) {
+        observation.highCardinalityKeyValue("db.statement", sql);
+      }
+      long start = System.nanoTime();
+      try {
+        return Dependency.DB.call(observation, () -> invoke(method, statement, args));
+      } finally {
+        statementListener.executed(sql, System.nanoTime() - start);
+      }
+    };
+  }
+
+  private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+
+  private static Object proxy(Class<?> type, Object target, Invocation invocation) {
+    return Proxy.newProxyInstance(
+        type.getClassLoader(),
+        new Class<?>[] {type},
+        (proxy, method, args) ->
+            switch (method.getName()) {
+              case "equals" -> proxy == args[0];
+              case "hashCode" -> System.identityHashCode(proxy);
+              default -> invocation.invoke(method, args);
+            });
+  }
+
+  @FunctionalInterface
+  private interface Invocation {
+    Object invoke(Method method, Object[] args) throws Throwable;
+  }
+}
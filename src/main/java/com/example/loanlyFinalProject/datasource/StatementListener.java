@@ -0,0 +1,14 @@
+package com.example.loanlyFinalProject.datasource;
+
+/** Told about every statement executed through {@link ObservedDataSource}. */
+@FunctionalInterface
+public interface StatementListener {
+
+  StatementListener NONE = (sql, elapsedNanos) -> {};
+
+  /**
+   * Called on the executing thread once the statement returns or fails. {@code sql} is null for
+   * batches of plain statements, whose SQL is not known.
+   */
+  void executed(String sql, long elapsedNanos);
+}
@@ -0,0 +1,24 @@
+package com.example.loanlyFinalProject.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the workload class of a service method (or every method of a service). Connections
+ * obtained while the method runs are taken from the matching pool. Unannotated code runs on the
+ * OLTP pool.
+ *
+ * <p>The workload must be chosen before the transaction opens its connection, so annotate the
+ * outermost service method of a call chain; an inner annotation cannot move a transaction that is
+ * already bound to a connection.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Workload {
+
+  WorkloadType value();
+}
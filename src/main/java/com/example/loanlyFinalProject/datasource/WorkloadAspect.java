@@ -0,0 +1,49 @@
+package com.example.loanlyFinalProject.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link Workload} annotations. Runs before the transaction interceptor so that the
+ * connection opened for a {@code @Transactional} method already comes from the right pool.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadAspect {
+
+  @Around(
+      "@within(com.example.loanlyFinalProject.datasource.Workload)"
+          + " || @annotation(com.example.loanlyFinalProject.datasource.Workload)")
+  public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+    Workload workload = findWorkload(joinPoint);
+    if (workload == null) {
+      return joinPoint.proceed();
+    }
+
+    WorkloadType previous = WorkloadContext.enter(workload.value());
+    try {
+      return joinPoint.proceed();
+    } finally {
+      WorkloadContext.restore(previous);
+    }
+  }
+
+  private Workload findWorkload(ProceedingJoinPoint joinPoint) {
+    MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+    Workload workload =
+        AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), Workload.class);
+    if (workload == null) {
+      workload =
+          AnnotatedElementUtils.findMergedAnnotation(
+              joinPoint.getTarget().getClass(), Workload.class);
+    }
+    return workload;
+  }
+}
@@ -0,0 +1,33 @@
+package com.example.loanlyFinalProject.datasource;
+
+/** Holds the workload class of the current thread. */
+public final class WorkloadContext {
+
+  private static final ThreadLocal<WorkloadType> CURRENT = new ThreadLocal<>();
+
+  private WorkloadContext() {}
+
+  public static WorkloadType current() {
+    WorkloadType type = CURRENT.get();
+    return type != null ? type : WorkloadType.OLTP;
+  }
+
+  /**
+   * Switch the current thread to the given workload.
+   *
+   * @return the previous value, to be handed back to {@link #restore(WorkloadType)}
+   */
+  public static WorkloadType enter(WorkloadType type) {
+    WorkloadType previous = CURRENT.get();
+    CURRENT.set(type);
+    return previous;
+  }
+
+  public static void restore(WorkloadType previous) {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+}
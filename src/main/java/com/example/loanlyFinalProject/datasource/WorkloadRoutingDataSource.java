@@ -0,0 +1,12 @@
+package com.example.loanlyFinalProject.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/** Routes {@code getConnection()} to the pool of the current {@link WorkloadContext}. */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return WorkloadContext.current();
+  }
+}
@@ -0,0 +1,8 @@
+package com.example.loanlyFinalProject.datasource;
+
+/** Workload classes, each backed by its own connection pool. */
+public enum WorkloadType {
+  OLTP, // Customer-facing reads and writes (default)
+  REPORTING, // Large staff reads, history screens and exports
+  BACKGROUND_JOBS // Scheduled and batch jobs
+}
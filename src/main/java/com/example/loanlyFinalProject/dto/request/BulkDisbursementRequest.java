@@ -0,0 +1,19 @@
+package com.example.loanlyFinalProject.dto.request;
+
+import jakarta.validation.constraints.*;
+import java.util.List;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDisbursementRequest {
+
+  @NotEmpty(message = "At least one disbursement ID is required")
+  private List<@NotNull Long> disbursementIds;
+
+  @Size(max = 255, message = "Note must not exceed 255 characters")
+  private String note;
+}
@@ -0,0 +1,15 @@
+package com.example.loanlyFinalProject.dto.request;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DirectUploadCompleteRequest {
+
+  @NotBlank(message = "Upload ticket is required")
+  private String ticket; // From the DirectUploadResponse
+}
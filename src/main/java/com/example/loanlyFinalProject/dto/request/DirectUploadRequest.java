@@ -0,0 +1,31 @@
+package com.example.loanlyFinalProject.dto.request;
+
+import com.example.loanlyFinalProject.entity.PlafondDocument;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+/** A document the client is about to upload straight to object storage. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DirectUploadRequest {
+
+  @NotNull(message = "Document type is required")
+  private PlafondDocument.DocumentType documentType;
+
+  @Size(max = 100, message = "File name must not exceed 100 characters")
+  private String fileName;
+
+  @NotBlank(message = "Content type is required")
+  private String contentType;
+
+  @NotNull(message = "Size is required")
+  @Positive(message = "Size must be positive")
+  private Long sizeBytes;
+
+  @NotBlank(message = "SHA-256 is required")
+  @Pattern(regexp = "[0-9a-f]{64}", message = "SHA-256 must be 64 lowercase hex digits")
+  private String sha256;
+}
@@ -21,6 +21,7 @@ public class DisbursementRequest {
 
   @NotNull(message = "Amount is required")
   @DecimalMin(value = "0", inclusive = false, message = "Amount must be positive")
+  @Digits(integer = 16, fraction = 2, message = "Amount must have at most 2 decimal places")
   private BigDecimal amount;
 
   @NotNull(message = "Tenor is required")
@@ -0,0 +1,24 @@
+package com.example.loanlyFinalProject.dto.request;
+
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentRequest {
+
+  @NotNull(message = "Amount is required")
+  @DecimalMin(value = "0", inclusive = false, message = "Amount must be positive")
+  @Digits(integer = 16, fraction = 2, message = "Amount must have at most 2 decimal places")
+  private BigDecimal amount;
+
+  @Size(max = 100, message = "Reference must not exceed 100 characters")
+  private String reference; // Bank transfer reference
+
+  @Size(max = 255, message = "Note must not exceed 255 characters")
+  private String note;
+}
@@ -0,0 +1,24 @@
+package com.example.loanlyFinalProject.dto.request;
+
+import com.example.loanlyFinalProject.entity.PlafondDocument;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+/** A document the client is about to upload in chunks. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumableUploadRequest {
+
+  @NotNull(message = "Document type is required")
+  private PlafondDocument.DocumentType documentType;
+
+  @Size(max = 100, message = "File name must not exceed 100 characters")
+  private String fileName;
+
+  @NotNull(message = "Size is required")
+  @Positive(message = "Size must be positive")
+  private Long sizeBytes;
+}
@@ -0,0 +1,44 @@
+package com.example.loanlyFinalProject.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccrualReportResponse {
+
+  private String status; // RUNNING, COMPLETED, FAILED
+  private LocalDate businessDate;
+  private LocalDateTime startedAt;
+  private LocalDateTime finishedAt;
+  private boolean resumed; // Continued from checkpoints of an interrupted run
+  private int partitions;
+
+  private long installmentsScanned; // Including installments scanned before a resume
+  private long installmentsAccrued;
+  private long markedOverdue; // SCHEDULED/DUE installments the due-date scheduler had missed
+  private BigDecimal penaltyAccrued;
+  private double rowsPerSecond;
+  private boolean withinWindow;
+  private String error;
+
+  private List<PartitionTiming> partitionTimings;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class PartitionTiming {
+    private String partition;
+    private long installmentsScanned; // In this run only
+    private long installmentsAccrued;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+  }
+}
@@ -0,0 +1,34 @@
+package com.example.loanlyFinalProject.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.*;
+
+/** Outcome of a bulk disbursement run; the transfers become the bank bulk-transfer file. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDisbursementResult {
+
+  private Long batchId; // Fetches the transfer file again; null if nothing was processed
+  private int processedCount;
+  private BigDecimal totalAmount;
+  private List<Long> skippedIds; // Not found, not PENDING, or no bank account on the credit line
+
+  private List<BankTransfer> transfers; // Ordered by bank name, then disbursement id
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class BankTransfer {
+    private Long disbursementId;
+    private String bankName;
+    private String accountNumber;
+    private String accountName;
+    private BigDecimal amount;
+    private String reference;
+  }
+}
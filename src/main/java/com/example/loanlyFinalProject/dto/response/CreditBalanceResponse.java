@@ -0,0 +1,24 @@
+package com.example.loanlyFinalProject.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreditBalanceResponse {
+
+  private Long userPlafondId;
+  private LocalDateTime asOf;
+  private BigDecimal usedAmount; // Replayed used amount as of asOf
+
+  // Replay details
+  private LocalDateTime checkpointAsOf; // null = replayed from the first entry
+  private BigDecimal checkpointUsedAmount;
+  private long entriesReplayed;
+
+  private BigDecimal currentUsedAmount; // Snapshot stored on the credit line
+}
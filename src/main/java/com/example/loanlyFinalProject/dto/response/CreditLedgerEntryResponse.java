@@ -0,0 +1,21 @@
+package com.example.loanlyFinalProject.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreditLedgerEntryResponse {
+
+  private Long id;
+  private String entryType;
+  private BigDecimal amount;
+  private BigDecimal usedAmountAfter;
+  private Long disbursementId;
+  private String note;
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,23 @@
+package com.example.loanlyFinalProject.dto.response;
+
+import java.time.Instant;
+import java.util.Map;
+import lombok.*;
+
+/**
+ * Where to send a document's bytes. The client sends them with {@code method} to {@code uploadUrl},
+ * with exactly these headers, before {@code expiresAt}, then completes the upload with the ticket.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DirectUploadResponse {
+
+  private String uploadUrl;
+  private String method;
+  private Map<String, String> headers;
+  private Instant expiresAt;
+  private String ticket;
+}
@@ -0,0 +1,44 @@
+package com.example.loanlyFinalProject.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DisbursementQuoteResponse {
+
+  private Long userPlafondId;
+  private String plafondName;
+
+  // Loan terms
+  private BigDecimal amount;
+  private BigDecimal interestRate; // Monthly, in percent
+  private Integer tenorMonth;
+  private String interestType; // FLAT or ANNUITY
+
+  // Totals
+  private BigDecimal interestAmount;
+  private BigDecimal totalAmount;
+  private BigDecimal firstInstallment;
+
+  private BigDecimal availableLimit;
+  private boolean withinAvailableLimit;
+
+  private List<Installment> installments;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Installment {
+    private int installmentNumber;
+    private BigDecimal principal;
+    private BigDecimal interest;
+    private BigDecimal payment;
+    private BigDecimal remainingBalance;
+  }
+}
@@ -0,0 +1,28 @@
+package com.example.loanlyFinalProject.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InstallmentResponse {
+
+  private Long id;
+  private Integer installmentNumber;
+  private LocalDate dueDate;
+
+  private BigDecimal principalAmount;
+  private BigDecimal interestAmount;
+  private BigDecimal penaltyAmount; // Accrued late-payment penalty
+  private BigDecimal amountDue;
+  private BigDecimal paidAmount;
+  private BigDecimal outstandingAmount;
+
+  private String status;
+  private LocalDateTime paidAt;
+}
@@ -0,0 +1,27 @@
+package com.example.loanlyFinalProject.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoanRepaymentResponse {
+
+  private Long disbursementId;
+  private BigDecimal amount;
+  private BigDecimal totalAmount; // Principal + interest
+
+  private BigDecimal paidAmount;
+  private BigDecimal outstandingPrincipal;
+  private BigDecimal outstandingAmount;
+  private LocalDate nextDueDate; // null = fully paid
+  private long overdueInstallments;
+
+  private List<InstallmentResponse> installments;
+  private List<PaymentResponse> payments;
+}
@@ -0,0 +1,28 @@
+package com.example.loanlyFinalProject.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentResponse {
+
+  private Long id;
+  private Long disbursementId;
+  private BigDecimal amount;
+  private BigDecimal principalAmount; // Returned to the credit line
+  private BigDecimal interestAmount;
+  private BigDecimal penaltyAmount;
+  private String reference;
+  private String note;
+  private String recordedByUsername;
+  private LocalDateTime paidAt;
+
+  // Loan state after this payment
+  private BigDecimal outstandingAmount;
+  private BigDecimal remainingLimit;
+}
@@ -0,0 +1,41 @@
+package com.example.loanlyFinalProject.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationReportResponse {
+
+  private String status; // RUNNING, COMPLETED, FAILED
+  private LocalDateTime startedAt;
+  private LocalDateTime finishedAt;
+  private boolean resumed; // Continued from checkpoints of an interrupted run
+  private boolean autoCorrect;
+  private int partitions;
+
+  private long linesChecked; // Including lines checked before a resume
+  private long mismatchCount;
+  private long correctedCount;
+  private BigDecimal netDrift; // Sum of (usedAmount - expectedAmount) over mismatches
+  private String error;
+
+  private List<Mismatch> samples; // First mismatches found, capped
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Mismatch {
+    private Long userPlafondId;
+    private BigDecimal usedAmount;
+    private BigDecimal expectedAmount; // Non-cancelled disbursements - repaid principal
+    private BigDecimal difference;
+    private boolean corrected;
+  }
+}
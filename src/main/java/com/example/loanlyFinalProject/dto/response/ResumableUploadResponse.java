@@ -0,0 +1,21 @@
+package com.example.loanlyFinalProject.dto.response;
+
+import java.time.LocalDateTime;
+import lombok.*;
+
+/**
+ * A resumable upload's progress. The client sends the rest of the document from {@code offset}, in
+ * as many chunks as it likes, before {@code expiresAt}, then completes the upload.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumableUploadResponse {
+
+  private String uploadId;
+  private long offset;
+  private long length;
+  private LocalDateTime expiresAt;
+}
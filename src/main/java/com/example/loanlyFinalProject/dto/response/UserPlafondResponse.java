@@ -84,7 +84,9 @@ public class UserPlafondResponse {
   public static class DocumentInfo {
     private Long id;
     private String documentType;
-    private String fileUrl;
+    private String fileUrl; // Signed, expires after app.document.url-ttl-seconds
+    private String previewUrl; // Signed; null until rendered
+    private String thumbnailUrl; // Signed; null until rendered
     private String fileName;
     private LocalDateTime uploadedAt;
   }
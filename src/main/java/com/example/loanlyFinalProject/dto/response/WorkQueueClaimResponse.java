@@ -0,0 +1,18 @@
+package com.example.loanlyFinalProject.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.*;
+
+/** Items leased to the caller by a work-queue claim, oldest first. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkQueueClaimResponse<T> {
+
+  private Long claimedBy;
+  private LocalDateTime leaseExpiresAt; // Unfinished items return to the queue after this
+  private List<T> items;
+}
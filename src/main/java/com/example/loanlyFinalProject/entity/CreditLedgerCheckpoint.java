@@ -0,0 +1,53 @@
+package com.example.loanlyFinalProject.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.*;
+
+/**
+ * Used amount of a credit line at {@code asOf}, so that replaying a balance only needs the ledger
+ * entries written after the latest checkpoint.
+ */
+@Entity
+@Table(
+    name = "credit_ledger_checkpoints",
+    indexes = {
+      @Index(name = "ix_credit_checkpoints_line_as_of", columnList = "user_plafond_id, as_of"),
+      @Index(name = "ix_credit_checkpoints_as_of", columnList = "as_of")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreditLedgerCheckpoint {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "credit_checkpoint_seq")
+  @SequenceGenerator(
+      name = "credit_checkpoint_seq",
+      sequenceName = "credit_checkpoint_seq",
+      allocationSize = 50)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "user_plafond_id", nullable = false)
+  @JsonIgnore
+  private UserPlafond userPlafond;
+
+  @Column(name = "as_of", nullable = false)
+  private LocalDateTime asOf;
+
+  @Column(name = "used_amount", nullable = false, precision = 18, scale = 2)
+  private BigDecimal usedAmount;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @PrePersist
+  protected void onCreate() {
+    createdAt = LocalDateTime.now();
+  }
+}
@@ -0,0 +1,80 @@
+package com.example.loanlyFinalProject.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.*;
+
+/**
+ * Append-only record of every change to a credit line's used amount. Rows are never updated or
+ * deleted; {@link UserPlafond#getUsedAmount()} is the running snapshot of these entries.
+ */
+@Entity
+@Table(
+    name = "credit_ledger_entries",
+    indexes = {
+      @Index(name = "ix_credit_ledger_line_created", columnList = "user_plafond_id, created_at"),
+      @Index(name = "ix_credit_ledger_created", columnList = "created_at")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreditLedgerEntry {
+
+  // Sequence (not IDENTITY) so that Hibernate can batch the inserts
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "credit_ledger_seq")
+  @SequenceGenerator(
+      name = "credit_ledger_seq",
+      sequenceName = "credit_ledger_seq",
+      allocationSize = 50)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "user_plafond_id", nullable = false, updatable = false)
+  @JsonIgnore
+  private UserPlafond userPlafond;
+
+  @Column(name = "entry_type", nullable = false, length = 20, updatable = false)
+  @Enumerated(EnumType.STRING)
+  private EntryType entryType;
+
+  // Signed change applied to used_amount (positive = more credit in use)
+  @Column(nullable = false, precision = 18, scale = 2, updatable = false)
+  private BigDecimal amount;
+
+  @Column(
+      name = "used_amount_after",
+      nullable = false,
+      precision = 18,
+      scale = 2,
+      updatable = false)
+  private BigDecimal usedAmountAfter;
+
+  @Column(name = "disbursement_id", updatable = false)
+  private Long disbursementId;
+
+  @Column(length = 255, updatable = false)
+  private String note;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @PrePersist
+  protected void onCreate() {
+    if (createdAt == null) {
+      createdAt = LocalDateTime.now();
+    }
+  }
+
+  public enum EntryType {
+    RESERVE, // Limit reserved for a new disbursement request
+    RELEASE, // Reserved limit returned (cancelled disbursement)
+    DISBURSE, // Reserved limit paid out; no change to used amount
+    ADJUST, // Manual or reconciliation correction
+    REPAYMENT // Repaid principal returned to the line
+  }
+}
@@ -4,10 +4,21 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 import lombok.*;
 
 @Entity
-@Table(name = "disbursements")
+@Table(
+    name = "disbursements",
+    indexes = {
+      @Index(name = "ix_disbursements_status_requested", columnList = "status, requested_at"),
+      @Index(
+          name = "ix_disbursements_user_plafond_requested",
+          columnList = "user_plafond_id, requested_at"),
+      @Index(name = "ix_disbursements_batch", columnList = "batch_id")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,6 +30,9 @@ public class Disbursement {
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
+  // Optimistic lock for the processing fields; status itself moves by compare-and-set
+  @Version private Long version;
+
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "user_plafond_id", nullable = false)
   @JsonIgnore
@@ -39,7 +53,9 @@ public class Disbursement {
   @Column(name = "total_amount", nullable = false, precision = 18, scale = 2)
   private BigDecimal totalAmount;
 
-  @Column(nullable = false, length = 30)
+  // Only changed through DisbursementRepository.transitionStatus (or the bulk UPDATE), along the
+  // transition table
+  @Column(nullable = false, length = 30, updatable = false)
   @Enumerated(EnumType.STRING)
   @Builder.Default
   private DisbursementStatus status = DisbursementStatus.PENDING;
@@ -58,6 +74,19 @@ public class Disbursement {
   @Column(length = 255)
   private String note;
 
+  // Bulk run that paid it out (DisbursementBatch); only written by the bulk UPDATE
+  @Column(name = "batch_id", insertable = false, updatable = false)
+  private Long batchId;
+
+  // ========== WORK QUEUE LEASE ==========
+
+  // Staff member holding the item; only written by WorkQueueService
+  @Column(name = "lease_owner_id", insertable = false, updatable = false)
+  private Long leaseOwnerId;
+
+  @Column(name = "lease_expires_at", insertable = false, updatable = false)
+  private LocalDateTime leaseExpiresAt;
+
   // ========== LOCATION TRACKING ==========
 
   @Column(name = "request_latitude", precision = 10, scale = 7)
@@ -77,6 +106,16 @@ public class Disbursement {
   public enum DisbursementStatus {
     PENDING, // Waiting for Back Office to process
     DISBURSED, // Successfully disbursed
-    CANCELLED // Cancelled
+    CANCELLED; // Cancelled
+
+    private static final Map<DisbursementStatus, Set<DisbursementStatus>> TRANSITIONS =
+        Map.of(
+            PENDING, EnumSet.of(DISBURSED, CANCELLED),
+            DISBURSED, EnumSet.noneOf(DisbursementStatus.class),
+            CANCELLED, EnumSet.noneOf(DisbursementStatus.class));
+
+    public boolean canTransitionTo(DisbursementStatus target) {
+      return TRANSITIONS.get(this).contains(target);
+    }
   }
 }
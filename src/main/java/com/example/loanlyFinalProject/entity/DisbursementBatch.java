@@ -0,0 +1,42 @@
+package com.example.loanlyFinalProject.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.*;
+
+/**
+ * One bulk disbursement run. The disbursements it paid out point back to it through {@code
+ * batch_id}, so its bank transfer file can be generated again if the response carrying it was lost.
+ */
+@Entity
+@Table(name = "disbursement_batches")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DisbursementBatch {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "processed_by", nullable = false)
+  @JsonIgnore
+  private User processedBy;
+
+  @Column(length = 255)
+  private String note;
+
+  @Column(name = "processed_count", nullable = false)
+  private Integer processedCount;
+
+  @Column(name = "total_amount", nullable = false, precision = 18, scale = 2)
+  private BigDecimal totalAmount;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,44 @@
+package com.example.loanlyFinalProject.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+
+/**
+ * One stored file in the content-addressed document store, shared by every {@link PlafondDocument}
+ * with the same {@code contentSha256}. Rows are maintained by {@code ContentAddressedStore} with
+ * plain SQL: {@code refCount} is the number of documents using the blob, and a blob that has had no
+ * references since {@code unreferencedAt} is removed by its GC after a grace period.
+ */
+@Entity
+@Table(
+    name = "document_blobs",
+    indexes = {
+      @Index(name = "ix_document_blobs_unreferenced", columnList = "ref_count, unreferenced_at")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentBlob {
+
+  @Id
+  @Column(length = 64)
+  private String sha256;
+
+  @Column(name = "content_type", nullable = false, length = 100)
+  private String contentType;
+
+  @Column(name = "size_bytes", nullable = false)
+  private Long sizeBytes;
+
+  @Column(name = "ref_count", nullable = false)
+  private Integer refCount;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "unreferenced_at")
+  private LocalDateTime unreferencedAt;
+}
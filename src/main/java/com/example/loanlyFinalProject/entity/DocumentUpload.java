@@ -0,0 +1,61 @@
+package com.example.loanlyFinalProject.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+
+/**
+ * A resumable document upload in progress. Rows are maintained by {@code ResumableUploadService}
+ * with plain SQL: {@code offsetBytes} counts the bytes of the part file that are durable, and a
+ * chunk is only appended while holding the {@code lockToken} lease. Rows are deleted when the
+ * upload completes, is cancelled, or passes {@code expiresAt}.
+ */
+@Entity
+@Table(
+    name = "document_uploads",
+    indexes = {
+      @Index(name = "ix_document_uploads_user", columnList = "user_id, expires_at"),
+      @Index(name = "ix_document_uploads_expires", columnList = "expires_at")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentUpload {
+
+  @Id
+  @Column(length = 36)
+  private String id;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Column(name = "user_plafond_id", nullable = false)
+  private Long userPlafondId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "document_type", nullable = false, length = 30)
+  private PlafondDocument.DocumentType documentType;
+
+  @Column(name = "file_name", length = 100)
+  private String fileName;
+
+  @Column(name = "length_bytes", nullable = false)
+  private Long lengthBytes;
+
+  @Column(name = "offset_bytes", nullable = false)
+  private Long offsetBytes;
+
+  @Column(name = "lock_token", length = 36)
+  private String lockToken;
+
+  @Column(name = "locked_until")
+  private LocalDateTime lockedUntil;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "expires_at", nullable = false)
+  private LocalDateTime expiresAt;
+}
@@ -0,0 +1,47 @@
+package com.example.loanlyFinalProject.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+
+/**
+ * Idempotency-Key record; the authoritative copy, Redis only caches completed ones. Rows are
+ * written by {@code DatabaseIdempotencyStore} and purged after {@code expiresAt}.
+ */
+@Entity
+@Table(
+    name = "idempotency_keys",
+    indexes = {@Index(name = "ix_idempotency_keys_expires", columnList = "expires_at")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+
+  @Id
+  @Column(name = "record_key", length = 300)
+  private String recordKey; // "<userId>:<Idempotency-Key>"
+
+  @Column(nullable = false, length = 20)
+  private String status; // IN_FLIGHT, COMPLETED
+
+  @Column(name = "request_hash", nullable = false, length = 64)
+  private String requestHash;
+
+  @Column(name = "response_status")
+  private Integer responseStatus;
+
+  @Column(name = "content_type", length = 100)
+  private String contentType;
+
+  @Lob
+  @Column(name = "response_body")
+  private byte[] responseBody;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "expires_at", nullable = false)
+  private LocalDateTime expiresAt;
+}
@@ -0,0 +1,132 @@
+package com.example.loanlyFinalProject.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+
+/**
+ * One monthly installment of a disbursed loan. Status changes by the due-date scheduler and the
+ * end-of-day accrual are conditional bulk updates, so entity updates only write the columns they
+ * changed.
+ */
+@Entity
+@DynamicUpdate
+@Table(
+    name = "installments",
+    uniqueConstraints = {
+      @UniqueConstraint(
+          name = "uk_installments_disbursement_number",
+          columnNames = {"disbursement_id", "installment_number"})
+    },
+    indexes = {@Index(name = "ix_installments_status_due", columnList = "status, due_date")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Installment {
+
+  // Sequence (not IDENTITY) so that a whole schedule is inserted as one JDBC batch
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "installment_seq")
+  @SequenceGenerator(
+      name = "installment_seq",
+      sequenceName = "installment_seq",
+      allocationSize = 50)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "disbursement_id", nullable = false, updatable = false)
+  @JsonIgnore
+  private Disbursement disbursement;
+
+  @Column(name = "installment_number", nullable = false, updatable = false)
+  private Integer installmentNumber;
+
+  @Column(name = "due_date", nullable = false)
+  private LocalDate dueDate;
+
+  @Column(name = "principal_amount", nullable = false, precision = 18, scale = 2)
+  private BigDecimal principalAmount;
+
+  @Column(name = "interest_amount", nullable = false, precision = 18, scale = 2)
+  private BigDecimal interestAmount;
+
+  @Column(name = "amount_due", nullable = false, precision = 18, scale = 2)
+  private BigDecimal amountDue; // principal + interest
+
+  @Column(name = "paid_principal", nullable = false, precision = 18, scale = 2)
+  @Builder.Default
+  private BigDecimal paidPrincipal = BigDecimal.ZERO;
+
+  @Column(name = "paid_interest", nullable = false, precision = 18, scale = 2)
+  @Builder.Default
+  private BigDecimal paidInterest = BigDecimal.ZERO;
+
+  // Late-payment penalty, accrued daily by InstallmentAccrualService
+  @Column(name = "penalty_amount", nullable = false, precision = 18, scale = 2)
+  @Builder.Default
+  private BigDecimal penaltyAmount = BigDecimal.ZERO;
+
+  @Column(name = "paid_penalty", nullable = false, precision = 18, scale = 2)
+  @Builder.Default
+  private BigDecimal paidPenalty = BigDecimal.ZERO;
+
+  @Column(name = "penalty_accrued_through")
+  private LocalDate penaltyAccruedThrough; // Last business date included in penaltyAmount
+
+  @Column(nullable = false, length = 20)
+  @Enumerated(EnumType.STRING)
+  @Builder.Default
+  private InstallmentStatus status = InstallmentStatus.SCHEDULED;
+
+  @Column(name = "reminder_sent_at")
+  private LocalDateTime reminderSentAt;
+
+  @Column(name = "paid_at")
+  private LocalDateTime paidAt;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "updated_at")
+  private LocalDateTime updatedAt;
+
+  @PrePersist
+  protected void onCreate() {
+    createdAt = LocalDateTime.now();
+    updatedAt = createdAt;
+  }
+
+  @PreUpdate
+  protected void onUpdate() {
+    updatedAt = LocalDateTime.now();
+  }
+
+  public BigDecimal getOutstandingPrincipal() {
+    return principalAmount.subtract(paidPrincipal);
+  }
+
+  public BigDecimal getOutstandingInterest() {
+    return interestAmount.subtract(paidInterest);
+  }
+
+  public BigDecimal getOutstandingPenalty() {
+    return penaltyAmount.subtract(paidPenalty);
+  }
+
+  public BigDecimal getOutstandingAmount() {
+    return getOutstandingPrincipal().add(getOutstandingInterest()).add(getOutstandingPenalty());
+  }
+
+  public enum InstallmentStatus {
+    SCHEDULED, // Not due yet
+    DUE, // Due date reached
+    OVERDUE, // Grace period passed without full payment
+    PAID // Fully paid
+  }
+}
@@ -0,0 +1,55 @@
+package com.example.loanlyFinalProject.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+
+/**
+ * Progress of one partition of a resumable batch job. A partition covers the id range ({@code
+ * lastProcessedId}, {@code rangeEnd}]; {@code lastProcessedId} moves forward after every committed
+ * chunk, so a restarted job continues where it stopped.
+ */
+@Entity
+@Table(name = "job_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobCheckpoint {
+
+  @Id
+  @Column(name = "job_name", length = 100)
+  private String jobName; // "<job>/<partition>"
+
+  @Column(name = "range_end", nullable = false)
+  private Long rangeEnd;
+
+  @Column(name = "last_processed_id", nullable = false)
+  private Long lastProcessedId;
+
+  @Column(name = "processed_count", nullable = false)
+  @Builder.Default
+  private Long processedCount = 0L;
+
+  @Column(name = "started_at", nullable = false, updatable = false)
+  private LocalDateTime startedAt;
+
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+
+  @PrePersist
+  protected void onCreate() {
+    startedAt = LocalDateTime.now();
+    updatedAt = startedAt;
+  }
+
+  @PreUpdate
+  protected void onUpdate() {
+    updatedAt = LocalDateTime.now();
+  }
+
+  public boolean isFinished() {
+    return lastProcessedId >= rangeEnd;
+  }
+}
@@ -6,7 +6,13 @@ import java.time.LocalDateTime;
 import lombok.*;
 
 @Entity
-@Table(name = "notifications")
+@Table(
+    name = "notifications",
+    indexes = {
+      @Index(
+          name = "ix_notifications_user_read_created",
+          columnList = "user_id, is_read, created_at")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -57,6 +63,10 @@ public class Notification {
     LOAN_APPROVED,
     LOAN_REJECTED,
     LOAN_DISBURSED,
+    PAYMENT_REMINDER,
+    PAYMENT_DUE,
+    PAYMENT_OVERDUE,
+    PAYMENT_RECEIVED,
     SYSTEM
   }
 }
@@ -0,0 +1,76 @@
+package com.example.loanlyFinalProject.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.*;
+
+/**
+ * A repayment received for a disbursement. The amount is allocated to the oldest unpaid
+ * installments, interest before principal; the principal part goes back to the credit line.
+ */
+@Entity
+@Table(
+    name = "payments",
+    indexes = {
+      @Index(name = "ix_payments_disbursement_paid", columnList = "disbursement_id, paid_at"),
+      @Index(name = "ix_payments_user_plafond", columnList = "user_plafond_id")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Payment {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+  @SequenceGenerator(name = "payment_seq", sequenceName = "payment_seq", allocationSize = 50)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "disbursement_id", nullable = false, updatable = false)
+  @JsonIgnore
+  private Disbursement disbursement;
+
+  // Denormalized from the disbursement for per-credit-line sums (reconciliation)
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "user_plafond_id", nullable = false, updatable = false)
+  @JsonIgnore
+  private UserPlafond userPlafond;
+
+  @Column(nullable = false, precision = 18, scale = 2, updatable = false)
+  private BigDecimal amount;
+
+  @Column(name = "principal_amount", nullable = false, precision = 18, scale = 2, updatable = false)
+  private BigDecimal principalAmount;
+
+  @Column(name = "interest_amount", nullable = false, precision = 18, scale = 2, updatable = false)
+  private BigDecimal interestAmount;
+
+  @Column(name = "penalty_amount", nullable = false, precision = 18, scale = 2, updatable = false)
+  @Builder.Default
+  private BigDecimal penaltyAmount = BigDecimal.ZERO;
+
+  @Column(length = 100, updatable = false)
+  private String reference; // Bank transfer reference
+
+  @Column(length = 255, updatable = false)
+  private String note;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "recorded_by", updatable = false)
+  @JsonIgnore
+  private User recordedBy;
+
+  @Column(name = "paid_at", nullable = false, updatable = false)
+  private LocalDateTime paidAt;
+
+  @PrePersist
+  protected void onCreate() {
+    if (paidAt == null) {
+      paidAt = LocalDateTime.now();
+    }
+  }
+}
@@ -6,7 +6,12 @@ import java.time.LocalDateTime;
 import lombok.*;
 
 @Entity
-@Table(name = "plafond_documents")
+@Table(
+    name = "plafond_documents",
+    indexes = {
+      @Index(name = "ix_plafond_documents_user_plafond", columnList = "user_plafond_id"),
+      @Index(name = "ix_plafond_documents_file_url", columnList = "file_url")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,6 +38,27 @@ public class PlafondDocument {
   @Column(name = "file_name", length = 100)
   private String fileName;
 
+  // Sniffed from the content, not taken from the client
+  @Column(name = "content_type", length = 100)
+  private String contentType;
+
+  @Column(name = "size_bytes")
+  private Long sizeBytes;
+
+  @Column(name = "content_sha256", length = 64)
+  private String contentSha256;
+
+  // Written by DocumentDerivativeService once the previews are rendered
+  @Column(name = "preview_url", length = 500)
+  private String previewUrl;
+
+  @Column(name = "thumbnail_url", length = 500)
+  private String thumbnailUrl;
+
+  @Column(name = "derivative_status", length = 20)
+  @Enumerated(EnumType.STRING)
+  private DerivativeStatus derivativeStatus;
+
   @Column(name = "uploaded_at", nullable = false, updatable = false)
   private LocalDateTime uploadedAt;
 
@@ -50,4 +76,10 @@ public class PlafondDocument {
     REKENING_KORAN,
     OTHER
   }
+
+  public enum DerivativeStatus {
+    PENDING,
+    READY,
+    FAILED // The file could not be rendered; reviewers open the original
+  }
 }
@@ -6,7 +6,13 @@ import java.time.LocalDateTime;
 import lombok.*;
 
 @Entity
-@Table(name = "plafond_histories")
+@Table(
+    name = "plafond_histories",
+    indexes = {
+      @Index(
+          name = "ix_plafond_histories_application",
+          columnList = "user_plafond_id, action_by_role, new_status, created_at")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
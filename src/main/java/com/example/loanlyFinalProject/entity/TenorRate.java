@@ -6,7 +6,13 @@ import java.math.BigDecimal;
 import lombok.*;
 
 @Entity
-@Table(name = "tenor_rates")
+@Table(
+    name = "tenor_rates",
+    indexes = {
+      @Index(
+          name = "ix_tenor_rates_plafond_tenor_active",
+          columnList = "plafond_id, tenor_month, is_active")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
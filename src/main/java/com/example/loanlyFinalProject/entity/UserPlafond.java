@@ -7,11 +7,21 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import lombok.*;
 
 @Entity
-@Table(name = "user_plafonds")
+// One open application per user is enforced by the filtered unique index
+// ux_user_plafonds_open_application (V15), which @Index cannot express
+@Table(
+    name = "user_plafonds",
+    indexes = {
+      @Index(name = "ix_user_plafonds_user_status", columnList = "user_id, status"),
+      @Index(name = "ix_user_plafonds_status_registered", columnList = "status, registered_at")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,6 +34,9 @@ public class UserPlafond {
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
+  // Optimistic lock for the workflow fields; status itself moves by compare-and-set
+  @Version private Long version;
+
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "user_id", nullable = false)
   @JsonIgnore
@@ -38,7 +51,8 @@ public class UserPlafond {
 
   // ========== APPROVAL WORKFLOW ==========
 
-  @Column(nullable = false, length = 30)
+  // Only changed through UserPlafondRepository.transitionStatus, along the transition table
+  @Column(nullable = false, length = 30, updatable = false)
   @Enumerated(EnumType.STRING)
   @Builder.Default
   private PlafondApplicationStatus status = PlafondApplicationStatus.PENDING_REVIEW;
@@ -46,7 +60,8 @@ public class UserPlafond {
   @Column(name = "approved_limit", precision = 18, scale = 2)
   private BigDecimal approvedLimit;
 
-  @Column(name = "used_amount", precision = 18, scale = 2)
+  // Snapshot of the credit ledger; only changed through CreditLedgerService
+  @Column(name = "used_amount", precision = 18, scale = 2, updatable = false)
   @Builder.Default
   private BigDecimal usedAmount = BigDecimal.ZERO;
 
@@ -69,6 +84,15 @@ public class UserPlafond {
   @Column(name = "rejection_note")
   private String rejectionNote;
 
+  // ========== WORK QUEUE LEASE ==========
+
+  // Staff member holding the item; only written by WorkQueueService
+  @Column(name = "lease_owner_id", insertable = false, updatable = false)
+  private Long leaseOwnerId;
+
+  @Column(name = "lease_expires_at", insertable = false, updatable = false)
+  private LocalDateTime leaseExpiresAt;
+
   // ========== APPLICANT DETAILS ==========
 
   @Column(length = 20)
@@ -135,8 +159,6 @@ public class UserPlafond {
 
   public BigDecimal getAvailableLimit() {
     if (approvedLimit == null) return BigDecimal.ZERO;
-    System.out.println("Approved Limit: " + approvedLimit);
-    System.out.println("Used Amount: " + usedAmount);
     return approvedLimit.subtract(usedAmount != null ? usedAmount : BigDecimal.ZERO);
   }
 
@@ -149,6 +171,17 @@ public class UserPlafond {
     PENDING_REVIEW, // Waiting for Marketing review
     WAITING_APPROVAL, // Marketing approved, waiting for Branch Manager
     APPROVED, // Fully approved, can disburse
-    REJECTED // Rejected at any stage
+    REJECTED; // Rejected at any stage
+
+    private static final Map<PlafondApplicationStatus, Set<PlafondApplicationStatus>> TRANSITIONS =
+        Map.of(
+            PENDING_REVIEW, EnumSet.of(WAITING_APPROVAL, REJECTED),
+            WAITING_APPROVAL, EnumSet.of(APPROVED, REJECTED),
+            APPROVED, EnumSet.noneOf(PlafondApplicationStatus.class),
+            REJECTED, EnumSet.noneOf(PlafondApplicationStatus.class));
+
+    public boolean canTransitionTo(PlafondApplicationStatus target) {
+      return TRANSITIONS.get(this).contains(target);
+    }
   }
 }
@@ -3,6 +3,8 @@ package com.example.loanlyFinalProject.exception;
 import com.example.loanlyFinalProject.dto.response.ApiResponse;
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -65,6 +67,40 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(ex.getMessage()));
   }
 
+  @ExceptionHandler(StateConflictException.class)
+  public ResponseEntity<ApiResponse<Map<String, Object>>> handleStateConflictException(
+      StateConflictException ex) {
+    Map<String, Object> conflict = new HashMap<>();
+    conflict.put("resource", ex.getResourceName());
+    conflict.put("id", ex.getResourceId());
+    conflict.put("currentStatus", ex.getCurrentStatus());
+    conflict.put("targetStatus", ex.getTargetStatus());
+
+    ApiResponse<Map<String, Object>> response =
+        ApiResponse.<Map<String, Object>>builder()
+            .success(false)
+            .message(ex.getMessage())
+            .data(conflict)
+            .timestamp(java.time.LocalDateTime.now())
+            .build();
+
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+  }
+
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<ApiResponse<Object>> handleOptimisticLockingFailureException(
+      OptimisticLockingFailureException ex) {
+    return ResponseEntity.status(HttpStatus.CONFLICT)
+        .body(ApiResponse.error("The record was modified by another action, please reload"));
+  }
+
+  @ExceptionHandler(ResourceBusyException.class)
+  public ResponseEntity<ApiResponse<Object>> handleResourceBusyException(ResourceBusyException ex) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+        .body(ApiResponse.error(ex.getMessage()));
+  }
+
   @ExceptionHandler(InvalidTokenException.class)
   public ResponseEntity<ApiResponse<Object>> handleInvalidTokenException(InvalidTokenException ex) {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(ex.getMessage()));
@@ -85,6 +121,34 @@ public class GlobalExceptionHandler {
         .body(ApiResponse.error("File size exceeds the maximum limit."));
   }
 
+  @ExceptionHandler(org.springframework.web.multipart.MultipartException.class)
+  public ResponseEntity<ApiResponse<Object>> handleMultipartException(
+      org.springframework.web.multipart.MultipartException ex) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(ex.getMessage()));
+  }
+
+  @ExceptionHandler(org.springframework.web.bind.MissingRequestHeaderException.class)
+  public ResponseEntity<ApiResponse<Object>> handleMissingRequestHeaderException(
+      org.springframework.web.bind.MissingRequestHeaderException ex) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(ApiResponse.error("Required header '" + ex.getHeaderName() + "' is not present."));
+  }
+
+  @ExceptionHandler(
+      org.springframework.web.method.annotation.MethodArgumentTypeMismatchException.class)
+  public ResponseEntity<ApiResponse<Object>> handleMethodArgumentTypeMismatchException(
+      org.springframework.web.method.annotation.MethodArgumentTypeMismatchException ex) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(ApiResponse.error("Invalid value for '" + ex.getName() + "'"));
+  }
+
+  @ExceptionHandler(UnsupportedDocumentTypeException.class)
+  public ResponseEntity<ApiResponse<Object>> handleUnsupportedDocumentTypeException(
+      UnsupportedDocumentTypeException ex) {
+    return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+        .body(ApiResponse.error(ex.getMessage()));
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ApiResponse<Object>> handleGenericException(Exception ex) {
     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
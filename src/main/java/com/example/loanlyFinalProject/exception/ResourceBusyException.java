@@ -0,0 +1,19 @@
+package com.example.loanlyFinalProject.exception;
+
+import lombok.Getter;
+
+/**
+ * The request could not get its turn in time, e.g. a lock wait timed out. Nothing was changed and
+ * the same request may simply be sent again. Mapped to 503 Service Unavailable with {@code
+ * Retry-After}.
+ */
+@Getter
+public class ResourceBusyException extends RuntimeException {
+
+  private final long retryAfterSeconds;
+
+  public ResourceBusyException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.loanlyFinalProject.exception;
+
+import lombok.Getter;
+
+/**
+ * A status transition that is not allowed from the current status, or that lost a race against a
+ * concurrent action on the same row. Mapped to 409 Conflict.
+ */
+@Getter
+public class StateConflictException extends IllegalStateException {
+
+  private final String resourceName;
+  private final Object resourceId;
+  private final String currentStatus; // Null when unknown (lost a compare-and-set)
+  private final String targetStatus;
+
+  public StateConflictException(String resourceName, Object resourceId, String message) {
+    super(message);
+    this.resourceName = resourceName;
+    this.resourceId = resourceId;
+    this.currentStatus = null;
+    this.targetStatus = null;
+  }
+
+  /** The transition table does not allow {@code current -> target}. */
+  public static StateConflictException notAllowed(
+      String resourceName, Object resourceId, Enum<?> current, Enum<?> target) {
+    return new StateConflictException(
+        resourceName,
+        resourceId,
+        current.name(),
+        target.name(),
+        String.format(
+            "%s %s cannot move from %s to %s", resourceName, resourceId, current, target));
+  }
+
+  /** The compare-and-set from {@code expected} matched no row: another action got there first. */
+  public static StateConflictException lostRace(
+      String resourceName, Object resourceId, Enum<?> expected, Enum<?> target) {
+    return new StateConflictException(
+        resourceName,
+        resourceId,
+        null,
+        target.name(),
+        String.format(
+            "%s %s is no longer in %s status; it was changed by another action",
+            resourceName, resourceId, expected));
+  }
+
+  private StateConflictException(
+      String resourceName,
+      Object resourceId,
+      String currentStatus,
+      String targetStatus,
+      String message) {
+    super(message);
+    this.resourceName = resourceName;
+    this.resourceId = resourceId;
+    this.currentStatus = currentStatus;
+    this.targetStatus = targetStatus;
+  }
+}
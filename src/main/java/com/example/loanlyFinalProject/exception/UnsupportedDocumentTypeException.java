@@ -0,0 +1,8 @@
+package com.example.loanlyFinalProject.exception;
+
+public class UnsupportedDocumentTypeException extends RuntimeException {
+
+  public UnsupportedDocumentTypeException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,160 @@
+package com.example.loanlyFinalProject.idempotency;
+
+import com.example.loanlyFinalProject.datasource.Workload;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import com.example.loanlyFinalProject.entity.IdempotencyKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authoritative store on the {@link IdempotencyKey} table: every claim, renewal and completed
+ * response goes here, whether or not Redis is up. The primary key makes the insert the atomic "put
+ * if absent"; every statement runs in its own auto-commit transaction, outside the request's.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+  private static final String SELECT_SQL =
+      "SELECT status, request_hash, response_status, content_type, response_body, expires_at "
+          + "FROM idempotency_keys WHERE record_key = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Clock clock;
+
+  @Override
+  public Optional<IdempotencyRecord> putIfAbsent(
+      String key, IdempotencyRecord record, Duration ttl) {
+    LocalDateTime now = LocalDateTime.now(clock);
+    try {
+      insert(key, record, now, ttl);
+      return Optional.empty();
+    } catch (DuplicateKeyException e) {
+      // Take over an expired row (e.g. an in-flight marker left by a crashed instance)
+      if (jdbcTemplate.update(
+              "DELETE FROM idempotency_keys WHERE record_key = ? AND expires_at < ?", key, now)
+          > 0) {
+        try {
+          insert(key, record, now, ttl);
+          return Optional.empty();
+        } catch (DuplicateKeyException lost) {
+          // Another request took it over first
+        }
+      }
+      return get(key)
+          .or(
+              () ->
+                  Optional.of(
+                      IdempotencyRecord.builder()
+                          .status(IdempotencyRecord.Status.IN_FLIGHT)
+                          .requestHash(record.getRequestHash())
+                          .build()));
+    }
+  }
+
+  @Override
+  public Optional<IdempotencyRecord> get(String key) {
+    List<IdempotencyRecord> rows = jdbcTemplate.query(SELECT_SQL, liveRecord(), key);
+    return rows.stream().filter(Objects::nonNull).findFirst();
+  }
+
+  @Override
+  public boolean put(String key, IdempotencyRecord record, Duration ttl) {
+    LocalDateTime now = LocalDateTime.now(clock);
+    // Only over our own in-flight marker; a completed record is never overwritten
+    if (jdbcTemplate.update(
+            "UPDATE idempotency_keys SET status = ?, response_status = ?, content_type = ?,"
+                + " response_body = ?, expires_at = ? WHERE record_key = ?"
+                + " AND status = 'IN_FLIGHT' AND request_hash = ?",
+            record.getStatus().name(),
+            record.getResponseStatus(),
+            record.getContentType(),
+            record.getResponseBody(),
+            now.plus(ttl),
+            key,
+            record.getRequestHash())
+        > 0) {
+      return true;
+    }
+    // The marker expired and was purged: store the record unless another request has the key now
+    try {
+      insert(key, record, now, ttl);
+      return true;
+    } catch (DuplicateKeyException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean extend(String key, String requestHash, Duration ttl) {
+    LocalDateTime now = LocalDateTime.now(clock);
+    return jdbcTemplate.update(
+            "UPDATE idempotency_keys SET expires_at = ? WHERE record_key = ?"
+                + " AND status = 'IN_FLIGHT' AND request_hash = ? AND expires_at >= ?",
+            now.plus(ttl),
+            key,
+            requestHash,
+            now)
+        > 0;
+  }
+
+  @Override
+  public void remove(String key) {
+    jdbcTemplate.update("DELETE FROM idempotency_keys WHERE record_key = ?", key);
+  }
+
+  @Scheduled(cron = "${app.idempotency.purge-cron:0 15 * * * *}")
+  @Workload(WorkloadType.BACKGROUND_JOBS)
+  public void purgeExpired() {
+    int purged =
+        jdbcTemplate.update(
+            "DELETE FROM idempotency_keys WHERE expires_at < ?", LocalDateTime.now(clock));
+    if (purged > 0) {
+      log.info("Purged {} expired idempotency keys", purged);
+    }
+  }
+
+  private void insert(String key, IdempotencyRecord record, LocalDateTime now, Duration ttl) {
+    jdbcTemplate.update(
+        "INSERT INTO idempotency_keys (record_key, status, request_hash, response_status,"
+            + " content_type, response_body, created_at, expires_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+        key,
+        record.getStatus().name(),
+        record.getRequestHash(),
+        record.getResponseStatus(),
+        record.getContentType(),
+        record.getResponseBody(),
+        now,
+        now.plus(ttl));
+  }
+
+  // Maps expired rows to null, so they read as absent
+  private RowMapper<IdempotencyRecord> liveRecord() {
+    LocalDateTime now = LocalDateTime.now(clock);
+    return (rs, rowNum) -> {
+      if (rs.getObject("expires_at", LocalDateTime.class).isBefore(now)) {
+        return null;
+      }
+      int responseStatus = rs.getInt("response_status");
+      return IdempotencyRecord.builder()
+          .status(IdempotencyRecord.Status.valueOf(rs.getString("status")))
+          .requestHash(rs.getString("request_hash"))
+          .responseStatus(rs.wasNull() ? null : responseStatus)
+          .contentType(rs.getString("content_type"))
+          .responseBody(rs.getBytes("response_body"))
+          .build();
+    };
+  }
+}
@@ -0,0 +1,243 @@
+package com.example.loanlyFinalProject.idempotency;
+
+import com.example.loanlyFinalProject.dto.response.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Makes the configured customer POST endpoints safe to retry. A request carrying an {@code
+ * Idempotency-Key} header runs once per user and key; a retry gets the stored response (marked
+ * {@code Idempotent-Replayed: true}) without running the service again. A duplicate arriving while
+ * the first request is still running waits for it and replays its response; if the first request is
+ * still running after the wait the duplicate gets 409, and if it failed meanwhile 503, both with
+ * {@code Retry-After}. Reusing a key with a different body is rejected with 422. Responses with a
+ * 5xx status are not stored, so the client can retry those with the same key.
+ *
+ * <p>Registered in the security chain after authorization, so the user id set by {@code
+ * JwtAuthenticationFilter} is available and unauthorized requests never claim a key.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+  private static final int MAX_KEY_LENGTH = 255;
+
+  private final IdempotencyService idempotencyService;
+  private final ObjectMapper objectMapper;
+
+  @Value("${app.idempotency.paths:/api/customer/disbursements,/api/customer/plafonds/apply}")
+  private List<String> paths;
+
+  @Override
+  protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+    return !"POST".equals(request.getMethod())
+        || request.getHeader(HEADER) == null
+        || !paths.contains(path(request));
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    if (!(request.getAttribute("userId") instanceof Long userId)) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    String key = request.getHeader(HEADER).trim();
+    if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+      writeError(
+          response,
+          HttpStatus.BAD_REQUEST,
+          HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+      return;
+    }
+
+    byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+    String requestHash = hash(request.getMethod(), path(request), body);
+
+    Optional<IdempotencyRecord> earlier = idempotencyService.begin(userId, key, requestHash);
+    if (earlier.isPresent()) {
+      answerDuplicate(userId, key, requestHash, earlier.get(), response);
+      return;
+    }
+
+    ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+    boolean completed = false;
+    try {
+      filterChain.doFilter(new CachedBodyRequest(request, body), cachedResponse);
+      if (cachedResponse.getStatus() < 500) {
+        idempotencyService.complete(
+            userId,
+            key,
+            IdempotencyRecord.builder()
+                .requestHash(requestHash)
+                .responseStatus(cachedResponse.getStatus())
+                .contentType(cachedResponse.getContentType())
+                .responseBody(cachedResponse.getContentAsByteArray())
+                .build());
+        completed = true;
+      }
+    } finally {
+      if (!completed) {
+        idempotencyService.abandon(userId, key);
+      }
+      cachedResponse.copyBodyToResponse();
+    }
+  }
+
+  private void answerDuplicate(
+      Long userId,
+      String key,
+      String requestHash,
+      IdempotencyRecord record,
+      HttpServletResponse response)
+      throws IOException {
+    if (!requestHash.equals(record.getRequestHash())) {
+      writeError(
+          response,
+          HttpStatus.UNPROCESSABLE_ENTITY,
+          HEADER + " was already used for a different request");
+      return;
+    }
+    if (!record.isCompleted()) {
+      try {
+        record = idempotencyService.awaitCompletion(userId, key).orElse(null);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (record == null) {
+        // The first request failed and released the key: this one can run on retry
+        response.setHeader("Retry-After", "1");
+        writeError(
+            response,
+            HttpStatus.SERVICE_UNAVAILABLE,
+            "The earlier request with this " + HEADER + " did not complete; retry it");
+        return;
+      }
+      if (!record.isCompleted()) {
+        response.setHeader("Retry-After", "1");
+        writeError(
+            response,
+            HttpStatus.CONFLICT,
+            "A request with this " + HEADER + " is still being processed");
+        return;
+      }
+    }
+
+    log.debug("Replaying response for user {} and {} {}", userId, HEADER, key);
+    response.setStatus(record.getResponseStatus());
+    if (record.getContentType() != null) {
+      response.setContentType(record.getContentType());
+    }
+    response.setHeader(REPLAYED_HEADER, "true");
+    byte[] body = record.getResponseBody() != null ? record.getResponseBody() : new byte[0];
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  private void writeError(HttpServletResponse response, HttpStatus status, String message)
+      throws IOException {
+    response.setStatus(status.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+  }
+
+  private static String path(HttpServletRequest request) {
+    return request.getRequestURI().substring(request.getContextPath().length());
+  }
+
+  private static String hash(String method, String path, byte[] body) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update((method + " " + path + "\n").getBytes(StandardCharsets.UTF_8));
+      digest.update(body);
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  /** Replays the body that was read for hashing to the rest of the chain. */
+  private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    CachedBodyRequest(HttpServletRequest request, byte[] body) {
+      super(request);
+      this.body = body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream in = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public int read() {
+          return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+          return in.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+          return in.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      String encoding = getCharacterEncoding();
+      return new BufferedReader(
+          new InputStreamReader(
+              getInputStream(),
+              encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+    }
+  }
+}
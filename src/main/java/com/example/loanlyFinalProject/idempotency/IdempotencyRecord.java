@@ -0,0 +1,30 @@
+package com.example.loanlyFinalProject.idempotency;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+/** State of one Idempotency-Key: in flight, or completed with the response to replay. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+  public enum Status {
+    IN_FLIGHT, // First request is still executing
+    COMPLETED // Response stored for replay
+  }
+
+  private Status status;
+  private String requestHash; // SHA-256 of method, path and body; a reused key must match it
+
+  private Integer responseStatus;
+  private String contentType;
+  private byte[] responseBody;
+
+  @JsonIgnore
+  public boolean isCompleted() {
+    return status == Status.COMPLETED;
+  }
+}
@@ -0,0 +1,205 @@
+package com.example.loanlyFinalProject.idempotency;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Idempotency-Key bookkeeping for {@link IdempotencyFilter}. The database is the single source of
+ * truth: keys are claimed, renewed and completed there, so an instance that cannot reach Redis sees
+ * the same state as one that can. Completed responses are also cached in Redis and replayed from
+ * there when present; while Redis is unreachable the cache is skipped, and retried after {@code
+ * app.idempotency.redis-retry-seconds}. Keys are scoped to the authenticated user, so two users can
+ * never see each other's responses.
+ *
+ * <p>The in-flight marker is renewed every third of {@code in-flight-ttl-seconds} for as long as
+ * the owning request runs, so a slow handler keeps its key however long it takes. The TTL only
+ * bounds how long the marker of a crashed instance blocks retries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+  private static final long POLL_INTERVAL_MS = 50;
+
+  private final RedisIdempotencyStore redisStore;
+  private final DatabaseIdempotencyStore databaseStore;
+
+  // How long a completed response is replayed
+  @Value("${app.idempotency.ttl-hours:24}")
+  private long ttlHours;
+
+  // In-flight markers outlive a crashed request by at most this long
+  @Value("${app.idempotency.in-flight-ttl-seconds:60}")
+  private long inFlightTtlSeconds;
+
+  // How long a concurrent duplicate waits for the first request to finish
+  @Value("${app.idempotency.wait-ms:10000}")
+  private long waitMs;
+
+  @Value("${app.idempotency.redis-retry-seconds:30}")
+  private long redisRetrySeconds;
+
+  private volatile long redisDownUntil;
+
+  // Marker renewals of the requests this instance is running, by scoped key
+  private final Map<String, ScheduledFuture<?>> renewals = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService renewer =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread thread = new Thread(r, "idempotency-renewer");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /**
+   * Claim the key for a new request.
+   *
+   * @return empty if the caller now owns the key and must execute the request, otherwise the record
+   *     of the earlier request with the same key
+   */
+  public Optional<IdempotencyRecord> begin(Long userId, String key, String requestHash) {
+    IdempotencyRecord inFlight =
+        IdempotencyRecord.builder()
+            .status(IdempotencyRecord.Status.IN_FLIGHT)
+            .requestHash(requestHash)
+            .build();
+    String scoped = scoped(userId, key);
+    Duration ttl = Duration.ofSeconds(inFlightTtlSeconds);
+    Optional<IdempotencyRecord> cached = fromCache(scoped);
+    if (cached.isPresent()) {
+      return cached;
+    }
+    Optional<IdempotencyRecord> earlier = databaseStore.putIfAbsent(scoped, inFlight, ttl);
+    if (earlier.isEmpty()) {
+      long periodMs = Math.max(ttl.toMillis() / 3, 1);
+      renewals.put(
+          scoped,
+          renewer.scheduleAtFixedRate(
+              () -> renew(scoped, requestHash, ttl), periodMs, periodMs, TimeUnit.MILLISECONDS));
+    }
+    return earlier;
+  }
+
+  /**
+   * Store the response of an owned key for replay.
+   *
+   * @return false if the key had meanwhile been taken over by another request and the response was
+   *     not stored; a retry with the key will then not replay it
+   */
+  public boolean complete(Long userId, String key, IdempotencyRecord record) {
+    String scoped = scoped(userId, key);
+    stopRenewal(scoped);
+    record.setStatus(IdempotencyRecord.Status.COMPLETED);
+    Duration ttl = Duration.ofHours(ttlHours);
+    if (!databaseStore.put(scoped, record, ttl)) {
+      log.error(
+          "Response for idempotency key {} not stored: the key belongs to another request", scoped);
+      return false;
+    }
+    toCache(scoped, record, ttl);
+    return true;
+  }
+
+  /** Drop an owned key whose request failed, so the client can retry it. */
+  public void abandon(Long userId, String key) {
+    stopRenewal(scoped(userId, key));
+    databaseStore.remove(scoped(userId, key));
+  }
+
+  /**
+   * Wait for the request that owns the key to complete.
+   *
+   * @return the completed record, the in-flight marker if the request is still running after the
+   *     wait, or empty if the request was abandoned (or its instance died) and the key is free
+   *     again
+   */
+  public Optional<IdempotencyRecord> awaitCompletion(Long userId, String key)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + waitMs;
+    while (true) {
+      Optional<IdempotencyRecord> record = databaseStore.get(scoped(userId, key));
+      if (record.isEmpty() || record.get().isCompleted()) {
+        return record;
+      }
+      if (System.currentTimeMillis() >= deadline) {
+        return record;
+      }
+      Thread.sleep(POLL_INTERVAL_MS);
+    }
+  }
+
+  private void renew(String scoped, String requestHash, Duration ttl) {
+    try {
+      // Conditional on the marker still being in flight, so it can never touch a completed record
+      if (!databaseStore.extend(scoped, requestHash, ttl)) {
+        stopRenewal(scoped);
+      }
+    } catch (RuntimeException e) {
+      // Retried on the next period; the marker holds for a full TTL after the last renewal
+      log.warn("Could not renew in-flight idempotency key {}: {}", scoped, e.getMessage());
+    }
+  }
+
+  private void stopRenewal(String scoped) {
+    ScheduledFuture<?> renewal = renewals.remove(scoped);
+    if (renewal != null) {
+      renewal.cancel(false);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    renewer.shutdownNow();
+  }
+
+  private Optional<IdempotencyRecord> fromCache(String scoped) {
+    if (redisAvailable()) {
+      try {
+        return redisStore.get(scoped);
+      } catch (DataAccessException e) {
+        redisFailed(e);
+      }
+    }
+    return Optional.empty();
+  }
+
+  private void toCache(String scoped, IdempotencyRecord record, Duration ttl) {
+    if (redisAvailable()) {
+      try {
+        redisStore.put(scoped, record, ttl);
+      } catch (DataAccessException e) {
+        // Replayed from the database instead
+        redisFailed(e);
+      }
+    }
+  }
+
+  private boolean redisAvailable() {
+    return System.currentTimeMillis() >= redisDownUntil;
+  }
+
+  private void redisFailed(DataAccessException e) {
+    redisDownUntil = System.currentTimeMillis() + redisRetrySeconds * 1000;
+    log.warn(
+        "Redis unavailable for idempotency replay, using the database for {} s: {}",
+        redisRetrySeconds,
+        e.getMessage());
+  }
+
+  private static String scoped(Long userId, String key) {
+    return userId + ":" + key;
+  }
+}
@@ -0,0 +1,33 @@
+package com.example.loanlyFinalProject.idempotency;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/** Backing store for Idempotency-Key records. Keys are already scoped to the user. */
+public interface IdempotencyStore {
+
+  /**
+   * Store {@code record} unless the key exists (or exists but has expired).
+   *
+   * @return empty if the record was stored, otherwise the existing record
+   */
+  Optional<IdempotencyRecord> putIfAbsent(String key, IdempotencyRecord record, Duration ttl);
+
+  Optional<IdempotencyRecord> get(String key);
+
+  /**
+   * Replace the in-flight marker of a key the caller owns with {@code record}.
+   *
+   * @return false if the key now belongs to another request and the record was not stored
+   */
+  boolean put(String key, IdempotencyRecord record, Duration ttl);
+
+  /**
+   * Push back the expiry of the in-flight marker of a running request.
+   *
+   * @return false if the key no longer holds an in-flight marker for {@code requestHash}
+   */
+  boolean extend(String key, String requestHash, Duration ttl);
+
+  void remove(String key);
+}
@@ -0,0 +1,30 @@
+package com.example.loanlyFinalProject.idempotency;
+
+import java.time.Duration;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replay cache of completed records in front of {@link DatabaseIdempotencyStore}. Only immutable
+ * completed records are cached, with a TTL, so nothing here is ever renewed or overwritten and a
+ * miss simply falls through to the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisIdempotencyStore {
+
+  private static final String KEY_PREFIX = "idempotency:";
+
+  private final RedisTemplate<String, Object> redisTemplate;
+
+  public Optional<IdempotencyRecord> get(String key) {
+    return Optional.ofNullable(
+        (IdempotencyRecord) redisTemplate.opsForValue().get(KEY_PREFIX + key));
+  }
+
+  public void put(String key, IdempotencyRecord record, Duration ttl) {
+    redisTemplate.opsForValue().set(KEY_PREFIX + key, record, ttl);
+  }
+}
@@ -0,0 +1,93 @@
+package com.example.loanlyFinalProject.loan;
+
+/**
+ * Repayment schedule in minor units, stored column-wise in primitive arrays. An instance can be
+ * refilled by {@link LoanCalculator} for any number of loans; the arrays only grow when a longer
+ * tenor than any before is calculated, so a reused schedule allocates nothing.
+ *
+ * <p>Index 0 is the first installment.
+ */
+public final class InstallmentSchedule {
+
+  private InterestType interestType;
+  private int tenor;
+  private long principal;
+  private long[] principalParts;
+  private long[] interestParts;
+  private long[] payments;
+  private long[] balances;
+
+  public InstallmentSchedule() {
+    this(24);
+  }
+
+  public InstallmentSchedule(int capacity) {
+    allocate(capacity);
+  }
+
+  /** Prepare for a schedule of {@code tenor} installments. */
+  void reset(InterestType interestType, long principal, int tenor) {
+    if (tenor > payments.length) {
+      allocate(tenor);
+    }
+    this.interestType = interestType;
+    this.principal = principal;
+    this.tenor = tenor;
+  }
+
+  void set(int index, long principalPart, long interestPart, long balanceAfter) {
+    principalParts[index] = principalPart;
+    interestParts[index] = interestPart;
+    payments[index] = principalPart + interestPart;
+    balances[index] = balanceAfter;
+  }
+
+  private void allocate(int capacity) {
+    principalParts = new long[capacity];
+    interestParts = new long[capacity];
+    payments = new long[capacity];
+    balances = new long[capacity];
+  }
+
+  public InterestType getInterestType() {
+    return interestType;
+  }
+
+  public int getTenor() {
+    return tenor;
+  }
+
+  /** Loan amount in minor units. */
+  public long getPrincipal() {
+    return principal;
+  }
+
+  public long principalPart(int index) {
+    return principalParts[index];
+  }
+
+  public long interestPart(int index) {
+    return interestParts[index];
+  }
+
+  public long payment(int index) {
+    return payments[index];
+  }
+
+  /** Outstanding principal after the installment is paid. */
+  public long balanceAfter(int index) {
+    return balances[index];
+  }
+
+  public long totalInterest() {
+    long total = 0;
+    for (int i = 0; i < tenor; i++) {
+      total += interestParts[i];
+    }
+    return total;
+  }
+
+  public long totalPayment() {
+    return principal + totalInterest();
+  }
+}
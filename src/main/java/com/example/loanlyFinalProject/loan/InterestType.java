@@ -0,0 +1,6 @@
+package com.example.loanlyFinalProject.loan;
+
+public enum InterestType {
+  FLAT, // Interest on the original amount every month; equal installments
+  ANNUITY // Interest on the outstanding balance; level payment
+}
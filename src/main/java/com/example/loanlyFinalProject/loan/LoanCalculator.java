@@ -0,0 +1,189 @@
+package com.example.loanlyFinalProject.loan;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Loan math on fixed-point {@code long} values: amounts in minor units (1/100 rupiah, the scale of
+ * every amount column) and monthly rates in basis points (1/100 percent, the scale of {@code
+ * interest_rate}). Both conversions are exact, so the results do not depend on intermediate decimal
+ * precision.
+ *
+ * <p>Rounding rules:
+ *
+ * <ul>
+ *   <li>Interest is rounded half-up to the minor unit: for FLAT once on the whole loan (the same
+ *       value the disbursement has always stored), for ANNUITY once per installment on the
+ *       outstanding balance.
+ *   <li>FLAT splits principal and interest into equal parts rounded down; the last installment
+ *       takes the remainder.
+ *   <li>ANNUITY uses the exact level payment of the annuity formula rounded half-up; the last
+ *       installment pays off the remaining balance, so the principal parts always sum to the loan
+ *       amount exactly.
+ * </ul>
+ *
+ * <p>Schedule calculation allocates nothing when the caller reuses an {@link InstallmentSchedule}.
+ */
+public final class LoanCalculator {
+
+  public static final int MINOR_UNIT_SCALE = 2;
+  private static final long BASIS_POINTS_PER_UNIT = 10_000L;
+
+  private LoanCalculator() {}
+
+  // ========== SCHEDULES ==========
+
+  public static InstallmentSchedule schedule(
+      InterestType type, long principal, long monthlyRateBp, int tenor, InstallmentSchedule out) {
+    return type == InterestType.ANNUITY
+        ? annuity(principal, monthlyRateBp, tenor, out)
+        : flat(principal, monthlyRateBp, tenor, out);
+  }
+
+  /** Total interest of a FLAT loan: principal × rate × tenor, rounded half-up. */
+  public static long flatInterest(long principal, long monthlyRateBp, int tenor) {
+    validate(principal, monthlyRateBp, tenor);
+    return mulDivHalfUp(principal, monthlyRateBp * tenor, BASIS_POINTS_PER_UNIT);
+  }
+
+  public static InstallmentSchedule flat(
+      long principal, long monthlyRateBp, int tenor, InstallmentSchedule out) {
+    long totalInterest = flatInterest(principal, monthlyRateBp, tenor);
+    long principalPart = principal / tenor;
+    long interestPart = totalInterest / tenor;
+
+    out.reset(InterestType.FLAT, principal, tenor);
+    long balance = principal;
+    for (int i = 0; i < tenor - 1; i++) {
+      balance -= principalPart;
+      out.set(i, principalPart, interestPart, balance);
+    }
+    out.set(
+        tenor - 1,
+        principal - principalPart * (tenor - 1),
+        totalInterest - interestPart * (tenor - 1),
+        0L);
+    return out;
+  }
+
+  public static InstallmentSchedule annuity(
+      long principal, long monthlyRateBp, int tenor, InstallmentSchedule out) {
+    validate(principal, monthlyRateBp, tenor);
+    long payment =
+        monthlyRateBp == 0
+            ? (principal + tenor / 2) / tenor
+            : levelPayment(principal, monthlyRateBp, tenor);
+
+    out.reset(InterestType.ANNUITY, principal, tenor);
+    long balance = principal;
+    for (int i = 0; i < tenor; i++) {
+      long interest = mulDivHalfUp(balance, monthlyRateBp, BASIS_POINTS_PER_UNIT);
+      long principalPart = i == tenor - 1 ? balance : Math.min(payment - interest, balance);
+      balance -= principalPart;
+      out.set(i, principalPart, interest, balance);
+    }
+    return out;
+  }
+
+  /**
+   * Level payment P·r·(1+r)^n / ((1+r)^n − 1), rounded half-up.
+   *
+   * <p>Computed in double with (1+r)^k − 1 accumulated directly, which avoids the cancellation of
+   * subtracting 1 from the growth factor. Every step is a basic IEEE operation, so the result is
+   * the same on every JVM. When the value lies within the error bound of a rounding boundary, the
+   * payment is decided with exact integer arithmetic instead.
+   */
+  static long levelPayment(long principal, long monthlyRateBp, int tenor) {
+    double rate = (double) monthlyRateBp / BASIS_POINTS_PER_UNIT;
+    double excess = 0.0; // (1+r)^k - 1
+    for (int i = 0; i < tenor; i++) {
+      excess += rate * (1.0 + excess);
+    }
+    double payment = principal * rate * (1.0 + excess) / excess;
+
+    // About two rounding errors per month plus a few for the final expression, doubled
+    double tolerance = payment * (2.0 * tenor + 8.0) * 0x1.0p-52;
+    if (Math.abs(payment - Math.floor(payment) - 0.5) > tolerance) {
+      return (long) Math.floor(payment + 0.5);
+    }
+    return exactLevelPayment(principal, monthlyRateBp, tenor);
+  }
+
+  /** P·b·(10⁴+b)^n / (10⁴·((10⁴+b)^n − 10^4n)), rounded half-up, for rates in basis points b. */
+  static long exactLevelPayment(long principal, long monthlyRateBp, int tenor) {
+    BigInteger unit = BigInteger.valueOf(BASIS_POINTS_PER_UNIT);
+    BigInteger growth = unit.add(BigInteger.valueOf(monthlyRateBp)).pow(tenor);
+    BigInteger numerator =
+        BigInteger.valueOf(principal).multiply(BigInteger.valueOf(monthlyRateBp)).multiply(growth);
+    BigInteger denominator = unit.multiply(growth.subtract(unit.pow(tenor)));
+    return numerator
+        .shiftLeft(1)
+        .add(denominator)
+        .divide(denominator.shiftLeft(1))
+        .longValueExact();
+  }
+
+  // ========== PENALTY ==========
+
+  /** Simple (non-compounding) late penalty: outstanding × daily rate × days, rounded half-up. */
+  public static long penalty(long outstanding, long dailyRateBp, long days) {
+    if (outstanding < 0 || dailyRateBp < 0 || days < 0) {
+      throw new IllegalArgumentException(
+          "Invalid penalty: outstanding="
+              + outstanding
+              + ", dailyRateBp="
+              + dailyRateBp
+              + ", days="
+              + days);
+    }
+    return mulDivHalfUp(outstanding, Math.multiplyExact(dailyRateBp, days), BASIS_POINTS_PER_UNIT);
+  }
+
+  // ========== FIXED-POINT HELPERS ==========
+
+  /**
+   * a × b / d rounded half-up, for non-negative operands, without overflowing on the intermediate
+   * product as long as the result fits in a long.
+   */
+  static long mulDivHalfUp(long a, long b, long d) {
+    long quotient = a / d;
+    long remainder = a % d;
+    return Math.addExact(
+        Math.multiplyExact(quotient, b), (Math.multiplyExact(remainder, b) + d / 2) / d);
+  }
+
+  /** Exact conversion; amounts with more than two decimals are rejected. */
+  public static long toMinorUnits(BigDecimal amount) {
+    try {
+      return amount.movePointRight(MINOR_UNIT_SCALE).longValueExact();
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Amount must have at most 2 decimal places: " + amount);
+    }
+  }
+
+  public static BigDecimal fromMinorUnits(long minorUnits) {
+    return BigDecimal.valueOf(minorUnits, MINOR_UNIT_SCALE);
+  }
+
+  /** Percent rate (e.g. 2.50) to basis points (250); more than two decimals are rejected. */
+  public static long toBasisPoints(BigDecimal ratePercent) {
+    try {
+      return ratePercent.movePointRight(2).longValueExact();
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException(
+          "Interest rate must have at most 2 decimal places: " + ratePercent);
+    }
+  }
+
+  private static void validate(long principal, long monthlyRateBp, int tenor) {
+    if (principal <= 0 || monthlyRateBp < 0 || tenor <= 0) {
+      throw new IllegalArgumentException(
+          "Invalid loan: principal="
+              + principal
+              + ", rateBp="
+              + monthlyRateBp
+              + ", tenor="
+              + tenor);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.loanlyFinalProject.querystats;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/queries}: Hibernate's statistics, the slowest queries with their call sites and
+ * the recently flagged requests. {@code DELETE} starts all of them over.
+ */
+@Component
+@Endpoint(id = "queries")
+@RequiredArgsConstructor
+public class QueriesEndpoint {
+
+  private final QueryStats queryStats;
+  private final EntityManagerFactory entityManagerFactory;
+
+  public record Report(
+      HibernateStatistics hibernate,
+      List<QueryStats.SlowQuery> slowQueries,
+      List<QueryStats.FlaggedRequest> flaggedRequests) {}
+
+  /** Totals since startup or the last reset; all zero unless statistics are generated. */
+  public record HibernateStatistics(
+      boolean enabled,
+      Instant since,
+      long statementsPrepared,
+      long flushes,
+      long entityLoads,
+      long entityFetches,
+      long collectionLoads,
+      long collectionFetches,
+      long queryExecutions,
+      long queryExecutionMaxMs,
+      String slowestQuery,
+      long secondLevelCacheHits,
+      long secondLevelCacheMisses) {
+
+    static HibernateStatistics of(Statistics statistics) {
+      return new HibernateStatistics(
+          statistics.isStatisticsEnabled(),
+          statistics.getStart(),
+          statistics.getPrepareStatementCount(),
+          statistics.getFlushCount(),
+          statistics.getEntityLoadCount(),
+          statistics.getEntityFetchCount(),
+          statistics.getCollectionLoadCount(),
+          statistics.getCollectionFetchCount(),
+          statistics.getQueryExecutionCount(),
+          statistics.getQueryExecutionMaxTime(),
+          statistics.getQueryExecutionMaxTimeQueryString(),
+          statistics.getSecondLevelCacheHitCount(),
+          statistics.getSecondLevelCacheMissCount());
+    }
+  }
+
+  @ReadOperation
+  public Report report() {
+    return new Report(
+        HibernateStatistics.of(statistics()),
+        queryStats.slowQueries(),
+        queryStats.flaggedRequests());
+  }
+
+  @DeleteOperation
+  public void reset() {
+    queryStats.reset();
+    statistics().clear();
+  }
+
+  private Statistics statistics() {
+    return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+}
@@ -0,0 +1,53 @@
+package com.example.loanlyFinalProject.querystats;
+
+import com.example.loanlyFinalProject.config.QueryStatsProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Collects the statements of each request and hands them to {@link QueryStats} once it finishes. In
+ * the test mode, a request flagged as N+1 fails with a {@link RepeatedSelectException} after it has
+ * run.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@RequiredArgsConstructor
+public class QueryCountingFilter extends OncePerRequestFilter {
+
+  private final QueryStats queryStats;
+  private final QueryStatsProperties properties;
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    RequestQueryStats stats = RequestQueryStats.start();
+    if (stats == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    QueryStats.FlaggedRequest flagged;
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      stats.stop();
+      flagged = queryStats.requestFinished(request.getMethod(), request.getRequestURI(), stats);
+    }
+    if (flagged != null
+        && properties.isFailOnRepeatedSelects()
+        && flagged.reasons().contains(QueryStats.Reason.REPEATED_SELECT)) {
+      throw new RepeatedSelectException(flagged);
+    }
+  }
+}
@@ -0,0 +1,265 @@
+package com.example.loanlyFinalProject.querystats;
+
+import com.example.loanlyFinalProject.config.QueryStatsProperties;
+import com.example.loanlyFinalProject.datasource.StatementListener;
+import com.example.loanlyFinalProject.tracing.Dependency;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Watches the statements the application runs, as the data source's {@link StatementListener}:
+ *
+ * <ul>
+ *   <li>executions at least {@code app.query-stats.slow-query-ms} long are grouped by {@link
+ *       SqlShapes shape}, with the application code that ran them;
+ *   <li>requests running too many statements, or the same select over and over (N+1), are logged
+ *       and kept as flagged.
+ * </ul>
+ *
+ * Both are listed by the {@code queries} Actuator endpoint ({@link QueriesEndpoint}) and counted as
+ * metrics. Call sites are only looked up for slow executions; every other statement costs a shape
+ * lookup and a counter.
+ */
+@Component
+@Slf4j
+public class QueryStats implements StatementListener {
+
+  /** Counter of executions at least {@code slow-query-ms} long. */
+  public static final String SLOW_QUERIES = "db.queries.slow";
+
+  /** Distribution of statements per request. */
+  public static final String STATEMENTS_PER_REQUEST = "db.request.statements";
+
+  /** Counter of flagged requests, tagged by reason. */
+  public static final String FLAGGED_REQUESTS = "db.requests.flagged";
+
+  private static final String APPLICATION_PACKAGE = "com.example.loanlyFinalProject.";
+
+  /** Frames of the JDBC instrumentation, skipped when looking for a call site. */
+  private static final List<String> INSTRUMENTATION_PACKAGES =
+      List.of(
+          StatementListener.class.getPackageName() + ".", Dependency.class.getPackageName() + ".");
+
+  private static final int MAX_CALL_SITES = 5;
+
+  public enum Reason {
+    TOO_MANY_STATEMENTS,
+    REPEATED_SELECT
+  }
+
+  /** A slow query shape, e.g. {@code select ... where u1_0.id in (?...)}. */
+  public record SlowQuery(
+      String query, long slowExecutions, long totalMs, long maxMs, Set<String> callSites) {}
+
+  /** A request over the limits; {@code repeatedSelect} is its most repeated select. */
+  public record FlaggedRequest(
+      Instant at,
+      String request,
+      int statements,
+      Set<Reason> reasons,
+      String repeatedSelect,
+      int repetitions) {}
+
+  private final QueryStatsProperties properties;
+  private final Clock clock;
+  private final MeterRegistry meterRegistry;
+  private final long slowQueryNanos;
+  private final Counter slowExecutions;
+  private final DistributionSummary statementsPerRequest;
+
+  private final Map<String, SlowQueryTotals> slowQueries = new ConcurrentHashMap<>();
+  private final Deque<FlaggedRequest> flaggedRequests = new ArrayDeque<>();
+
+  public QueryStats(QueryStatsProperties properties, Clock clock, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.clock = clock;
+    this.meterRegistry = meterRegistry;
+    this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSlowQueryMs());
+    this.slowExecutions =
+        Counter.builder(SLOW_QUERIES)
+            .description("Statement executions slower than app.query-stats.slow-query-ms")
+            .register(meterRegistry);
+    this.statementsPerRequest =
+        DistributionSummary.builder(STATEMENTS_PER_REQUEST)
+            .description("Statements executed on the request thread per HTTP request")
+            .register(meterRegistry);
+  }
+
+  // ========== STATEMENTS ==========
+
+  @Override
+  public void executed(String sql, long elapsedNanos) {
+    if (sql == null) {
+      return;
+    }
+    String shape = SqlShapes.shape(sql);
+    RequestQueryStats.record(shape);
+    if (elapsedNanos < slowQueryNanos) {
+      return;
+    }
+    slowExecutions.increment();
+    SlowQueryTotals totals = slowQueries.get(shape);
+    if (totals == null && slowQueries.size() < properties.getMaxTrackedQueries()) {
+      totals = slowQueries.computeIfAbsent(shape, s -> new SlowQueryTotals());
+    }
+    if (totals != null) {
+      totals.record(elapsedNanos, callSite());
+    }
+  }
+
+  /** The first application frame below the JDBC instrumentation, e.g. {@code LoanService.x:42}. */
+  private static String callSite() {
+    return StackWalker.getInstance()
+        .walk(
+            frames ->
+                frames
+                    .filter(QueryStats::isApplicationCode)
+                    .findFirst()
+                    .map(
+                        frame -> {
+                          String className = frame.getClassName();
+                          return className.substring(className.lastIndexOf('.') + 1)
+                              + "."
+                              + frame.getMethodName()
+                              + ":"
+                              + frame.getLineNumber();
+                        })
+                    .orElse("unknown"));
+  }
+
+  private static boolean isApplicationCode(StackWalker.StackFrame frame) {
+    String className = frame.getClassName();
+    if (!className.startsWith(APPLICATION_PACKAGE)
+        || className.contains("$$")
+        || className.equals(QueryStats.class.getName())) {
+      return false;
+    }
+    for (String instrumentation : INSTRUMENTATION_PACKAGES) {
+      if (className.startsWith(instrumentation)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // ========== REQUESTS ==========
+
+  /**
+   * Records a finished request and checks it against the limits. Returns how it was flagged, or
+   * null when it stayed within them.
+   */
+  public FlaggedRequest requestFinished(String method, String uri, RequestQueryStats stats) {
+    statementsPerRequest.record(stats.statements());
+
+    Set<Reason> reasons = EnumSet.noneOf(Reason.class);
+    if (stats.statements() > properties.getMaxStatementsPerRequest()) {
+      reasons.add(Reason.TOO_MANY_STATEMENTS);
+    }
+    Map.Entry<String, Integer> repeated = stats.mostRepeatedSelect();
+    if (repeated != null && repeated.getValue() >= properties.getRepeatedSelectThreshold()) {
+      reasons.add(Reason.REPEATED_SELECT);
+    }
+    if (reasons.isEmpty()) {
+      return null;
+    }
+
+    FlaggedRequest flagged =
+        new FlaggedRequest(
+            clock.instant(),
+            method + " " + uri,
+            stats.statements(),
+            reasons,
+            repeated != null ? repeated.getKey() : null,
+            repeated != null ? repeated.getValue() : 0);
+    for (Reason reason : reasons) {
+      Counter.builder(FLAGGED_REQUESTS)
+          .description("Requests over the statement limits (app.query-stats.*)")
+          .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+          .register(meterRegistry)
+          .increment();
+    }
+    synchronized (flaggedRequests) {
+      flaggedRequests.addFirst(flagged);
+      while (flaggedRequests.size() > properties.getRecentFlaggedRequests()) {
+        flaggedRequests.removeLast();
+      }
+    }
+    log.warn(
+        "Request {} ran {} statements {}, most repeated select {}x: {}",
+        flagged.request(),
+        flagged.statements(),
+        reasons,
+        flagged.repetitions(),
+        flagged.repeatedSelect());
+    return flagged;
+  }
+
+  // ========== REPORTING ==========
+
+  /** The slowest query shapes by their slowest execution, at most {@code top-queries}. */
+  public List<SlowQuery> slowQueries() {
+    return slowQueries.entrySet().stream()
+        .map(entry -> entry.getValue().snapshot(entry.getKey()))
+        .sorted(Comparator.comparingLong(SlowQuery::maxMs).reversed())
+        .limit(properties.getTopQueries())
+        .toList();
+  }
+
+  /** Recently flagged requests, latest first. */
+  public List<FlaggedRequest> flaggedRequests() {
+    synchronized (flaggedRequests) {
+      return new ArrayList<>(flaggedRequests);
+    }
+  }
+
+  public void reset() {
+    slowQueries.clear();
+    synchronized (flaggedRequests) {
+      flaggedRequests.clear();
+    }
+  }
+
+  private static class SlowQueryTotals {
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final Set<String> callSites = ConcurrentHashMap.newKeySet();
+
+    void record(long elapsedNanos, String callSite) {
+      executions.increment();
+      totalNanos.add(elapsedNanos);
+      maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+      if (callSites.size() < MAX_CALL_SITES) {
+        callSites.add(callSite);
+      }
+    }
+
+    SlowQuery snapshot(String query) {
+      return new SlowQuery(
+          query,
+          executions.sum(),
+          TimeUnit.NANOSECONDS.toMillis(totalNanos.sum()),
+          TimeUnit.NANOSECONDS.toMillis(maxNanos.get()),
+          Set.copyOf(callSites));
+    }
+  }
+}
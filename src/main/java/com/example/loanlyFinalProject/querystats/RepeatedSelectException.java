@@ -0,0 +1,18 @@
+package com.example.loanlyFinalProject.querystats;
+
+/**
+ * A request ran the same select too often (N+1). Only thrown in the test mode ({@code
+ * app.query-stats.fail-on-repeated-selects}), so that a regression fails the test that makes the
+ * request.
+ */
+public class RepeatedSelectException extends IllegalStateException {
+
+  public RepeatedSelectException(QueryStats.FlaggedRequest flagged) {
+    super(
+        flagged.request()
+            + " ran the same select "
+            + flagged.repetitions()
+            + " times (N+1): "
+            + flagged.repeatedSelect());
+  }
+}
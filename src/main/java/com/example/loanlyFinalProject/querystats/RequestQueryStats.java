@@ -0,0 +1,61 @@
+package com.example.loanlyFinalProject.querystats;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statements run by one request, collected on the request thread like the {@code LatencyBreakdown}:
+ * how many, and how often each select shape ran.
+ */
+public final class RequestQueryStats {
+
+  private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+  private final Map<String, Integer> selects = new HashMap<>();
+  private int statements;
+
+  private RequestQueryStats() {}
+
+  /**
+   * Starts collecting on the current thread. Returns null when collection is already running there,
+   * so a nested start leaves the outer one in charge.
+   */
+  public static RequestQueryStats start() {
+    if (CURRENT.get() != null) {
+      return null;
+    }
+    RequestQueryStats stats = new RequestQueryStats();
+    CURRENT.set(stats);
+    return stats;
+  }
+
+  /** Stops collecting on the current thread. */
+  public void stop() {
+    CURRENT.remove();
+  }
+
+  static void record(String shape) {
+    RequestQueryStats stats = CURRENT.get();
+    if (stats != null) {
+      stats.statements++;
+      if (SqlShapes.isSelect(shape)) {
+        stats.selects.merge(shape, 1, Integer::sum);
+      }
+    }
+  }
+
+  public int statements() {
+    return statements;
+  }
+
+  /** The select that ran most often, or null when there was none. */
+  public Map.Entry<String, Integer> mostRepeatedSelect() {
+    Map.Entry<String, Integer> most = null;
+    for (Map.Entry<String, Integer> entry : selects.entrySet()) {
+      if (most == null || entry.getValue() > most.getValue()) {
+        most = entry;
+      }
+    }
+    return most;
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.loanlyFinalProject.querystats;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Reduces SQL to its shape: literals and {@code IN} lists replaced, whitespace collapsed, lower
+ * case. Statements that differ only in their values share a shape, which is what N+1 detection and
+ * the slow-query list group by.
+ */
+final class SqlShapes {
+
+  private static final Pattern STRING = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+  private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  /** Hibernate reuses a small set of statement strings, so most lookups hit. */
+  private static final int MAX_CACHED = 4096;
+
+  private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+
+  private SqlShapes() {}
+
+  static String shape(String sql) {
+    String shape = CACHE.get(sql);
+    if (shape == null) {
+      shape = normalize(sql);
+      if (CACHE.size() < MAX_CACHED) {
+        CACHE.put(sql, shape);
+      }
+    }
+    return shape;
+  }
+
+  static boolean isSelect(String shape) {
+    return shape.startsWith("select") || shape.startsWith("with");
+  }
+
+  static String normalize(String sql) {
+    String shape = STRING.matcher(sql).replaceAll("?");
+    shape = NUMBER.matcher(shape).replaceAll("?");
+    shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+    return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+  }
+}
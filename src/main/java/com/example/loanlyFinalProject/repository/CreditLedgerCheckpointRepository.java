@@ -0,0 +1,31 @@
+package com.example.loanlyFinalProject.repository;
+
+import com.example.loanlyFinalProject.entity.CreditLedgerCheckpoint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CreditLedgerCheckpointRepository
+    extends JpaRepository<CreditLedgerCheckpoint, Long> {
+
+  // Latest checkpoint of a line taken at or before the given time
+  Optional<CreditLedgerCheckpoint> findFirstByUserPlafondIdAndAsOfLessThanEqualOrderByAsOfDesc(
+      Long userPlafondId, LocalDateTime asOf);
+
+  // Latest checkpoint of each of the given lines
+  @Query(
+      "SELECT c FROM CreditLedgerCheckpoint c WHERE c.userPlafond.id IN :userPlafondIds "
+          + "AND c.asOf = (SELECT MAX(c2.asOf) FROM CreditLedgerCheckpoint c2 "
+          + "WHERE c2.userPlafond.id = c.userPlafond.id)")
+  List<CreditLedgerCheckpoint> findLatestByUserPlafondIds(
+      @Param("userPlafondIds") Collection<Long> userPlafondIds);
+
+  @Query("SELECT MAX(c.asOf) FROM CreditLedgerCheckpoint c")
+  Optional<LocalDateTime> findLatestAsOf();
+}
@@ -0,0 +1,43 @@
+package com.example.loanlyFinalProject.repository;
+
+import com.example.loanlyFinalProject.entity.CreditLedgerEntry;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CreditLedgerEntryRepository extends JpaRepository<CreditLedgerEntry, Long> {
+
+  List<CreditLedgerEntry> findByUserPlafondIdOrderByCreatedAtAscIdAsc(Long userPlafondId);
+
+  // Sum of entries in (from, to] for one credit line (balance replay)
+  @Query(
+      "SELECT COALESCE(SUM(e.amount), 0) FROM CreditLedgerEntry e "
+          + "WHERE e.userPlafond.id = :userPlafondId "
+          + "AND e.createdAt > :from AND e.createdAt <= :to")
+  BigDecimal sumAmountBetween(
+      @Param("userPlafondId") Long userPlafondId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  @Query(
+      "SELECT COUNT(e) FROM CreditLedgerEntry e "
+          + "WHERE e.userPlafond.id = :userPlafondId "
+          + "AND e.createdAt > :from AND e.createdAt <= :to")
+  long countBetween(
+      @Param("userPlafondId") Long userPlafondId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  // Per-line sums of entries in (from, to] (checkpoint job)
+  @Query(
+      "SELECT e.userPlafond.id, SUM(e.amount) FROM CreditLedgerEntry e "
+          + "WHERE e.createdAt > :from AND e.createdAt <= :to "
+          + "GROUP BY e.userPlafond.id")
+  List<Object[]> sumAmountByLineBetween(
+      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,8 @@
+package com.example.loanlyFinalProject.repository;
+
+import com.example.loanlyFinalProject.entity.DisbursementBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DisbursementBatchRepository extends JpaRepository<DisbursementBatch, Long> {}
@@ -1,17 +1,62 @@
 package com.example.loanlyFinalProject.repository;
 
 import com.example.loanlyFinalProject.entity.Disbursement;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface DisbursementRepository extends JpaRepository<Disbursement, Long> {
 
-  // Find by user plafond
-  List<Disbursement> findByUserPlafondIdOrderByRequestedAtDesc(Long userPlafondId);
+  // Find by user plafond. Explicit JPQL: the derived query left-joins user_plafonds and filters
+  // on the joined key, which keeps the planner off the user_plafond_id index
+  @Query(
+      "SELECT d FROM Disbursement d WHERE d.userPlafond.id = :userPlafondId ORDER BY d.requestedAt DESC")
+  List<Disbursement> findByUserPlafondIdOrderByRequestedAtDesc(
+      @Param("userPlafondId") Long userPlafondId);
+
+  // Serializes payment postings on the same loan
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT d FROM Disbursement d WHERE d.id = :id")
+  Optional<Disbursement> findByIdForUpdate(@Param("id") Long id);
+
+  // Bulk processing: locks the PENDING rows among the ids, in id order. Read-only, so the
+  // status change written by JDBC batch is not flushed a second time.
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("SELECT d FROM Disbursement d WHERE d.id IN :ids AND d.status = 'PENDING' ORDER BY d.id")
+  List<Disbursement> lockPendingByIds(@Param("ids") Collection<Long> ids);
+
+  // Work-queue claim response: the claimed rows with their credit line, customer and tier
+  @Query(
+      "SELECT d FROM Disbursement d JOIN FETCH d.userPlafond up JOIN FETCH up.user "
+          + "LEFT JOIN FETCH up.plafond WHERE d.id IN :ids")
+  List<Disbursement> findAllWithLineByIdIn(@Param("ids") Collection<Long> ids);
+
+  // Transfer file of a bulk run: its disbursements with credit line and customer
+  @Query(
+      "SELECT d FROM Disbursement d JOIN FETCH d.userPlafond up JOIN FETCH up.user "
+          + "WHERE d.batchId = :batchId")
+  List<Disbursement> findAllWithLineByBatchId(@Param("batchId") Long batchId);
+
+  // Compare-and-set status transition; 0 means another action moved the disbursement first
+  @Modifying(flushAutomatically = true)
+  @Query("UPDATE Disbursement d SET d.status = :to WHERE d.id = :id AND d.status = :from")
+  int transitionStatus(
+      @Param("id") Long id,
+      @Param("from") Disbursement.DisbursementStatus from,
+      @Param("to") Disbursement.DisbursementStatus to);
 
   // Find by status
   List<Disbursement> findByStatusOrderByRequestedAtAsc(Disbursement.DisbursementStatus status);
@@ -27,4 +72,20 @@ public interface DisbursementRepository extends JpaRepository<Disbursement, Long
 
   // Count pending
   long countByStatus(Disbursement.DisbursementStatus status);
+
+  // ========== RECONCILIATION: Expected Used Amount ==========
+
+  // [userPlafondId, sum of non-cancelled amounts] for lines in (afterId, toId], in id order
+  @Query(
+      "SELECT d.userPlafond.id, SUM(d.amount) FROM Disbursement d "
+          + "WHERE d.userPlafond.id > :afterId AND d.userPlafond.id <= :toId "
+          + "AND d.status <> 'CANCELLED' "
+          + "GROUP BY d.userPlafond.id ORDER BY d.userPlafond.id")
+  List<Object[]> sumActiveAmountByLineBetween(
+      @Param("afterId") Long afterId, @Param("toId") Long toId);
+
+  @Query(
+      "SELECT COALESCE(SUM(d.amount), 0) FROM Disbursement d "
+          + "WHERE d.userPlafond.id = :userPlafondId AND d.status <> 'CANCELLED'")
+  BigDecimal sumActiveAmountByLine(@Param("userPlafondId") Long userPlafondId);
 }
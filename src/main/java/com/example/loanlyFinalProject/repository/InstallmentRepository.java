@@ -0,0 +1,101 @@
+package com.example.loanlyFinalProject.repository;
+
+import com.example.loanlyFinalProject.entity.Installment;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InstallmentRepository extends JpaRepository<Installment, Long> {
+
+  List<Installment> findByDisbursementIdOrderByInstallmentNumberAsc(Long disbursementId);
+
+  // Unpaid installments, oldest first (payment allocation order), locked until commit so the
+  // end-of-day accrual cannot change their penalty while a payment is allocated against it
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      "SELECT i FROM Installment i WHERE i.disbursement.id = :disbursementId "
+          + "AND i.status <> 'PAID' ORDER BY i.installmentNumber ASC")
+  List<Installment> findUnpaidByDisbursementIdForUpdate(
+      @Param("disbursementId") Long disbursementId);
+
+  // ========== DUE-DATE SCHEDULER ==========
+
+  // [id, dueDate, amountDue, disbursementId, userId] due in [from, to], keyset by id
+  @Query(
+      "SELECT i.id, i.dueDate, i.amountDue, d.id, up.user.id FROM Installment i "
+          + "JOIN i.disbursement d JOIN d.userPlafond up "
+          + "WHERE i.status IN :statuses AND i.dueDate >= :from AND i.dueDate <= :to "
+          + "AND i.id > :afterId ORDER BY i.id")
+  List<Object[]> findEventChunk(
+      @Param("statuses") Collection<Installment.InstallmentStatus> statuses,
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to,
+      @Param("afterId") Long afterId,
+      Pageable pageable);
+
+  @Query(
+      "SELECT i.id, i.dueDate, i.amountDue, d.id, up.user.id FROM Installment i "
+          + "JOIN i.disbursement d JOIN d.userPlafond up "
+          + "WHERE i.status = 'SCHEDULED' AND i.reminderSentAt IS NULL "
+          + "AND i.dueDate >= :from AND i.dueDate <= :to "
+          + "AND i.id > :afterId ORDER BY i.id")
+  List<Object[]> findReminderChunk(
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to,
+      @Param("afterId") Long afterId,
+      Pageable pageable);
+
+  // Conditional transitions: 0 rows = already moved on (paid, or fired by another node)
+
+  @Modifying
+  @Query(
+      "UPDATE Installment i SET i.status = 'DUE', i.updatedAt = :now "
+          + "WHERE i.id = :id AND i.status = 'SCHEDULED'")
+  int markDue(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+  @Modifying
+  @Query(
+      "UPDATE Installment i SET i.status = 'OVERDUE', i.updatedAt = :now "
+          + "WHERE i.id = :id AND i.status IN ('SCHEDULED', 'DUE')")
+  int markOverdue(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+  @Modifying
+  @Query(
+      "UPDATE Installment i SET i.reminderSentAt = :now "
+          + "WHERE i.id = :id AND i.status = 'SCHEDULED' AND i.reminderSentAt IS NULL")
+  int markReminderSent(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+  // ========== END-OF-DAY ACCRUAL ==========
+
+  @Query("SELECT MIN(i.id) FROM Installment i")
+  Long findMinId();
+
+  @Query("SELECT MAX(i.id) FROM Installment i")
+  Long findMaxId();
+
+  // [id, status, dueDate, principal, interest, paidPrincipal, paidInterest, penaltyAccruedThrough]
+  // of unpaid installments in (afterId, toId] that are past grace and not yet accrued for the day
+  @Query(
+      "SELECT i.id, i.status, i.dueDate, i.principalAmount, i.interestAmount, i.paidPrincipal, "
+          + "i.paidInterest, i.penaltyAccruedThrough FROM Installment i "
+          + "WHERE i.id > :afterId AND i.id <= :toId AND i.status <> 'PAID' "
+          + "AND i.dueDate < :overdueBefore "
+          + "AND (i.penaltyAccruedThrough IS NULL OR i.penaltyAccruedThrough < :businessDate) "
+          + "ORDER BY i.id")
+  List<Object[]> findAccrualChunk(
+      @Param("afterId") Long afterId,
+      @Param("toId") Long toId,
+      @Param("overdueBefore") LocalDate overdueBefore,
+      @Param("businessDate") LocalDate businessDate,
+      Pageable pageable);
+}
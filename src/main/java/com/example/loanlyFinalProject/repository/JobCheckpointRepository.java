@@ -0,0 +1,22 @@
+package com.example.loanlyFinalProject.repository;
+
+import com.example.loanlyFinalProject.entity.JobCheckpoint;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+
+  // All partitions of a job ("<job>/...")
+  @Query(
+      "SELECT j FROM JobCheckpoint j WHERE j.jobName LIKE CONCAT(:job, '/%') ORDER BY j.rangeEnd")
+  List<JobCheckpoint> findPartitions(@Param("job") String job);
+
+  @Modifying
+  @Query("DELETE FROM JobCheckpoint j WHERE j.jobName LIKE CONCAT(:job, '/%')")
+  int deletePartitions(@Param("job") String job);
+}
@@ -13,14 +13,23 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
-  // Find by user, ordered by newest first
-  List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
+  // Find by user, ordered by newest first. The list queries are explicit JPQL: the derived form
+  // left-joins users and filters on the joined key, so the (user_id, ...) index goes unused
+  @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC")
+  List<Notification> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
 
   // Find by user with pagination
-  Page<Notification> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+  @Query(
+      value = "SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC",
+      countQuery = "SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId")
+  Page<Notification> findByUserIdOrderByCreatedAtDesc(
+      @Param("userId") Long userId, Pageable pageable);
 
   // Find unread by user
-  List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
+  @Query(
+      "SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isRead = false "
+          + "ORDER BY n.createdAt DESC")
+  List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(@Param("userId") Long userId);
 
   // Count unread by user
   long countByUserIdAndIsReadFalse(Long userId);
@@ -0,0 +1,30 @@
+package com.example.loanlyFinalProject.repository;
+
+import com.example.loanlyFinalProject.entity.Payment;
+import java.math.BigDecimal;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+  List<Payment> findByDisbursementIdOrderByPaidAtDesc(Long disbursementId);
+
+  // ========== RECONCILIATION: Repaid Principal ==========
+
+  // [userPlafondId, repaid principal] for lines in (afterId, toId], in id order
+  @Query(
+      "SELECT p.userPlafond.id, SUM(p.principalAmount) FROM Payment p "
+          + "WHERE p.userPlafond.id > :afterId AND p.userPlafond.id <= :toId "
+          + "GROUP BY p.userPlafond.id ORDER BY p.userPlafond.id")
+  List<Object[]> sumPrincipalByLineBetween(
+      @Param("afterId") Long afterId, @Param("toId") Long toId);
+
+  @Query(
+      "SELECT COALESCE(SUM(p.principalAmount), 0) FROM Payment p "
+          + "WHERE p.userPlafond.id = :userPlafondId")
+  BigDecimal sumPrincipalByLine(@Param("userPlafondId") Long userPlafondId);
+}
@@ -3,12 +3,16 @@ package com.example.loanlyFinalProject.repository;
 import com.example.loanlyFinalProject.entity.PlafondDocument;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PlafondDocumentRepository extends JpaRepository<PlafondDocument, Long> {
 
-  List<PlafondDocument> findByUserPlafondId(Long userPlafondId);
+  // Explicit JPQL: the derived query left-joins user_plafonds and misses the user_plafond_id index
+  @Query("SELECT d FROM PlafondDocument d WHERE d.userPlafond.id = :userPlafondId")
+  List<PlafondDocument> findByUserPlafondId(@Param("userPlafondId") Long userPlafondId);
 
   void deleteByUserPlafondId(Long userPlafondId);
 }
@@ -8,7 +8,11 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface PlafondHistoryRepository extends JpaRepository<PlafondHistory, Long> {
 
-  List<PlafondHistory> findByUserPlafondIdOrderByCreatedAtDesc(Long userPlafondId);
+  // Explicit JPQL: the derived query left-joins user_plafonds and misses the user_plafond_id index
+  @org.springframework.data.jpa.repository.Query(
+      "SELECT h FROM PlafondHistory h WHERE h.userPlafond.id = :userPlafondId ORDER BY h.createdAt DESC")
+  List<PlafondHistory> findByUserPlafondIdOrderByCreatedAtDesc(
+      @org.springframework.data.repository.query.Param("userPlafondId") Long userPlafondId);
 
   // Find Marketing review entry for an application
   @org.springframework.data.jpa.repository.Query(
@@ -1,9 +1,13 @@
 package com.example.loanlyFinalProject.repository;
 
 import com.example.loanlyFinalProject.entity.UserPlafond;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,11 +26,18 @@ public interface UserPlafondRepository extends JpaRepository<UserPlafond, Long>
   @Query("SELECT up FROM UserPlafond up JOIN FETCH up.plafond WHERE up.user.id = :userId")
   List<UserPlafond> findByUserIdWithPlafond(@Param("userId") Long userId);
 
+  // Loads lines and their owners in one query (bulk disbursement processing)
+  @Query("SELECT up FROM UserPlafond up JOIN FETCH up.user WHERE up.id IN :ids")
+  List<UserPlafond> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
   // ========== NEW: For 2-Step Loan Flow ==========
 
   // Find by status (for Marketing and Branch Manager)
   List<UserPlafond> findByStatusOrderByRegisteredAtAsc(UserPlafond.PlafondApplicationStatus status);
 
+  // Queue size (metrics)
+  long countByStatus(UserPlafond.PlafondApplicationStatus status);
+
   // Find pending review (for Marketing)
   @Query(
       "SELECT up FROM UserPlafond up WHERE up.status = 'PENDING_REVIEW' ORDER BY up.registeredAt ASC")
@@ -49,6 +60,23 @@ public interface UserPlafondRepository extends JpaRepository<UserPlafond, Long>
           + "WHERE up.id = :id")
   Optional<UserPlafond> findByIdWithDetails(@Param("id") Long id);
 
+  // Work-queue claim response: the claimed applications with details
+  @Query(
+      "SELECT DISTINCT up FROM UserPlafond up "
+          + "JOIN FETCH up.user "
+          + "LEFT JOIN FETCH up.plafond "
+          + "LEFT JOIN FETCH up.documents "
+          + "WHERE up.id IN :ids")
+  List<UserPlafond> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+  // Compare-and-set status transition; 0 means another action moved the application first
+  @Modifying(flushAutomatically = true)
+  @Query("UPDATE UserPlafond up SET up.status = :to WHERE up.id = :id AND up.status = :from")
+  int transitionStatus(
+      @Param("id") Long id,
+      @Param("from") UserPlafond.PlafondApplicationStatus from,
+      @Param("to") UserPlafond.PlafondApplicationStatus to);
+
   // Check if user already has pending/approved for same plafond
   @Query(
       "SELECT COUNT(up) > 0 FROM UserPlafond up "
@@ -93,4 +121,53 @@ public interface UserPlafondRepository extends JpaRepository<UserPlafond, Long>
           + "WHERE up.user.id = :userId "
           + "AND up.status IN ('PENDING_REVIEW', 'WAITING_APPROVAL')")
   boolean hasPendingApplication(@Param("userId") Long userId);
+
+  // ========== CREDIT LEDGER: Used Amount Snapshot ==========
+
+  // Atomically reserve limit; 0 rows = not approved or not enough available limit
+  @Modifying(flushAutomatically = true)
+  @Query(
+      "UPDATE UserPlafond up SET up.usedAmount = COALESCE(up.usedAmount, 0) + :amount "
+          + "WHERE up.id = :id AND up.status = 'APPROVED' "
+          + "AND up.approvedLimit - COALESCE(up.usedAmount, 0) >= :amount")
+  int reserveCredit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+  @Modifying(flushAutomatically = true)
+  @Query(
+      "UPDATE UserPlafond up SET up.usedAmount = COALESCE(up.usedAmount, 0) + :delta "
+          + "WHERE up.id = :id")
+  int adjustUsedAmount(@Param("id") Long id, @Param("delta") BigDecimal delta);
+
+  @Query("SELECT COALESCE(up.usedAmount, 0) FROM UserPlafond up WHERE up.id = :id")
+  BigDecimal findUsedAmountById(@Param("id") Long id);
+
+  @Query(
+      "SELECT COALESCE(up.approvedLimit, 0) - COALESCE(up.usedAmount, 0) FROM UserPlafond up "
+          + "WHERE up.id = :id")
+  BigDecimal findAvailableLimitById(@Param("id") Long id);
+
+  // Set the used amount only if nobody moved it since it was observed
+  @Modifying(flushAutomatically = true)
+  @Query(
+      "UPDATE UserPlafond up SET up.usedAmount = :expected "
+          + "WHERE up.id = :id AND COALESCE(up.usedAmount, 0) = :observed")
+  int correctUsedAmount(
+      @Param("id") Long id,
+      @Param("observed") BigDecimal observed,
+      @Param("expected") BigDecimal expected);
+
+  // ========== RECONCILIATION: Keyset Chunks ==========
+
+  @Query("SELECT MIN(up.id) FROM UserPlafond up")
+  Long findMinId();
+
+  @Query("SELECT MAX(up.id) FROM UserPlafond up")
+  Long findMaxId();
+
+  // [id, usedAmount] for ids in (afterId, toId], in id order; page size = chunk size
+  @Query(
+      "SELECT up.id, COALESCE(up.usedAmount, 0) FROM UserPlafond up "
+          + "WHERE up.id > :afterId AND up.id <= :toId ORDER BY up.id")
+  List<Object[]> findUsedAmountChunk(
+      @Param("afterId") Long afterId, @Param("toId") Long toId, Pageable pageable);
 }
@@ -0,0 +1,157 @@
+package com.example.loanlyFinalProject.scheduling;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel (Varghese &amp; Lauck): a ring of buckets, one per tick. A task is hashed to
+ * the bucket of its deadline tick with the number of full revolutions still to wait, so scheduling
+ * and cancelling are O(1) and a tick only visits the tasks of one bucket.
+ *
+ * <p>The wheel has no thread of its own: its owner calls {@link #advanceTo(long, Consumer)} with
+ * the current time, which makes it easy to drive from a scheduler or from a simulated clock. A task
+ * fires on the first advance at or after the end of its deadline tick, so it is never early and at
+ * most one tick late. Deadlines in the past fire on the next tick.
+ *
+ * @param <T> task payload
+ */
+public final class HashedTimingWheel<T> {
+
+  private final long tickMillis;
+  private final long startMillis;
+  private final Timeout<T>[] buckets;
+  private final int mask;
+
+  private long currentTick; // Next tick to be processed
+  private int size;
+
+  @SuppressWarnings("unchecked")
+  public HashedTimingWheel(long tickMillis, int ticksPerWheel, long startMillis) {
+    if (tickMillis <= 0) {
+      throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+    }
+    if (ticksPerWheel <= 0 || Integer.bitCount(ticksPerWheel) != 1) {
+      throw new IllegalArgumentException("ticksPerWheel must be a power of two: " + ticksPerWheel);
+    }
+    this.tickMillis = tickMillis;
+    this.startMillis = startMillis;
+    this.buckets = new Timeout[ticksPerWheel];
+    this.mask = ticksPerWheel - 1;
+  }
+
+  /** Schedule {@code task} to fire at {@code deadlineMillis} (epoch millis). */
+  public synchronized Timeout<T> schedule(T task, long deadlineMillis) {
+    long deadlineTick =
+        Math.max(Math.floorDiv(deadlineMillis - startMillis, tickMillis), currentTick);
+    Timeout<T> timeout = new Timeout<>(this, task, deadlineMillis);
+    timeout.remainingRounds = (deadlineTick - currentTick) / buckets.length;
+    timeout.bucket = (int) (deadlineTick & mask);
+    link(timeout);
+    return timeout;
+  }
+
+  /**
+   * Process every tick that has ended by {@code nowMillis}, handing expired tasks to {@code
+   * expired} in deadline-tick order. The consumer must not schedule into this wheel; collect the
+   * tasks and act on them after this method returns.
+   *
+   * @return number of tasks that expired
+   */
+  public synchronized int advanceTo(long nowMillis, Consumer<? super T> expired) {
+    int fired = 0;
+    while (startMillis + (currentTick + 1) * tickMillis <= nowMillis) {
+      Timeout<T> timeout = buckets[(int) (currentTick & mask)];
+      while (timeout != null) {
+        Timeout<T> next = timeout.next;
+        if (timeout.remainingRounds <= 0) {
+          unlink(timeout);
+          timeout.state = Timeout.EXPIRED;
+          expired.accept(timeout.task);
+          fired++;
+        } else {
+          timeout.remainingRounds--;
+        }
+        timeout = next;
+      }
+      currentTick++;
+    }
+    return fired;
+  }
+
+  /** Pending (scheduled, not yet expired or cancelled) tasks. */
+  public synchronized int size() {
+    return size;
+  }
+
+  private synchronized boolean cancel(Timeout<T> timeout) {
+    if (timeout.state != Timeout.PENDING) {
+      return false;
+    }
+    unlink(timeout);
+    timeout.state = Timeout.CANCELLED;
+    return true;
+  }
+
+  private void link(Timeout<T> timeout) {
+    Timeout<T> head = buckets[timeout.bucket];
+    timeout.next = head;
+    if (head != null) {
+      head.prev = timeout;
+    }
+    buckets[timeout.bucket] = timeout;
+    size++;
+  }
+
+  private void unlink(Timeout<T> timeout) {
+    if (timeout.prev != null) {
+      timeout.prev.next = timeout.next;
+    } else {
+      buckets[timeout.bucket] = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.prev = timeout.prev;
+    }
+    timeout.prev = null;
+    timeout.next = null;
+    size--;
+  }
+
+  /** Handle of a scheduled task; also the node of its bucket's doubly linked list. */
+  public static final class Timeout<T> {
+
+    private static final int PENDING = 0;
+    private static final int EXPIRED = 1;
+    private static final int CANCELLED = 2;
+
+    private final HashedTimingWheel<T> wheel;
+    private final T task;
+    private final long deadlineMillis;
+    private long remainingRounds;
+    private int bucket;
+    private int state = PENDING;
+    private Timeout<T> prev;
+    private Timeout<T> next;
+
+    private Timeout(HashedTimingWheel<T> wheel, T task, long deadlineMillis) {
+      this.wheel = wheel;
+      this.task = task;
+      this.deadlineMillis = deadlineMillis;
+    }
+
+    public T getTask() {
+      return task;
+    }
+
+    public long getDeadlineMillis() {
+      return deadlineMillis;
+    }
+
+    /**
+     * Remove the task from the wheel in O(1).
+     *
+     * @return false if it already fired or was cancelled
+     */
+    public boolean cancel() {
+      return wheel.cancel(this);
+    }
+  }
+}
@@ -32,7 +32,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     try {
       String jwt = getJwtFromRequest(request);
 
-      if (StringUtils.hasText(jwt) && jwtService.validateToken(jwt)) {
+      // Already authenticated by the scrape token, which is not a JWT
+      boolean authenticated = SecurityContextHolder.getContext().getAuthentication() != null;
+      if (!authenticated && StringUtils.hasText(jwt) && jwtService.validateToken(jwt)) {
         Long userId = jwtService.getUserIdFromToken(jwt);
 
         UserDetails userDetails = userDetailsService.loadUserById(userId);
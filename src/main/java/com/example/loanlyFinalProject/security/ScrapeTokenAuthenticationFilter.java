@@ -0,0 +1,66 @@
+package com.example.loanlyFinalProject.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Lets the metrics scraper in with a static bearer token ({@code app.metrics.scrape-token}) instead
+ * of a user JWT, which would expire under it. The token only grants {@code ROLE_METRICS_SCRAPER},
+ * which only the Prometheus endpoint accepts. With no token configured the endpoint is limited to
+ * super admins.
+ */
+@Component
+public class ScrapeTokenAuthenticationFilter extends OncePerRequestFilter {
+
+  public static final String PROMETHEUS_PATH = "/actuator/prometheus";
+  public static final String SCRAPER_ROLE = "METRICS_SCRAPER";
+
+  private final byte[] scrapeToken;
+
+  public ScrapeTokenAuthenticationFilter(
+      @Value("${app.metrics.scrape-token:}") String scrapeToken) {
+    this.scrapeToken = scrapeToken.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    return scrapeToken.length == 0 || !PROMETHEUS_PATH.equals(path);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    String header = request.getHeader("Authorization");
+    if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
+      byte[] presented = header.substring(7).getBytes(StandardCharsets.UTF_8);
+      // Constant time, so the token cannot be guessed byte by byte from response times
+      if (MessageDigest.isEqual(presented, scrapeToken)) {
+        SecurityContextHolder.getContext()
+            .setAuthentication(
+                new UsernamePasswordAuthenticationToken(
+                    "metrics-scraper",
+                    null,
+                    List.of(new SimpleGrantedAuthority("ROLE_" + SCRAPER_ROLE))));
+      }
+    }
+    filterChain.doFilter(request, response);
+  }
+}
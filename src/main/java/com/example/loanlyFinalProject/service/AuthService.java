@@ -19,6 +19,7 @@ import com.example.loanlyFinalProject.security.CustomUserDetails;
 import com.example.loanlyFinalProject.security.JwtService;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseToken;
+import io.micrometer.core.annotation.Timed;
 import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.UUID;
@@ -36,6 +37,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = WorkflowMetrics.SERVICE_TIMER, histogram = true)
 public class AuthService {
 
   private final UserRepository userRepository;
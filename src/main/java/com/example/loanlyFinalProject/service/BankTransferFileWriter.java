@@ -0,0 +1,144 @@
+package com.example.loanlyFinalProject.service;
+
+import com.example.loanlyFinalProject.dto.response.BulkDisbursementResult.BankTransfer;
+import com.example.loanlyFinalProject.loan.LoanCalculator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes a bank bulk-transfer file, one group per destination bank, straight to an output stream.
+ *
+ * <p>CSV has a header row and one row per transfer. FIXED_WIDTH follows the usual host-to-host
+ * layout: per bank an {@code H} record (bank, count, total), its {@code D} detail records, and one
+ * {@code T} trailer (count, total) for the file. Amounts in fixed-width records are in minor units,
+ * zero-padded.
+ */
+@Component
+public class BankTransferFileWriter {
+
+  public enum Format {
+    CSV("text/csv", "csv"),
+    FIXED_WIDTH("text/plain", "txt");
+
+    private final String contentType;
+    private final String extension;
+
+    Format(String contentType, String extension) {
+      this.contentType = contentType;
+      this.extension = extension;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+
+    public String getExtension() {
+      return extension;
+    }
+  }
+
+  /** Write {@code transfers}, which must be ordered by bank name. The stream is not closed. */
+  public void write(List<BankTransfer> transfers, Format format, OutputStream out)
+      throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    if (format == Format.CSV) {
+      writeCsv(transfers, writer);
+    } else {
+      writeFixedWidth(transfers, writer);
+    }
+    writer.flush();
+  }
+
+  // ========== CSV ==========
+
+  private void writeCsv(List<BankTransfer> transfers, Writer writer) throws IOException {
+    writer.write("bank_name,account_number,account_name,amount,reference\r\n");
+    for (BankTransfer t : transfers) {
+      writer.write(csv(t.getBankName()));
+      writer.write(',');
+      writer.write(csv(t.getAccountNumber()));
+      writer.write(',');
+      writer.write(csv(t.getAccountName()));
+      writer.write(',');
+      writer.write(t.getAmount().toPlainString());
+      writer.write(',');
+      writer.write(csv(t.getReference()));
+      writer.write("\r\n");
+    }
+  }
+
+  private static String csv(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') < 0
+        && value.indexOf('"') < 0
+        && value.indexOf('\n') < 0
+        && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  // ========== FIXED WIDTH ==========
+
+  private void writeFixedWidth(List<BankTransfer> transfers, Writer writer) throws IOException {
+    long fileTotal = 0;
+    int start = 0;
+    while (start < transfers.size()) {
+      String bank = transfers.get(start).getBankName();
+      int end = start;
+      long bankTotal = 0;
+      while (end < transfers.size() && Objects.equals(transfers.get(end).getBankName(), bank)) {
+        bankTotal += LoanCalculator.toMinorUnits(transfers.get(end).getAmount());
+        end++;
+      }
+
+      writer.write('H');
+      writer.write(text(bank, 20));
+      writer.write(number(end - start, 6));
+      writer.write(number(bankTotal, 18));
+      writer.write("\r\n");
+      for (int i = start; i < end; i++) {
+        BankTransfer t = transfers.get(i);
+        writer.write('D');
+        writer.write(text(t.getAccountNumber(), 30));
+        writer.write(text(t.getAccountName(), 40));
+        writer.write(number(LoanCalculator.toMinorUnits(t.getAmount()), 18));
+        writer.write(text(t.getReference(), 20));
+        writer.write("\r\n");
+      }
+      fileTotal += bankTotal;
+      start = end;
+    }
+    writer.write('T');
+    writer.write(number(transfers.size(), 8));
+    writer.write(number(fileTotal, 18));
+    writer.write("\r\n");
+  }
+
+  // Left-aligned, space-padded, truncated; line breaks would corrupt the record layout
+  private static String text(String value, int width) {
+    String clean = value == null ? "" : value.replaceAll("[\\r\\n]", " ");
+    if (clean.length() >= width) {
+      return clean.substring(0, width);
+    }
+    return clean + " ".repeat(width - clean.length());
+  }
+
+  private static String number(long value, int width) {
+    String digits = Long.toString(value);
+    if (digits.length() > width) {
+      throw new IllegalArgumentException(
+          "Value " + value + " does not fit in " + width + " digits");
+    }
+    return "0".repeat(width - digits.length()) + digits;
+  }
+}
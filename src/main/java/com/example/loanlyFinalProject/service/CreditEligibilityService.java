@@ -7,6 +7,7 @@ import com.example.loanlyFinalProject.entity.Plafond;
 import com.example.loanlyFinalProject.entity.UserPlafond;
 import com.example.loanlyFinalProject.repository.PlafondRepository;
 import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import io.micrometer.core.annotation.Timed;
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
@@ -22,16 +23,24 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = WorkflowMetrics.SERVICE_TIMER, histogram = true)
 public class CreditEligibilityService {
 
   private final UserPlafondRepository userPlafondRepository;
   private final PlafondRepository plafondRepository;
+  private final WorkflowMetrics workflowMetrics;
 
   /**
    * Check if user is eligible to apply for a new plafond. Rules: 1. No pending applications 2. No
    * active limit with remaining balance > 0 3. If has previous plafond, must apply for higher tier
    */
   public CreditEligibilityResponse checkEligibility(Long userId) {
+    CreditEligibilityResponse eligibility = evaluate(userId);
+    workflowMetrics.eligibility(eligibility.getReasonCode());
+    return eligibility;
+  }
+
+  private CreditEligibilityResponse evaluate(Long userId) {
     log.info("Checking credit eligibility for user: {}", userId);
 
     // Rule 1: Check for pending applications
@@ -0,0 +1,324 @@
+package com.example.loanlyFinalProject.service;
+
+import com.example.loanlyFinalProject.datasource.Workload;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import com.example.loanlyFinalProject.dto.response.CreditBalanceResponse;
+import com.example.loanlyFinalProject.dto.response.CreditLedgerEntryResponse;
+import com.example.loanlyFinalProject.entity.CreditLedgerCheckpoint;
+import com.example.loanlyFinalProject.entity.CreditLedgerEntry;
+import com.example.loanlyFinalProject.entity.Disbursement;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.exception.ResourceNotFoundException;
+import com.example.loanlyFinalProject.repository.CreditLedgerCheckpointRepository;
+import com.example.loanlyFinalProject.repository.CreditLedgerEntryRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Append-only ledger behind {@link UserPlafond#getUsedAmount()}. Every change to a credit line's
+ * used amount is written here as an entry, and the snapshot column is moved by the same delta with
+ * an atomic UPDATE (no read-modify-write). Periodic checkpoints keep balance replays short.
+ *
+ * <p>Checkpoints select entries by {@code created_at}, up to now minus the checkpoint lag, so an
+ * entry committed later than that after its timestamp would be skipped for good. Every transaction
+ * that writes entries is therefore bounded: one still open {@code max-writer-seconds} after its
+ * first entry is rolled back at commit, and the lag must exceed that bound. DISBURSE entries move
+ * nothing, so a checkpoint that misses one is still right; they start no clock, and a bulk
+ * disbursement of {@code app.disbursement.bulk.max-size} loans may take as long as it needs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CreditLedgerService {
+
+  private static final int CHECKPOINT_CHUNK_SIZE = 500;
+  private static final LocalDateTime LEDGER_START = LocalDateTime.of(2000, 1, 1, 0, 0);
+  private static final Object WRITER_STARTED = new Object();
+
+  private final CreditLedgerEntryRepository entryRepository;
+  private final CreditLedgerCheckpointRepository checkpointRepository;
+  private final UserPlafondRepository userPlafondRepository;
+  private final Clock clock;
+
+  // Entries newer than this are left for the next checkpoint, so transactions
+  // still in flight at checkpoint time are not missed (see max-writer-seconds).
+  @Value("${app.credit-ledger.checkpoint-lag-minutes:5}")
+  private long checkpointLagMinutes;
+
+  // Longest a transaction may stay open after writing its first entry
+  @Value("${app.credit-ledger.max-writer-seconds:120}")
+  private long maxWriterSeconds;
+
+  @PostConstruct
+  void validateCheckpointLag() {
+    if (Duration.ofSeconds(maxWriterSeconds).compareTo(Duration.ofMinutes(checkpointLagMinutes))
+        >= 0) {
+      throw new IllegalStateException(
+          "app.credit-ledger.checkpoint-lag-minutes must exceed app.credit-ledger.max-writer-seconds");
+    }
+  }
+
+  // ========== WRITE PATH ==========
+
+  /**
+   * Reserve limit for a disbursement request. The reservation only succeeds if the line is APPROVED
+   * and still has enough available limit at the time of the UPDATE.
+   */
+  @Transactional
+  public BigDecimal reserve(UserPlafond userPlafond, BigDecimal amount, Long disbursementId) {
+    if (userPlafondRepository.reserveCredit(userPlafond.getId(), amount) == 0) {
+      // The loaded entity predates the UPDATE that just failed; report the row as it is now
+      throw new IllegalArgumentException(
+          "Insufficient credit limit. Available: "
+              + userPlafondRepository.findAvailableLimitById(userPlafond.getId()));
+    }
+    return append(userPlafond, CreditLedgerEntry.EntryType.RESERVE, amount, disbursementId, null);
+  }
+
+  /** Return previously reserved limit to the line. */
+  @Transactional
+  public BigDecimal release(
+      UserPlafond userPlafond, BigDecimal amount, Long disbursementId, String note) {
+    userPlafondRepository.adjustUsedAmount(userPlafond.getId(), amount.negate());
+    return append(
+        userPlafond, CreditLedgerEntry.EntryType.RELEASE, amount.negate(), disbursementId, note);
+  }
+
+  /** Return repaid principal of a disbursement to the line. */
+  @Transactional
+  public BigDecimal repay(
+      UserPlafond userPlafond, BigDecimal principal, Long disbursementId, String note) {
+    userPlafondRepository.adjustUsedAmount(userPlafond.getId(), principal.negate());
+    return append(
+        userPlafond,
+        CreditLedgerEntry.EntryType.REPAYMENT,
+        principal.negate(),
+        disbursementId,
+        note);
+  }
+
+  /** Correct the used amount by a signed delta (reconciliation, manual fixes). */
+  @Transactional
+  public BigDecimal adjust(UserPlafond userPlafond, BigDecimal delta, String note) {
+    userPlafondRepository.adjustUsedAmount(userPlafond.getId(), delta);
+    return append(userPlafond, CreditLedgerEntry.EntryType.ADJUST, delta, null, note);
+  }
+
+  /**
+   * Set the used amount to {@code expected} if it still equals {@code observed}, and record the
+   * difference as an ADJUST entry.
+   *
+   * @return false if the line moved after it was observed; nothing is written then
+   */
+  @Transactional
+  public boolean correct(
+      UserPlafond userPlafond, BigDecimal observed, BigDecimal expected, String note) {
+    if (userPlafondRepository.correctUsedAmount(userPlafond.getId(), observed, expected) == 0) {
+      return false;
+    }
+    append(
+        userPlafond, CreditLedgerEntry.EntryType.ADJUST, expected.subtract(observed), null, note);
+    return true;
+  }
+
+  /**
+   * Record that reserved limit was paid out. Does not change the used amount, so the entries are
+   * zero and the transaction is not bounded by {@code max-writer-seconds}.
+   */
+  @Transactional
+  public void recordDisbursed(List<Disbursement> disbursements) {
+    List<CreditLedgerEntry> entries = new ArrayList<>(disbursements.size());
+    for (Disbursement d : disbursements) {
+      UserPlafond line = d.getUserPlafond();
+      entries.add(
+          CreditLedgerEntry.builder()
+              .userPlafond(line)
+              .entryType(CreditLedgerEntry.EntryType.DISBURSE)
+              .amount(BigDecimal.ZERO)
+              .usedAmountAfter(
+                  line.getUsedAmount() != null ? line.getUsedAmount() : BigDecimal.ZERO)
+              .disbursementId(d.getId())
+              .build());
+    }
+    // Sequence ids + hibernate.jdbc.batch_size: written as one JDBC batch
+    entryRepository.saveAll(entries);
+  }
+
+  private BigDecimal append(
+      UserPlafond userPlafond,
+      CreditLedgerEntry.EntryType type,
+      BigDecimal delta,
+      Long disbursementId,
+      String note) {
+    // Read back the value the atomic UPDATE produced; the row is locked by
+    // this transaction, so it is exactly the balance after this entry.
+    BigDecimal usedAfter = userPlafondRepository.findUsedAmountById(userPlafond.getId());
+    userPlafond.setUsedAmount(usedAfter);
+
+    boundWriterTransaction();
+    entryRepository.save(
+        CreditLedgerEntry.builder()
+            .userPlafond(userPlafond)
+            .entryType(type)
+            .amount(delta)
+            .usedAmountAfter(usedAfter)
+            .disbursementId(disbursementId)
+            .note(note)
+            .build());
+
+    log.debug(
+        "Ledger {} on credit line {}: delta={}, usedAfter={}",
+        type,
+        userPlafond.getId(),
+        delta,
+        usedAfter);
+    return usedAfter;
+  }
+
+  /**
+   * Start the clock on the surrounding transaction at its first entry, and refuse to commit it once
+   * it has been open longer than the checkpoint lag allows.
+   */
+  private void boundWriterTransaction() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()
+        || TransactionSynchronizationManager.hasResource(WRITER_STARTED)) {
+      return;
+    }
+    long started = System.nanoTime();
+    TransactionSynchronizationManager.bindResource(WRITER_STARTED, started);
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void beforeCommit(boolean readOnly) {
+            Duration open = Duration.ofNanos(System.nanoTime() - started);
+            if (open.getSeconds() >= maxWriterSeconds) {
+              throw new IllegalStateException(
+                  "Credit ledger transaction open for "
+                      + open.getSeconds()
+                      + "s, longer than the checkpoint lag allows");
+            }
+          }
+
+          @Override
+          public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(WRITER_STARTED);
+          }
+        });
+  }
+
+  // ========== REPLAY ==========
+
+  /**
+   * Rebuild a credit line's used amount as of the given time from the latest checkpoint at or
+   * before it plus the ledger entries written since.
+   */
+  @Transactional(readOnly = true)
+  public CreditBalanceResponse replayBalance(Long userPlafondId, LocalDateTime asOf) {
+    UserPlafond userPlafond =
+        userPlafondRepository
+            .findById(userPlafondId)
+            .orElseThrow(() -> new ResourceNotFoundException("User Plafond", "id", userPlafondId));
+
+    CreditLedgerCheckpoint checkpoint =
+        checkpointRepository
+            .findFirstByUserPlafondIdAndAsOfLessThanEqualOrderByAsOfDesc(userPlafondId, asOf)
+            .orElse(null);
+
+    LocalDateTime from = checkpoint != null ? checkpoint.getAsOf() : LEDGER_START;
+    BigDecimal base = checkpoint != null ? checkpoint.getUsedAmount() : BigDecimal.ZERO;
+    BigDecimal delta = entryRepository.sumAmountBetween(userPlafondId, from, asOf);
+
+    return CreditBalanceResponse.builder()
+        .userPlafondId(userPlafondId)
+        .asOf(asOf)
+        .usedAmount(base.add(delta))
+        .checkpointAsOf(checkpoint != null ? checkpoint.getAsOf() : null)
+        .checkpointUsedAmount(base)
+        .entriesReplayed(entryRepository.countBetween(userPlafondId, from, asOf))
+        .currentUsedAmount(userPlafond.getUsedAmount())
+        .build();
+  }
+
+  @Transactional(readOnly = true)
+  public List<CreditLedgerEntryResponse> getEntries(Long userPlafondId) {
+    if (!userPlafondRepository.existsById(userPlafondId)) {
+      throw new ResourceNotFoundException("User Plafond", "id", userPlafondId);
+    }
+    return entryRepository.findByUserPlafondIdOrderByCreatedAtAscIdAsc(userPlafondId).stream()
+        .map(
+            e ->
+                CreditLedgerEntryResponse.builder()
+                    .id(e.getId())
+                    .entryType(e.getEntryType().name())
+                    .amount(e.getAmount())
+                    .usedAmountAfter(e.getUsedAmountAfter())
+                    .disbursementId(e.getDisbursementId())
+                    .note(e.getNote())
+                    .createdAt(e.getCreatedAt())
+                    .build())
+        .collect(Collectors.toList());
+  }
+
+  // ========== CHECKPOINTS ==========
+
+  /** Write a checkpoint for every credit line that has ledger activity since the last run. */
+  @Scheduled(cron = "${app.credit-ledger.checkpoint-cron:0 */15 * * * *}")
+  @Workload(WorkloadType.BACKGROUND_JOBS)
+  @Transactional
+  public int checkpoint() {
+    LocalDateTime to = LocalDateTime.now(clock).minusMinutes(checkpointLagMinutes);
+    LocalDateTime from = checkpointRepository.findLatestAsOf().orElse(LEDGER_START);
+    if (!to.isAfter(from)) {
+      return 0;
+    }
+
+    List<Object[]> deltas = entryRepository.sumAmountByLineBetween(from, to);
+    int written = 0;
+    for (int i = 0; i < deltas.size(); i += CHECKPOINT_CHUNK_SIZE) {
+      List<Object[]> chunk = deltas.subList(i, Math.min(i + CHECKPOINT_CHUNK_SIZE, deltas.size()));
+      List<Long> lineIds = chunk.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+      Map<Long, CreditLedgerCheckpoint> previous =
+          checkpointRepository.findLatestByUserPlafondIds(lineIds).stream()
+              .collect(
+                  Collectors.toMap(
+                      c -> c.getUserPlafond().getId(), Function.identity(), (a, b) -> a));
+
+      List<CreditLedgerCheckpoint> checkpoints = new ArrayList<>(chunk.size());
+      for (Object[] row : chunk) {
+        Long lineId = (Long) row[0];
+        CreditLedgerCheckpoint prev = previous.get(lineId);
+        BigDecimal base = prev != null ? prev.getUsedAmount() : BigDecimal.ZERO;
+        checkpoints.add(
+            CreditLedgerCheckpoint.builder()
+                .userPlafond(userPlafondRepository.getReferenceById(lineId))
+                .asOf(to)
+                .usedAmount(base.add((BigDecimal) row[1]))
+                .build());
+      }
+      checkpointRepository.saveAll(checkpoints);
+      written += checkpoints.size();
+    }
+
+    if (written > 0) {
+      log.info("Credit ledger checkpoint as of {}: {} credit lines", to, written);
+    }
+    return written;
+  }
+}
@@ -0,0 +1,428 @@
+package com.example.loanlyFinalProject.service;
+
+import com.example.loanlyFinalProject.datasource.WorkloadContext;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import com.example.loanlyFinalProject.dto.response.ReconciliationReportResponse;
+import com.example.loanlyFinalProject.entity.JobCheckpoint;
+import com.example.loanlyFinalProject.repository.DisbursementRepository;
+import com.example.loanlyFinalProject.repository.JobCheckpointRepository;
+import com.example.loanlyFinalProject.repository.PaymentRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checks that every credit line's used amount equals the sum of its non-cancelled disbursements
+ * minus the principal repaid on them.
+ *
+ * <p>The id range of {@code user_plafonds} is split into partitions that worker threads walk in
+ * keyset-ordered chunks: one chunk of lines plus the disbursement and repayment sums for the same
+ * id range, merge-joined in memory. Memory use is one chunk per worker regardless of table size.
+ * Each partition's position is committed to {@code job_checkpoints} after every chunk, so an
+ * interrupted run is resumed by the next one instead of starting over.
+ *
+ * <p>A difference is re-read in its own transaction before it is reported, so lines that were being
+ * changed while the chunk was read are not flagged. With auto-correct on, the used amount is moved
+ * to the expected value through the credit ledger (ADJUST entry), guarded by the value that was
+ * observed.
+ */
+@Service
+@Slf4j
+public class CreditReconciliationService {
+
+  static final String JOB_NAME = "credit-reconciliation";
+  private static final int MAX_SAMPLES = 100;
+
+  private final UserPlafondRepository userPlafondRepository;
+  private final DisbursementRepository disbursementRepository;
+  private final PaymentRepository paymentRepository;
+  private final JobCheckpointRepository jobCheckpointRepository;
+  private final CreditLedgerService creditLedgerService;
+  private final TransactionTemplate readTransaction;
+  private final TransactionTemplate writeTransaction;
+  private final ExecutorService coordinator;
+  private final ExecutorService workers;
+
+  private final int chunkSize;
+  private final int partitionCount;
+  private final boolean autoCorrectDefault;
+
+  private final Counter linesCounter;
+  private final Counter mismatchCounter;
+  private final Counter correctionCounter;
+  private final Timer runTimer;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final AtomicReference<RunState> lastRun = new AtomicReference<>();
+
+  public CreditReconciliationService(
+      UserPlafondRepository userPlafondRepository,
+      DisbursementRepository disbursementRepository,
+      PaymentRepository paymentRepository,
+      JobCheckpointRepository jobCheckpointRepository,
+      CreditLedgerService creditLedgerService,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${app.credit-reconciliation.chunk-size:1000}") int chunkSize,
+      @Value("${app.credit-reconciliation.workers:4}") int workerCount,
+      @Value("${app.credit-reconciliation.auto-correct:false}") boolean autoCorrectDefault) {
+    this.userPlafondRepository = userPlafondRepository;
+    this.disbursementRepository = disbursementRepository;
+    this.paymentRepository = paymentRepository;
+    this.jobCheckpointRepository = jobCheckpointRepository;
+    this.creditLedgerService = creditLedgerService;
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction.setReadOnly(true);
+    this.writeTransaction = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+    this.partitionCount = workerCount;
+    this.autoCorrectDefault = autoCorrectDefault;
+
+    this.coordinator = Executors.newSingleThreadExecutor(namedThreads("credit-recon-coordinator"));
+    this.workers = Executors.newFixedThreadPool(workerCount, namedThreads("credit-recon-worker"));
+
+    this.linesCounter =
+        Counter.builder("credit.reconciliation.lines")
+            .description("Credit lines compared against their disbursements and repayments")
+            .register(meterRegistry);
+    this.mismatchCounter =
+        Counter.builder("credit.reconciliation.mismatches")
+            .description("Credit lines whose used amount differs from the expected amount")
+            .register(meterRegistry);
+    this.correctionCounter =
+        Counter.builder("credit.reconciliation.corrections")
+            .description("Mismatches corrected through the credit ledger")
+            .register(meterRegistry);
+    this.runTimer =
+        Timer.builder("credit.reconciliation.duration")
+            .description("Duration of reconciliation runs")
+            .register(meterRegistry);
+    meterRegistry.gauge(
+        "credit.reconciliation.last.mismatches",
+        lastRun,
+        ref -> ref.get() != null ? ref.get().mismatches.get() : 0);
+  }
+
+  // ========== TRIGGERS ==========
+
+  /** Nightly run; the scheduler thread only hands the run over to the coordinator. */
+  @Scheduled(cron = "${app.credit-reconciliation.cron:0 0 2 * * *}")
+  public void scheduledRun() {
+    if (!start(autoCorrectDefault)) {
+      log.warn("Skipping scheduled credit reconciliation: a run is still in progress");
+    }
+  }
+
+  /**
+   * Start a run in the background.
+   *
+   * @return false if a run is already in progress
+   */
+  public boolean start(boolean autoCorrect) {
+    if (running.get()) {
+      return false;
+    }
+    coordinator.submit(() -> run(autoCorrect));
+    return true;
+  }
+
+  /** Report of the run in progress, or of the last finished run; null if none ran yet. */
+  public ReconciliationReportResponse getLastReport() {
+    RunState state = lastRun.get();
+    return state != null ? state.toReport() : null;
+  }
+
+  // ========== RUN ==========
+
+  /** Run a reconciliation on the calling thread and wait for all partitions. */
+  public ReconciliationReportResponse run(boolean autoCorrect) {
+    if (!running.compareAndSet(false, true)) {
+      return getLastReport();
+    }
+    RunState state = new RunState(autoCorrect);
+    lastRun.set(state);
+    WorkloadType previous = WorkloadContext.enter(WorkloadType.BACKGROUND_JOBS);
+    Timer.Sample sample = Timer.start();
+    try {
+      List<JobCheckpoint> partitions = loadOrPlanPartitions(state);
+      state.partitions = partitions.size();
+
+      List<Future<?>> futures = new ArrayList<>(partitions.size());
+      for (JobCheckpoint partition : partitions) {
+        if (!partition.isFinished()) {
+          futures.add(workers.submit(() -> reconcilePartition(partition, state)));
+        }
+      }
+      Throwable failure = null;
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          failure = failure != null ? failure : e.getCause();
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+
+      writeTransaction.executeWithoutResult(
+          status -> jobCheckpointRepository.deletePartitions(JOB_NAME));
+      state.status = "COMPLETED";
+      log.info(
+          "Credit reconciliation completed: {} lines, {} mismatches, {} corrected, net drift {}",
+          state.checked.get(),
+          state.mismatches.get(),
+          state.corrected.get(),
+          state.netDrift());
+    } catch (Throwable e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      // Checkpoints are kept: the next run resumes from them
+      state.status = "FAILED";
+      state.error = e.getMessage();
+      log.error("Credit reconciliation failed; it will resume from its checkpoints", e);
+    } finally {
+      state.finishedAt = LocalDateTime.now();
+      sample.stop(runTimer);
+      WorkloadContext.restore(previous);
+      running.set(false);
+    }
+    return state.toReport();
+  }
+
+  /** Resume the partitions of an interrupted run, or split the current id range into new ones. */
+  private List<JobCheckpoint> loadOrPlanPartitions(RunState state) {
+    List<JobCheckpoint> existing =
+        readTransaction.execute(status -> jobCheckpointRepository.findPartitions(JOB_NAME));
+    if (!existing.isEmpty()) {
+      state.resumed = true;
+      existing.forEach(p -> state.checked.addAndGet(p.getProcessedCount()));
+      log.info("Resuming credit reconciliation from {} partition checkpoints", existing.size());
+      return existing;
+    }
+
+    Long minId = readTransaction.execute(status -> userPlafondRepository.findMinId());
+    Long maxId = readTransaction.execute(status -> userPlafondRepository.findMaxId());
+    if (minId == null || maxId == null) {
+      return List.of();
+    }
+
+    long span = maxId - minId + 1;
+    int count = (int) Math.min(partitionCount, span);
+    long size = (span + count - 1) / count;
+    List<JobCheckpoint> partitions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      long after = minId - 1 + i * size;
+      partitions.add(
+          JobCheckpoint.builder()
+              .jobName(JOB_NAME + "/" + i)
+              .lastProcessedId(after)
+              .rangeEnd(Math.min(maxId, after + size))
+              .build());
+    }
+    writeTransaction.executeWithoutResult(status -> jobCheckpointRepository.saveAll(partitions));
+    return partitions;
+  }
+
+  private void reconcilePartition(JobCheckpoint partition, RunState state) {
+    WorkloadType previous = WorkloadContext.enter(WorkloadType.BACKGROUND_JOBS);
+    try {
+      while (!partition.isFinished()) {
+        if (Thread.currentThread().isInterrupted()) {
+          throw new CancellationException("Reconciliation interrupted");
+        }
+        long afterId = partition.getLastProcessedId();
+        long rangeEnd = partition.getRangeEnd();
+
+        List<Object[]> lines =
+            readTransaction.execute(
+                status ->
+                    userPlafondRepository.findUsedAmountChunk(
+                        afterId, rangeEnd, PageRequest.of(0, chunkSize)));
+        // A short chunk means the partition is exhausted
+        long lastId = lines.size() < chunkSize ? rangeEnd : (Long) lines.get(lines.size() - 1)[0];
+        if (!lines.isEmpty()) {
+          List<Object[]> disbursed =
+              readTransaction.execute(
+                  status -> disbursementRepository.sumActiveAmountByLineBetween(afterId, lastId));
+          List<Object[]> repaid =
+              readTransaction.execute(
+                  status -> paymentRepository.sumPrincipalByLineBetween(afterId, lastId));
+          compareChunk(lines, disbursed, repaid, state);
+        }
+
+        partition.setLastProcessedId(lastId);
+        partition.setProcessedCount(partition.getProcessedCount() + lines.size());
+        writeTransaction.executeWithoutResult(status -> jobCheckpointRepository.save(partition));
+      }
+    } finally {
+      WorkloadContext.restore(previous);
+    }
+  }
+
+  /** Merge-join a chunk of [id, usedAmount] with [id, sum] rows; all are ordered by id. */
+  private void compareChunk(
+      List<Object[]> lines, List<Object[]> disbursed, List<Object[]> repaid, RunState state) {
+    int d = 0;
+    int r = 0;
+    for (Object[] line : lines) {
+      Long id = (Long) line[0];
+      BigDecimal used = (BigDecimal) line[1];
+      while (d < disbursed.size() && (Long) disbursed.get(d)[0] < id) {
+        d++;
+      }
+      while (r < repaid.size() && (Long) repaid.get(r)[0] < id) {
+        r++;
+      }
+      BigDecimal expected = amountFor(disbursed, d, id).subtract(amountFor(repaid, r, id));
+      if (used.compareTo(expected) != 0) {
+        handleMismatch(id, state);
+      }
+    }
+    state.checked.addAndGet(lines.size());
+    linesCounter.increment(lines.size());
+  }
+
+  private static BigDecimal amountFor(List<Object[]> sums, int index, Long id) {
+    return index < sums.size() && id.equals(sums.get(index)[0])
+        ? (BigDecimal) sums.get(index)[1]
+        : BigDecimal.ZERO;
+  }
+
+  private void handleMismatch(Long userPlafondId, RunState state) {
+    TransactionTemplate transaction = state.autoCorrect ? writeTransaction : readTransaction;
+    ReconciliationReportResponse.Mismatch mismatch =
+        transaction.execute(
+            status -> {
+              BigDecimal used = userPlafondRepository.findUsedAmountById(userPlafondId);
+              BigDecimal expected =
+                  disbursementRepository
+                      .sumActiveAmountByLine(userPlafondId)
+                      .subtract(paymentRepository.sumPrincipalByLine(userPlafondId));
+              if (used.compareTo(expected) == 0) {
+                return null; // Changed while the chunk was read; consistent now
+              }
+              boolean corrected =
+                  state.autoCorrect
+                      && creditLedgerService.correct(
+                          userPlafondRepository.getReferenceById(userPlafondId),
+                          used,
+                          expected,
+                          "Reconciliation: used amount did not match disbursements and repayments");
+              return ReconciliationReportResponse.Mismatch.builder()
+                  .userPlafondId(userPlafondId)
+                  .usedAmount(used)
+                  .expectedAmount(expected)
+                  .difference(used.subtract(expected))
+                  .corrected(corrected)
+                  .build();
+            });
+    if (mismatch == null) {
+      return;
+    }
+
+    state.record(mismatch);
+    mismatchCounter.increment();
+    if (mismatch.isCorrected()) {
+      correctionCounter.increment();
+    }
+    log.warn(
+        "Credit line {} used amount {} does not match expected {}{}",
+        userPlafondId,
+        mismatch.getUsedAmount(),
+        mismatch.getExpectedAmount(),
+        mismatch.isCorrected() ? " (corrected)" : "");
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    coordinator.shutdownNow();
+    workers.shutdownNow();
+  }
+
+  private static ThreadFactory namedThreads(String prefix) {
+    AtomicInteger sequence = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + "-" + sequence.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /** Counters of one run, updated by all workers. */
+  private static final class RunState {
+
+    private final boolean autoCorrect;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+    private final AtomicLong corrected = new AtomicLong();
+    private final List<ReconciliationReportResponse.Mismatch> samples = new ArrayList<>();
+    private BigDecimal drift = BigDecimal.ZERO;
+    private volatile String status = "RUNNING";
+    private volatile LocalDateTime finishedAt;
+    private volatile boolean resumed;
+    private volatile int partitions;
+    private volatile String error;
+
+    private RunState(boolean autoCorrect) {
+      this.autoCorrect = autoCorrect;
+    }
+
+    private synchronized void record(ReconciliationReportResponse.Mismatch mismatch) {
+      mismatches.incrementAndGet();
+      if (mismatch.isCorrected()) {
+        corrected.incrementAndGet();
+      }
+      drift = drift.add(mismatch.getDifference());
+      if (samples.size() < MAX_SAMPLES) {
+        samples.add(mismatch);
+      }
+    }
+
+    private synchronized BigDecimal netDrift() {
+      return drift;
+    }
+
+    private synchronized ReconciliationReportResponse toReport() {
+      return ReconciliationReportResponse.builder()
+          .status(status)
+          .startedAt(startedAt)
+          .finishedAt(finishedAt)
+          .resumed(resumed)
+          .autoCorrect(autoCorrect)
+          .partitions(partitions)
+          .linesChecked(checked.get())
+          .mismatchCount(mismatches.get())
+          .correctedCount(corrected.get())
+          .netDrift(drift)
+          .error(error)
+          .samples(List.copyOf(samples))
+          .build();
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.loanlyFinalProject.service;
+
+import com.example.loanlyFinalProject.config.AsyncConfig;
+import com.example.loanlyFinalProject.datasource.WorkloadContext;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import com.example.loanlyFinalProject.entity.Notification;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Fans the notifications of a bulk disbursement out over the notification executor once the
+ * disbursements are committed, so the back-office request does not wait for thousands of inserts
+ * and push messages, and a rolled-back batch notifies nobody.
+ */
+@Component
+@Slf4j
+public class DisbursementNotificationListener {
+
+  private final NotificationService notificationService;
+  private final TaskExecutor executor;
+  private final int sliceSize;
+
+  public DisbursementNotificationListener(
+      NotificationService notificationService,
+      @Qualifier(AsyncConfig.NOTIFICATION_EXECUTOR) TaskExecutor executor,
+      @Value("${app.notifications.fan-out-slice-size:200}") int sliceSize) {
+    this.notificationService = notificationService;
+    this.executor = executor;
+    this.sliceSize = sliceSize;
+  }
+
+  @TransactionalEventListener
+  public void onDisbursementsProcessed(DisbursementsProcessedEvent event) {
+    List<DisbursementsProcessedEvent.Disbursed> all = event.disbursements();
+    for (int from = 0; from < all.size(); from += sliceSize) {
+      List<DisbursementsProcessedEvent.Disbursed> slice =
+          all.subList(from, Math.min(all.size(), from + sliceSize));
+      executor.execute(() -> notifySlice(slice));
+    }
+  }
+
+  private void notifySlice(List<DisbursementsProcessedEvent.Disbursed> slice) {
+    WorkloadType previous = WorkloadContext.enter(WorkloadType.BACKGROUND_JOBS);
+    try {
+      List<NotificationService.NewNotification> notifications = new ArrayList<>(slice.size());
+      for (DisbursementsProcessedEvent.Disbursed d : slice) {
+        notifications.add(
+            new NotificationService.NewNotification(
+                d.userId(),
+                "Dana Telah Dicairkan!",
+                "Pencairan sebesar Rp "
+                    + d.amount()
+                    + " telah berhasil diproses. "
+                    + "Total yang harus dibayar: Rp "
+                    + d.totalAmount(),
+                Notification.NotificationType.LOAN_DISBURSED,
+                d.disbursementId()));
+      }
+      notificationService.createNotifications(notifications);
+    } catch (RuntimeException e) {
+      log.error("Failed to send {} disbursement notifications", slice.size(), e);
+    } finally {
+      WorkloadContext.restore(previous);
+    }
+  }
+}
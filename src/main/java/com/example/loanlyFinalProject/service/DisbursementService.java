@@ -1,30 +1,76 @@
 package com.example.loanlyFinalProject.service;
 
+import com.example.loanlyFinalProject.datasource.Workload;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
 import com.example.loanlyFinalProject.dto.request.DisbursementRequest;
+import com.example.loanlyFinalProject.dto.response.BulkDisbursementResult;
+import com.example.loanlyFinalProject.dto.response.DisbursementQuoteResponse;
 import com.example.loanlyFinalProject.dto.response.DisbursementResponse;
+import com.example.loanlyFinalProject.dto.response.WorkQueueClaimResponse;
 import com.example.loanlyFinalProject.entity.*;
 import com.example.loanlyFinalProject.exception.ResourceNotFoundException;
+import com.example.loanlyFinalProject.exception.StateConflictException;
+import com.example.loanlyFinalProject.loan.InstallmentSchedule;
+import com.example.loanlyFinalProject.loan.InterestType;
+import com.example.loanlyFinalProject.loan.LoanCalculator;
 import com.example.loanlyFinalProject.repository.*;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = WorkflowMetrics.SERVICE_TIMER, histogram = true)
 public class DisbursementService {
 
+  private static final String BULK_DISBURSE_SQL =
+      "UPDATE disbursements SET status = 'DISBURSED', disbursed_at = ?, disbursed_by = ?, note = ?, "
+          + "batch_id = ?, lease_owner_id = NULL, lease_expires_at = NULL, version = version + 1 "
+          + "WHERE id = ? AND status = 'PENDING'";
+  private static final String TRANSFER_REFERENCE_PREFIX = "LOANLY-";
+  private static final Comparator<BulkDisbursementResult.BankTransfer> TRANSFER_ORDER =
+      Comparator.comparing(BulkDisbursementResult.BankTransfer::getBankName)
+          .thenComparing(BulkDisbursementResult.BankTransfer::getDisbursementId);
+
   private final DisbursementRepository disbursementRepository;
+  private final DisbursementBatchRepository disbursementBatchRepository;
   private final UserPlafondRepository userPlafondRepository;
   private final UserRepository userRepository;
   private final TenorRateRepository tenorRateRepository;
   private final NotificationService notificationService;
+  private final CreditLedgerService creditLedgerService;
+  private final RepaymentService repaymentService;
+  private final WorkQueueService workQueueService;
+  private final JdbcTemplate jdbcTemplate;
+  private final EntityManager entityManager;
+  private final ApplicationEventPublisher eventPublisher;
+  private final WorkflowMetrics workflowMetrics;
+
+  @Value("${app.disbursement.bulk.max-size:10000}")
+  private int bulkMaxSize;
+
+  // SQL Server accepts at most 2100 parameters per statement
+  @Value("${app.disbursement.bulk.lock-chunk-size:1000}")
+  private int bulkLockChunkSize;
+
+  @Value("${app.disbursement.bulk.batch-size:500}")
+  private int bulkBatchSize;
 
   // ========== CUSTOMER: Request Disbursement ==========
 
@@ -62,31 +108,16 @@ public class DisbursementService {
 
     // Get interest rate from TenorRate table based on Plafond tier + tenor
     Integer selectedTenor = request.getTenorMonth();
-    Long plafondId = userPlafond.getPlafond().getId();
-    String plafondName = userPlafond.getPlafond().getName();
-
-    TenorRate tenorRate =
-        tenorRateRepository
-            .findActiveByPlafondIdAndTenorMonth(plafondId, selectedTenor)
-            .orElseThrow(
-                () ->
-                    new IllegalArgumentException(
-                        "Tenor "
-                            + selectedTenor
-                            + " bulan tidak tersedia untuk tier "
-                            + plafondName
-                            + ". Silakan pilih tenor yang sesuai dengan tier Anda."));
-
-    BigDecimal interestRate = tenorRate.getInterestRate();
+    BigDecimal interestRate = findInterestRate(userPlafond, selectedTenor);
 
     // Interest = amount × (rate/100) × tenor
     // WE ASSUME THE RATE IS MONTHLY INTEREST RATE (Bunga Bulanan)
     BigDecimal interestAmount =
-        request
-            .getAmount()
-            .multiply(interestRate.divide(new BigDecimal("100"), 10, RoundingMode.HALF_UP))
-            .multiply(new BigDecimal(selectedTenor))
-            .setScale(2, RoundingMode.HALF_UP);
+        LoanCalculator.fromMinorUnits(
+            LoanCalculator.flatInterest(
+                LoanCalculator.toMinorUnits(request.getAmount()),
+                LoanCalculator.toBasisPoints(interestRate),
+                selectedTenor));
 
     BigDecimal totalAmount = request.getAmount().add(interestAmount);
 
@@ -109,10 +140,10 @@ public class DisbursementService {
             .build();
 
     Disbursement saved = disbursementRepository.save(disbursement);
+    workflowMetrics.created(WorkflowMetrics.DISBURSEMENT, saved.getStatus());
 
-    // Update used amount (reserve the limit)
-    userPlafond.setUsedAmount(userPlafond.getUsedAmount().add(request.getAmount()));
-    userPlafondRepository.save(userPlafond);
+    // Reserve the limit (atomic; fails if a concurrent request used it up)
+    creditLedgerService.reserve(userPlafond, request.getAmount(), saved.getId());
 
     // Send notification
     notificationService.createNotification(
@@ -136,6 +167,70 @@ public class DisbursementService {
     return mapToResponse(saved, userPlafond);
   }
 
+  // ========== CUSTOMER: Quote ==========
+
+  /** Preview the interest and full installment schedule of a disbursement without creating it. */
+  @Transactional(readOnly = true)
+  public DisbursementQuoteResponse quoteDisbursement(
+      Long userId,
+      Long userPlafondId,
+      BigDecimal amount,
+      Integer tenorMonth,
+      InterestType interestType) {
+    UserPlafond userPlafond =
+        userPlafondRepository
+            .findById(userPlafondId)
+            .orElseThrow(() -> new ResourceNotFoundException("User Plafond", "id", userPlafondId));
+
+    if (!userPlafond.getUser().getId().equals(userId)) {
+      throw new IllegalArgumentException("You don't have access to this credit line");
+    }
+    if (amount == null || amount.signum() <= 0) {
+      throw new IllegalArgumentException("Amount must be positive");
+    }
+    if (tenorMonth == null || !DisbursementRequest.VALID_TENORS.contains(tenorMonth)) {
+      throw new IllegalArgumentException(
+          "Invalid tenor. Please choose one of: " + DisbursementRequest.VALID_TENORS);
+    }
+
+    BigDecimal interestRate = findInterestRate(userPlafond, tenorMonth);
+    InstallmentSchedule schedule =
+        LoanCalculator.schedule(
+            interestType,
+            LoanCalculator.toMinorUnits(amount),
+            LoanCalculator.toBasisPoints(interestRate),
+            tenorMonth,
+            new InstallmentSchedule(tenorMonth));
+
+    List<DisbursementQuoteResponse.Installment> installments = new ArrayList<>(tenorMonth);
+    for (int i = 0; i < schedule.getTenor(); i++) {
+      installments.add(
+          DisbursementQuoteResponse.Installment.builder()
+              .installmentNumber(i + 1)
+              .principal(LoanCalculator.fromMinorUnits(schedule.principalPart(i)))
+              .interest(LoanCalculator.fromMinorUnits(schedule.interestPart(i)))
+              .payment(LoanCalculator.fromMinorUnits(schedule.payment(i)))
+              .remainingBalance(LoanCalculator.fromMinorUnits(schedule.balanceAfter(i)))
+              .build());
+    }
+
+    BigDecimal availableLimit = userPlafond.getAvailableLimit();
+    return DisbursementQuoteResponse.builder()
+        .userPlafondId(userPlafond.getId())
+        .plafondName(userPlafond.getPlafond().getName())
+        .amount(amount)
+        .interestRate(interestRate)
+        .tenorMonth(tenorMonth)
+        .interestType(interestType.name())
+        .interestAmount(LoanCalculator.fromMinorUnits(schedule.totalInterest()))
+        .totalAmount(LoanCalculator.fromMinorUnits(schedule.totalPayment()))
+        .firstInstallment(LoanCalculator.fromMinorUnits(schedule.payment(0)))
+        .availableLimit(availableLimit)
+        .withinAvailableLimit(availableLimit.compareTo(amount) >= 0)
+        .installments(installments)
+        .build();
+  }
+
   // ========== CUSTOMER: Get My Disbursements ==========
 
   public List<DisbursementResponse> getMyDisbursements(Long userId) {
@@ -152,8 +247,42 @@ public class DisbursementService {
         .collect(Collectors.toList());
   }
 
+  // ========== BACK OFFICE: Work Queue ==========
+
+  /** Lease the next PENDING disbursements to a back office user, oldest request first. */
+  @Transactional
+  public WorkQueueClaimResponse<DisbursementResponse> claimDisbursements(
+      Long backOfficeUserId, int limit) {
+    WorkQueueService.Claim claim =
+        workQueueService.claim(WorkQueueService.Queue.DISBURSEMENT, backOfficeUserId, limit);
+
+    Map<Long, Disbursement> byId =
+        claim.ids().isEmpty()
+            ? Map.of()
+            : disbursementRepository.findAllWithLineByIdIn(claim.ids()).stream()
+                .collect(Collectors.toMap(Disbursement::getId, Function.identity()));
+    return WorkQueueClaimResponse.<DisbursementResponse>builder()
+        .claimedBy(backOfficeUserId)
+        .leaseExpiresAt(claim.leaseExpiresAt())
+        .items(
+            claim.ids().stream()
+                .map(byId::get)
+                .map(d -> mapToResponse(d, d.getUserPlafond()))
+                .toList())
+        .build();
+  }
+
+  @Transactional
+  public void releaseDisbursement(Long backOfficeUserId, Long disbursementId) {
+    if (!workQueueService.release(
+        WorkQueueService.Queue.DISBURSEMENT, disbursementId, backOfficeUserId)) {
+      throw new IllegalStateException("Disbursement " + disbursementId + " is not claimed by you");
+    }
+  }
+
   // ========== ALL STAFF: Get All Disbursements ==========
 
+  @Workload(WorkloadType.REPORTING)
   public List<DisbursementResponse> getAllDisbursements() {
     return disbursementRepository.findAll().stream()
         .map(d -> mapToResponse(d, d.getUserPlafond()))
@@ -176,15 +305,19 @@ public class DisbursementService {
             .orElseThrow(() -> new ResourceNotFoundException("Disbursement", "id", disbursementId));
 
     if (disbursement.getStatus() != Disbursement.DisbursementStatus.PENDING) {
-      throw new IllegalStateException("Disbursement is not in PENDING status");
+      throw new StateConflictException(
+          "Disbursement", disbursementId, "Disbursement is not in PENDING status");
     }
+    workQueueService.acquire(WorkQueueService.Queue.DISBURSEMENT, disbursementId, backOfficeUserId);
 
-    disbursement.setStatus(Disbursement.DisbursementStatus.DISBURSED);
+    transition(disbursement, Disbursement.DisbursementStatus.DISBURSED);
     disbursement.setDisbursedAt(LocalDateTime.now());
     disbursement.setDisbursedBy(backOfficeUser);
     disbursement.setNote(note);
 
-    Disbursement saved = disbursementRepository.save(disbursement);
+    Disbursement saved = disbursementRepository.saveAndFlush(disbursement);
+    creditLedgerService.recordDisbursed(List.of(saved));
+    repaymentService.createSchedule(saved);
 
     // Send notification
     notificationService.createNotification(
@@ -206,6 +339,177 @@ public class DisbursementService {
     return mapToResponse(saved, saved.getUserPlafond());
   }
 
+  // ========== BACK OFFICE: Bulk Process ==========
+
+  /**
+   * Process many PENDING disbursements in one transaction. The rows are locked in id order (one
+   * statement per lock chunk), marked DISBURSED in one JDBC batch, and get their ledger entries and
+   * installment schedules in batched inserts. Ids that are not PENDING, are claimed by another back
+   * office user, or whose credit line has no bank account, are skipped. Customers are notified
+   * after commit by {@link DisbursementNotificationListener}. The disbursed rows are linked to a
+   * new {@link DisbursementBatch}, from which {@link #getBatchTransfers} rebuilds the file.
+   *
+   * @return the batch id and the transfers for the bank bulk-transfer file, ordered by bank name
+   */
+  @Transactional
+  public BulkDisbursementResult processDisbursements(
+      Long backOfficeUserId, List<Long> disbursementIds, String note) {
+    if (disbursementIds.size() > bulkMaxSize) {
+      throw new IllegalArgumentException(
+          "At most " + bulkMaxSize + " disbursements can be processed per request");
+    }
+    User backOfficeUser =
+        userRepository
+            .findById(backOfficeUserId)
+            .orElseThrow(() -> new ResourceNotFoundException("User", "id", backOfficeUserId));
+
+    // Ascending id order on every call, so concurrent bulk runs cannot deadlock
+    List<Long> ids = disbursementIds.stream().distinct().sorted().toList();
+    List<Disbursement> locked = new ArrayList<>(ids.size());
+    for (List<Long> chunk : chunks(ids, bulkLockChunkSize)) {
+      locked.addAll(disbursementRepository.lockPendingByIds(chunk));
+    }
+    List<Long> lineIds = locked.stream().map(d -> d.getUserPlafond().getId()).distinct().toList();
+    for (List<Long> chunk : chunks(lineIds, bulkLockChunkSize)) {
+      userPlafondRepository.findAllWithUserByIdIn(chunk);
+    }
+
+    List<Disbursement> processed = new ArrayList<>(locked.size());
+    for (Disbursement d : locked) {
+      UserPlafond line = d.getUserPlafond();
+      if (line.getBankName() != null
+          && line.getAccountNumber() != null
+          && !workQueueService.isLeasedToOther(
+              d.getLeaseOwnerId(), d.getLeaseExpiresAt(), backOfficeUserId)) {
+        processed.add(d);
+      }
+    }
+    Set<Long> processedIds =
+        processed.stream().map(Disbursement::getId).collect(Collectors.toSet());
+    List<Long> skipped = ids.stream().filter(id -> !processedIds.contains(id)).toList();
+
+    LocalDateTime now = LocalDateTime.now();
+    BigDecimal total =
+        processed.stream().map(Disbursement::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    DisbursementBatch batch =
+        processed.isEmpty()
+            ? null
+            : disbursementBatchRepository.save(
+                DisbursementBatch.builder()
+                    .processedBy(backOfficeUser)
+                    .note(note)
+                    .processedCount(processed.size())
+                    .totalAmount(total)
+                    .createdAt(now)
+                    .build());
+    int[][] counts =
+        jdbcTemplate.batchUpdate(
+            BULK_DISBURSE_SQL,
+            processed,
+            bulkBatchSize,
+            (ps, d) -> {
+              ps.setObject(1, now);
+              ps.setLong(2, backOfficeUser.getId());
+              ps.setString(3, note);
+              ps.setLong(4, batch.getId());
+              ps.setLong(5, d.getId());
+            });
+    for (int[] statement : counts) {
+      for (int count : statement) {
+        if (count == 0) {
+          throw new StateConflictException(
+              "Disbursement", null, "A locked disbursement changed status during processing");
+        }
+      }
+    }
+    workflowMetrics.transitions(
+        WorkflowMetrics.DISBURSEMENT,
+        Disbursement.DisbursementStatus.PENDING,
+        Disbursement.DisbursementStatus.DISBURSED,
+        processed.size());
+
+    // Mirror the batch update on the (read-only) entities that ledger and schedules read
+    List<BulkDisbursementResult.BankTransfer> transfers = new ArrayList<>(processed.size());
+    List<DisbursementsProcessedEvent.Disbursed> notices = new ArrayList<>(processed.size());
+    for (Disbursement d : processed) {
+      d.setStatus(Disbursement.DisbursementStatus.DISBURSED);
+      d.setDisbursedAt(now);
+      d.setDisbursedBy(backOfficeUser);
+      d.setNote(note);
+      d.setBatchId(batch.getId());
+
+      transfers.add(toTransfer(d));
+      notices.add(
+          new DisbursementsProcessedEvent.Disbursed(
+              d.getId(), d.getUserPlafond().getUser().getId(), d.getAmount(), d.getTotalAmount()));
+    }
+
+    // Flush and clear per slice so 10k loans' schedules never sit in the persistence context at
+    // once
+    for (List<Disbursement> slice : chunks(processed, bulkBatchSize)) {
+      creditLedgerService.recordDisbursed(slice);
+      repaymentService.createSchedules(slice);
+      entityManager.flush();
+      entityManager.clear();
+    }
+
+    eventPublisher.publishEvent(new DisbursementsProcessedEvent(notices));
+    transfers.sort(TRANSFER_ORDER);
+
+    log.info(
+        "Bulk disbursement by {}: {} processed ({}), {} skipped",
+        backOfficeUser.getUsername(),
+        processed.size(),
+        total,
+        skipped.size());
+
+    return BulkDisbursementResult.builder()
+        .batchId(batch != null ? batch.getId() : null)
+        .processedCount(processed.size())
+        .totalAmount(total)
+        .skippedIds(skipped)
+        .transfers(transfers)
+        .build();
+  }
+
+  /**
+   * Transfers of an earlier bulk run, for generating its bank bulk-transfer file again.
+   *
+   * @return the transfers ordered by bank name, as {@link #processDisbursements} returned them
+   */
+  @Transactional(readOnly = true)
+  public List<BulkDisbursementResult.BankTransfer> getBatchTransfers(Long batchId) {
+    if (!disbursementBatchRepository.existsById(batchId)) {
+      throw new ResourceNotFoundException("Disbursement batch", "id", batchId);
+    }
+    return disbursementRepository.findAllWithLineByBatchId(batchId).stream()
+        .map(DisbursementService::toTransfer)
+        .sorted(TRANSFER_ORDER)
+        .toList();
+  }
+
+  private static BulkDisbursementResult.BankTransfer toTransfer(Disbursement d) {
+    UserPlafond line = d.getUserPlafond();
+    User customer = line.getUser();
+    return BulkDisbursementResult.BankTransfer.builder()
+        .disbursementId(d.getId())
+        .bankName(line.getBankName())
+        .accountNumber(line.getAccountNumber())
+        .accountName(
+            customer.getFullName() != null ? customer.getFullName() : customer.getUsername())
+        .amount(d.getAmount())
+        .reference(TRANSFER_REFERENCE_PREFIX + d.getId())
+        .build();
+  }
+
+  private static <T> List<List<T>> chunks(List<T> list, int size) {
+    List<List<T>> chunks = new ArrayList<>((list.size() + size - 1) / size);
+    for (int from = 0; from < list.size(); from += size) {
+      chunks.add(list.subList(from, Math.min(list.size(), from + size)));
+    }
+    return chunks;
+  }
+
   // ========== BACK OFFICE: Cancel Disbursement ==========
 
   @Transactional
@@ -217,18 +521,18 @@ public class DisbursementService {
             .orElseThrow(() -> new ResourceNotFoundException("Disbursement", "id", disbursementId));
 
     if (disbursement.getStatus() != Disbursement.DisbursementStatus.PENDING) {
-      throw new IllegalStateException("Only PENDING disbursements can be cancelled");
+      throw new StateConflictException(
+          "Disbursement", disbursementId, "Only PENDING disbursements can be cancelled");
     }
+    workQueueService.acquire(WorkQueueService.Queue.DISBURSEMENT, disbursementId, backOfficeUserId);
 
-    // Return the reserved limit
-    UserPlafond userPlafond = disbursement.getUserPlafond();
-    userPlafond.setUsedAmount(userPlafond.getUsedAmount().subtract(disbursement.getAmount()));
-    userPlafondRepository.save(userPlafond);
-
-    disbursement.setStatus(Disbursement.DisbursementStatus.CANCELLED);
+    transition(disbursement, Disbursement.DisbursementStatus.CANCELLED);
     disbursement.setNote(reason);
+    Disbursement saved = disbursementRepository.saveAndFlush(disbursement);
 
-    Disbursement saved = disbursementRepository.save(disbursement);
+    // Return the reserved limit
+    UserPlafond userPlafond = disbursement.getUserPlafond();
+    creditLedgerService.release(userPlafond, disbursement.getAmount(), disbursementId, reason);
 
     // Send notification
     notificationService.createNotification(
@@ -243,6 +547,44 @@ public class DisbursementService {
     return mapToResponse(saved, userPlafond);
   }
 
+  /**
+   * Move a disbursement along the transition table with a compare-and-set on its status, so a
+   * disbursement cannot be both processed and cancelled by concurrent back office actions.
+   */
+  private void transition(Disbursement disbursement, Disbursement.DisbursementStatus to) {
+    Disbursement.DisbursementStatus from = disbursement.getStatus();
+    if (!from.canTransitionTo(to)) {
+      throw StateConflictException.notAllowed("Disbursement", disbursement.getId(), from, to);
+    }
+    if (disbursementRepository.transitionStatus(disbursement.getId(), from, to) == 0) {
+      throw StateConflictException.lostRace("Disbursement", disbursement.getId(), from, to);
+    }
+    disbursement.setStatus(to);
+    workflowMetrics.transition(WorkflowMetrics.DISBURSEMENT, from, to);
+    if (to == Disbursement.DisbursementStatus.CANCELLED) {
+      workflowMetrics.rejected(WorkflowMetrics.DISBURSEMENT, "BACK_OFFICE");
+    }
+  }
+
+  // Active rate of the credit line's plafond tier for the tenor
+  private BigDecimal findInterestRate(UserPlafond userPlafond, Integer tenorMonth) {
+    Long plafondId = userPlafond.getPlafond().getId();
+    String plafondName = userPlafond.getPlafond().getName();
+
+    TenorRate tenorRate =
+        tenorRateRepository
+            .findActiveByPlafondIdAndTenorMonth(plafondId, tenorMonth)
+            .orElseThrow(
+                () ->
+                    new IllegalArgumentException(
+                        "Tenor "
+                            + tenorMonth
+                            + " bulan tidak tersedia untuk tier "
+                            + plafondName
+                            + ". Silakan pilih tenor yang sesuai dengan tier Anda."));
+    return tenorRate.getInterestRate();
+  }
+
   // ========== MAPPER ==========
 
   private DisbursementResponse mapToResponse(Disbursement d, UserPlafond up) {
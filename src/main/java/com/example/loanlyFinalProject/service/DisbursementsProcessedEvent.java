@@ -0,0 +1,11 @@
+package com.example.loanlyFinalProject.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/** Published inside the bulk disbursement transaction; handled after it commits. */
+public record DisbursementsProcessedEvent(List<Disbursed> disbursements) {
+
+  public record Disbursed(
+      Long disbursementId, Long userId, BigDecimal amount, BigDecimal totalAmount) {}
+}
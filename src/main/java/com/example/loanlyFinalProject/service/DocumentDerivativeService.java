@@ -0,0 +1,260 @@
+package com.example.loanlyFinalProject.service;
+
+import com.example.loanlyFinalProject.concurrency.StripedLock;
+import com.example.loanlyFinalProject.config.AsyncConfig;
+import com.example.loanlyFinalProject.datasource.WorkloadContext;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import com.example.loanlyFinalProject.entity.PlafondDocument;
+import com.example.loanlyFinalProject.storage.ContentAddressedStore;
+import com.example.loanlyFinalProject.storage.DerivativeKind;
+import com.example.loanlyFinalProject.storage.DocumentContentType;
+import com.example.loanlyFinalProject.storage.DocumentRenderer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Renders a preview and a thumbnail of every uploaded document for the staff review screens, so
+ * reviewers do not pull full-resolution scans. Work starts once the upload commits and runs on the
+ * bounded derivative executor. When its queue is full the document simply stays {@code PENDING}:
+ * the upload request never waits for rendering, and the sweep enqueues pending documents again as
+ * the queue drains, which also covers work lost to a restart.
+ *
+ * <p>Derivatives belong to the blob, not the document, so a deduplicated upload reuses the
+ * renditions that already exist. Renders of one blob are serialized by a striped lock.
+ */
+@Service
+@Slf4j
+public class DocumentDerivativeService {
+
+  private static final int RENDER_LOCK_STRIPES = 64;
+  private static final String UPLOAD_URL_PREFIX = "/uploads/";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ContentAddressedStore contentStore;
+  private final ThreadPoolTaskExecutor executor;
+  private final Clock clock;
+  private final StripedLock renderLocks = new StripedLock(RENDER_LOCK_STRIPES);
+  // Queued or running, so the sweep does not enqueue a document twice
+  private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+  private final Timer lagTimer;
+  private final Timer renderTimer;
+  private final Counter readyCounter;
+  private final Counter failedCounter;
+  private final Counter deferredCounter;
+
+  public DocumentDerivativeService(
+      JdbcTemplate jdbcTemplate,
+      ContentAddressedStore contentStore,
+      @Qualifier(AsyncConfig.DERIVATIVE_EXECUTOR) ThreadPoolTaskExecutor executor,
+      Clock clock,
+      MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.contentStore = contentStore;
+    this.executor = executor;
+    this.clock = clock;
+
+    this.lagTimer =
+        Timer.builder("documents.derivatives.lag")
+            .description("Time from upload to previews being available")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    this.renderTimer =
+        Timer.builder("documents.derivatives.render")
+            .description("Time to render the derivatives of one blob")
+            .register(meterRegistry);
+    this.readyCounter =
+        Counter.builder("documents.derivatives.processed")
+            .tag("outcome", "ready")
+            .description("Documents whose derivatives were recorded")
+            .register(meterRegistry);
+    this.failedCounter =
+        Counter.builder("documents.derivatives.processed")
+            .tag("outcome", "failed")
+            .description("Documents whose derivatives were recorded")
+            .register(meterRegistry);
+    this.deferredCounter =
+        Counter.builder("documents.derivatives.deferred")
+            .description("Documents left for the sweep because the queue was full")
+            .register(meterRegistry);
+    Gauge.builder("documents.derivatives.queue", executor, e -> e.getQueueSize())
+        .description("Documents waiting for a derivative worker")
+        .register(meterRegistry);
+  }
+
+  /** A document waiting for derivatives. */
+  record Job(
+      Long documentId, String sha256, DocumentContentType contentType, LocalDateTime since) {}
+
+  // ========== TRIGGERS ==========
+
+  @TransactionalEventListener
+  public void onDocumentUploaded(DocumentUploadedEvent event) {
+    DocumentContentType.fromMimeType(event.contentType())
+        .ifPresent(
+            type -> enqueue(new Job(event.documentId(), event.sha256(), type, event.uploadedAt())));
+  }
+
+  /**
+   * Enqueue pending documents that are not queued yet, oldest first, up to the free queue space.
+   * Returns how many were enqueued.
+   */
+  @Scheduled(cron = "${app.document.derivatives.sweep-cron:30 * * * * *}")
+  public int sweep() {
+    int room = executor.getQueueCapacity() - executor.getQueueSize();
+    if (room <= 0) {
+      return 0;
+    }
+    List<Job> pending =
+        jdbcTemplate.query(
+            "SELECT id, content_sha256, content_type, uploaded_at FROM plafond_documents"
+                + " WHERE derivative_status = ? ORDER BY id OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY",
+            (rs, i) ->
+                new Job(
+                    rs.getLong(1),
+                    rs.getString(2),
+                    DocumentContentType.fromMimeType(rs.getString(3)).orElse(null),
+                    rs.getTimestamp(4).toLocalDateTime()),
+            PlafondDocument.DerivativeStatus.PENDING.name(),
+            room + inFlight.size());
+
+    int enqueued = 0;
+    for (Job job : pending) {
+      if (job.contentType() == null || job.sha256() == null) {
+        record(job, PlafondDocument.DerivativeStatus.FAILED, null, null);
+      } else if (!inFlight.contains(job.documentId()) && enqueue(job)) {
+        enqueued++;
+      }
+    }
+    if (enqueued > 0) {
+      log.info("Derivative sweep enqueued {} pending document(s)", enqueued);
+    }
+    return enqueued;
+  }
+
+  // ========== WORKER ==========
+
+  private boolean enqueue(Job job) {
+    if (!inFlight.add(job.documentId())) {
+      return false;
+    }
+    try {
+      executor.execute(() -> process(job));
+      return true;
+    } catch (TaskRejectedException e) {
+      inFlight.remove(job.documentId());
+      deferredCounter.increment();
+      log.debug("Derivative queue full; document {} left for the sweep", job.documentId());
+      return false;
+    }
+  }
+
+  private void process(Job job) {
+    WorkloadType previous = WorkloadContext.enter(WorkloadType.BACKGROUND_JOBS);
+    try {
+      renderIfMissing(job.sha256(), job.contentType());
+      record(
+          job,
+          PlafondDocument.DerivativeStatus.READY,
+          UPLOAD_URL_PREFIX
+              + ContentAddressedStore.derivativePath(job.sha256(), DerivativeKind.PREVIEW),
+          UPLOAD_URL_PREFIX
+              + ContentAddressedStore.derivativePath(job.sha256(), DerivativeKind.THUMBNAIL));
+    } catch (IOException | RuntimeException e) {
+      log.warn(
+          "Could not render derivatives of document {} ({}): {}",
+          job.documentId(),
+          job.contentType().getMimeType(),
+          e.toString());
+      record(job, PlafondDocument.DerivativeStatus.FAILED, null, null);
+    } finally {
+      inFlight.remove(job.documentId());
+      WorkloadContext.restore(previous);
+    }
+  }
+
+  private void renderIfMissing(String sha256, DocumentContentType contentType) throws IOException {
+    Lock lock = renderLocks.get(sha256);
+    lock.lock();
+    try {
+      if (contentStore.hasDerivative(sha256, DerivativeKind.PREVIEW)
+          && contentStore.hasDerivative(sha256, DerivativeKind.THUMBNAIL)) {
+        return; // Rendered for an earlier upload of the same content
+      }
+      long start = System.nanoTime();
+      BufferedImage image =
+          contentStore.readBlob(
+              sha256,
+              contentType,
+              file ->
+                  DocumentRenderer.render(
+                      file, contentType, DerivativeKind.PREVIEW.getMaxDimension()));
+      write(sha256, DerivativeKind.PREVIEW, image);
+      write(
+          sha256,
+          DerivativeKind.THUMBNAIL,
+          DocumentRenderer.scale(image, DerivativeKind.THUMBNAIL.getMaxDimension()));
+      renderTimer.record(Duration.ofNanos(System.nanoTime() - start));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Encoded to a staging file first, so readers only ever see a complete derivative
+  private void write(String sha256, DerivativeKind kind, BufferedImage image) throws IOException {
+    Path temp = contentStore.createStagingFile("derive-");
+    try {
+      try (OutputStream out = Files.newOutputStream(temp)) {
+        DocumentRenderer.writeJpeg(image, out);
+      }
+      contentStore.putDerivative(sha256, kind, temp);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  // Only moves PENDING rows, so a document deleted meanwhile is left alone
+  private void record(
+      Job job, PlafondDocument.DerivativeStatus status, String previewUrl, String thumbnailUrl) {
+    int updated =
+        jdbcTemplate.update(
+            "UPDATE plafond_documents SET derivative_status = ?, preview_url = ?,"
+                + " thumbnail_url = ? WHERE id = ? AND derivative_status = ?",
+            status.name(),
+            previewUrl,
+            thumbnailUrl,
+            job.documentId(),
+            PlafondDocument.DerivativeStatus.PENDING.name());
+    if (updated == 0) {
+      return;
+    }
+    if (status == PlafondDocument.DerivativeStatus.READY) {
+      readyCounter.increment();
+      lagTimer.record(Duration.between(job.since(), LocalDateTime.now(clock)));
+    } else {
+      failedCounter.increment();
+    }
+  }
+}
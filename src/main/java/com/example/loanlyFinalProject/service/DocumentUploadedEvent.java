@@ -0,0 +1,7 @@
+package com.example.loanlyFinalProject.service;
+
+import java.time.LocalDateTime;
+
+/** Published inside the upload transaction; handled after it commits. */
+public record DocumentUploadedEvent(
+    Long documentId, String sha256, String contentType, LocalDateTime uploadedAt) {}
@@ -1,5 +1,9 @@
 package com.example.loanlyFinalProject.service;
 
+import com.example.loanlyFinalProject.tracing.Dependency;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,6 +17,7 @@ import org.springframework.stereotype.Service;
 public class EmailService {
 
   private final JavaMailSender mailSender;
+  private final ObservationRegistry observationRegistry;
 
   @Value("${spring.mail.username}")
   private String fromEmail;
@@ -39,7 +44,7 @@ public class EmailService {
               resetLink);
 
       message.setText(emailBody);
-      mailSender.send(message);
+      send(message);
 
       log.info("Password reset email sent to: {}", toEmail);
     } catch (Exception e) {
@@ -65,7 +70,7 @@ public class EmailService {
               username);
 
       message.setText(emailBody);
-      mailSender.send(message);
+      send(message);
 
       log.info("Welcome email sent to: {}", toEmail);
     } catch (Exception e) {
@@ -73,4 +78,10 @@ public class EmailService {
       // Don't throw exception for welcome email, just log it
     }
   }
+
+  private void send(SimpleMailMessage message) {
+    Dependency.SMTP.run(
+        Observation.createNotStarted(Observations.SMTP_SEND, observationRegistry),
+        () -> mailSender.send(message));
+  }
 }
@@ -0,0 +1,508 @@
+package com.example.loanlyFinalProject.service;
+
+import com.example.loanlyFinalProject.datasource.WorkloadContext;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import com.example.loanlyFinalProject.dto.response.AccrualReportResponse;
+import com.example.loanlyFinalProject.entity.Installment;
+import com.example.loanlyFinalProject.entity.JobCheckpoint;
+import com.example.loanlyFinalProject.loan.LoanCalculator;
+import com.example.loanlyFinalProject.repository.InstallmentRepository;
+import com.example.loanlyFinalProject.repository.JobCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * End-of-day batch over the whole installment book: every unpaid installment past its grace period
+ * is moved to OVERDUE (a safety net for events the due-date scheduler missed) and accrues a daily
+ * late penalty on its outstanding principal and interest up to the business date.
+ *
+ * <p>The installment id range is split into partitions that worker threads walk in keyset-ordered
+ * chunks. Each chunk is read, priced in fixed-point and written back as one JDBC batch of
+ * conditional UPDATEs, in the same transaction that advances the partition's checkpoint, so a
+ * crashed run resumes exactly where it stopped. {@code penalty_accrued_through} makes the accrual
+ * idempotent: a re-run of the same date changes nothing, and a skipped date is caught up by the
+ * next run.
+ *
+ * <p>Sizing: a chunk costs one index range read and one batch round trip, so throughput scales with
+ * the worker count up to the background-jobs pool size. The run reports rows per second per
+ * partition and warns when it exceeds its configured window.
+ */
+@Service
+@Slf4j
+public class InstallmentAccrualService {
+
+  static final String JOB_NAME = "installment-accrual";
+
+  // Conditional on the date so a concurrent or repeated run cannot accrue a day twice, and on the
+  // paid amounts the penalty was priced from: a payment posted since the read skips the row, and
+  // the next run accrues those days on what is then outstanding
+  private static final String ACCRUE_SQL =
+      "UPDATE installments SET status = 'OVERDUE', penalty_amount = penalty_amount + ?, "
+          + "penalty_accrued_through = ?, updated_at = ? "
+          + "WHERE id = ? AND status <> 'PAID' "
+          + "AND (penalty_accrued_through IS NULL OR penalty_accrued_through < ?) "
+          + "AND paid_principal = ? AND paid_interest = ?";
+
+  private final InstallmentRepository installmentRepository;
+  private final JobCheckpointRepository jobCheckpointRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readTransaction;
+  private final TransactionTemplate writeTransaction;
+  private final Clock clock;
+  private final ExecutorService coordinator;
+  private final ExecutorService workers;
+
+  private final int chunkSize;
+  private final int partitionCount;
+  private final int graceDays;
+  private final long dailyPenaltyRateBp;
+  private final Duration window;
+
+  private final Counter rowsCounter;
+  private final Counter accruedCounter;
+  private final Timer runTimer;
+  private final Timer partitionTimer;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final AtomicReference<RunState> lastRun = new AtomicReference<>();
+
+  public InstallmentAccrualService(
+      InstallmentRepository installmentRepository,
+      JobCheckpointRepository jobCheckpointRepository,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${app.installment-accrual.chunk-size:1000}") int chunkSize,
+      @Value("${app.installment-accrual.workers:4}") int workerCount,
+      @Value("${app.repayment.grace-days:0}") int graceDays,
+      @Value("${app.installment-accrual.penalty-rate-per-day:0.10}") BigDecimal penaltyRatePerDay,
+      @Value("${app.installment-accrual.window-minutes:120}") long windowMinutes) {
+    this.installmentRepository = installmentRepository;
+    this.jobCheckpointRepository = jobCheckpointRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction.setReadOnly(true);
+    this.writeTransaction = new TransactionTemplate(transactionManager);
+    this.clock = clock;
+    this.chunkSize = chunkSize;
+    this.partitionCount = workerCount;
+    this.graceDays = graceDays;
+    this.dailyPenaltyRateBp = LoanCalculator.toBasisPoints(penaltyRatePerDay);
+    this.window = Duration.ofMinutes(windowMinutes);
+
+    this.coordinator = Executors.newSingleThreadExecutor(namedThreads("accrual-coordinator"));
+    this.workers = Executors.newFixedThreadPool(workerCount, namedThreads("accrual-worker"));
+
+    this.rowsCounter =
+        Counter.builder("installment.accrual.rows")
+            .description("Unpaid installments past grace read by the end-of-day accrual")
+            .register(meterRegistry);
+    this.accruedCounter =
+        Counter.builder("installment.accrual.accrued")
+            .description("Installments that accrued penalty")
+            .register(meterRegistry);
+    this.runTimer =
+        Timer.builder("installment.accrual.duration")
+            .description("Duration of end-of-day accrual runs")
+            .register(meterRegistry);
+    this.partitionTimer =
+        Timer.builder("installment.accrual.partition.duration")
+            .description("Duration of one accrual partition")
+            .register(meterRegistry);
+  }
+
+  // ========== TRIGGERS ==========
+
+  /** Accrues the day that just ended; the scheduler thread only hands over to the coordinator. */
+  @Scheduled(cron = "${app.installment-accrual.cron:0 30 0 * * *}")
+  public void scheduledRun() {
+    if (!start(LocalDate.now(clock).minusDays(1))) {
+      log.warn("Skipping scheduled installment accrual: a run is still in progress");
+    }
+  }
+
+  /**
+   * Start a run for {@code businessDate} in the background.
+   *
+   * @return false if a run is already in progress
+   */
+  public boolean start(LocalDate businessDate) {
+    validateBusinessDate(businessDate);
+    if (running.get()) {
+      return false;
+    }
+    coordinator.submit(() -> run(businessDate));
+    return true;
+  }
+
+  /** Report of the run in progress, or of the last finished run; null if none ran yet. */
+  public AccrualReportResponse getLastReport() {
+    RunState state = lastRun.get();
+    return state != null ? state.toReport() : null;
+  }
+
+  // ========== RUN ==========
+
+  /** Run the accrual for {@code businessDate} on the calling thread and wait for all partitions. */
+  public AccrualReportResponse run(LocalDate businessDate) {
+    validateBusinessDate(businessDate);
+    if (!running.compareAndSet(false, true)) {
+      return getLastReport();
+    }
+    RunState state = new RunState(businessDate);
+    lastRun.set(state);
+    String runJob = JOB_NAME + "/" + businessDate;
+    WorkloadType previous = WorkloadContext.enter(WorkloadType.BACKGROUND_JOBS);
+    Timer.Sample sample = Timer.start();
+    try {
+      List<JobCheckpoint> partitions = loadOrPlanPartitions(runJob, state);
+      state.partitions = partitions.size();
+
+      List<Future<?>> futures = new ArrayList<>(partitions.size());
+      for (JobCheckpoint partition : partitions) {
+        if (!partition.isFinished()) {
+          futures.add(workers.submit(() -> accruePartition(partition, state)));
+        }
+      }
+      Throwable failure = null;
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          failure = failure != null ? failure : e.getCause();
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+
+      writeTransaction.executeWithoutResult(
+          status -> jobCheckpointRepository.deletePartitions(runJob));
+      state.status = "COMPLETED";
+      log.info(
+          "Installment accrual for {} completed: {} read, {} accrued, {} marked overdue,"
+              + " penalty {}, {} rows/s",
+          businessDate,
+          state.scanned.get(),
+          state.accrued.get(),
+          state.markedOverdue.get(),
+          state.penalty(),
+          Math.round(state.rowsPerSecond()));
+    } catch (Throwable e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      // Checkpoints are kept: the next run for the same date resumes from them
+      state.status = "FAILED";
+      state.error = e.getMessage();
+      log.error(
+          "Installment accrual for {} failed; it will resume from its checkpoints",
+          businessDate,
+          e);
+    } finally {
+      state.finishedNanos = System.nanoTime();
+      state.finishedAt = LocalDateTime.now();
+      sample.stop(runTimer);
+      WorkloadContext.restore(previous);
+      running.set(false);
+    }
+    if (!state.withinWindow()) {
+      log.warn(
+          "Installment accrual for {} took {}, longer than its {} window",
+          businessDate,
+          state.elapsed(),
+          window);
+    }
+    return state.toReport();
+  }
+
+  /**
+   * Resume the partitions of an interrupted run for the same date, or split the current id range
+   * into new ones. Checkpoints of other dates are dropped: the accrual is cumulative, so the new
+   * run also covers the days an abandoned run did not finish.
+   */
+  private List<JobCheckpoint> loadOrPlanPartitions(String runJob, RunState state) {
+    List<JobCheckpoint> existing =
+        readTransaction.execute(status -> jobCheckpointRepository.findPartitions(JOB_NAME));
+    List<JobCheckpoint> current = new ArrayList<>();
+    List<JobCheckpoint> stale = new ArrayList<>();
+    for (JobCheckpoint checkpoint : existing) {
+      (checkpoint.getJobName().startsWith(runJob + "/") ? current : stale).add(checkpoint);
+    }
+    if (!stale.isEmpty()) {
+      log.info("Dropping {} accrual checkpoints of an abandoned run", stale.size());
+      writeTransaction.executeWithoutResult(status -> jobCheckpointRepository.deleteAll(stale));
+    }
+    if (!current.isEmpty()) {
+      state.resumed = true;
+      current.forEach(p -> state.scanned.addAndGet(p.getProcessedCount()));
+      log.info("Resuming installment accrual from {} partition checkpoints", current.size());
+      return current;
+    }
+
+    Long minId = readTransaction.execute(status -> installmentRepository.findMinId());
+    Long maxId = readTransaction.execute(status -> installmentRepository.findMaxId());
+    if (minId == null || maxId == null) {
+      return List.of();
+    }
+
+    long span = maxId - minId + 1;
+    int count = (int) Math.min(partitionCount, span);
+    long size = (span + count - 1) / count;
+    List<JobCheckpoint> partitions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      long after = minId - 1 + i * size;
+      partitions.add(
+          JobCheckpoint.builder()
+              .jobName(runJob + "/" + i)
+              .lastProcessedId(after)
+              .rangeEnd(Math.min(maxId, after + size))
+              .build());
+    }
+    writeTransaction.executeWithoutResult(status -> jobCheckpointRepository.saveAll(partitions));
+    return partitions;
+  }
+
+  private void accruePartition(JobCheckpoint partition, RunState state) {
+    WorkloadType previous = WorkloadContext.enter(WorkloadType.BACKGROUND_JOBS);
+    long startedAt = System.nanoTime();
+    long scanned = 0;
+    long accrued = 0;
+    try {
+      while (!partition.isFinished()) {
+        if (Thread.currentThread().isInterrupted()) {
+          throw new CancellationException("Accrual interrupted");
+        }
+        ChunkResult chunk = writeTransaction.execute(status -> accrueChunk(partition, state));
+        scanned += chunk.scanned();
+        accrued += chunk.accrued();
+      }
+    } finally {
+      long elapsedNanos = System.nanoTime() - startedAt;
+      partitionTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+      state.recordPartition(partition.getJobName(), scanned, accrued, elapsedNanos);
+      WorkloadContext.restore(previous);
+    }
+  }
+
+  /** Accrue one chunk and advance the checkpoint; runs in one write transaction. */
+  private ChunkResult accrueChunk(JobCheckpoint partition, RunState state) {
+    LocalDate businessDate = state.businessDate;
+    long afterId = partition.getLastProcessedId();
+    long rangeEnd = partition.getRangeEnd();
+
+    List<Object[]> rows =
+        installmentRepository.findAccrualChunk(
+            afterId,
+            rangeEnd,
+            businessDate.minusDays(graceDays),
+            businessDate,
+            PageRequest.of(0, chunkSize));
+    // A short chunk means the partition is exhausted
+    long lastId = rows.size() < chunkSize ? rangeEnd : (Long) rows.get(rows.size() - 1)[0];
+
+    LocalDateTime now = LocalDateTime.now(clock);
+    List<Object[]> batch = new ArrayList<>(rows.size());
+    long[] penalties = new long[rows.size()];
+    for (int i = 0; i < rows.size(); i++) {
+      Object[] row = rows.get(i);
+      penalties[i] = penalty(row, businessDate);
+      batch.add(
+          new Object[] {
+            LoanCalculator.fromMinorUnits(penalties[i]),
+            businessDate,
+            now,
+            row[0],
+            businessDate,
+            row[5],
+            row[6]
+          });
+    }
+
+    long accrued = 0;
+    long markedOverdue = 0;
+    long penaltyTotal = 0;
+    if (!batch.isEmpty()) {
+      int[] counts = jdbcTemplate.batchUpdate(ACCRUE_SQL, batch);
+      for (int i = 0; i < counts.length; i++) {
+        if (counts[i] == 0) {
+          continue; // Paid, part-paid or accrued by someone else since the read
+        }
+        accrued++;
+        penaltyTotal += penalties[i];
+        if (rows.get(i)[1] != Installment.InstallmentStatus.OVERDUE) {
+          markedOverdue++;
+        }
+      }
+    }
+
+    partition.setLastProcessedId(lastId);
+    partition.setProcessedCount(partition.getProcessedCount() + rows.size());
+    jobCheckpointRepository.save(partition);
+
+    state.record(rows.size(), accrued, markedOverdue, penaltyTotal);
+    rowsCounter.increment(rows.size());
+    accruedCounter.increment(accrued);
+    return new ChunkResult(rows.size(), accrued);
+  }
+
+  /**
+   * Penalty of one [id, status, dueDate, principal, interest, paidPrincipal, paidInterest,
+   * accruedThrough] row for the days after grace (or after the last accrual) up to the business
+   * date, in minor units.
+   */
+  private long penalty(Object[] row, LocalDate businessDate) {
+    LocalDate dueDate = (LocalDate) row[2];
+    BigDecimal outstanding =
+        ((BigDecimal) row[3])
+            .add((BigDecimal) row[4])
+            .subtract((BigDecimal) row[5])
+            .subtract((BigDecimal) row[6]);
+    LocalDate accruedThrough = (LocalDate) row[7];
+
+    LocalDate from = dueDate.plusDays(graceDays + 1L);
+    if (accruedThrough != null && !accruedThrough.isBefore(from)) {
+      from = accruedThrough.plusDays(1);
+    }
+    long days = ChronoUnit.DAYS.between(from, businessDate) + 1;
+    return LoanCalculator.penalty(
+        LoanCalculator.toMinorUnits(outstanding), dailyPenaltyRateBp, days);
+  }
+
+  private void validateBusinessDate(LocalDate businessDate) {
+    if (businessDate.isAfter(LocalDate.now(clock))) {
+      throw new IllegalArgumentException("Cannot accrue a future business date: " + businessDate);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    coordinator.shutdownNow();
+    workers.shutdownNow();
+  }
+
+  private static ThreadFactory namedThreads(String prefix) {
+    AtomicInteger sequence = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + "-" + sequence.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private record ChunkResult(long scanned, long accrued) {}
+
+  /** Counters of one run, updated by all workers. */
+  private final class RunState {
+
+    private final LocalDate businessDate;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startedNanos = System.nanoTime();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong scannedThisRun = new AtomicLong();
+    private final AtomicLong accrued = new AtomicLong();
+    private final AtomicLong markedOverdue = new AtomicLong();
+    private final AtomicLong penaltyMinorUnits = new AtomicLong();
+    private final List<AccrualReportResponse.PartitionTiming> timings = new ArrayList<>();
+    private volatile String status = "RUNNING";
+    private volatile LocalDateTime finishedAt;
+    private volatile long finishedNanos;
+    private volatile boolean resumed;
+    private volatile int partitions;
+    private volatile String error;
+
+    private RunState(LocalDate businessDate) {
+      this.businessDate = businessDate;
+    }
+
+    private void record(long rows, long accruedRows, long overdueRows, long penalty) {
+      scanned.addAndGet(rows);
+      scannedThisRun.addAndGet(rows);
+      accrued.addAndGet(accruedRows);
+      markedOverdue.addAndGet(overdueRows);
+      penaltyMinorUnits.addAndGet(penalty);
+    }
+
+    private synchronized void recordPartition(
+        String partition, long rows, long accruedRows, long elapsedNanos) {
+      timings.add(
+          AccrualReportResponse.PartitionTiming.builder()
+              .partition(partition)
+              .installmentsScanned(rows)
+              .installmentsAccrued(accruedRows)
+              .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+              .rowsPerSecond(perSecond(rows, elapsedNanos))
+              .build());
+    }
+
+    private BigDecimal penalty() {
+      return LoanCalculator.fromMinorUnits(penaltyMinorUnits.get());
+    }
+
+    private Duration elapsed() {
+      long end = finishedAt != null ? finishedNanos : System.nanoTime();
+      return Duration.ofNanos(end - startedNanos);
+    }
+
+    private double rowsPerSecond() {
+      return perSecond(scannedThisRun.get(), elapsed().toNanos());
+    }
+
+    private boolean withinWindow() {
+      return elapsed().compareTo(window) <= 0;
+    }
+
+    private synchronized AccrualReportResponse toReport() {
+      return AccrualReportResponse.builder()
+          .status(status)
+          .businessDate(businessDate)
+          .startedAt(startedAt)
+          .finishedAt(finishedAt)
+          .resumed(resumed)
+          .partitions(partitions)
+          .installmentsScanned(scanned.get())
+          .installmentsAccrued(accrued.get())
+          .markedOverdue(markedOverdue.get())
+          .penaltyAccrued(penalty())
+          .rowsPerSecond(rowsPerSecond())
+          .withinWindow(withinWindow())
+          .error(error)
+          .partitionTimings(List.copyOf(timings))
+          .build();
+    }
+  }
+
+  private static double perSecond(long rows, long nanos) {
+    return nanos > 0 ? rows * 1_000_000_000d / nanos : 0d;
+  }
+}
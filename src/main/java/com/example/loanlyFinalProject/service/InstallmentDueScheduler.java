@@ -0,0 +1,309 @@
+package com.example.loanlyFinalProject.service;
+
+import com.example.loanlyFinalProject.config.SchedulingConfig;
+import com.example.loanlyFinalProject.datasource.WorkloadContext;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import com.example.loanlyFinalProject.entity.Installment;
+import com.example.loanlyFinalProject.entity.Notification;
+import com.example.loanlyFinalProject.repository.InstallmentRepository;
+import com.example.loanlyFinalProject.scheduling.HashedTimingWheel;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fires installment reminders and the SCHEDULED → DUE → OVERDUE transitions from a hashed timing
+ * wheel, so no tick ever scans the installment table.
+ *
+ * <p>Only events inside a rolling horizon are held in memory: every load reads, in keyset chunks
+ * from the (status, due_date) index, the installments whose next event falls between the end of the
+ * previous load and now + horizon, and schedules one wheel entry per event. The first load after
+ * startup also catches up on events that should have fired during the last {@code catch-up-days}
+ * while the application was down. Older backlog is left to the end-of-day accrual, which moves
+ * every unpaid installment past grace to OVERDUE, so a long outage cannot flood the wheel.
+ *
+ * <p>The wheel ticks on its own single-thread scheduler; loads run on the shared one.
+ *
+ * <p>Each event is applied with a conditional UPDATE, so paid installments, duplicate loads and
+ * other application nodes firing the same event are harmless.
+ */
+@Service
+@Slf4j
+public class InstallmentDueScheduler {
+
+  enum EventType {
+    REMINDER,
+    DUE,
+    OVERDUE
+  }
+
+  record DueEvent(
+      EventType type,
+      long installmentId,
+      long disbursementId,
+      long userId,
+      LocalDate dueDate,
+      BigDecimal amountDue) {}
+
+  private static final Set<Installment.InstallmentStatus> NOT_DUE_YET =
+      EnumSet.of(Installment.InstallmentStatus.SCHEDULED);
+  private static final Set<Installment.InstallmentStatus> UNPAID =
+      EnumSet.of(Installment.InstallmentStatus.SCHEDULED, Installment.InstallmentStatus.DUE);
+
+  private final InstallmentRepository installmentRepository;
+  private final NotificationService notificationService;
+  private final TransactionTemplate readTransaction;
+  private final TransactionTemplate writeTransaction;
+  private final Clock clock;
+  private final HashedTimingWheel<DueEvent> wheel;
+
+  private final Duration horizon;
+  private final int reminderDaysBefore;
+  private final int graceDays;
+  private final LocalTime dueTime;
+  private final LocalTime reminderTime;
+  private final int chunkSize;
+  private final int catchUpDays;
+
+  // Events firing at or before this instant are already in the wheel (or fired)
+  private LocalDateTime loadedUntil;
+
+  public InstallmentDueScheduler(
+      InstallmentRepository installmentRepository,
+      NotificationService notificationService,
+      PlatformTransactionManager transactionManager,
+      Clock clock,
+      @Value("${app.repayment.scheduler.tick-ms:60000}") long tickMillis,
+      @Value("${app.repayment.scheduler.ticks-per-wheel:2048}") int ticksPerWheel,
+      @Value("${app.repayment.scheduler.horizon-hours:6}") long horizonHours,
+      @Value("${app.repayment.reminder-days-before:3}") int reminderDaysBefore,
+      @Value("${app.repayment.grace-days:0}") int graceDays,
+      @Value("${app.repayment.due-time:00:05}") LocalTime dueTime,
+      @Value("${app.repayment.reminder-time:08:00}") LocalTime reminderTime,
+      @Value("${app.repayment.scheduler.chunk-size:1000}") int chunkSize,
+      @Value("${app.repayment.scheduler.catch-up-days:7}") int catchUpDays) {
+    this.installmentRepository = installmentRepository;
+    this.notificationService = notificationService;
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction.setReadOnly(true);
+    this.writeTransaction = new TransactionTemplate(transactionManager);
+    this.clock = clock;
+    this.wheel = new HashedTimingWheel<>(tickMillis, ticksPerWheel, clock.millis());
+    this.horizon = Duration.ofHours(horizonHours);
+    this.reminderDaysBefore = reminderDaysBefore;
+    this.graceDays = graceDays;
+    this.dueTime = dueTime;
+    this.reminderTime = reminderTime;
+    this.chunkSize = chunkSize;
+    this.catchUpDays = catchUpDays;
+  }
+
+  // ========== LOAD ==========
+
+  /**
+   * Schedule every event firing between the previous load and now + horizon.
+   *
+   * @return number of events added to the wheel
+   */
+  @Scheduled(fixedDelayString = "${app.repayment.scheduler.load-interval-ms:900000}")
+  public synchronized int loadHorizon() {
+    LocalDateTime from = loadedUntil;
+    LocalDateTime to = LocalDateTime.now(clock).plus(horizon);
+    WorkloadType previous = WorkloadContext.enter(WorkloadType.BACKGROUND_JOBS);
+    try {
+      int loaded = 0;
+      LocalDate today = LocalDate.now(clock);
+      LocalDate catchUpFrom = today.minusDays(catchUpDays);
+      // Reminders are not sent late for installments that are already due
+      loaded +=
+          load(
+              EventType.REMINDER,
+              from,
+              to,
+              reminderTime,
+              -reminderDaysBefore,
+              today.minusDays(reminderDaysBefore),
+              NOT_DUE_YET);
+      loaded += load(EventType.DUE, from, to, dueTime, 0, catchUpFrom, NOT_DUE_YET);
+      loaded += load(EventType.OVERDUE, from, to, dueTime, graceDays + 1, catchUpFrom, UNPAID);
+      loadedUntil = to;
+      if (loaded > 0) {
+        log.info("Scheduled {} installment events up to {} ({} pending)", loaded, to, wheel.size());
+      }
+      return loaded;
+    } finally {
+      WorkloadContext.restore(previous);
+    }
+  }
+
+  /**
+   * Load the events of one type firing in (from, to]. An event fires at {@code time} on the due
+   * date shifted by {@code dayOffset}; without a previous load, the first fire date considered is
+   * {@code catchUpFrom}.
+   */
+  private int load(
+      EventType type,
+      LocalDateTime from,
+      LocalDateTime to,
+      LocalTime time,
+      int dayOffset,
+      LocalDate catchUpFrom,
+      Set<Installment.InstallmentStatus> statuses) {
+    LocalDate firstFireDate =
+        from == null
+            ? catchUpFrom
+            : from.toLocalTime().isBefore(time)
+                ? from.toLocalDate()
+                : from.toLocalDate().plusDays(1);
+    LocalDate lastFireDate =
+        to.toLocalTime().isBefore(time) ? to.toLocalDate().minusDays(1) : to.toLocalDate();
+    LocalDate dueFrom = firstFireDate.minusDays(dayOffset);
+    LocalDate dueTo = lastFireDate.minusDays(dayOffset);
+    if (dueFrom.isAfter(dueTo)) {
+      return 0;
+    }
+
+    int loaded = 0;
+    long afterId = 0L;
+    while (true) {
+      long cursor = afterId;
+      List<Object[]> rows =
+          readTransaction.execute(
+              status ->
+                  type == EventType.REMINDER
+                      ? installmentRepository.findReminderChunk(
+                          dueFrom, dueTo, cursor, PageRequest.of(0, chunkSize))
+                      : installmentRepository.findEventChunk(
+                          statuses, dueFrom, dueTo, cursor, PageRequest.of(0, chunkSize)));
+      for (Object[] row : rows) {
+        LocalDate dueDate = (LocalDate) row[1];
+        DueEvent event =
+            new DueEvent(
+                type, (Long) row[0], (Long) row[3], (Long) row[4], dueDate, (BigDecimal) row[2]);
+        long fireAt =
+            dueDate
+                .plusDays(dayOffset)
+                .atTime(time)
+                .atZone(clock.getZone())
+                .toInstant()
+                .toEpochMilli();
+        wheel.schedule(event, fireAt);
+        afterId = (Long) row[0];
+      }
+      loaded += rows.size();
+      if (rows.size() < chunkSize) {
+        return loaded;
+      }
+    }
+  }
+
+  // ========== TICK ==========
+
+  /**
+   * Advance the wheel to the current time and apply the expired events.
+   *
+   * @return number of events that changed an installment
+   */
+  @Scheduled(
+      fixedDelayString = "${app.repayment.scheduler.tick-ms:60000}",
+      scheduler = SchedulingConfig.INSTALLMENT_WHEEL_SCHEDULER)
+  public int tick() {
+    List<DueEvent> expired = new ArrayList<>();
+    wheel.advanceTo(clock.millis(), expired::add);
+    if (expired.isEmpty()) {
+      return 0;
+    }
+
+    WorkloadType previous = WorkloadContext.enter(WorkloadType.BACKGROUND_JOBS);
+    try {
+      int applied = 0;
+      for (DueEvent event : expired) {
+        try {
+          if (Boolean.TRUE.equals(writeTransaction.execute(status -> apply(event)))) {
+            applied++;
+          }
+        } catch (RuntimeException e) {
+          log.error(
+              "Failed to apply {} for installment {}", event.type(), event.installmentId(), e);
+        }
+      }
+      log.info("Applied {} of {} expired installment events", applied, expired.size());
+      return applied;
+    } finally {
+      WorkloadContext.restore(previous);
+    }
+  }
+
+  private boolean apply(DueEvent event) {
+    LocalDateTime now = LocalDateTime.now(clock);
+    switch (event.type()) {
+      case REMINDER -> {
+        if (installmentRepository.markReminderSent(event.installmentId(), now) == 0) {
+          return false;
+        }
+        notify(
+            event,
+            "Pengingat Pembayaran",
+            "Cicilan sebesar Rp "
+                + event.amountDue()
+                + " akan jatuh tempo pada "
+                + event.dueDate()
+                + ".",
+            Notification.NotificationType.PAYMENT_REMINDER);
+      }
+      case DUE -> {
+        if (installmentRepository.markDue(event.installmentId(), now) == 0) {
+          return false;
+        }
+        if (!event.dueDate().equals(now.toLocalDate())) {
+          return true; // Caught up after downtime; the overdue event tells the customer
+        }
+        notify(
+            event,
+            "Cicilan Jatuh Tempo",
+            "Cicilan sebesar Rp " + event.amountDue() + " jatuh tempo hari ini.",
+            Notification.NotificationType.PAYMENT_DUE);
+      }
+      case OVERDUE -> {
+        if (installmentRepository.markOverdue(event.installmentId(), now) == 0) {
+          return false;
+        }
+        notify(
+            event,
+            "Cicilan Terlambat",
+            "Cicilan sebesar Rp "
+                + event.amountDue()
+                + " yang jatuh tempo pada "
+                + event.dueDate()
+                + " belum dibayar.",
+            Notification.NotificationType.PAYMENT_OVERDUE);
+      }
+    }
+    return true;
+  }
+
+  private void notify(
+      DueEvent event, String title, String message, Notification.NotificationType type) {
+    notificationService.createNotification(
+        event.userId(), title, message, type, event.disbursementId());
+  }
+
+  /** Events waiting in the wheel. */
+  public int pendingEvents() {
+    return wheel.size();
+  }
+}
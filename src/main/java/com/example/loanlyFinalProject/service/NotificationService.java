@@ -6,21 +6,33 @@ import com.example.loanlyFinalProject.entity.User;
 import com.example.loanlyFinalProject.exception.ResourceNotFoundException;
 import com.example.loanlyFinalProject.repository.NotificationRepository;
 import com.example.loanlyFinalProject.repository.UserRepository;
+import com.example.loanlyFinalProject.tracing.Dependency;
+import com.example.loanlyFinalProject.tracing.Observations;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = WorkflowMetrics.SERVICE_TIMER, histogram = true)
 public class NotificationService {
 
   private final NotificationRepository notificationRepository;
   private final UserRepository userRepository;
+  private final ObjectProvider<com.google.firebase.messaging.FirebaseMessaging> firebaseMessaging;
+  private final ObservationRegistry observationRegistry;
 
   // ========== Get Notifications ==========
 
@@ -89,6 +101,48 @@ public class NotificationService {
     sendFcmNotification(user, title, message, type, referenceId);
   }
 
+  /** Notification to create in bulk. */
+  public record NewNotification(
+      Long userId,
+      String title,
+      String message,
+      Notification.NotificationType type,
+      Long referenceId) {}
+
+  /** Bulk variant of {@link #createNotification}: one query for all recipients. */
+  @Transactional
+  public void createNotifications(List<NewNotification> notifications) {
+    Map<Long, User> users =
+        userRepository
+            .findAllById(notifications.stream().map(NewNotification::userId).distinct().toList())
+            .stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+
+    List<Notification> saved = new ArrayList<>(notifications.size());
+    for (NewNotification n : notifications) {
+      User user = users.get(n.userId());
+      if (user == null) {
+        log.warn("Skipping notification for unknown user {}: {}", n.userId(), n.title());
+        continue;
+      }
+      saved.add(
+          Notification.builder()
+              .user(user)
+              .title(n.title())
+              .message(n.message())
+              .type(n.type())
+              .referenceId(n.referenceId())
+              .build());
+    }
+    notificationRepository.saveAll(saved);
+    log.info("{} notifications created", saved.size());
+
+    for (Notification n : saved) {
+      sendFcmNotification(
+          n.getUser(), n.getTitle(), n.getMessage(), n.getType(), n.getReferenceId());
+    }
+  }
+
   // ========== Push Notification ==========
 
   private void sendFcmNotification(
@@ -96,6 +150,10 @@ public class NotificationService {
     if (user.getFcmToken() == null || user.getFcmToken().isEmpty()) {
       return;
     }
+    com.google.firebase.messaging.FirebaseMessaging messaging = firebaseMessaging.getIfAvailable();
+    if (messaging == null) {
+      return; // Firebase is disabled or not configured
+    }
 
     try {
       com.google.firebase.messaging.Notification notification =
@@ -115,7 +173,10 @@ public class NotificationService {
         messageBuilder.putData("referenceId", referenceId.toString());
       }
 
-      com.google.firebase.messaging.FirebaseMessaging.getInstance().send(messageBuilder.build());
+      Dependency.FCM.call(
+          Observation.createNotStarted(Observations.FCM_SEND, observationRegistry)
+              .lowCardinalityKeyValue("notification.type", type.name()),
+          () -> messaging.send(messageBuilder.build()));
       log.info("FCM Notification sent to user: {}", user.getUsername());
     } catch (Exception e) {
       log.error("Failed to send FCM notification to user: {}", user.getUsername(), e);
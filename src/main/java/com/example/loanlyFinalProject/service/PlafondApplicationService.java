@@ -1,37 +1,104 @@
 package com.example.loanlyFinalProject.service;
 
+import com.example.loanlyFinalProject.concurrency.StripedLock;
+import com.example.loanlyFinalProject.datasource.Workload;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
 import com.example.loanlyFinalProject.dto.request.PlafondApplicationRequest;
 import com.example.loanlyFinalProject.dto.request.PlafondReviewRequest;
 import com.example.loanlyFinalProject.dto.response.UserPlafondResponse;
+import com.example.loanlyFinalProject.dto.response.WorkQueueClaimResponse;
 import com.example.loanlyFinalProject.entity.*;
 import com.example.loanlyFinalProject.exception.DuplicateResourceException;
+import com.example.loanlyFinalProject.exception.ResourceBusyException;
 import com.example.loanlyFinalProject.exception.ResourceNotFoundException;
+import com.example.loanlyFinalProject.exception.StateConflictException;
 import com.example.loanlyFinalProject.repository.*;
+import io.micrometer.core.annotation.Timed;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = WorkflowMetrics.SERVICE_TIMER, histogram = true)
 public class PlafondApplicationService {
 
+  static final String OPEN_APPLICATION_INDEX = "ux_user_plafonds_open_application";
+
+  private static final int APPLICATION_LOCK_STRIPES = 1024;
+  private static final long LOCK_RETRY_AFTER_SECONDS = 1;
+
   private final UserPlafondRepository userPlafondRepository;
   private final PlafondRepository plafondRepository;
   private final PlafondHistoryRepository plafondHistoryRepository;
   private final UserRepository userRepository;
   private final NotificationService notificationService;
   private final CreditEligibilityService creditEligibilityService;
+  private final WorkQueueService workQueueService;
+  private final StorageService storageService;
+  private final TransactionTemplate transactionTemplate;
+  private final WorkflowMetrics workflowMetrics;
+
+  private final StripedLock applicationLocks = new StripedLock(APPLICATION_LOCK_STRIPES);
+
+  @Value("${app.plafond-application.lock-wait-ms:5000}")
+  private long lockWaitMs;
 
   // ========== CUSTOMER: Apply for Plafond ==========
 
-  @Transactional
+  /**
+   * Submit a plafond application. A customer may have only one open application, and the checks
+   * below read before they insert, so two parallel submissions would both pass them. Submissions of
+   * one customer therefore run one at a time on that customer's lock stripe, held until the
+   * transaction has committed; other customers use other stripes and are not held up. Across nodes
+   * the filtered unique index {@value #OPEN_APPLICATION_INDEX} rejects the second insert.
+   *
+   * @throws DuplicateResourceException if the customer already has an open application
+   * @throws ResourceBusyException if the lock stripe stayed taken for {@code
+   *     app.plafond-application.lock-wait-ms}. Customers share stripes, so this does not mean the
+   *     customer submitted twice; the same request can be retried.
+   */
   public UserPlafondResponse applyForPlafond(Long userId, PlafondApplicationRequest request) {
+    Lock lock = applicationLocks.get(userId);
+    boolean locked;
+    try {
+      locked = lock.tryLock(lockWaitMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting to submit the application", e);
+    }
+    if (!locked) {
+      throw new ResourceBusyException(
+          "Application submissions are busy, please retry shortly", LOCK_RETRY_AFTER_SECONDS);
+    }
+    try {
+      return transactionTemplate.execute(status -> submitApplication(userId, request));
+    } catch (DataIntegrityViolationException e) {
+      if (isOpenApplicationViolation(e)) {
+        throw new DuplicateResourceException("User already has an open plafond application");
+      }
+      throw e;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private UserPlafondResponse submitApplication(Long userId, PlafondApplicationRequest request) {
     // Validate credit eligibility and tier-up requirement
     creditEligibilityService.validatePlafondApplication(userId, request.getPlafondId());
 
@@ -72,7 +139,7 @@ public class PlafondApplicationService {
             .applicationLongitude(request.getLongitude())
             .build();
 
-    UserPlafond saved = userPlafondRepository.save(userPlafond);
+    UserPlafond saved = userPlafondRepository.saveAndFlush(userPlafond);
 
     // Create history
     createHistory(
@@ -136,8 +203,11 @@ public class PlafondApplicationService {
                     new ResourceNotFoundException("Application", "id", request.getApplicationId()));
 
     if (application.getStatus() != UserPlafond.PlafondApplicationStatus.PENDING_REVIEW) {
-      throw new IllegalStateException("Application is not in PENDING_REVIEW status");
+      throw new StateConflictException(
+          "Application", application.getId(), "Application is not in PENDING_REVIEW status");
     }
+    workQueueService.acquire(
+        WorkQueueService.Queue.PLAFOND_REVIEW, application.getId(), marketingUserId);
 
     UserPlafond.PlafondApplicationStatus previousStatus = application.getStatus();
     UserPlafond.PlafondApplicationStatus newStatus;
@@ -151,8 +221,8 @@ public class PlafondApplicationService {
       application.setRejectionNote(request.getNote());
     }
 
-    application.setStatus(newStatus);
-    UserPlafond saved = userPlafondRepository.save(application);
+    transition(application, previousStatus, newStatus);
+    UserPlafond saved = userPlafondRepository.saveAndFlush(application);
 
     // Create history
     createHistory(saved, previousStatus, newStatus, marketingUser, "MARKETING", request.getNote());
@@ -207,8 +277,11 @@ public class PlafondApplicationService {
                     new ResourceNotFoundException("Application", "id", request.getApplicationId()));
 
     if (application.getStatus() != UserPlafond.PlafondApplicationStatus.WAITING_APPROVAL) {
-      throw new IllegalStateException("Application is not in WAITING_APPROVAL status");
+      throw new StateConflictException(
+          "Application", application.getId(), "Application is not in WAITING_APPROVAL status");
     }
+    workQueueService.acquire(
+        WorkQueueService.Queue.PLAFOND_APPROVAL, application.getId(), branchManagerId);
 
     UserPlafond.PlafondApplicationStatus previousStatus = application.getStatus();
     UserPlafond.PlafondApplicationStatus newStatus;
@@ -230,14 +303,13 @@ public class PlafondApplicationService {
       application.setApprovedBy(branchManager);
       application.setApprovedAt(LocalDateTime.now());
       application.setApprovedLimit(approvedLimit);
-      application.setUsedAmount(BigDecimal.ZERO);
     } else {
       newStatus = UserPlafond.PlafondApplicationStatus.REJECTED;
       application.setRejectionNote(request.getNote());
     }
 
-    application.setStatus(newStatus);
-    UserPlafond saved = userPlafondRepository.save(application);
+    transition(application, previousStatus, newStatus);
+    UserPlafond saved = userPlafondRepository.saveAndFlush(application);
 
     // Create history
     createHistory(
@@ -272,6 +344,37 @@ public class PlafondApplicationService {
     return mapToResponse(saved);
   }
 
+  // ========== MARKETING / BRANCH MANAGER: Work Queue ==========
+
+  /**
+   * Lease the next applications of a review queue to a staff member, so concurrent reviewers work
+   * on disjoint applications instead of racing on the whole pending list.
+   */
+  @Transactional
+  public WorkQueueClaimResponse<UserPlafondResponse> claimApplications(
+      Long staffUserId, WorkQueueService.Queue queue, int limit) {
+    WorkQueueService.Claim claim = workQueueService.claim(queue, staffUserId, limit);
+
+    Map<Long, UserPlafond> byId =
+        claim.ids().isEmpty()
+            ? Map.of()
+            : userPlafondRepository.findAllWithDetailsByIdIn(claim.ids()).stream()
+                .collect(Collectors.toMap(UserPlafond::getId, Function.identity()));
+    return WorkQueueClaimResponse.<UserPlafondResponse>builder()
+        .claimedBy(staffUserId)
+        .leaseExpiresAt(claim.leaseExpiresAt())
+        .items(claim.ids().stream().map(byId::get).map(this::mapToResponse).toList())
+        .build();
+  }
+
+  @Transactional
+  public void releaseApplication(
+      Long staffUserId, WorkQueueService.Queue queue, Long applicationId) {
+    if (!workQueueService.release(queue, applicationId, staffUserId)) {
+      throw new IllegalStateException("Application " + applicationId + " is not claimed by you");
+    }
+  }
+
   // ========== Get Application Details ==========
 
   public UserPlafondResponse getApplicationById(Long applicationId) {
@@ -284,6 +387,30 @@ public class PlafondApplicationService {
 
   // ========== HELPER METHODS ==========
 
+  /**
+   * Move an application along the transition table with a compare-and-set on its status. The
+   * workflow fields are saved afterwards under the {@code @Version} check, so of two concurrent
+   * actions on the same application exactly one commits and the other gets a 409.
+   */
+  private void transition(
+      UserPlafond application,
+      UserPlafond.PlafondApplicationStatus from,
+      UserPlafond.PlafondApplicationStatus to) {
+    if (!from.canTransitionTo(to)) {
+      throw StateConflictException.notAllowed("Application", application.getId(), from, to);
+    }
+    if (userPlafondRepository.transitionStatus(application.getId(), from, to) == 0) {
+      throw StateConflictException.lostRace("Application", application.getId(), from, to);
+    }
+    application.setStatus(to);
+  }
+
+  // SQL Server names the violated index in the message; Hibernate does not always extract it
+  private static boolean isOpenApplicationViolation(DataIntegrityViolationException e) {
+    String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+    return message != null && message.toLowerCase(Locale.ROOT).contains(OPEN_APPLICATION_INDEX);
+  }
+
   private void createHistory(
       UserPlafond application,
       UserPlafond.PlafondApplicationStatus previousStatus,
@@ -302,9 +429,19 @@ public class PlafondApplicationService {
             .build();
 
     plafondHistoryRepository.save(history);
+
+    if (previousStatus == null || previousStatus == newStatus) {
+      workflowMetrics.created(WorkflowMetrics.APPLICATION, newStatus);
+    } else {
+      workflowMetrics.transition(WorkflowMetrics.APPLICATION, previousStatus, newStatus);
+    }
+    if (newStatus == UserPlafond.PlafondApplicationStatus.REJECTED) {
+      workflowMetrics.rejected(WorkflowMetrics.APPLICATION, role);
+    }
   }
 
-  private UserPlafondResponse mapToResponse(UserPlafond up) {
+  // Package-private for the mapping benchmark
+  UserPlafondResponse mapToResponse(UserPlafond up) {
     UserPlafondResponse.UserPlafondResponseBuilder builder =
         UserPlafondResponse.builder()
             .id(up.getId())
@@ -373,7 +510,9 @@ public class PlafondApplicationService {
                       UserPlafondResponse.DocumentInfo.builder()
                           .id(doc.getId())
                           .documentType(doc.getDocumentType().name())
-                          .fileUrl(doc.getFileUrl())
+                          .fileUrl(storageService.signedUrl(doc.getFileUrl()))
+                          .previewUrl(storageService.signedUrl(doc.getPreviewUrl()))
+                          .thumbnailUrl(storageService.signedUrl(doc.getThumbnailUrl()))
                           .fileName(doc.getFileName())
                           .uploadedAt(doc.getUploadedAt())
                           .build())
@@ -385,6 +524,7 @@ public class PlafondApplicationService {
 
   // ========== APPROVED CUSTOMERS ==========
 
+  @Workload(WorkloadType.REPORTING)
   public List<
           com.example
               .loanlyFinalProject
@@ -420,6 +560,7 @@ public class PlafondApplicationService {
 
   // ========== HISTORY ==========
 
+  @Workload(WorkloadType.REPORTING)
   public List<
           com.example
               .loanlyFinalProject
@@ -438,6 +579,7 @@ public class PlafondApplicationService {
     return histories.stream().map(h -> mapToHistoryResponse(h)).collect(Collectors.toList());
   }
 
+  @Workload(WorkloadType.REPORTING)
   public List<
           com.example
               .loanlyFinalProject
@@ -0,0 +1,294 @@
+package com.example.loanlyFinalProject.service;
+
+import com.example.loanlyFinalProject.dto.request.PaymentRequest;
+import com.example.loanlyFinalProject.dto.response.InstallmentResponse;
+import com.example.loanlyFinalProject.dto.response.LoanRepaymentResponse;
+import com.example.loanlyFinalProject.dto.response.PaymentResponse;
+import com.example.loanlyFinalProject.entity.*;
+import com.example.loanlyFinalProject.exception.ResourceNotFoundException;
+import com.example.loanlyFinalProject.loan.InstallmentSchedule;
+import com.example.loanlyFinalProject.loan.LoanCalculator;
+import com.example.loanlyFinalProject.repository.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Installments and payments of disbursed loans. Payments are allocated to the oldest unpaid
+ * installments, penalty first, then interest, then principal, and the repaid principal goes back to
+ * the credit line through the credit ledger.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RepaymentService {
+
+  private final InstallmentRepository installmentRepository;
+  private final PaymentRepository paymentRepository;
+  private final DisbursementRepository disbursementRepository;
+  private final UserRepository userRepository;
+  private final CreditLedgerService creditLedgerService;
+  private final NotificationService notificationService;
+
+  // ========== SCHEDULE ==========
+
+  /**
+   * Create the installments of a loan that was just paid out. Installment n is due n months after
+   * the disbursement date (clamped to the end of shorter months).
+   */
+  @Transactional
+  public List<Installment> createSchedule(Disbursement disbursement) {
+    List<Installment> installments = new ArrayList<>(disbursement.getTenorMonth());
+    addSchedule(disbursement, new InstallmentSchedule(disbursement.getTenorMonth()), installments);
+    return installmentRepository.saveAll(installments);
+  }
+
+  /**
+   * {@link #createSchedule} for many loans; one scratch schedule, inserts written as JDBC batches.
+   */
+  @Transactional
+  public void createSchedules(List<Disbursement> disbursements) {
+    InstallmentSchedule scratch = new InstallmentSchedule();
+    List<Installment> installments = new ArrayList<>();
+    for (Disbursement disbursement : disbursements) {
+      addSchedule(disbursement, scratch, installments);
+    }
+    installmentRepository.saveAll(installments);
+  }
+
+  private static void addSchedule(
+      Disbursement disbursement, InstallmentSchedule scratch, List<Installment> out) {
+    int tenor = disbursement.getTenorMonth();
+    InstallmentSchedule schedule =
+        LoanCalculator.flat(
+            LoanCalculator.toMinorUnits(disbursement.getAmount()),
+            LoanCalculator.toBasisPoints(disbursement.getInterestRate()),
+            tenor,
+            scratch);
+
+    LocalDate disbursedOn = disbursement.getDisbursedAt().toLocalDate();
+    for (int i = 0; i < tenor; i++) {
+      out.add(
+          Installment.builder()
+              .disbursement(disbursement)
+              .installmentNumber(i + 1)
+              .dueDate(disbursedOn.plusMonths(i + 1))
+              .principalAmount(LoanCalculator.fromMinorUnits(schedule.principalPart(i)))
+              .interestAmount(LoanCalculator.fromMinorUnits(schedule.interestPart(i)))
+              .amountDue(LoanCalculator.fromMinorUnits(schedule.payment(i)))
+              .build());
+    }
+  }
+
+  // ========== BACK OFFICE: Post Payment ==========
+
+  @Transactional
+  public PaymentResponse postPayment(
+      Long recordedByUserId, Long disbursementId, PaymentRequest request) {
+    User recordedBy =
+        userRepository
+            .findById(recordedByUserId)
+            .orElseThrow(() -> new ResourceNotFoundException("User", "id", recordedByUserId));
+
+    Disbursement disbursement =
+        disbursementRepository
+            .findByIdForUpdate(disbursementId)
+            .orElseThrow(() -> new ResourceNotFoundException("Disbursement", "id", disbursementId));
+
+    if (disbursement.getStatus() != Disbursement.DisbursementStatus.DISBURSED) {
+      throw new IllegalStateException("Payments can only be posted to DISBURSED loans");
+    }
+
+    // Row locks: an accrual UPDATE waits for this payment, then finds its paid amounts changed
+    List<Installment> unpaid =
+        installmentRepository.findUnpaidByDisbursementIdForUpdate(disbursementId);
+    BigDecimal outstanding = sumOutstanding(unpaid);
+    if (request.getAmount().compareTo(outstanding) > 0) {
+      throw new IllegalArgumentException("Payment exceeds outstanding amount: " + outstanding);
+    }
+
+    // Oldest installment first; penalty, then interest, then principal
+    LocalDateTime now = LocalDateTime.now();
+    BigDecimal remaining = request.getAmount();
+    BigDecimal principalPaid = BigDecimal.ZERO;
+    BigDecimal interestPaid = BigDecimal.ZERO;
+    BigDecimal penaltyPaid = BigDecimal.ZERO;
+    for (Installment installment : unpaid) {
+      if (remaining.signum() == 0) {
+        break;
+      }
+      BigDecimal penalty = remaining.min(installment.getOutstandingPenalty());
+      installment.setPaidPenalty(installment.getPaidPenalty().add(penalty));
+      remaining = remaining.subtract(penalty);
+      penaltyPaid = penaltyPaid.add(penalty);
+
+      BigDecimal interest = remaining.min(installment.getOutstandingInterest());
+      installment.setPaidInterest(installment.getPaidInterest().add(interest));
+      remaining = remaining.subtract(interest);
+      interestPaid = interestPaid.add(interest);
+
+      BigDecimal principal = remaining.min(installment.getOutstandingPrincipal());
+      installment.setPaidPrincipal(installment.getPaidPrincipal().add(principal));
+      remaining = remaining.subtract(principal);
+      principalPaid = principalPaid.add(principal);
+
+      if (installment.getOutstandingAmount().signum() == 0) {
+        installment.setStatus(Installment.InstallmentStatus.PAID);
+        installment.setPaidAt(now);
+      }
+    }
+
+    UserPlafond userPlafond = disbursement.getUserPlafond();
+    Payment payment =
+        paymentRepository.save(
+            Payment.builder()
+                .disbursement(disbursement)
+                .userPlafond(userPlafond)
+                .amount(request.getAmount())
+                .principalAmount(principalPaid)
+                .interestAmount(interestPaid)
+                .penaltyAmount(penaltyPaid)
+                .reference(request.getReference())
+                .note(request.getNote())
+                .recordedBy(recordedBy)
+                .paidAt(now)
+                .build());
+
+    if (principalPaid.signum() > 0) {
+      creditLedgerService.repay(
+          userPlafond, principalPaid, disbursementId, "Payment " + payment.getId());
+    }
+
+    BigDecimal outstandingAfter = outstanding.subtract(request.getAmount());
+    notificationService.createNotification(
+        userPlafond.getUser().getId(),
+        "Pembayaran Diterima",
+        "Pembayaran sebesar Rp "
+            + request.getAmount()
+            + " telah diterima. Sisa tagihan: Rp "
+            + outstandingAfter,
+        Notification.NotificationType.PAYMENT_RECEIVED,
+        disbursementId);
+
+    log.info(
+        "Payment {} posted to disbursement {}: principal={}, interest={}, penalty={},"
+            + " outstanding={}",
+        payment.getId(),
+        disbursementId,
+        principalPaid,
+        interestPaid,
+        penaltyPaid,
+        outstandingAfter);
+
+    PaymentResponse response = mapPayment(payment);
+    response.setOutstandingAmount(outstandingAfter);
+    response.setRemainingLimit(userPlafond.getAvailableLimit());
+    return response;
+  }
+
+  // ========== REPAYMENT STATUS ==========
+
+  @Transactional(readOnly = true)
+  public LoanRepaymentResponse getRepaymentForCustomer(Long userId, Long disbursementId) {
+    Disbursement disbursement = findDisbursement(disbursementId);
+    if (!disbursement.getUserPlafond().getUser().getId().equals(userId)) {
+      throw new IllegalArgumentException("You don't have access to this disbursement");
+    }
+    return buildRepayment(disbursement);
+  }
+
+  @Transactional(readOnly = true)
+  public LoanRepaymentResponse getRepayment(Long disbursementId) {
+    return buildRepayment(findDisbursement(disbursementId));
+  }
+
+  private Disbursement findDisbursement(Long disbursementId) {
+    return disbursementRepository
+        .findById(disbursementId)
+        .orElseThrow(() -> new ResourceNotFoundException("Disbursement", "id", disbursementId));
+  }
+
+  private LoanRepaymentResponse buildRepayment(Disbursement disbursement) {
+    List<Installment> installments =
+        installmentRepository.findByDisbursementIdOrderByInstallmentNumberAsc(disbursement.getId());
+
+    BigDecimal outstandingPrincipal = BigDecimal.ZERO;
+    BigDecimal paid = BigDecimal.ZERO;
+    LocalDate nextDueDate = null;
+    long overdue = 0;
+    for (Installment i : installments) {
+      outstandingPrincipal = outstandingPrincipal.add(i.getOutstandingPrincipal());
+      paid = paid.add(i.getPaidPrincipal()).add(i.getPaidInterest()).add(i.getPaidPenalty());
+      if (i.getStatus() != Installment.InstallmentStatus.PAID && nextDueDate == null) {
+        nextDueDate = i.getDueDate();
+      }
+      if (i.getStatus() == Installment.InstallmentStatus.OVERDUE) {
+        overdue++;
+      }
+    }
+
+    return LoanRepaymentResponse.builder()
+        .disbursementId(disbursement.getId())
+        .amount(disbursement.getAmount())
+        .totalAmount(disbursement.getTotalAmount())
+        .paidAmount(paid)
+        .outstandingPrincipal(outstandingPrincipal)
+        .outstandingAmount(sumOutstanding(installments))
+        .nextDueDate(nextDueDate)
+        .overdueInstallments(overdue)
+        .installments(installments.stream().map(this::mapInstallment).collect(Collectors.toList()))
+        .payments(
+            paymentRepository.findByDisbursementIdOrderByPaidAtDesc(disbursement.getId()).stream()
+                .map(this::mapPayment)
+                .collect(Collectors.toList()))
+        .build();
+  }
+
+  private static BigDecimal sumOutstanding(List<Installment> installments) {
+    BigDecimal total = BigDecimal.ZERO;
+    for (Installment i : installments) {
+      total = total.add(i.getOutstandingAmount());
+    }
+    return total;
+  }
+
+  // ========== MAPPER ==========
+
+  private InstallmentResponse mapInstallment(Installment i) {
+    return InstallmentResponse.builder()
+        .id(i.getId())
+        .installmentNumber(i.getInstallmentNumber())
+        .dueDate(i.getDueDate())
+        .principalAmount(i.getPrincipalAmount())
+        .interestAmount(i.getInterestAmount())
+        .penaltyAmount(i.getPenaltyAmount())
+        .amountDue(i.getAmountDue())
+        .paidAmount(i.getPaidPrincipal().add(i.getPaidInterest()).add(i.getPaidPenalty()))
+        .outstandingAmount(i.getOutstandingAmount())
+        .status(i.getStatus().name())
+        .paidAt(i.getPaidAt())
+        .build();
+  }
+
+  private PaymentResponse mapPayment(Payment p) {
+    return PaymentResponse.builder()
+        .id(p.getId())
+        .disbursementId(p.getDisbursement().getId())
+        .amount(p.getAmount())
+        .principalAmount(p.getPrincipalAmount())
+        .interestAmount(p.getInterestAmount())
+        .penaltyAmount(p.getPenaltyAmount())
+        .reference(p.getReference())
+        .note(p.getNote())
+        .recordedByUsername(p.getRecordedBy() != null ? p.getRecordedBy().getUsername() : null)
+        .paidAt(p.getPaidAt())
+        .build();
+  }
+}
@@ -0,0 +1,385 @@
+package com.example.loanlyFinalProject.service;
+
+import com.example.loanlyFinalProject.datasource.Workload;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import com.example.loanlyFinalProject.dto.request.ResumableUploadRequest;
+import com.example.loanlyFinalProject.dto.response.ResumableUploadResponse;
+import com.example.loanlyFinalProject.entity.PlafondDocument;
+import com.example.loanlyFinalProject.exception.ResourceNotFoundException;
+import com.example.loanlyFinalProject.exception.StateConflictException;
+import com.example.loanlyFinalProject.exception.UnsupportedDocumentTypeException;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.storage.ContentAddressedStore;
+import com.example.loanlyFinalProject.storage.DocumentStreamWriter;
+import com.example.loanlyFinalProject.storage.StagedDocument;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+/**
+ * Resumable document uploads, modelled on the tus protocol. The client creates an upload with the
+ * document's size, sends the bytes in chunks that each start at the offset the server has, asks for
+ * that offset again after a dropped connection, and completes the upload once every byte is in. A
+ * chunk cut off halfway still counts for the bytes that arrived, so a retry only resends the rest.
+ *
+ * <p>Progress is kept in {@code document_uploads}, so any node can take the next chunk; the bytes
+ * go to a part file in the upload directory's staging area, which the nodes share. A chunk is
+ * written at its offset with positional {@link FileChannel} writes and forced to disk before the
+ * new offset is recorded, so the offset never covers bytes a crash could lose. While a chunk is
+ * written the row is leased to it, so two requests never write to one upload at once. The finished
+ * part file is hashed and sniffed in one read and committed through {@link
+ * StorageService#storeStaged}, like a multipart upload.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResumableUploadService {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final UserPlafondRepository userPlafondRepository;
+  private final ContentAddressedStore contentStore;
+  private final StorageService storageService;
+  private final TransactionTemplate transactionTemplate;
+  private final Clock clock;
+
+  @Value("${app.document.resumable.max-size:50MB}")
+  private DataSize maxUploadSize;
+
+  @Value("${app.document.resumable.expiry-hours:24}")
+  private long expiryHours;
+
+  @Value("${app.document.resumable.lock-seconds:300}")
+  private long lockSeconds;
+
+  @Value("${app.document.resumable.max-active-per-user:5}")
+  private int maxActivePerUser;
+
+  /** A {@code document_uploads} row. */
+  private record Upload(
+      UUID id,
+      Long userPlafondId,
+      PlafondDocument.DocumentType documentType,
+      String fileName,
+      long length,
+      long offset,
+      LocalDateTime expiresAt) {}
+
+  // ========== PROTOCOL ==========
+
+  /** Start an upload of {@code request.sizeBytes} bytes with an empty part file. */
+  public ResumableUploadResponse create(
+      Long userId, Long userPlafondId, ResumableUploadRequest request) {
+    if (userPlafondRepository
+        .findById(userPlafondId)
+        .filter(a -> a.getUser().getId().equals(userId))
+        .isEmpty()) {
+      throw new ResourceNotFoundException("User Plafond", "id", userPlafondId);
+    }
+    long maxBytes = maxUploadSize.toBytes();
+    if (request.getSizeBytes() > maxBytes) {
+      throw new MaxUploadSizeExceededException(maxBytes);
+    }
+
+    LocalDateTime now = LocalDateTime.now(clock);
+    // Soft limit on the disk one customer can hold; concurrent creates may overshoot it
+    Integer active =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM document_uploads WHERE user_id = ? AND expires_at > ?",
+            Integer.class,
+            userId,
+            now);
+    if (active != null && active >= maxActivePerUser) {
+      throw new StateConflictException(
+          "Application",
+          userPlafondId,
+          "Too many uploads in progress; complete or cancel one before starting another");
+    }
+
+    UUID id = UUID.randomUUID();
+    Path partFile = contentStore.resumablePartFile(id);
+    try {
+      Files.createDirectories(partFile.getParent());
+      Files.createFile(partFile);
+    } catch (IOException e) {
+      log.error("Failed to create upload part file", e);
+      throw new RuntimeException("Failed to start upload: " + e.getMessage());
+    }
+    LocalDateTime expiresAt = now.plusHours(expiryHours);
+    jdbcTemplate.update(
+        "INSERT INTO document_uploads (id, user_id, user_plafond_id, document_type, file_name,"
+            + " length_bytes, offset_bytes, created_at, expires_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?)",
+        id.toString(),
+        userId,
+        userPlafondId,
+        request.getDocumentType().name(),
+        request.getFileName(),
+        request.getSizeBytes(),
+        now,
+        expiresAt);
+    log.info(
+        "Resumable upload {} started for application {} ({} bytes)",
+        id,
+        userPlafondId,
+        request.getSizeBytes());
+    return response(id, 0, request.getSizeBytes(), expiresAt);
+  }
+
+  /** Where the upload stands; the next chunk must start at the returned offset. */
+  public ResumableUploadResponse offset(Long userId, Long userPlafondId, UUID uploadId) {
+    Upload upload = find(userId, userPlafondId, uploadId);
+    return response(upload.id(), upload.offset(), upload.length(), upload.expiresAt());
+  }
+
+  /**
+   * Write a chunk at {@code offset}, which must be the upload's current offset. The bytes are
+   * counted as far as they arrived, also when the body breaks off; {@code contentLength} is the
+   * chunk's declared length, or -1, and lets an oversized chunk be refused before it is read.
+   *
+   * @throws StateConflictException if the offset does not match, or another chunk is being written
+   * @throws MaxUploadSizeExceededException if the chunk runs past the upload's length
+   */
+  public ResumableUploadResponse append(
+      Long userId,
+      Long userPlafondId,
+      UUID uploadId,
+      long offset,
+      long contentLength,
+      InputStream body) {
+    Upload upload = find(userId, userPlafondId, uploadId);
+    if (offset != upload.offset()) {
+      throw conflict(
+          upload,
+          "Upload-Offset " + offset + " does not match the upload's offset " + upload.offset());
+    }
+    if (contentLength > upload.length() - offset) {
+      throw new MaxUploadSizeExceededException(upload.length());
+    }
+    String token = lock(upload);
+
+    long position = offset;
+    long durable = offset;
+    boolean recorded;
+    try (FileChannel channel =
+        FileChannel.open(contentStore.resumablePartFile(uploadId), StandardOpenOption.WRITE)) {
+      try {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+          if (read > upload.length() - position) {
+            throw new MaxUploadSizeExceededException(upload.length());
+          }
+          ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+          while (chunk.hasRemaining()) {
+            position += channel.write(chunk, position);
+          }
+        }
+      } finally {
+        // Durable before it is counted; the bytes that made it are kept when the body breaks off
+        channel.force(false);
+        durable = position;
+      }
+    } catch (IOException e) {
+      log.info(
+          "Chunk for upload {} ended at offset {} of {}: {}",
+          uploadId,
+          durable,
+          upload.length(),
+          e.toString());
+      throw new RuntimeException("Failed to write upload chunk: " + e.getMessage());
+    } finally {
+      recorded = unlock(uploadId, token, durable);
+    }
+    if (!recorded) {
+      throw conflict(upload, "The upload was taken over by another request; ask for its offset");
+    }
+    return response(uploadId, durable, upload.length(), upload.expiresAt());
+  }
+
+  /**
+   * Record the finished upload as a document. Every byte must have arrived. The part file is hashed
+   * and sniffed like a multipart upload, then retained in the content-addressed store, and the
+   * upload is deleted in the same transaction as the document row is inserted, so it completes
+   * exactly once. Content that is not a supported document ends the upload.
+   */
+  public PlafondDocument complete(Long userId, Long userPlafondId, UUID uploadId) {
+    Upload upload = find(userId, userPlafondId, uploadId);
+    if (upload.offset() < upload.length()) {
+      throw conflict(
+          upload,
+          "The upload is incomplete: " + upload.offset() + " of " + upload.length() + " bytes");
+    }
+    String token = lock(upload);
+
+    StagedDocument staged;
+    try {
+      staged = DocumentStreamWriter.inspect(contentStore.resumablePartFile(uploadId));
+    } catch (UnsupportedDocumentTypeException e) {
+      remove(uploadId);
+      throw e;
+    } catch (IOException e) {
+      unlock(uploadId, token, upload.offset());
+      log.error("Failed to read upload {}", uploadId, e);
+      throw new RuntimeException("Failed to complete upload: " + e.getMessage());
+    }
+
+    try {
+      return transactionTemplate.execute(
+          status -> {
+            int deleted =
+                jdbcTemplate.update(
+                    "DELETE FROM document_uploads WHERE id = ? AND lock_token = ?",
+                    uploadId.toString(),
+                    token);
+            if (deleted == 0) {
+              throw conflict(upload, "The upload was completed or cancelled by another request");
+            }
+            return storageService.storeStaged(
+                upload.userPlafondId(), staged, upload.documentType(), upload.fileName());
+          });
+    } catch (RuntimeException e) {
+      unlock(uploadId, token, upload.offset()); // Rolled back; the client may try again
+      throw e;
+    }
+  }
+
+  /** Abandon an upload and delete the bytes received so far. */
+  public void cancel(Long userId, Long userPlafondId, UUID uploadId) {
+    find(userId, userPlafondId, uploadId);
+    remove(uploadId);
+    log.info("Resumable upload {} cancelled", uploadId);
+  }
+
+  // ========== EXPIRY ==========
+
+  /**
+   * Delete uploads past their expiry and their part files. Returns how many were removed. A part
+   * file left behind by a crash between the two is picked up by the orphan GC.
+   */
+  @Scheduled(cron = "${app.document.resumable.sweep-cron:0 */15 * * * *}")
+  @Workload(WorkloadType.BACKGROUND_JOBS)
+  public int purgeExpired() {
+    LocalDateTime now = LocalDateTime.now(clock);
+    List<String> expired =
+        jdbcTemplate.queryForList(
+            "SELECT id FROM document_uploads WHERE expires_at < ?", String.class, now);
+    int removed = 0;
+    for (String id : expired) {
+      int deleted =
+          jdbcTemplate.update(
+              "DELETE FROM document_uploads WHERE id = ? AND expires_at < ?", id, now);
+      if (deleted > 0) {
+        deletePartFile(UUID.fromString(id));
+        removed++;
+      }
+    }
+    if (removed > 0) {
+      log.info("Removed {} expired resumable upload(s)", removed);
+    }
+    return removed;
+  }
+
+  // ========== HELPER METHODS ==========
+
+  private Upload find(Long userId, Long userPlafondId, UUID uploadId) {
+    return jdbcTemplate
+        .query(
+            "SELECT id, user_plafond_id, document_type, file_name, length_bytes, offset_bytes,"
+                + " expires_at FROM document_uploads"
+                + " WHERE id = ? AND user_id = ? AND user_plafond_id = ? AND expires_at > ?",
+            (rs, i) ->
+                new Upload(
+                    UUID.fromString(rs.getString("id")),
+                    rs.getLong("user_plafond_id"),
+                    PlafondDocument.DocumentType.valueOf(rs.getString("document_type")),
+                    rs.getString("file_name"),
+                    rs.getLong("length_bytes"),
+                    rs.getLong("offset_bytes"),
+                    rs.getTimestamp("expires_at").toLocalDateTime()),
+            uploadId.toString(),
+            userId,
+            userPlafondId,
+            LocalDateTime.now(clock))
+        .stream()
+        .findFirst()
+        .orElseThrow(() -> new ResourceNotFoundException("Upload", "id", uploadId));
+  }
+
+  // Lease the row at the offset just read; fails if it moved or another request holds the lease
+  private String lock(Upload upload) {
+    String token = UUID.randomUUID().toString();
+    LocalDateTime now = LocalDateTime.now(clock);
+    int locked =
+        jdbcTemplate.update(
+            "UPDATE document_uploads SET lock_token = ?, locked_until = ?"
+                + " WHERE id = ? AND offset_bytes = ? AND expires_at > ?"
+                + " AND (lock_token IS NULL OR locked_until < ?)",
+            token,
+            now.plusSeconds(lockSeconds),
+            upload.id().toString(),
+            upload.offset(),
+            now,
+            now);
+    if (locked == 0) {
+      throw conflict(upload, "Another request is writing to this upload; ask for its offset");
+    }
+    return token;
+  }
+
+  // False when the lease expired and another request took the row over
+  private boolean unlock(UUID uploadId, String token, long offset) {
+    return jdbcTemplate.update(
+            "UPDATE document_uploads SET offset_bytes = ?, lock_token = NULL, locked_until = NULL"
+                + " WHERE id = ? AND lock_token = ?",
+            offset,
+            uploadId.toString(),
+            token)
+        > 0;
+  }
+
+  private void remove(UUID uploadId) {
+    jdbcTemplate.update("DELETE FROM document_uploads WHERE id = ?", uploadId.toString());
+    deletePartFile(uploadId);
+  }
+
+  private void deletePartFile(UUID uploadId) {
+    try {
+      Files.deleteIfExists(contentStore.resumablePartFile(uploadId));
+    } catch (IOException e) {
+      log.warn("Could not delete part file of upload {}: {}", uploadId, e.toString());
+    }
+  }
+
+  private static StateConflictException conflict(Upload upload, String message) {
+    return new StateConflictException("Upload", upload.id(), message);
+  }
+
+  private static ResumableUploadResponse response(
+      UUID id, long offset, long length, LocalDateTime expiresAt) {
+    return ResumableUploadResponse.builder()
+        .uploadId(id.toString())
+        .offset(offset)
+        .length(length)
+        .expiresAt(expiresAt)
+        .build();
+  }
+}
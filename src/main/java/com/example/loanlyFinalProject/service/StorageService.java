@@ -1,23 +1,56 @@
 package com.example.loanlyFinalProject.service;
 
+import com.example.loanlyFinalProject.dto.request.DirectUploadRequest;
+import com.example.loanlyFinalProject.dto.response.DirectUploadResponse;
 import com.example.loanlyFinalProject.entity.PlafondDocument;
 import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.exception.InvalidTokenException;
 import com.example.loanlyFinalProject.exception.ResourceNotFoundException;
+import com.example.loanlyFinalProject.exception.StateConflictException;
+import com.example.loanlyFinalProject.exception.UnsupportedDocumentTypeException;
 import com.example.loanlyFinalProject.repository.PlafondDocumentRepository;
 import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.storage.ContentAddressedStore;
+import com.example.loanlyFinalProject.storage.DirectUpload;
+import com.example.loanlyFinalProject.storage.DocumentContentType;
+import com.example.loanlyFinalProject.storage.DocumentStore;
+import com.example.loanlyFinalProject.storage.DocumentStreamWriter;
+import com.example.loanlyFinalProject.storage.DocumentUrlSigner;
+import com.example.loanlyFinalProject.storage.StagedDocument;
+import com.example.loanlyFinalProject.storage.StoredFile;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadException;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
 
 @Service
 @RequiredArgsConstructor
@@ -26,10 +59,28 @@ public class StorageService {
 
   private final PlafondDocumentRepository plafondDocumentRepository;
   private final UserPlafondRepository userPlafondRepository;
+  private final ContentAddressedStore contentStore;
+  private final TransactionTemplate transactionTemplate;
+  private final DocumentUrlSigner urlSigner;
+  private final DocumentStore documentStore;
+  private final ObjectMapper objectMapper;
+  private final ApplicationEventPublisher eventPublisher;
+
+  // Room for the documentType field and part headers on top of the file itself
+  private static final long MAX_FORM_OVERHEAD_BYTES = 64 * 1024;
+  private static final int MAX_FIELD_BYTES = 64;
+  private static final int MAX_PARTS = 4;
+  private static final String UPLOAD_URL_PREFIX = "/uploads/";
 
   @Value("${file.upload-dir:uploads}")
   private String uploadDir;
 
+  @Value("${app.document.max-size:10MB}")
+  private DataSize maxDocumentSize;
+
+  @Value("${app.document.direct-upload-ttl-seconds:900}")
+  private long directUploadTtlSeconds;
+
   private Path rootLocation;
 
   @PostConstruct
@@ -44,66 +95,389 @@ public class StorageService {
     }
   }
 
-  /** Upload document to LOCAL storage and save metadata to database */
+  /**
+   * Stream a multipart document upload into the content-addressed store. The body is parsed as it
+   * arrives and the file part is written once, into the store's staging area (see {@link
+   * DocumentStreamWriter}); nothing is spooled to a temp file first. Once the whole request has
+   * been read, so the {@code documentType} field may come before or after the file, the staged copy
+   * is either published as a new blob or dropped because the same content is already stored, and
+   * the document row is inserted. No database connection is held while the bytes are transferred.
+   */
+  public PlafondDocument uploadPlafondDocument(Long userPlafondId, HttpServletRequest request) {
+    if (!userPlafondRepository.existsById(userPlafondId)) {
+      throw new ResourceNotFoundException("User Plafond", "id", userPlafondId);
+    }
+    if (!JakartaServletFileUpload.isMultipartContent(request)) {
+      throw new MultipartException("Request must be multipart/form-data");
+    }
+
+    long maxBytes = maxDocumentSize.toBytes();
+    JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload =
+        new JakartaServletFileUpload<>();
+    upload.setSizeMax(maxBytes + MAX_FORM_OVERHEAD_BYTES);
+    upload.setFileCountMax(MAX_PARTS);
+
+    StagedDocument staged = null;
+    try {
+      String originalFilename = null;
+      PlafondDocument.DocumentType documentType = null;
+
+      FileItemInputIterator parts = upload.getItemIterator(request);
+      while (parts.hasNext()) {
+        FileItemInput part = parts.next();
+        if (part.isFormField() && "documentType".equals(part.getFieldName())) {
+          documentType = parseDocumentType(part);
+        } else if (!part.isFormField() && "file".equals(part.getFieldName()) && staged == null) {
+          originalFilename = part.getName();
+          try (InputStream content = part.getInputStream()) {
+            staged = contentStore.stage(content, maxBytes);
+          }
+        }
+        // Anything else is skipped by the iterator
+      }
+      if (staged == null) {
+        throw new MultipartException("Required part 'file' is not present.");
+      }
+      if (documentType == null) {
+        throw new MultipartException("Required part 'documentType' is not present.");
+      }
+
+      return storeStaged(userPlafondId, staged, documentType, originalFilename);
+
+    } catch (FileUploadSizeException e) {
+      throw new MaxUploadSizeExceededException(maxBytes, e);
+    } catch (FileUploadException e) {
+      throw new MultipartException("Could not parse multipart request: " + e.getMessage(), e);
+    } catch (IOException | UncheckedIOException e) {
+      log.error("Failed to upload document", e);
+      throw new RuntimeException("Failed to upload document: " + e.getMessage());
+    } finally {
+      if (staged != null) {
+        staged.discard(); // No-op once the store has taken it
+      }
+    }
+  }
+
+  /**
+   * Record a document whose bytes are already staged on local disk, such as a finished resumable
+   * upload: the staged copy is published as a new blob or dropped as a duplicate, and the document
+   * row is inserted, in one transaction. Joins the caller's transaction if there is one. The staged
+   * file is consumed unless this fails.
+   */
+  public PlafondDocument storeStaged(
+      Long userPlafondId,
+      StagedDocument staged,
+      PlafondDocument.DocumentType documentType,
+      String originalFilename) {
+    return transactionTemplate.execute(
+        status -> publish(userPlafondId, staged, documentType, originalFilename));
+  }
+
+  /**
+   * Remove a document from an application that is still pending review. The blob it used is
+   * released, and deleted by the store's GC once nothing references it.
+   */
   @Transactional
-  public PlafondDocument uploadPlafondDocument(
-      Long userPlafondId, MultipartFile file, PlafondDocument.DocumentType documentType) {
-    UserPlafond userPlafond =
-        userPlafondRepository
-            .findById(userPlafondId)
-            .orElseThrow(() -> new ResourceNotFoundException("User Plafond", "id", userPlafondId));
-
-    String originalFilename = file.getOriginalFilename();
-    String extension = getFileExtension(originalFilename);
-    String uniqueFilename =
-        String.format(
-            "%s_%s%s", documentType.name().toLowerCase(), UUID.randomUUID().toString(), extension);
-
-    // Create directory structure: uploads/plafonds/{userPlafondId}/
-    // Create directory structure: uploads/plafonds/{userPlafondId}/
-    String relativePath = String.format("plafonds/%d/%s", userPlafondId, uniqueFilename);
-    Path uploadPath = this.rootLocation.resolve("plafonds").resolve(String.valueOf(userPlafondId));
+  public void deletePlafondDocument(Long userId, Long userPlafondId, Long documentId) {
+    PlafondDocument document =
+        plafondDocumentRepository
+            .findById(documentId)
+            .filter(d -> d.getUserPlafond().getId().equals(userPlafondId))
+            .filter(d -> d.getUserPlafond().getUser().getId().equals(userId))
+            .orElseThrow(() -> new ResourceNotFoundException("Document", "id", documentId));
+    UserPlafond application = document.getUserPlafond();
+    if (application.getStatus() != UserPlafond.PlafondApplicationStatus.PENDING_REVIEW) {
+      throw new StateConflictException(
+          "Application",
+          userPlafondId,
+          "Documents can only be removed while the application is pending review");
+    }
+
+    plafondDocumentRepository.delete(document);
+    if (document.getFileUrl().startsWith(ContentAddressedStore.urlPrefix())) {
+      contentStore.release(document.getContentSha256());
+    } else {
+      deleteDocument(document.getFileUrl()); // Uploaded before the content-addressed store
+    }
+    log.info("Document {} removed from application {}", documentId, userPlafondId);
+  }
+
+  // ========== DIRECT UPLOAD ==========
+
+  /**
+   * Start an upload that goes from the client straight to object storage, so the bytes never pass
+   * through this node. The client declares the document's size, type and SHA-256 up front; the
+   * pre-signed URL only accepts a body matching them, and the returned ticket carries the
+   * declaration to {@link #completeDirectUpload}. Fails with a conflict when the store cannot take
+   * direct uploads, in which case the client falls back to the multipart upload.
+   */
+  public DirectUploadResponse startDirectUpload(
+      Long userId, Long userPlafondId, DirectUploadRequest request) {
+    findOwnApplication(userId, userPlafondId);
+    DocumentContentType contentType =
+        DocumentContentType.fromMimeType(request.getContentType())
+            .orElseThrow(
+                () ->
+                    new UnsupportedDocumentTypeException(
+                        "Document must be a JPEG, PNG, WEBP image or a PDF"));
+    long maxBytes = maxDocumentSize.toBytes();
+    if (request.getSizeBytes() > maxBytes) {
+      throw new MaxUploadSizeExceededException(maxBytes);
+    }
+
+    String key = ContentAddressedStore.directStagingKey();
+    DirectUpload upload =
+        documentStore
+            .directUpload(
+                key,
+                contentType.getMimeType(),
+                request.getSizeBytes(),
+                request.getSha256(),
+                Duration.ofSeconds(directUploadTtlSeconds))
+            .orElseThrow(
+                () ->
+                    new StateConflictException(
+                        "Application",
+                        userPlafondId,
+                        "Direct uploads are not available; upload the document as multipart"));
 
+    DirectUploadTicket ticket =
+        new DirectUploadTicket(
+            userId,
+            userPlafondId,
+            key,
+            request.getSha256(),
+            request.getSizeBytes(),
+            contentType.getMimeType(),
+            request.getDocumentType(),
+            truncate(request.getFileName(), 100));
+    String sealed;
     try {
-      // Create directories if not exist
-      if (!Files.exists(uploadPath)) {
-        Files.createDirectories(uploadPath);
-        log.info("Created directory: {}", uploadPath);
+      // Valid long enough to complete an upload started just before the URL expires
+      sealed =
+          urlSigner.seal(
+              objectMapper.writeValueAsString(ticket),
+              upload.expiresAt().plusSeconds(directUploadTtlSeconds));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+    return DirectUploadResponse.builder()
+        .uploadUrl(upload.url().toString())
+        .method(upload.method())
+        .headers(upload.headers())
+        .expiresAt(upload.expiresAt())
+        .ticket(sealed)
+        .build();
+  }
+
+  /**
+   * Record a document the client has uploaded with {@link #startDirectUpload}. The store has
+   * already checked the body against the declared SHA-256; the type is sniffed from the uploaded
+   * bytes like a multipart upload's. The staged object is then retained like a multipart upload:
+   * moved to its blob key, or dropped when the content is already stored.
+   */
+  public PlafondDocument completeDirectUpload(Long userId, Long userPlafondId, String ticket) {
+    DirectUploadTicket upload =
+        urlSigner
+            .open(ticket)
+            .map(this::readTicket)
+            .filter(t -> t.userId().equals(userId) && t.userPlafondId().equals(userPlafondId))
+            .orElseThrow(
+                () -> new InvalidTokenException("Upload ticket is invalid or has expired"));
+    DocumentContentType contentType =
+        DocumentContentType.fromMimeType(upload.contentType()).orElseThrow();
+
+    try {
+      OptionalLong size = documentStore.size(upload.key());
+      if (size.isEmpty()) {
+        throw new StateConflictException(
+            "Application", userPlafondId, "The document has not been uploaded, or was completed");
       }
+      byte[] head = documentStore.readPrefix(upload.key(), DocumentContentType.SNIFF_LENGTH);
+      if (size.getAsLong() != upload.sizeBytes()
+          || DocumentContentType.sniff(head, head.length).filter(contentType::equals).isEmpty()) {
+        documentStore.delete(upload.key());
+        throw new UnsupportedDocumentTypeException(
+            "Uploaded document does not match its declared type and size");
+      }
+    } catch (IOException e) {
+      log.error("Failed to complete direct upload", e);
+      throw new RuntimeException("Failed to complete direct upload: " + e.getMessage());
+    }
 
-      // Save file
-      Path filePath = uploadPath.resolve(uniqueFilename);
-      Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    return transactionTemplate.execute(
+        status -> {
+          ContentAddressedStore.BlobRef blob;
+          try {
+            blob =
+                contentStore.retainUploaded(
+                    upload.key(), upload.sha256(), upload.sizeBytes(), contentType);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+          return saveDocument(
+              userPlafondId,
+              blob,
+              contentType,
+              upload.sizeBytes(),
+              upload.documentType(),
+              upload.fileName());
+        });
+  }
 
-      log.info("Document uploaded to local storage: {}", filePath);
+  /** What {@link #completeDirectUpload} needs from the start of a direct upload. */
+  record DirectUploadTicket(
+      Long userId,
+      Long userPlafondId,
+      String key,
+      String sha256,
+      long sizeBytes,
+      String contentType,
+      PlafondDocument.DocumentType documentType,
+      String fileName) {}
 
-      // Generate accessible URL
-      String fileUrl = "/uploads/" + relativePath;
+  // Runs in the upload's transaction so the blob reference and the row commit together
+  private PlafondDocument publish(
+      Long userPlafondId,
+      StagedDocument staged,
+      PlafondDocument.DocumentType documentType,
+      String originalFilename) {
+    ContentAddressedStore.BlobRef blob;
+    try {
+      blob = contentStore.retain(staged);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return saveDocument(
+        userPlafondId,
+        blob,
+        staged.contentType(),
+        staged.sizeBytes(),
+        documentType,
+        originalFilename);
+  }
+
+  private PlafondDocument saveDocument(
+      Long userPlafondId,
+      ContentAddressedStore.BlobRef blob,
+      DocumentContentType contentType,
+      long sizeBytes,
+      PlafondDocument.DocumentType documentType,
+      String originalFilename) {
+    log.info(
+        "Document for application {} {} as {} ({} bytes)",
+        userPlafondId,
+        blob.deduplicated() ? "deduplicated" : "stored",
+        blob.relativePath(),
+        sizeBytes);
 
-      // Save document metadata to database
-      PlafondDocument document =
-          PlafondDocument.builder()
-              .userPlafond(userPlafond)
-              .documentType(documentType)
-              .fileUrl(fileUrl)
-              .fileName(originalFilename)
-              .build();
+    // Save document metadata to database
+    PlafondDocument document =
+        PlafondDocument.builder()
+            .userPlafond(userPlafondRepository.getReferenceById(userPlafondId))
+            .documentType(documentType)
+            .fileUrl(UPLOAD_URL_PREFIX + blob.relativePath())
+            .fileName(truncate(originalFilename, 100))
+            .contentType(contentType.getMimeType())
+            .sizeBytes(sizeBytes)
+            .contentSha256(blob.sha256())
+            .derivativeStatus(PlafondDocument.DerivativeStatus.PENDING)
+            .build();
+    PlafondDocument saved = plafondDocumentRepository.save(document);
+    eventPublisher.publishEvent(
+        new DocumentUploadedEvent(
+            saved.getId(), blob.sha256(), saved.getContentType(), saved.getUploadedAt()));
+    return saved;
+  }
 
-      return plafondDocumentRepository.save(document);
+  // ========== DOWNLOAD ==========
 
+  /**
+   * Short-lived signed download URL for a document's stored {@code fileUrl}. The URL is checked by
+   * {@link #verifySignedUrl} without touching the database, so it is only handed out to callers
+   * already allowed to see the document.
+   */
+  public String signedUrl(String fileUrl) {
+    if (fileUrl == null || !fileUrl.startsWith(UPLOAD_URL_PREFIX)) {
+      return fileUrl;
+    }
+    return urlSigner.sign(fileUrl.substring(UPLOAD_URL_PREFIX.length()));
+  }
+
+  public boolean verifySignedUrl(String relativePath, long expires, String signature) {
+    return urlSigner.verify(relativePath, expires, signature);
+  }
+
+  /**
+   * A pre-signed URL to download a content-addressed file straight from object storage, when the
+   * store hands those out; the file endpoint redirects there instead of serving the bytes itself.
+   */
+  public Optional<URI> directDownloadUrl(String relativePath) {
+    if (!ContentAddressedStore.isBlob(relativePath)
+        && !ContentAddressedStore.isDerivative(relativePath)) {
+      return Optional.empty(); // Uploaded before the content-addressed store, on local disk
+    }
+    if (isHidden(relativePath)) {
+      return Optional.empty();
+    }
+    int dot = relativePath.lastIndexOf('.');
+    String contentType =
+        DocumentContentType.fromExtension(dot < 0 ? "" : relativePath.substring(dot))
+            .map(DocumentContentType::getMimeType)
+            .orElse("application/octet-stream");
+    return documentStore.downloadUrl(relativePath, contentType, urlSigner.ttl());
+  }
+
+  /** The document file at a path relative to the upload directory, if there is one. */
+  public Optional<StoredFile> storedFile(String relativePath) {
+    Path path = rootLocation.resolve(relativePath).normalize();
+    if (!path.startsWith(rootLocation) || path.equals(rootLocation)) {
+      return Optional.empty();
+    }
+    if (isHidden(rootLocation.relativize(path).toString())) {
+      return Optional.empty();
+    }
+
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(path, BasicFileAttributes.class);
     } catch (IOException e) {
-      log.error("Failed to upload document", e);
-      throw new RuntimeException("Failed to upload document: " + e.getMessage());
+      return Optional.empty();
+    }
+    if (!attributes.isRegularFile()) {
+      return Optional.empty();
     }
+
+    String name = path.getFileName().toString();
+    int dot = name.lastIndexOf('.');
+    String extension = dot < 0 ? "" : name.substring(dot);
+    String etag =
+        ContentAddressedStore.isBlob(relativePath)
+            ? name.substring(0, dot < 0 ? name.length() : dot) // The SHA-256
+            : Long.toHexString(attributes.size())
+                + "-"
+                + Long.toHexString(attributes.lastModifiedTime().toMillis());
+    String contentType =
+        DocumentContentType.fromExtension(extension)
+            .map(DocumentContentType::getMimeType)
+            .orElse("application/octet-stream");
+    return Optional.of(new StoredFile(path, attributes.size(), "\"" + etag + "\"", contentType));
   }
 
   /** Delete document from local storage */
   public void deleteDocument(String fileUrl) {
+    if (fileUrl.startsWith(ContentAddressedStore.urlPrefix())) {
+      // Shared with other documents; released by reference instead
+      log.warn("Refusing to delete content-addressed blob directly: {}", fileUrl);
+      return;
+    }
     try {
       // Convert URL to path: /uploads/plafonds/1/file.jpg ->
       // uploads/plafonds/1/file.jpg
       String relativePath =
-          fileUrl.startsWith("/uploads/") ? fileUrl.substring("/uploads/".length()) : fileUrl;
+          fileUrl.startsWith(UPLOAD_URL_PREFIX)
+              ? fileUrl.substring(UPLOAD_URL_PREFIX.length())
+              : fileUrl;
       Path filePath = Paths.get(uploadDir, relativePath);
 
       if (Files.exists(filePath)) {
@@ -115,11 +489,45 @@ public class StorageService {
     }
   }
 
-  /** Get file extension from filename */
-  private String getFileExtension(String filename) {
-    if (filename == null || !filename.contains(".")) {
-      return "";
+  private UserPlafond findOwnApplication(Long userId, Long userPlafondId) {
+    return userPlafondRepository
+        .findById(userPlafondId)
+        .filter(a -> a.getUser().getId().equals(userId))
+        .orElseThrow(() -> new ResourceNotFoundException("User Plafond", "id", userPlafondId));
+  }
+
+  private DirectUploadTicket readTicket(String json) {
+    try {
+      return objectMapper.readValue(json, DirectUploadTicket.class);
+    } catch (JsonProcessingException e) {
+      throw new InvalidTokenException("Upload ticket is invalid or has expired");
     }
-    return filename.substring(filename.lastIndexOf("."));
+  }
+
+  // Staging and part files
+  private static boolean isHidden(String relativePath) {
+    for (String segment : relativePath.split("[/\\\\]")) {
+      if (segment.startsWith(".")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static PlafondDocument.DocumentType parseDocumentType(FileItemInput part)
+      throws IOException {
+    String value;
+    try (InputStream in = part.getInputStream()) {
+      value = new String(in.readNBytes(MAX_FIELD_BYTES), StandardCharsets.UTF_8).trim();
+    }
+    try {
+      return PlafondDocument.DocumentType.valueOf(value);
+    } catch (IllegalArgumentException e) {
+      throw new MultipartException("Invalid documentType: " + value);
+    }
+  }
+
+  private static String truncate(String value, int maxLength) {
+    return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
   }
 }
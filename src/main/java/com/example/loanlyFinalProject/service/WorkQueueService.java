@@ -0,0 +1,218 @@
+package com.example.loanlyFinalProject.service;
+
+import com.example.loanlyFinalProject.entity.Disbursement;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.exception.StateConflictException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Lease-based claiming for the staff work queues. A claim hands the caller the next N open items
+ * that nobody holds and leases them to the caller until the lease expires; an expired lease puts
+ * the item back in the pool without any cleanup job, because the claim predicate treats it as free.
+ * Concurrent claims never return the same row: candidate rows are read with {@code UPDLOCK,
+ * READPAST} on SQL Server ({@code FOR UPDATE SKIP LOCKED} elsewhere), so a row another claim is
+ * leasing is skipped instead of waited for.
+ *
+ * <p>Lease columns are written here and by the bulk disbursement UPDATE, which clears them. A
+ * status transition calls {@link #acquire} first, which refuses items leased to someone else and
+ * clears the lease.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkQueueService {
+
+  // Parameter: now
+  private static final String FREE = "(lease_owner_id IS NULL OR lease_expires_at < ?)";
+
+  // Parameters: staff user id, now
+  private static final String FREE_OR_OWNED =
+      "(lease_owner_id IS NULL OR lease_owner_id = ? OR lease_expires_at < ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Clock clock;
+
+  @Value("${app.work-queue.lease-minutes:15}")
+  private long leaseMinutes;
+
+  @Value("${app.work-queue.max-claim:50}")
+  private int maxClaim;
+
+  private volatile Boolean sqlServer;
+
+  @Getter
+  public enum Queue {
+    PLAFOND_REVIEW(
+        "Application",
+        "user_plafonds",
+        UserPlafond.PlafondApplicationStatus.PENDING_REVIEW.name(),
+        "registered_at"),
+    PLAFOND_APPROVAL(
+        "Application",
+        "user_plafonds",
+        UserPlafond.PlafondApplicationStatus.WAITING_APPROVAL.name(),
+        "registered_at"),
+    DISBURSEMENT(
+        "Disbursement",
+        "disbursements",
+        Disbursement.DisbursementStatus.PENDING.name(),
+        "requested_at");
+
+    private final String label;
+    private final String table;
+    private final String status;
+    private final String orderColumn;
+
+    Queue(String label, String table, String status, String orderColumn) {
+      this.label = label;
+      this.table = table;
+      this.status = status;
+      this.orderColumn = orderColumn;
+    }
+  }
+
+  /** Items leased by one claim, oldest first. */
+  public record Claim(List<Long> ids, LocalDateTime leaseExpiresAt) {}
+
+  // ========== CLAIM ==========
+
+  /**
+   * Lease the next {@code limit} unleased items of the queue to a staff member. Items the caller
+   * already holds are not returned again; they stay leased until transitioned, released or expired.
+   */
+  @Transactional
+  public Claim claim(Queue queue, Long staffUserId, int limit) {
+    if (limit < 1 || limit > maxClaim) {
+      throw new IllegalArgumentException("Claim limit must be between 1 and " + maxClaim);
+    }
+    LocalDateTime now = LocalDateTime.now(clock);
+    LocalDateTime expiresAt = now.plusMinutes(leaseMinutes);
+
+    List<Long> ids =
+        isSqlServer()
+            ? jdbcTemplate.queryForList(
+                sqlServerClaimSql(queue), Long.class, limit, queue.status, now)
+            : jdbcTemplate.queryForList(
+                skipLockedClaimSql(queue), Long.class, queue.status, now, limit);
+    if (ids.isEmpty()) {
+      return new Claim(Collections.emptyList(), expiresAt);
+    }
+
+    List<Object> args = new ArrayList<>(ids.size() + 2);
+    args.add(staffUserId);
+    args.add(expiresAt);
+    args.addAll(ids);
+    jdbcTemplate.update(
+        "UPDATE "
+            + queue.table
+            + " SET lease_owner_id = ?, lease_expires_at = ? WHERE id IN ("
+            + placeholders(ids.size())
+            + ")",
+        args.toArray());
+
+    log.info("{} {} item(s) leased to user {} until {}", queue, ids.size(), staffUserId, expiresAt);
+    return new Claim(ids, expiresAt);
+  }
+
+  // ========== TRANSITION / RELEASE ==========
+
+  /**
+   * Take an item out of the queue for a status transition by the given staff member. Succeeds if
+   * the item is not leased to someone else, and clears its lease. The UPDATE holds the row lock
+   * until the transition commits, so concurrent claims skip the row; the transition itself is
+   * checked by the status compare-and-set that follows.
+   *
+   * @throws StateConflictException if another staff member holds an unexpired lease
+   */
+  @Transactional
+  public void acquire(Queue queue, Long id, Long staffUserId) {
+    int updated =
+        jdbcTemplate.update(
+            "UPDATE "
+                + queue.table
+                + " SET lease_owner_id = NULL, lease_expires_at = NULL WHERE id = ? AND "
+                + FREE_OR_OWNED,
+            id,
+            staffUserId,
+            LocalDateTime.now(clock));
+    if (updated == 0) {
+      throw new StateConflictException(
+          queue.label, id, queue.label + " " + id + " is claimed by another staff member");
+    }
+  }
+
+  /** Give a claimed item back to the pool. Returns false if the caller did not hold it. */
+  @Transactional
+  public boolean release(Queue queue, Long id, Long staffUserId) {
+    return jdbcTemplate.update(
+            "UPDATE "
+                + queue.table
+                + " SET lease_owner_id = NULL, lease_expires_at = NULL"
+                + " WHERE id = ? AND status = ? AND lease_owner_id = ?",
+            id,
+            queue.status,
+            staffUserId)
+        > 0;
+  }
+
+  /** Whether a row read under lock is leased to a staff member other than the given one. */
+  public boolean isLeasedToOther(
+      Long leaseOwnerId, LocalDateTime leaseExpiresAt, Long staffUserId) {
+    return leaseOwnerId != null
+        && !leaseOwnerId.equals(staffUserId)
+        && leaseExpiresAt != null
+        && !leaseExpiresAt.isBefore(LocalDateTime.now(clock));
+  }
+
+  // ========== HELPER METHODS ==========
+
+  // Parameters: limit, status, now
+  private static String sqlServerClaimSql(Queue queue) {
+    return "SELECT TOP (?) id FROM "
+        + queue.table
+        + " WITH (UPDLOCK, READPAST, ROWLOCK) WHERE status = ? AND "
+        + FREE
+        + " ORDER BY "
+        + queue.orderColumn
+        + ", id";
+  }
+
+  // Parameters: status, now, limit
+  private static String skipLockedClaimSql(Queue queue) {
+    return "SELECT id FROM "
+        + queue.table
+        + " WHERE status = ? AND "
+        + FREE
+        + " ORDER BY "
+        + queue.orderColumn
+        + ", id FETCH FIRST ? ROWS ONLY FOR UPDATE SKIP LOCKED";
+  }
+
+  private static String placeholders(int count) {
+    return String.join(", ", Collections.nCopies(count, "?"));
+  }
+
+  private boolean isSqlServer() {
+    Boolean result = sqlServer;
+    if (result == null) {
+      String product =
+          jdbcTemplate.execute(
+              (ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+      result = product != null && product.startsWith("Microsoft SQL Server");
+      sqlServer = result;
+    }
+    return result;
+  }
+}
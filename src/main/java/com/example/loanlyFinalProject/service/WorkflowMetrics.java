@@ -0,0 +1,152 @@
+package com.example.loanlyFinalProject.service;
+
+import com.example.loanlyFinalProject.datasource.Workload;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import com.example.loanlyFinalProject.entity.Disbursement;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.repository.DisbursementRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Business metrics of the loan workflow: status transitions, rejections, eligibility outcomes and
+ * the size of the staff queues. Per-method timings come from {@code @Timed} on the services.
+ *
+ * <p>Counters are bumped when the surrounding transaction commits, so a transition that is rolled
+ * back (lost race, failed notification) is not counted. Tags are limited to statuses, stages and
+ * reason codes; no ids or free text.
+ *
+ * <p>Queue sizes are counted in the database on a schedule rather than on every scrape, so a
+ * scraper polling every few seconds adds no load. The counts use the partial indexes on the open
+ * statuses.
+ */
+@Component
+@Slf4j
+public class WorkflowMetrics {
+
+  /** Timer of the workflow service methods, tagged by class, method and exception. */
+  public static final String SERVICE_TIMER = "service.calls";
+
+  static final String APPLICATION = "application";
+  static final String DISBURSEMENT = "disbursement";
+  private static final String NEW = "NONE";
+
+  private final MeterRegistry meterRegistry;
+  private final UserPlafondRepository userPlafondRepository;
+  private final DisbursementRepository disbursementRepository;
+
+  private final AtomicLong pendingReview = new AtomicLong();
+  private final AtomicLong waitingApproval = new AtomicLong();
+  private final AtomicLong pendingDisbursement = new AtomicLong();
+
+  public WorkflowMetrics(
+      MeterRegistry meterRegistry,
+      UserPlafondRepository userPlafondRepository,
+      DisbursementRepository disbursementRepository) {
+    this.meterRegistry = meterRegistry;
+    this.userPlafondRepository = userPlafondRepository;
+    this.disbursementRepository = disbursementRepository;
+
+    queueGauge("pending_review", pendingReview);
+    queueGauge("waiting_approval", waitingApproval);
+    queueGauge("pending_disbursement", pendingDisbursement);
+  }
+
+  private void queueGauge(String queue, AtomicLong size) {
+    Gauge.builder("workflow.queue.size", size, AtomicLong::get)
+        .tag("queue", queue)
+        .description("Items waiting in a staff work queue, as of the last refresh")
+        .register(meterRegistry);
+  }
+
+  // ========== TRANSITIONS ==========
+
+  /** A new application or disbursement entered the workflow in {@code to}. */
+  public void created(String workflow, Enum<?> to) {
+    transition(workflow, NEW, to.name(), 1);
+  }
+
+  public void transition(String workflow, Enum<?> from, Enum<?> to) {
+    transition(workflow, from.name(), to.name(), 1);
+  }
+
+  /** {@code count} items moved together, as in a bulk disbursement. */
+  public void transitions(String workflow, Enum<?> from, Enum<?> to, int count) {
+    transition(workflow, from.name(), to.name(), count);
+  }
+
+  private void transition(String workflow, String from, String to, int count) {
+    Counter counter =
+        Counter.builder("workflow.transitions")
+            .tag("workflow", workflow)
+            .tag("from", from)
+            .tag("to", to)
+            .description("Committed status transitions")
+            .register(meterRegistry);
+    afterCommit(() -> counter.increment(count));
+  }
+
+  /** An application or disbursement was turned down at {@code stage} (the acting role). */
+  public void rejected(String workflow, String stage) {
+    Counter counter =
+        Counter.builder("workflow.rejections")
+            .tag("workflow", workflow)
+            .tag("stage", stage.toLowerCase(Locale.ROOT))
+            .description("Committed rejections and cancellations, by the stage that made them")
+            .register(meterRegistry);
+    afterCommit(counter::increment);
+  }
+
+  /** Outcome of an eligibility check, by reason code. */
+  public void eligibility(String reasonCode) {
+    Counter.builder("credit.eligibility.checks")
+        .tag("outcome", reasonCode)
+        .description("Credit eligibility checks by outcome")
+        .register(meterRegistry)
+        .increment();
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+
+  // ========== QUEUES ==========
+
+  @Scheduled(
+      fixedDelayString = "${app.metrics.queue-refresh-ms:30000}",
+      initialDelayString = "${app.metrics.queue-refresh-initial-delay-ms:10000}")
+  @Workload(WorkloadType.BACKGROUND_JOBS)
+  public void refreshQueueSizes() {
+    try {
+      pendingReview.set(
+          userPlafondRepository.countByStatus(UserPlafond.PlafondApplicationStatus.PENDING_REVIEW));
+      waitingApproval.set(
+          userPlafondRepository.countByStatus(
+              UserPlafond.PlafondApplicationStatus.WAITING_APPROVAL));
+      pendingDisbursement.set(
+          disbursementRepository.countByStatus(Disbursement.DisbursementStatus.PENDING));
+    } catch (RuntimeException e) {
+      // Keep the last values; the gauges are informational
+      log.warn("Could not refresh workflow queue sizes: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,348 @@
+package com.example.loanlyFinalProject.storage;
+
+import com.example.loanlyFinalProject.datasource.Workload;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Document files stored once per content hash, under {@code blobs/ab/cd/<sha256><ext>} in the
+ * {@link DocumentStore}; the two-level fan-out keeps directories small. Each blob has a {@code
+ * document_blobs} row counting the documents that use it, so uploading a file that is already
+ * stored only bumps the count and the staged copy is dropped.
+ *
+ * <p>A blob whose count drops to zero is kept for a grace period and then deleted by {@link
+ * #collectGarbage}. The GC deletes the row and the file in one transaction, and {@link #retain}
+ * increments with a conditional UPDATE on the same row, so whichever runs second sees the other's
+ * result: a retain that waits behind the GC finds no row and stores the file again.
+ *
+ * <p>Uploads through this node are staged on local disk, where they are hashed and sniffed on the
+ * way in, and handed to the store when retained. Direct uploads are staged in the store itself and
+ * moved to their blob key there.
+ */
+@Component
+@Slf4j
+public class ContentAddressedStore {
+
+  private static final String BLOB_DIR = "blobs";
+  private static final String DERIVATIVE_DIR = "derivatives";
+  private static final String STAGING_DIR = ".staging";
+  private static final Pattern SHA256_NAME = Pattern.compile("[0-9a-f]{64}");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DocumentStore documentStore;
+  private final TransactionTemplate writeTransaction;
+  private final Clock clock;
+  private final Path root;
+  private final long graceHours;
+
+  public ContentAddressedStore(
+      JdbcTemplate jdbcTemplate,
+      DocumentStore documentStore,
+      PlatformTransactionManager transactionManager,
+      Clock clock,
+      @Value("${file.upload-dir:uploads}") String uploadDir,
+      @Value("${app.document.blob-gc-grace-hours:24}") long graceHours) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.documentStore = documentStore;
+    this.writeTransaction = new TransactionTemplate(transactionManager);
+    this.clock = clock;
+    this.root = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(BLOB_DIR);
+    this.graceHours = graceHours;
+  }
+
+  /** A document's use of a blob. */
+  public record BlobRef(String sha256, String relativePath, boolean deduplicated) {}
+
+  /** Stored bytes against the bytes the documents would take as separate files. */
+  public record StoreStats(long documents, long logicalBytes, long blobs, long storedBytes) {
+    public long savedBytes() {
+      return logicalBytes - storedBytes;
+    }
+  }
+
+  // ========== UPLOAD ==========
+
+  /** Stream an upload into the staging area, next to the blobs so that publishing is a rename. */
+  public StagedDocument stage(InputStream in, long maxBytes) throws IOException {
+    return DocumentStreamWriter.write(in, root.resolve(STAGING_DIR), maxBytes);
+  }
+
+  /**
+   * Add a reference to the staged content, storing it if no blob has that hash yet. Must run in the
+   * transaction that inserts the referencing document, so a rollback also undoes the count. The
+   * staged file is consumed either way.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public BlobRef retain(StagedDocument staged) throws IOException {
+    return retain(
+        staged.sha256(),
+        staged.sizeBytes(),
+        staged.contentType(),
+        key -> documentStore.put(key, staged.partFile(), staged.contentType().getMimeType()),
+        staged::discard);
+  }
+
+  /**
+   * {@link #retain(StagedDocument)} for content a client uploaded to the store directly, under
+   * {@code stagingKey}, and that the store has verified against {@code sha256}.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public BlobRef retainUploaded(
+      String stagingKey, String sha256, long sizeBytes, DocumentContentType contentType)
+      throws IOException {
+    return retain(
+        sha256,
+        sizeBytes,
+        contentType,
+        key -> documentStore.move(stagingKey, key),
+        () -> deleteQuietly(stagingKey));
+  }
+
+  /** A fresh store key to stage a direct upload under; hidden from downloads like local staging. */
+  public static String directStagingKey() {
+    return BLOB_DIR + "/" + STAGING_DIR + "/direct-" + UUID.randomUUID();
+  }
+
+  /** Drop a reference. A blob reaching zero becomes eligible for GC after the grace period. */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void release(String sha256) {
+    jdbcTemplate.update(
+        "UPDATE document_blobs SET ref_count = ref_count - 1,"
+            + " unreferenced_at = CASE WHEN ref_count = 1 THEN ? ELSE unreferenced_at END"
+            + " WHERE sha256 = ? AND ref_count > 0",
+        LocalDateTime.now(clock),
+        sha256);
+  }
+
+  // ========== GC ==========
+
+  /** Delete blobs unreferenced for longer than the grace period. Returns how many were removed. */
+  @Scheduled(cron = "${app.document.blob-gc-cron:0 30 3 * * *}")
+  @Workload(WorkloadType.BACKGROUND_JOBS)
+  public int collectGarbage() {
+    LocalDateTime cutoff = LocalDateTime.now(clock).minusHours(graceHours);
+    List<String[]> candidates =
+        jdbcTemplate.query(
+            "SELECT sha256, content_type FROM document_blobs"
+                + " WHERE ref_count = 0 AND unreferenced_at < ?",
+            (rs, i) -> new String[] {rs.getString(1), rs.getString(2)},
+            cutoff);
+
+    int removed = 0;
+    for (String[] candidate : candidates) {
+      Boolean deleted =
+          writeTransaction.execute(status -> delete(candidate[0], candidate[1], cutoff));
+      if (Boolean.TRUE.equals(deleted)) {
+        removed++;
+      }
+    }
+    StoreStats stats = stats();
+    log.info(
+        "Blob GC removed {} blob(s); {} blob(s) hold {} bytes for {} document(s) of {} bytes"
+            + " ({} bytes saved)",
+        removed,
+        stats.blobs(),
+        stats.storedBytes(),
+        stats.documents(),
+        stats.logicalBytes(),
+        stats.savedBytes());
+    return removed;
+  }
+
+  public StoreStats stats() {
+    return jdbcTemplate.queryForObject(
+        "SELECT (SELECT COUNT(*) FROM plafond_documents d WHERE d.file_url LIKE ?),"
+            + " (SELECT COALESCE(SUM(d.size_bytes), 0) FROM plafond_documents d"
+            + " WHERE d.file_url LIKE ?),"
+            + " (SELECT COUNT(*) FROM document_blobs),"
+            + " (SELECT COALESCE(SUM(b.size_bytes), 0) FROM document_blobs b)",
+        (rs, i) -> new StoreStats(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)),
+        urlPrefix() + "%",
+        urlPrefix() + "%");
+  }
+
+  // ========== HELPER METHODS ==========
+
+  /** Path of a blob relative to the upload directory, e.g. {@code blobs/ab/cd/abcd...ef.jpg}. */
+  public static String relativePath(String sha256, DocumentContentType contentType) {
+    return String.format(
+        "%s/%s/%s/%s%s",
+        BLOB_DIR,
+        sha256.substring(0, 2),
+        sha256.substring(2, 4),
+        sha256,
+        contentType.getExtension());
+  }
+
+  /**
+   * Path of a blob's derivative relative to the upload directory, e.g. {@code
+   * derivatives/ab/cd/abcd...ef-thumb.jpg}. Derivatives are shared like the blob and deleted with
+   * it.
+   */
+  public static String derivativePath(String sha256, DerivativeKind kind) {
+    return String.format(
+        "%s/%s/%s/%s-%s.jpg",
+        DERIVATIVE_DIR, sha256.substring(0, 2), sha256.substring(2, 4), sha256, kind.getSuffix());
+  }
+
+  /** Run {@code reader} against a local file holding the blob. */
+  public <T> T readBlob(
+      String sha256, DocumentContentType contentType, DocumentStore.LocalFileReader<T> reader)
+      throws IOException {
+    return documentStore.read(relativePath(sha256, contentType), reader);
+  }
+
+  public boolean hasDerivative(String sha256, DerivativeKind kind) throws IOException {
+    return documentStore.exists(derivativePath(sha256, kind));
+  }
+
+  /** Store a rendered derivative; the file is consumed. */
+  public void putDerivative(String sha256, DerivativeKind kind, Path file) throws IOException {
+    documentStore.put(derivativePath(sha256, kind), file, "image/jpeg");
+  }
+
+  /** A new empty file in the local staging area, on the same disk as local blobs. */
+  public Path createStagingFile(String prefix) throws IOException {
+    Path directory = root.resolve(STAGING_DIR);
+    Files.createDirectories(directory);
+    return Files.createTempFile(directory, prefix, ".part");
+  }
+
+  /**
+   * The local part file a resumable upload's chunks are written to. It sits in the staging area, so
+   * the finished upload is retained like a multipart one and an abandoned one is hidden from
+   * downloads until the orphan GC takes it.
+   */
+  public Path resumablePartFile(UUID uploadId) {
+    return root.resolve(STAGING_DIR).resolve(".resumable-" + uploadId + ".part");
+  }
+
+  /** Whether a path relative to the upload directory names a blob. */
+  public static boolean isBlob(String relativePath) {
+    return relativePath.startsWith(BLOB_DIR + "/");
+  }
+
+  /** Whether a path relative to the upload directory names a blob's derivative. */
+  public static boolean isDerivative(String relativePath) {
+    return relativePath.startsWith(DERIVATIVE_DIR + "/");
+  }
+
+  /**
+   * The SHA-256 a blob or derivative path is named after, or empty if the file was not written by
+   * this store.
+   */
+  public static Optional<String> sha256Of(String relativePath) {
+    if (!isBlob(relativePath) && !isDerivative(relativePath)) {
+      return Optional.empty();
+    }
+    String name = relativePath.substring(relativePath.lastIndexOf('/') + 1);
+    return name.length() > 64 && SHA256_NAME.matcher(name.substring(0, 64)).matches()
+        ? Optional.of(name.substring(0, 64))
+        : Optional.empty();
+  }
+
+  /** URL prefix of blob files in {@code PlafondDocument.fileUrl}. */
+  public static String urlPrefix() {
+    return "/uploads/" + BLOB_DIR + "/";
+  }
+
+  // Row first, under its lock; the file only once the row is gone
+  private boolean delete(String sha256, String mimeType, LocalDateTime cutoff) {
+    int deleted =
+        jdbcTemplate.update(
+            "DELETE FROM document_blobs WHERE sha256 = ? AND ref_count = 0 AND unreferenced_at < ?",
+            sha256,
+            cutoff);
+    if (deleted == 0) {
+      return false; // Referenced again since the scan
+    }
+    DocumentContentType type =
+        DocumentContentType.fromMimeType(mimeType)
+            .orElseThrow(() -> new IllegalStateException("Unknown blob type " + mimeType));
+    try {
+      documentStore.delete(relativePath(sha256, type));
+      for (DerivativeKind kind : DerivativeKind.values()) {
+        documentStore.delete(derivativePath(sha256, kind));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // Roll back; the next run tries again
+    }
+    return true;
+  }
+
+  // Increment the blob's count, or store the content and insert its row
+  private BlobRef retain(
+      String sha256,
+      long sizeBytes,
+      DocumentContentType contentType,
+      StoreAction store,
+      Runnable discard)
+      throws IOException {
+    String relativePath = relativePath(sha256, contentType);
+    if (increment(sha256)) {
+      discard.run();
+      return new BlobRef(sha256, relativePath, true);
+    }
+
+    // A concurrent first upload may have stored the same bytes already; this replaces them
+    store.store(relativePath);
+    try {
+      jdbcTemplate.update(
+          "INSERT INTO document_blobs (sha256, content_type, size_bytes, ref_count, created_at)"
+              + " VALUES (?, ?, ?, 1, ?)",
+          sha256,
+          contentType.getMimeType(),
+          sizeBytes,
+          LocalDateTime.now(clock));
+      return new BlobRef(sha256, relativePath, false);
+    } catch (DuplicateKeyException e) {
+      // Lost the race to insert: the other upload's row now covers this file
+      if (!increment(sha256)) {
+        throw new IllegalStateException("Blob " + sha256 + " vanished while being stored", e);
+      }
+      return new BlobRef(sha256, relativePath, true);
+    }
+  }
+
+  private void deleteQuietly(String key) {
+    try {
+      documentStore.delete(key);
+    } catch (IOException e) {
+      log.warn("Could not delete staged object {}: {}", key, e.toString());
+    }
+  }
+
+  @FunctionalInterface
+  private interface StoreAction {
+    void store(String key) throws IOException;
+  }
+
+  private boolean increment(String sha256) {
+    return jdbcTemplate.update(
+            "UPDATE document_blobs SET ref_count = ref_count + 1, unreferenced_at = NULL"
+                + " WHERE sha256 = ?",
+            sha256)
+        > 0;
+  }
+}
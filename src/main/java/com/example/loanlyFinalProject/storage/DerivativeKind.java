@@ -0,0 +1,18 @@
+package com.example.loanlyFinalProject.storage;
+
+import lombok.Getter;
+
+/** Downscaled JPEG renditions generated for every stored document. */
+@Getter
+public enum DerivativeKind {
+  PREVIEW("preview", 1600), // Review screen
+  THUMBNAIL("thumb", 320); // Document lists
+
+  private final String suffix;
+  private final int maxDimension;
+
+  DerivativeKind(String suffix, int maxDimension) {
+    this.suffix = suffix;
+    this.maxDimension = maxDimension;
+  }
+}
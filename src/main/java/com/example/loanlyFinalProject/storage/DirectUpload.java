@@ -0,0 +1,9 @@
+package com.example.loanlyFinalProject.storage;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.Map;
+
+/** A pre-signed request the client sends to the bucket itself, headers included. */
+public record DirectUpload(
+    URI url, String method, Map<String, String> headers, Instant expiresAt) {}
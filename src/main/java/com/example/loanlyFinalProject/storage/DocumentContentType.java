@@ -0,0 +1,81 @@
+package com.example.loanlyFinalProject.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import lombok.Getter;
+
+/**
+ * File types accepted for application documents, recognized by their leading magic bytes rather
+ * than by the client's filename or Content-Type, both of which are free text.
+ */
+@Getter
+public enum DocumentContentType {
+  JPEG("image/jpeg", ".jpg"),
+  PNG("image/png", ".png"),
+  PDF("application/pdf", ".pdf"),
+  WEBP("image/webp", ".webp");
+
+  /** Leading bytes needed to tell every type apart. */
+  public static final int SNIFF_LENGTH = 12;
+
+  private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+  private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+  private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] RIFF_MAGIC = "RIFF".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] WEBP_MAGIC = "WEBP".getBytes(StandardCharsets.US_ASCII);
+
+  private final String mimeType;
+  private final String extension;
+
+  DocumentContentType(String mimeType, String extension) {
+    this.mimeType = mimeType;
+    this.extension = extension;
+  }
+
+  /** The type whose signature the first {@code length} bytes of {@code head} carry, if any. */
+  public static Optional<DocumentContentType> sniff(byte[] head, int length) {
+    if (startsWith(head, length, 0, JPEG_MAGIC)) {
+      return Optional.of(JPEG);
+    }
+    if (startsWith(head, length, 0, PNG_MAGIC)) {
+      return Optional.of(PNG);
+    }
+    if (startsWith(head, length, 0, PDF_MAGIC)) {
+      return Optional.of(PDF);
+    }
+    if (startsWith(head, length, 0, RIFF_MAGIC) && startsWith(head, length, 8, WEBP_MAGIC)) {
+      return Optional.of(WEBP);
+    }
+    return Optional.empty();
+  }
+
+  public static Optional<DocumentContentType> fromMimeType(String mimeType) {
+    for (DocumentContentType type : values()) {
+      if (type.mimeType.equals(mimeType)) {
+        return Optional.of(type);
+      }
+    }
+    return Optional.empty();
+  }
+
+  public static Optional<DocumentContentType> fromExtension(String extension) {
+    for (DocumentContentType type : values()) {
+      if (type.extension.equalsIgnoreCase(extension)) {
+        return Optional.of(type);
+      }
+    }
+    return Optional.empty();
+  }
+
+  private static boolean startsWith(byte[] head, int length, int offset, byte[] magic) {
+    if (length < offset + magic.length) {
+      return false;
+    }
+    for (int i = 0; i < magic.length; i++) {
+      if (head[offset + i] != magic[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
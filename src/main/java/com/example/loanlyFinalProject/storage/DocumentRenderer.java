@@ -0,0 +1,143 @@
+package com.example.loanlyFinalProject.storage;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+/**
+ * Renders stored documents to downscaled RGB images, in-process: ImageIO for JPEG and PNG (WebP
+ * through the TwelveMonkeys plugin) and PDFBox for the first page of a PDF. Sources are decoded
+ * close to the requested size: images with ImageIO source subsampling, PDFs at the scale of the
+ * target. A 10 MB scan therefore never becomes a full-resolution bitmap on the heap.
+ */
+public final class DocumentRenderer {
+
+  // Images are subsampled to no less than this multiple of the target, leaving room to filter
+  private static final int OVERSAMPLE = 2;
+  // Refuse pixel bombs: a small file declaring an enormous canvas
+  private static final long MAX_SOURCE_PIXELS = 250_000_000L;
+  private static final float JPEG_QUALITY = 0.8f;
+
+  private DocumentRenderer() {}
+
+  /** The document, or the first page of a PDF, fitted within {@code maxDimension} pixels. */
+  public static BufferedImage render(Path source, DocumentContentType type, int maxDimension)
+      throws IOException {
+    BufferedImage image =
+        type == DocumentContentType.PDF
+            ? renderFirstPage(source, maxDimension)
+            : decode(source, maxDimension);
+    return scale(image, maxDimension);
+  }
+
+  /** Fit an image within {@code maxDimension} pixels, as opaque RGB on white. */
+  public static BufferedImage scale(BufferedImage image, int maxDimension) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    double ratio = (double) maxDimension / Math.max(width, height);
+    if (ratio >= 1) {
+      return image.getType() == BufferedImage.TYPE_INT_RGB ? image : resize(image, width, height);
+    }
+    int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+    int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+    // Halve first: one bilinear step from more than twice the size would skip source pixels
+    BufferedImage current = image;
+    while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+      current = resize(current, current.getWidth() / 2, current.getHeight() / 2);
+    }
+    if (current.getWidth() == targetWidth
+        && current.getHeight() == targetHeight
+        && current.getType() == BufferedImage.TYPE_INT_RGB) {
+      return current;
+    }
+    return resize(current, targetWidth, targetHeight);
+  }
+
+  public static void writeJpeg(BufferedImage image, OutputStream out) throws IOException {
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+    try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(JPEG_QUALITY);
+      writer.setOutput(ios);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+  }
+
+  // ========== HELPER METHODS ==========
+
+  private static BufferedImage decode(Path source, int maxDimension) throws IOException {
+    try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+      Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+      if (readers == null || !readers.hasNext()) {
+        throw new IOException("No image reader for " + source.getFileName());
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(in, true, true);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if ((long) width * height > MAX_SOURCE_PIXELS) {
+          throw new IOException("Image too large to render: " + width + "x" + height);
+        }
+        ImageReadParam param = reader.getDefaultReadParam();
+        int factor = Math.max(1, Math.max(width, height) / (maxDimension * OVERSAMPLE));
+        param.setSourceSubsampling(factor, factor, 0, 0);
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  private static BufferedImage renderFirstPage(Path source, int maxDimension) throws IOException {
+    try (PDDocument document =
+        Loader.loadPDF(source.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+      if (document.getNumberOfPages() == 0) {
+        throw new IOException("PDF has no pages");
+      }
+      PDRectangle box = document.getPage(0).getCropBox();
+      float scale = maxDimension / Math.max(box.getWidth(), box.getHeight());
+      return new PDFRenderer(document).renderImage(0, scale, ImageType.RGB);
+    }
+  }
+
+  // Also flattens transparency onto white, which JPEG cannot carry
+  private static BufferedImage resize(BufferedImage source, int width, int height) {
+    BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = target.createGraphics();
+    try {
+      g.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      g.setColor(Color.WHITE);
+      g.fillRect(0, 0, width, height);
+      g.drawImage(source, 0, 0, width, height, null);
+    } finally {
+      g.dispose();
+    }
+    return target;
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.loanlyFinalProject.storage;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Where document bytes live. Keys are paths relative to the upload directory, e.g. {@code
+ * blobs/ab/cd/<sha256>.jpg}, so a key means the same object in every implementation. Objects are
+ * written once under content-addressed keys and never modified in place: a write replaces the whole
+ * object with bytes that are the same for the same key.
+ *
+ * <p>{@link LocalDocumentStore} keeps objects in the upload directory of one node. {@link
+ * S3DocumentStore} keeps them in an S3-compatible bucket (AWS S3, Cloudflare R2, MinIO), which any
+ * number of nodes can share, and lets clients move bytes to and from the bucket directly.
+ */
+public interface DocumentStore {
+
+  /** Store a local file under {@code key}, replacing any object there. The file is consumed. */
+  void put(String key, Path file, String contentType) throws IOException;
+
+  /** Move an object to another key within the store, replacing any object there. */
+  void move(String fromKey, String toKey) throws IOException;
+
+  /** Delete an object; deleting a missing object is not an error. */
+  void delete(String key) throws IOException;
+
+  boolean exists(String key) throws IOException;
+
+  /** Size of an object, or empty if there is none. */
+  OptionalLong size(String key) throws IOException;
+
+  /** Up to {@code length} bytes from the start of an object, e.g. to sniff its type. */
+  byte[] readPrefix(String key, int length) throws IOException;
+
+  /** Run {@code reader} against a local file with the object's bytes. */
+  <T> T read(String key, LocalFileReader<T> reader) throws IOException;
+
+  /** The object's file, when it is on this node's disk and can be served from there. */
+  Optional<Path> localPath(String key);
+
+  /** A short-lived URL from which a client downloads the object without passing through us. */
+  Optional<URI> downloadUrl(String key, String contentType, Duration ttl);
+
+  /**
+   * A short-lived URL to which a client uploads an object itself. The store rejects a body that
+   * does not match {@code sha256}, so the key can be trusted to hold the declared content once the
+   * upload succeeds. Empty if the store cannot take direct uploads.
+   */
+  Optional<DirectUpload> directUpload(
+      String key, String contentType, long sizeBytes, String sha256, Duration ttl);
+
+  @FunctionalInterface
+  interface LocalFileReader<T> {
+    T read(Path file) throws IOException;
+  }
+}
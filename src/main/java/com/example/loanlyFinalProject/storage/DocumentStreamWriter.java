@@ -0,0 +1,122 @@
+package com.example.loanlyFinalProject.storage;
+
+import com.example.loanlyFinalProject.exception.UnsupportedDocumentTypeException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+/**
+ * Copies an upload stream to disk in one pass. The SHA-256 and size are computed on the buffers as
+ * they are written, the type is sniffed from the first bytes, and the size limit is checked per
+ * buffer, so an oversized or unrecognized file is rejected after at most one buffer instead of
+ * after the whole body has been stored.
+ */
+public final class DocumentStreamWriter {
+
+  static final int BUFFER_SIZE = 64 * 1024;
+
+  private DocumentStreamWriter() {}
+
+  /**
+   * Write {@code in} to a new part file in {@code directory}. The part file is removed again if the
+   * upload is rejected or fails.
+   *
+   * @throws MaxUploadSizeExceededException if more than {@code maxBytes} arrive
+   * @throws UnsupportedDocumentTypeException if the content is not a {@link DocumentContentType}
+   */
+  public static StagedDocument write(InputStream in, Path directory, long maxBytes)
+      throws IOException {
+    Files.createDirectories(directory);
+    Path partFile = directory.resolve(".upload-" + UUID.randomUUID() + ".part");
+
+    MessageDigest sha256 = sha256();
+    byte[] buffer = new byte[BUFFER_SIZE];
+    byte[] head = new byte[DocumentContentType.SNIFF_LENGTH];
+    int headLength = 0;
+    DocumentContentType contentType = null;
+    long size = 0;
+    boolean written = false;
+
+    try (OutputStream out =
+        Files.newOutputStream(partFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        size += read;
+        if (size > maxBytes) {
+          throw new MaxUploadSizeExceededException(maxBytes);
+        }
+        if (contentType == null) {
+          int take = Math.min(read, head.length - headLength);
+          System.arraycopy(buffer, 0, head, headLength, take);
+          headLength += take;
+          if (headLength == head.length) {
+            contentType = sniff(head, headLength);
+          }
+        }
+        sha256.update(buffer, 0, read);
+        out.write(buffer, 0, read);
+      }
+      if (contentType == null) {
+        contentType = sniff(head, headLength); // Shorter than the sniff window
+      }
+      written = true;
+    } finally {
+      if (!written) {
+        Files.deleteIfExists(partFile);
+      }
+    }
+    return new StagedDocument(
+        partFile, HexFormat.of().formatHex(sha256.digest()), size, contentType);
+  }
+
+  /**
+   * Describe a part file that was assembled elsewhere, e.g. from a resumable upload's chunks, as
+   * {@link #write} would have: one read pass for the SHA-256, the size and the type.
+   *
+   * @throws UnsupportedDocumentTypeException if the content is not a {@link DocumentContentType}
+   */
+  public static StagedDocument inspect(Path partFile) throws IOException {
+    MessageDigest sha256 = sha256();
+    byte[] buffer = new byte[BUFFER_SIZE];
+    byte[] head = new byte[DocumentContentType.SNIFF_LENGTH];
+    int headLength = 0;
+    long size = 0;
+
+    try (InputStream in = Files.newInputStream(partFile)) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        int take = Math.min(read, head.length - headLength);
+        System.arraycopy(buffer, 0, head, headLength, take);
+        headLength += take;
+        size += read;
+        sha256.update(buffer, 0, read);
+      }
+    }
+    return new StagedDocument(
+        partFile, HexFormat.of().formatHex(sha256.digest()), size, sniff(head, headLength));
+  }
+
+  private static DocumentContentType sniff(byte[] head, int length) {
+    return DocumentContentType.sniff(head, length)
+        .orElseThrow(
+            () ->
+                new UnsupportedDocumentTypeException(
+                    "Document must be a JPEG, PNG, WEBP image or a PDF"));
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package com.example.loanlyFinalProject.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived HMAC-SHA256 signatures for document download URLs. A URL carries its own expiry and a
+ * signature over path and expiry, so the file endpoint can authorize a download without a database
+ * lookup or a session. Expiries are rounded up to the minute, which keeps a document's URL stable
+ * for a minute at a time and lets browsers reuse their cached copy.
+ *
+ * <p>Also seals the small tokens that carry state between the two calls of a direct upload, under a
+ * key of their own.
+ */
+@Component
+public class DocumentUrlSigner {
+
+  public static final String PATH_PREFIX = "/files/";
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final long EXPIRY_GRANULARITY_SECONDS = 60;
+
+  private final SecretKeySpec key;
+  private final SecretKeySpec tokenKey;
+  private final long ttlSeconds;
+  private final Clock clock;
+  private final ThreadLocal<Mac> macs;
+
+  public DocumentUrlSigner(
+      @Value("${app.document.url-secret:${jwt.secret}}") String secret,
+      @Value("${app.document.url-ttl-seconds:300}") long ttlSeconds,
+      Clock clock) {
+    // Derived, so a shared secret is never used as-is for two purposes
+    SecretKeySpec master = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    this.key = derive(master, "document-url");
+    this.tokenKey = derive(master, "document-token");
+    this.ttlSeconds = ttlSeconds;
+    this.clock = clock;
+    this.macs = ThreadLocal.withInitial(() -> hmac(key));
+  }
+
+  /** Signed download URL for a path relative to the upload directory. */
+  public String sign(String relativePath) {
+    long expires = expiryFor(clock.instant().getEpochSecond() + ttlSeconds);
+    return PATH_PREFIX
+        + relativePath
+        + "?expires="
+        + expires
+        + "&sig="
+        + signature(relativePath, expires);
+  }
+
+  /** Whether the signature matches the path and expiry, and the expiry has not passed. */
+  public boolean verify(String relativePath, long expires, String signature) {
+    if (signature == null || expires < clock.instant().getEpochSecond()) {
+      return false;
+    }
+    return MessageDigest.isEqual(
+        signature(relativePath, expires).getBytes(StandardCharsets.US_ASCII),
+        signature.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /** How long a signed URL is valid for. */
+  public Duration ttl() {
+    return Duration.ofSeconds(ttlSeconds);
+  }
+
+  // ========== TOKENS ==========
+
+  /** A tamper-proof token carrying {@code payload} until {@code expiresAt}; not encrypted. */
+  public String seal(String payload, Instant expiresAt) {
+    String body =
+        Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+            + "."
+            + expiresAt.getEpochSecond();
+    return body + "." + encode(hmac(tokenKey).doFinal(body.getBytes(StandardCharsets.US_ASCII)));
+  }
+
+  /** The payload of a token from {@link #seal}, or empty if it was altered or has expired. */
+  public Optional<String> open(String token) {
+    int dot = token == null ? -1 : token.lastIndexOf('.');
+    if (dot < 0) {
+      return Optional.empty();
+    }
+    String body = token.substring(0, dot);
+    byte[] expected =
+        encode(hmac(tokenKey).doFinal(body.getBytes(StandardCharsets.US_ASCII)))
+            .getBytes(StandardCharsets.US_ASCII);
+    if (!MessageDigest.isEqual(
+        expected, token.substring(dot + 1).getBytes(StandardCharsets.US_ASCII))) {
+      return Optional.empty();
+    }
+    int expiryDot = body.lastIndexOf('.');
+    try {
+      if (Long.parseLong(body.substring(expiryDot + 1)) < clock.instant().getEpochSecond()) {
+        return Optional.empty();
+      }
+      return Optional.of(
+          new String(
+              Base64.getUrlDecoder().decode(body.substring(0, expiryDot)), StandardCharsets.UTF_8));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      return Optional.empty();
+    }
+  }
+
+  // ========== HELPER METHODS ==========
+
+  private static long expiryFor(long epochSecond) {
+    return (epochSecond + EXPIRY_GRANULARITY_SECONDS - 1)
+        / EXPIRY_GRANULARITY_SECONDS
+        * EXPIRY_GRANULARITY_SECONDS;
+  }
+
+  private String signature(String relativePath, long expires) {
+    byte[] mac =
+        macs.get().doFinal((relativePath + "\n" + expires).getBytes(StandardCharsets.UTF_8));
+    return encode(mac);
+  }
+
+  private static String encode(byte[] mac) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(mac);
+  }
+
+  private static SecretKeySpec derive(SecretKeySpec master, String purpose) {
+    return new SecretKeySpec(
+        hmac(master).doFinal(purpose.getBytes(StandardCharsets.UTF_8)), ALGORITHM);
+  }
+
+  private static Mac hmac(SecretKeySpec key) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      return mac;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(ALGORITHM + " is not available", e);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package com.example.loanlyFinalProject.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Objects as files under the upload directory. Files staged under the same directory are moved in
+ * with an atomic rename, so a reader sees either the old object or the whole new one. Downloads are
+ * served by this node (FileController), and there are no direct uploads.
+ */
+public class LocalDocumentStore implements DocumentStore {
+
+  private final Path root;
+
+  public LocalDocumentStore(Path root) {
+    this.root = root.toAbsolutePath().normalize();
+  }
+
+  @Override
+  public void put(String key, Path file, String contentType) throws IOException {
+    Path target = resolve(key);
+    Files.createDirectories(target.getParent());
+    try {
+      Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      // Staged on another file system: copy next to the target first, then rename
+      Path part = Files.createTempFile(target.getParent(), ".put-", ".part");
+      try {
+        Files.copy(file, part, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(file);
+      } finally {
+        Files.deleteIfExists(part);
+      }
+    }
+  }
+
+  @Override
+  public void move(String fromKey, String toKey) throws IOException {
+    Path target = resolve(toKey);
+    Files.createDirectories(target.getParent());
+    Files.move(resolve(fromKey), target, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  @Override
+  public void delete(String key) throws IOException {
+    Files.deleteIfExists(resolve(key));
+  }
+
+  @Override
+  public boolean exists(String key) {
+    return Files.isRegularFile(resolve(key));
+  }
+
+  @Override
+  public OptionalLong size(String key) throws IOException {
+    try {
+      return OptionalLong.of(Files.size(resolve(key)));
+    } catch (NoSuchFileException e) {
+      return OptionalLong.empty();
+    }
+  }
+
+  @Override
+  public byte[] readPrefix(String key, int length) throws IOException {
+    try (InputStream in = Files.newInputStream(resolve(key))) {
+      return in.readNBytes(length);
+    }
+  }
+
+  @Override
+  public <T> T read(String key, LocalFileReader<T> reader) throws IOException {
+    return reader.read(resolve(key));
+  }
+
+  @Override
+  public Optional<Path> localPath(String key) {
+    return Optional.of(resolve(key));
+  }
+
+  @Override
+  public Optional<URI> downloadUrl(String key, String contentType, Duration ttl) {
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<DirectUpload> directUpload(
+      String key, String contentType, long sizeBytes, String sha256, Duration ttl) {
+    return Optional.empty();
+  }
+
+  private Path resolve(String key) {
+    Path path = root.resolve(key).normalize();
+    if (!path.startsWith(root) || path.equals(root)) {
+      throw new IllegalArgumentException("Key outside the store: " + key);
+    }
+    return path;
+  }
+}
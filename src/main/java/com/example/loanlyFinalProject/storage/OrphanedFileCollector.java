@@ -0,0 +1,493 @@
+package com.example.loanlyFinalProject.storage;
+
+import com.example.loanlyFinalProject.datasource.WorkloadContext;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds files in the upload directory that nothing references and quarantines or deletes them:
+ * legacy documents whose row is gone, blobs and derivatives without a {@code document_blobs} row
+ * (e.g. stored by an upload whose transaction then rolled back), and staging and part files left by
+ * a crash.
+ *
+ * <p>The tree is walked in parallel, one fork-join task per directory, each reading its directory
+ * as a stream. Files older than the grace period are collected into chunks shared by the tasks and
+ * checked with one {@code IN} query per chunk, anti-joined against the chunk sorted by the same
+ * key, so memory is bounded by the chunk size and the number of directories rather than the number
+ * of files. Files younger than the grace period are never touched, since a file is written before
+ * the row that references it commits.
+ *
+ * <p>Quarantined files are moved under {@code .orphans/<run>/}, which the file endpoint never
+ * serves, and deleted once the retention has passed. They are checked again first and put back if a
+ * reference has appeared meanwhile, which covers a row that was still uncommitted during the run.
+ */
+@Component
+@Slf4j
+public class OrphanedFileCollector {
+
+  public enum Action {
+    QUARANTINE, // Move under .orphans/ and delete after the retention
+    DELETE
+  }
+
+  /** What one run found. {@code reclaimedBytes} counts files actually deleted. */
+  public record OrphanReport(
+      long scannedFiles,
+      long scannedBytes,
+      long orphanFiles,
+      long orphanBytes,
+      long restoredFiles,
+      long reclaimedBytes) {}
+
+  private static final String QUARANTINE_DIR = ".orphans";
+  private static final String UPLOAD_URL_PREFIX = "/uploads/";
+  // Keys per IN query; SQL Server takes at most 2100 parameters
+  private static final int CHUNK_SIZE = 500;
+  private static final DateTimeFormatter RUN_NAME =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Clock clock;
+  private final Path root;
+  private final Path quarantineRoot;
+  private final Duration grace;
+  private final Duration retention;
+  private final Action action;
+  private final int parallelism;
+
+  private final Counter orphanCounter;
+  private final Counter reclaimedCounter;
+
+  public OrphanedFileCollector(
+      JdbcTemplate jdbcTemplate,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${file.upload-dir:uploads}") String uploadDir,
+      @Value("${app.document.orphan-gc.grace-hours:24}") long graceHours,
+      @Value("${app.document.orphan-gc.action:QUARANTINE}") Action action,
+      @Value("${app.document.orphan-gc.quarantine-retention-hours:168}") long retentionHours,
+      @Value("${app.document.orphan-gc.parallelism:4}") int parallelism) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.clock = clock;
+    this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+    this.quarantineRoot = root.resolve(QUARANTINE_DIR);
+    this.grace = Duration.ofHours(graceHours);
+    this.retention = Duration.ofHours(retentionHours);
+    this.action = action;
+    this.parallelism = parallelism;
+
+    this.orphanCounter =
+        Counter.builder("documents.orphans.found")
+            .description("Unreferenced files found in the upload directory")
+            .register(meterRegistry);
+    this.reclaimedCounter =
+        Counter.builder("documents.orphans.reclaimed")
+            .baseUnit("bytes")
+            .description("Bytes freed by deleting unreferenced files")
+            .register(meterRegistry);
+  }
+
+  /** Walk the upload directory once, then purge expired quarantine runs. */
+  @Scheduled(cron = "${app.document.orphan-gc.cron:0 0 4 * * *}")
+  public OrphanReport collect() {
+    Instant now = clock.instant();
+    Tally tally = new Tally();
+    Path runDirectory = quarantineRoot.resolve(RUN_NAME.format(now));
+    long start = System.nanoTime();
+
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      if (Files.isDirectory(root)) {
+        Walk walk = new Walk(now.minus(grace), runDirectory, tally);
+        pool.invoke(new DirectoryScan(walk, root));
+        walk.finish();
+      }
+    } finally {
+      pool.shutdown();
+    }
+    purgeQuarantine(now, tally);
+
+    OrphanReport report = tally.report();
+    orphanCounter.increment(report.orphanFiles());
+    reclaimedCounter.increment(report.reclaimedBytes());
+    log.info(
+        "Orphan GC scanned {} file(s) of {} bytes in {} ms; {} orphan(s) of {} bytes {},"
+            + " {} restored, {} bytes reclaimed",
+        report.scannedFiles(),
+        report.scannedBytes(),
+        Duration.ofNanos(System.nanoTime() - start).toMillis(),
+        report.orphanFiles(),
+        report.orphanBytes(),
+        action == Action.DELETE ? "deleted" : "quarantined",
+        report.restoredFiles(),
+        report.reclaimedBytes());
+    return report;
+  }
+
+  // ========== WALK ==========
+
+  /** State shared by the tasks of one walk. */
+  private final class Walk {
+
+    private final Instant cutoff;
+    private final Path runDirectory;
+    private final Tally tally;
+    // Filled across directories, as most blob directories hold only a few files
+    private List<Candidate> pending = new ArrayList<>(CHUNK_SIZE);
+
+    Walk(Instant cutoff, Path runDirectory, Tally tally) {
+      this.cutoff = cutoff;
+      this.runDirectory = runDirectory;
+      this.tally = tally;
+    }
+
+    void offer(Candidate candidate) {
+      List<Candidate> full = null;
+      synchronized (this) {
+        pending.add(candidate);
+        if (pending.size() == CHUNK_SIZE) {
+          full = pending;
+          pending = new ArrayList<>(CHUNK_SIZE);
+        }
+      }
+      if (full != null) {
+        dispose(full); // On the offering thread, outside the lock
+      }
+    }
+
+    void finish() {
+      List<Candidate> rest;
+      synchronized (this) {
+        rest = pending;
+        pending = new ArrayList<>();
+      }
+      dispose(rest);
+    }
+
+    private void dispose(List<Candidate> chunk) {
+      for (Candidate orphan : unreferenced(chunk)) {
+        try {
+          if (!orphan.unchanged()) {
+            continue; // Rewritten since the scan, so in use again
+          }
+          if (action == Action.DELETE) {
+            Files.deleteIfExists(orphan.file());
+            tally.reclaimed(orphan.size());
+          } else {
+            Path target = runDirectory.resolve(orphan.relativePath());
+            Files.createDirectories(target.getParent());
+            Files.move(orphan.file(), target, StandardCopyOption.ATOMIC_MOVE);
+          }
+          tally.orphan(orphan.size());
+          log.debug("Orphan GC: {} {}", action, orphan.relativePath());
+        } catch (IOException e) {
+          log.warn("Orphan GC could not remove {}: {}", orphan.relativePath(), e.toString());
+        }
+      }
+    }
+  }
+
+  private final class DirectoryScan extends RecursiveAction {
+
+    private final Walk walk;
+    private final Path directory;
+
+    DirectoryScan(Walk walk, Path directory) {
+      this.walk = walk;
+      this.directory = directory;
+    }
+
+    @Override
+    protected void compute() {
+      List<DirectoryScan> subdirectories = new ArrayList<>();
+      try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+        for (Path entry : entries) {
+          BasicFileAttributes attributes;
+          try {
+            attributes =
+                Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+          } catch (NoSuchFileException e) {
+            continue; // Deleted or moved since the listing
+          }
+          if (attributes.isDirectory()) {
+            if (!entry.equals(quarantineRoot)) {
+              DirectoryScan scan = new DirectoryScan(walk, entry);
+              scan.fork();
+              subdirectories.add(scan);
+            }
+          } else if (attributes.isRegularFile()) {
+            walk.tally.scanned(attributes.size());
+            if (attributes.lastModifiedTime().toInstant().isBefore(walk.cutoff)) {
+              walk.offer(candidate(entry, root, attributes));
+            }
+          }
+        }
+      } catch (IOException e) {
+        log.warn("Orphan GC could not read {}: {}", directory, e.toString());
+      }
+      subdirectories.forEach(ForkJoinTask::join);
+    }
+  }
+
+  // ========== QUARANTINE ==========
+
+  private void purgeQuarantine(Instant now, Tally tally) {
+    if (!Files.isDirectory(quarantineRoot)) {
+      return;
+    }
+    List<Path> expired = new ArrayList<>();
+    try (DirectoryStream<Path> runs = Files.newDirectoryStream(quarantineRoot)) {
+      for (Path run : runs) {
+        try {
+          Instant quarantinedAt = Instant.from(RUN_NAME.parse(run.getFileName().toString()));
+          if (quarantinedAt.isBefore(now.minus(retention))) {
+            expired.add(run);
+          }
+        } catch (DateTimeParseException e) {
+          log.warn("Orphan GC ignores unexpected quarantine entry {}", run);
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Orphan GC could not read {}: {}", quarantineRoot, e.toString());
+      return;
+    }
+    for (Path run : expired) {
+      try {
+        purgeRun(run, tally);
+      } catch (IOException e) {
+        log.warn("Orphan GC could not purge {}: {}", run, e.toString());
+      }
+    }
+  }
+
+  private void purgeRun(Path run, Tally tally) throws IOException {
+    try (Stream<Path> files = Files.walk(run)) {
+      List<Candidate> chunk = new ArrayList<>(CHUNK_SIZE);
+      for (Iterator<Path> iterator = files.iterator(); iterator.hasNext(); ) {
+        Path file = iterator.next();
+        BasicFileAttributes attributes =
+            Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        if (attributes.isRegularFile()) {
+          chunk.add(candidate(file, run, attributes));
+          if (chunk.size() == CHUNK_SIZE) {
+            purgeChunk(chunk, tally);
+            chunk.clear();
+          }
+        }
+      }
+      purgeChunk(chunk, tally);
+    }
+    // Only empty directories are left
+    try (Stream<Path> paths = Files.walk(run)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  private void purgeChunk(List<Candidate> chunk, Tally tally) throws IOException {
+    Set<Candidate> orphans = new HashSet<>(unreferenced(chunk));
+    for (Candidate candidate : chunk) {
+      if (orphans.contains(candidate)) {
+        Files.deleteIfExists(candidate.file());
+        tally.reclaimed(candidate.size());
+        continue;
+      }
+      // Referenced after all: put it back, unless it has been stored again meanwhile
+      Path original = root.resolve(candidate.relativePath());
+      try {
+        Files.createDirectories(original.getParent());
+        Files.move(candidate.file(), original, StandardCopyOption.ATOMIC_MOVE);
+        tally.restored();
+        log.info("Orphan GC restored {}, which is referenced again", candidate.relativePath());
+      } catch (FileAlreadyExistsException e) {
+        Files.deleteIfExists(candidate.file());
+      }
+    }
+  }
+
+  // ========== REFERENCE CHECK ==========
+
+  /** The candidates nothing references, by one query per kind of reference. */
+  private List<Candidate> unreferenced(List<Candidate> candidates) {
+    if (candidates.isEmpty()) {
+      return List.of();
+    }
+    List<Candidate> orphans = new ArrayList<>();
+    List<Candidate> blobs = new ArrayList<>();
+    List<Candidate> documents = new ArrayList<>();
+    for (Candidate candidate : candidates) {
+      String relativePath = candidate.relativePath();
+      if (isHidden(relativePath)) {
+        orphans.add(candidate); // Staging and part files outlive the grace period only by a crash
+      } else if (ContentAddressedStore.isBlob(relativePath)
+          || ContentAddressedStore.isDerivative(relativePath)) {
+        if (ContentAddressedStore.sha256Of(relativePath).isPresent()) {
+          blobs.add(candidate);
+        } else {
+          orphans.add(candidate); // Not a name the store writes
+        }
+      } else {
+        documents.add(candidate);
+      }
+    }
+
+    WorkloadType previous = WorkloadContext.enter(WorkloadType.BACKGROUND_JOBS);
+    try {
+      orphans.addAll(
+          antiJoin(
+              blobs,
+              c -> ContentAddressedStore.sha256Of(c.relativePath()).orElseThrow(),
+              "SELECT sha256 FROM document_blobs WHERE sha256 IN (%s)",
+              Comparator.naturalOrder()));
+      // Case-insensitive like the SQL Server collation, so a match there is never an orphan here
+      orphans.addAll(
+          antiJoin(
+              documents,
+              c -> UPLOAD_URL_PREFIX + c.relativePath(),
+              "SELECT file_url FROM plafond_documents WHERE file_url IN (%s)",
+              String.CASE_INSENSITIVE_ORDER));
+    } finally {
+      WorkloadContext.restore(previous);
+    }
+    return orphans;
+  }
+
+  /**
+   * Candidates whose key the query does not return. Both sides are sorted by {@code order} and
+   * merged, which keeps the comparison linear and independent of the database's sort order.
+   */
+  private List<Candidate> antiJoin(
+      List<Candidate> candidates,
+      Function<Candidate, String> key,
+      String sql,
+      Comparator<String> order) {
+    if (candidates.isEmpty()) {
+      return List.of();
+    }
+    List<String> keys = candidates.stream().map(key).toList();
+    List<String> referenced =
+        new ArrayList<>(
+            jdbcTemplate.queryForList(
+                String.format(sql, String.join(",", Collections.nCopies(keys.size(), "?"))),
+                String.class,
+                keys.toArray()));
+    referenced.sort(order);
+    List<Candidate> sorted = new ArrayList<>(candidates);
+    sorted.sort(Comparator.comparing(key, order));
+
+    List<Candidate> unmatched = new ArrayList<>();
+    int next = 0;
+    for (Candidate candidate : sorted) {
+      String candidateKey = key.apply(candidate);
+      while (next < referenced.size() && order.compare(referenced.get(next), candidateKey) < 0) {
+        next++;
+      }
+      if (next == referenced.size() || order.compare(referenced.get(next), candidateKey) != 0) {
+        unmatched.add(candidate);
+      }
+    }
+    return unmatched;
+  }
+
+  // ========== HELPER METHODS ==========
+
+  /** A file old enough to be collected, with its path relative to the upload directory. */
+  private record Candidate(Path file, String relativePath, long size, FileTime modified) {
+
+    boolean unchanged() throws IOException {
+      try {
+        return Files.getLastModifiedTime(file, LinkOption.NOFOLLOW_LINKS).equals(modified);
+      } catch (NoSuchFileException e) {
+        return false;
+      }
+    }
+  }
+
+  private static Candidate candidate(Path file, Path base, BasicFileAttributes attributes) {
+    String relativePath = base.relativize(file).toString().replace('\\', '/');
+    return new Candidate(file, relativePath, attributes.size(), attributes.lastModifiedTime());
+  }
+
+  private static boolean isHidden(String relativePath) {
+    for (String segment : relativePath.split("/")) {
+      if (segment.startsWith(".")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static final class Tally {
+    private final LongAdder scannedFiles = new LongAdder();
+    private final LongAdder scannedBytes = new LongAdder();
+    private final LongAdder orphanFiles = new LongAdder();
+    private final LongAdder orphanBytes = new LongAdder();
+    private final LongAdder restoredFiles = new LongAdder();
+    private final LongAdder reclaimedBytes = new LongAdder();
+
+    void scanned(long bytes) {
+      scannedFiles.increment();
+      scannedBytes.add(bytes);
+    }
+
+    void orphan(long bytes) {
+      orphanFiles.increment();
+      orphanBytes.add(bytes);
+    }
+
+    void restored() {
+      restoredFiles.increment();
+    }
+
+    void reclaimed(long bytes) {
+      reclaimedBytes.add(bytes);
+    }
+
+    OrphanReport report() {
+      return new OrphanReport(
+          scannedFiles.sum(),
+          scannedBytes.sum(),
+          orphanFiles.sum(),
+          orphanBytes.sum(),
+          restoredFiles.sum(),
+          reclaimedBytes.sum());
+    }
+  }
+}
@@ -0,0 +1,288 @@
+package com.example.loanlyFinalProject.storage;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+
+/**
+ * Objects in an S3-compatible bucket, shared by every node. Files at or above the multipart
+ * threshold are uploaded as parts sent concurrently over the async client, each read straight from
+ * its range of the file; the rest go up in one PUT. Moves are server-side copies, and downloads and
+ * direct uploads use pre-signed URLs, so those bytes never pass through this node.
+ *
+ * <p>Direct uploads are signed with the declared SHA-256 as {@code x-amz-checksum-sha256}: the
+ * bucket verifies the body against it and refuses anything else.
+ */
+public class S3DocumentStore implements DocumentStore {
+
+  private final S3AsyncClient client;
+  private final S3Presigner presigner;
+  private final String bucket;
+  private final long partSize;
+  private final long multipartThreshold;
+  private final int maxConcurrentParts;
+
+  public S3DocumentStore(
+      S3AsyncClient client,
+      S3Presigner presigner,
+      String bucket,
+      long partSize,
+      long multipartThreshold,
+      int maxConcurrentParts) {
+    if (partSize < 5 * 1024 * 1024) {
+      throw new IllegalArgumentException("S3 parts must be at least 5 MB: " + partSize);
+    }
+    this.client = client;
+    this.presigner = presigner;
+    this.bucket = bucket;
+    this.partSize = partSize;
+    this.multipartThreshold = Math.max(multipartThreshold, partSize + 1);
+    this.maxConcurrentParts = maxConcurrentParts;
+  }
+
+  // ========== WRITE ==========
+
+  @Override
+  public void put(String key, Path file, String contentType) throws IOException {
+    try {
+      long size = Files.size(file);
+      if (size < multipartThreshold) {
+        await(
+            client.putObject(
+                b -> b.bucket(bucket).key(key).contentType(contentType).contentLength(size),
+                AsyncRequestBody.fromFile(file)));
+      } else {
+        putMultipart(key, file, size, contentType);
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Override
+  public void move(String fromKey, String toKey) throws IOException {
+    await(
+        client.copyObject(
+            b ->
+                b.sourceBucket(bucket)
+                    .sourceKey(fromKey)
+                    .destinationBucket(bucket)
+                    .destinationKey(toKey)));
+    delete(fromKey);
+  }
+
+  @Override
+  public void delete(String key) throws IOException {
+    await(client.deleteObject(b -> b.bucket(bucket).key(key)));
+  }
+
+  // ========== READ ==========
+
+  @Override
+  public boolean exists(String key) throws IOException {
+    return size(key).isPresent();
+  }
+
+  @Override
+  public OptionalLong size(String key) throws IOException {
+    try {
+      HeadObjectResponse head = await(client.headObject(b -> b.bucket(bucket).key(key)));
+      return OptionalLong.of(head.contentLength());
+    } catch (IOException e) {
+      if (e.getCause() instanceof S3Exception s3 && s3.statusCode() == 404) {
+        return OptionalLong.empty();
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public byte[] readPrefix(String key, int length) throws IOException {
+    return await(
+            client.getObject(
+                b -> b.bucket(bucket).key(key).range("bytes=0-" + (length - 1)),
+                AsyncResponseTransformer.toBytes()))
+        .asByteArray();
+  }
+
+  @Override
+  public <T> T read(String key, LocalFileReader<T> reader) throws IOException {
+    Path file = Files.createTempFile("s3-", ".tmp");
+    try {
+      Files.delete(file); // The transformer creates it
+      await(
+          client.getObject(b -> b.bucket(bucket).key(key), AsyncResponseTransformer.toFile(file)));
+      return reader.read(file);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Override
+  public Optional<Path> localPath(String key) {
+    return Optional.empty();
+  }
+
+  // ========== PRE-SIGNED URLS ==========
+
+  @Override
+  public Optional<URI> downloadUrl(String key, String contentType, Duration ttl) {
+    try {
+      return Optional.of(
+          presigner
+              .presignGetObject(
+                  p ->
+                      p.signatureDuration(ttl)
+                          .getObjectRequest(
+                              b -> b.bucket(bucket).key(key).responseContentType(contentType)))
+              .url()
+              .toURI());
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public Optional<DirectUpload> directUpload(
+      String key, String contentType, long sizeBytes, String sha256, Duration ttl) {
+    String checksum = Base64.getEncoder().encodeToString(HexFormat.of().parseHex(sha256));
+    PresignedPutObjectRequest presigned =
+        presigner.presignPutObject(
+            p ->
+                p.signatureDuration(ttl)
+                    .putObjectRequest(
+                        b ->
+                            b.bucket(bucket)
+                                .key(key)
+                                .contentType(contentType)
+                                .contentLength(sizeBytes)
+                                .checksumSHA256(checksum)));
+
+    // Host and Content-Length are signed too, but set by the client's HTTP stack; browsers refuse
+    // to set them at all
+    Map<String, String> headers = new LinkedHashMap<>();
+    presigned
+        .signedHeaders()
+        .forEach(
+            (name, values) -> {
+              if (!name.equalsIgnoreCase("host") && !name.equalsIgnoreCase("content-length")) {
+                headers.put(name, String.join(",", values));
+              }
+            });
+    try {
+      return Optional.of(
+          new DirectUpload(
+              presigned.url().toURI(),
+              presigned.httpRequest().method().name(),
+              headers,
+              presigned.expiration()));
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // ========== HELPER METHODS ==========
+
+  // At most maxConcurrentParts parts in flight; each part reads its own range of the file
+  private void putMultipart(String key, Path file, long size, String contentType)
+      throws IOException {
+    String uploadId =
+        await(client.createMultipartUpload(b -> b.bucket(bucket).key(key).contentType(contentType)))
+            .uploadId();
+    int partCount = (int) ((size + partSize - 1) / partSize);
+    CompletedPart[] completed = new CompletedPart[partCount];
+    List<CompletableFuture<?>> inFlight = new ArrayList<>(partCount);
+    Semaphore permits = new Semaphore(maxConcurrentParts);
+    try {
+      for (int i = 0; i < partCount; i++) {
+        permits.acquire();
+        int partNumber = i + 1;
+        long position = i * partSize;
+        long length = Math.min(partSize, size - position);
+        inFlight.add(
+            client
+                .uploadPart(
+                    b ->
+                        b.bucket(bucket)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .partNumber(partNumber)
+                            .contentLength(length),
+                    AsyncRequestBody.fromFile(
+                        c -> c.path(file).position(position).numBytesToRead(length)))
+                .whenComplete(
+                    (response, error) -> {
+                      permits.release();
+                      if (response != null) {
+                        completed[partNumber - 1] =
+                            CompletedPart.builder()
+                                .partNumber(partNumber)
+                                .eTag(response.eTag())
+                                .build();
+                      }
+                    }));
+      }
+      await(CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)));
+      await(
+          client.completeMultipartUpload(
+              b ->
+                  b.bucket(bucket)
+                      .key(key)
+                      .uploadId(uploadId)
+                      .multipartUpload(m -> m.parts(completed))));
+    } catch (InterruptedException e) {
+      abort(key, uploadId, inFlight);
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while uploading " + key);
+    } catch (IOException | RuntimeException e) {
+      abort(key, uploadId, inFlight);
+      throw e;
+    }
+  }
+
+  private void abort(String key, String uploadId, List<CompletableFuture<?>> inFlight) {
+    inFlight.forEach(f -> f.cancel(true));
+    client.abortMultipartUpload(b -> b.bucket(bucket).key(key).uploadId(uploadId));
+  }
+
+  private static <T> T await(CompletableFuture<T> future) throws IOException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SdkException || cause instanceof IOException) {
+        throw new IOException(cause.getMessage(), cause);
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "S3DocumentStore[bucket=" + bucket + "]";
+  }
+}
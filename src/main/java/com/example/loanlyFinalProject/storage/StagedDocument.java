@@ -0,0 +1,29 @@
+package com.example.loanlyFinalProject.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * An uploaded document written to a hidden part file next to its final location, with what was
+ * learned while the bytes went past. {@link #moveTo} publishes it with an atomic rename, so readers
+ * never see a partial file.
+ */
+public record StagedDocument(
+    Path partFile, String sha256, long sizeBytes, DocumentContentType contentType) {
+
+  /** Rename the part file to {@code target}, which must be in the same directory. */
+  public void moveTo(Path target) throws IOException {
+    Files.move(partFile, target, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /** Delete the part file if it is still there. */
+  public void discard() {
+    try {
+      Files.deleteIfExists(partFile);
+    } catch (IOException ignored) {
+      // Part files are hidden and never served
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package com.example.loanlyFinalProject.storage;
+
+import java.nio.file.Path;
+
+/**
+ * A document file on disk as the download endpoint sees it. {@code etag} is a strong validator: the
+ * content hash for blobs, size and modification time for files stored before the content-addressed
+ * store (which are never rewritten in place).
+ */
+public record StoredFile(Path path, long size, String etag, String contentType) {}
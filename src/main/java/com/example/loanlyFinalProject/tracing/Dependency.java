@@ -0,0 +1,64 @@
+package com.example.loanlyFinalProject.tracing;
+
+import io.micrometer.observation.Observation;
+import java.util.Locale;
+
+/** Where a request can spend its time outside the application's own code. */
+public enum Dependency {
+  /** Waiting for a pooled connection. */
+  POOL(Observations.JDBC_CONNECTION),
+  DB(Observations.JDBC_QUERY),
+  REDIS(Observations.REDIS_COMMAND),
+  FCM(Observations.FCM_SEND),
+  SMTP(Observations.SMTP_SEND),
+  /**
+   * Hibernate flushes, timed by {@link FlushTimingListener}. Includes the flushed statements, which
+   * are also counted under {@link #DB}.
+   */
+  FLUSH(null);
+
+  private final String observationName;
+
+  Dependency(String observationName) {
+    this.observationName = observationName;
+  }
+
+  /** The observation that times this dependency, or null when it is not observed. */
+  public String observationName() {
+    return observationName;
+  }
+
+  /**
+   * Runs one call to this dependency under {@code observation}, adding its duration to the current
+   * {@link LatencyBreakdown} whether or not the observation is recorded.
+   */
+  public <T, E extends Throwable> T call(
+      Observation observation, Observation.CheckedCallable<T, E> call) throws E {
+    long start = System.nanoTime();
+    try {
+      return observation.observeChecked(call);
+    } finally {
+      LatencyBreakdown.record(this, System.nanoTime() - start);
+    }
+  }
+
+  /** {@link #call} for calls without a result. */
+  public <E extends Throwable> void run(Observation observation, Observation.CheckedRunnable<E> run)
+      throws E {
+    call(
+        observation,
+        () -> {
+          run.run();
+          return null;
+        });
+  }
+
+  String label() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+
+  /** Whether the time overlaps another dependency's and is left out of the sum. */
+  boolean overlaps() {
+    return this == FLUSH;
+  }
+}
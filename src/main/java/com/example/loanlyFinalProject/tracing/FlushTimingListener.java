@@ -0,0 +1,33 @@
+package com.example.loanlyFinalProject.tracing;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times Hibernate flushes, full and automatic (before a query), into the request's {@link
+ * LatencyBreakdown}. Hibernate creates one per session from {@code hibernate.session.events.auto}.
+ */
+public class FlushTimingListener implements SessionEventListener {
+
+  private long flushStart;
+  private long partialFlushStart;
+
+  @Override
+  public void flushStart() {
+    flushStart = System.nanoTime();
+  }
+
+  @Override
+  public void flushEnd(int numberOfEntities, int numberOfCollections) {
+    LatencyBreakdown.record(Dependency.FLUSH, System.nanoTime() - flushStart);
+  }
+
+  @Override
+  public void partialFlushStart() {
+    partialFlushStart = System.nanoTime();
+  }
+
+  @Override
+  public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+    LatencyBreakdown.record(Dependency.FLUSH, System.nanoTime() - partialFlushStart);
+  }
+}
@@ -0,0 +1,84 @@
+package com.example.loanlyFinalProject.tracing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time a request spent in each {@link Dependency}, collected on the request thread. Work handed to
+ * other threads (notification fan-out, derivatives) is not part of the request and is not counted;
+ * it still shows up in the trace.
+ */
+public final class LatencyBreakdown {
+
+  private static final ThreadLocal<LatencyBreakdown> CURRENT = new ThreadLocal<>();
+  private static final Dependency[] DEPENDENCIES = Dependency.values();
+
+  private final long[] nanos = new long[DEPENDENCIES.length];
+  private final int[] calls = new int[DEPENDENCIES.length];
+
+  private LatencyBreakdown() {}
+
+  /**
+   * Starts collecting on the current thread. Returns null when a breakdown is already collecting
+   * there, so a nested start leaves the outer one in charge.
+   */
+  public static LatencyBreakdown start() {
+    if (CURRENT.get() != null) {
+      return null;
+    }
+    LatencyBreakdown breakdown = new LatencyBreakdown();
+    CURRENT.set(breakdown);
+    return breakdown;
+  }
+
+  /** Stops collecting on the current thread. */
+  public void stop() {
+    CURRENT.remove();
+  }
+
+  /** Adds a call to the breakdown collecting on the current thread, if any. */
+  public static void record(Dependency dependency, long elapsedNanos) {
+    LatencyBreakdown breakdown = CURRENT.get();
+    if (breakdown != null) {
+      breakdown.nanos[dependency.ordinal()] += elapsedNanos;
+      breakdown.calls[dependency.ordinal()]++;
+    }
+  }
+
+  public long nanos(Dependency dependency) {
+    return nanos[dependency.ordinal()];
+  }
+
+  public int calls(Dependency dependency) {
+    return calls[dependency.ordinal()];
+  }
+
+  /**
+   * E.g. {@code db=812ms/14 redis=1ms/1 flush=300ms/2 other=40ms}: time and calls per dependency
+   * that was used, then what is left of {@code totalNanos}.
+   */
+  public String summary(long totalNanos) {
+    StringBuilder summary = new StringBuilder();
+    long accounted = 0;
+    for (Dependency dependency : DEPENDENCIES) {
+      int count = calls(dependency);
+      if (count == 0) {
+        continue;
+      }
+      if (!dependency.overlaps()) {
+        accounted += nanos(dependency);
+      }
+      summary
+          .append(dependency.label())
+          .append('=')
+          .append(millis(nanos(dependency)))
+          .append("ms/")
+          .append(count)
+          .append(' ');
+    }
+    return summary.append("other=").append(millis(totalNanos - accounted)).append("ms").toString();
+  }
+
+  private static long millis(long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(Math.max(nanos, 0));
+  }
+}
@@ -0,0 +1,29 @@
+package com.example.loanlyFinalProject.tracing;
+
+/**
+ * Names of the observations around the application's outbound calls. Each one becomes a span in a
+ * sampled request's trace (see {@link SampledTracePredicate}); {@link Dependency} groups them for
+ * the slow-request breakdown, which covers every request.
+ */
+public final class Observations {
+
+  /** Borrowing a connection from the pools ({@code ObservedDataSource}). */
+  public static final String JDBC_CONNECTION = "jdbc.connection";
+
+  /** One statement execution, tagged with the JDBC method ({@code ObservedDataSource}). */
+  public static final String JDBC_QUERY = "jdbc.query";
+
+  /** One {@code RedisTemplate} operation ({@link ObservedRedisTemplate}). */
+  public static final String REDIS_COMMAND = "redis.command";
+
+  /** Sending a push notification through Firebase Cloud Messaging. */
+  public static final String FCM_SEND = "fcm.send";
+
+  /** Sending an email over SMTP. */
+  public static final String SMTP_SEND = "smtp.send";
+
+  /** A controller method, tagged with class and method ({@code @Observed} on the controllers). */
+  public static final String CONTROLLER = "controller.calls";
+
+  private Observations() {}
+}
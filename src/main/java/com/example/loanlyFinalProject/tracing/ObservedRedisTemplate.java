@@ -0,0 +1,28 @@
+package com.example.loanlyFinalProject.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * A {@link RedisTemplate} that times each operation as a {@link Dependency#REDIS} call, observed as
+ * {@link Observations#REDIS_COMMAND}. All template operations ({@code opsForValue()}, {@code
+ * hasKey}, scripts) go through {@link #execute(RedisCallback, boolean, boolean)}.
+ */
+public class ObservedRedisTemplate<K, V> extends RedisTemplate<K, V> {
+
+  private final ObservationRegistry observationRegistry;
+
+  public ObservedRedisTemplate(ObservationRegistry observationRegistry) {
+    this.observationRegistry = observationRegistry;
+  }
+
+  @Override
+  public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+    return Dependency.REDIS.call(
+        Observation.createNotStarted(Observations.REDIS_COMMAND, observationRegistry)
+            .contextualName("redis"),
+        () -> super.execute(action, exposeConnection, pipeline));
+  }
+}
@@ -0,0 +1,43 @@
+package com.example.loanlyFinalProject.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationPredicate;
+import io.micrometer.observation.ObservationView;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.handler.TracingObservationHandler;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates dependency observations only inside a sampled trace. Most requests are not sampled, and a
+ * span per statement or Redis call that is never exported would cost them for nothing; calls
+ * outside any request (startup, unobserved jobs) would otherwise each start a trace of their own.
+ * The {@link LatencyBreakdown} is timed by {@link Dependency#call} and does not depend on this.
+ */
+@Component
+public class SampledTracePredicate implements ObservationPredicate {
+
+  private static final Set<String> DEPENDENCY_OBSERVATIONS =
+      Arrays.stream(Dependency.values())
+          .map(Dependency::observationName)
+          .filter(Objects::nonNull)
+          .collect(Collectors.toUnmodifiableSet());
+
+  @Override
+  public boolean test(String name, Observation.Context context) {
+    if (!DEPENDENCY_OBSERVATIONS.contains(name)) {
+      return true;
+    }
+    ObservationView parent = context.getParentObservation();
+    if (parent == null) {
+      return false;
+    }
+    TracingObservationHandler.TracingContext tracing =
+        parent.getContextView().get(TracingObservationHandler.TracingContext.class);
+    Span span = tracing != null ? tracing.getSpan() : null;
+    return span != null && Boolean.TRUE.equals(span.context().sampled());
+  }
+}
@@ -0,0 +1,61 @@
+package com.example.loanlyFinalProject.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Logs requests slower than {@code app.tracing.slow-request-ms} with their {@link
+ * LatencyBreakdown}, e.g. {@code Slow request POST /api/customer/disbursements -> 201 in 1840 ms:
+ * pool=0ms/2 db=1210ms/9 redis=1ms/1 flush=950ms/1 other=629ms}.
+ *
+ * <p>Runs just inside the HTTP server observation and before the security chain, so the JWT
+ * blacklist check is counted and the log line carries the request's trace id.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@Slf4j
+public class SlowRequestLoggingFilter extends OncePerRequestFilter {
+
+  @Value("${app.tracing.slow-request-ms:1000}")
+  private long slowRequestMs;
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    LatencyBreakdown breakdown = LatencyBreakdown.start();
+    if (breakdown == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    long start = System.nanoTime();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      breakdown.stop();
+      long elapsed = System.nanoTime() - start;
+      if (TimeUnit.NANOSECONDS.toMillis(elapsed) >= slowRequestMs) {
+        log.warn(
+            "Slow request {} {} -> {} in {} ms: {}",
+            request.getMethod(),
+            request.getRequestURI(),
+            response.getStatus(),
+            TimeUnit.NANOSECONDS.toMillis(elapsed),
+            breakdown.summary(elapsed));
+      }
+    }
+  }
+}
@@ -0,0 +1,99 @@
+-- =====================================================
+-- V10: Installments and payments of disbursed loans
+-- =====================================================
+
+create sequence installment_seq start with 1 increment by 50;
+
+create sequence payment_seq start with 1 increment by 50;
+
+create table installments (
+    id bigint not null,
+    disbursement_id bigint not null,
+    installment_number int not null,
+    due_date date not null,
+    principal_amount numeric(18,2) not null,
+    interest_amount numeric(18,2) not null,
+    amount_due numeric(18,2) not null,
+    paid_principal numeric(18,2) not null,
+    paid_interest numeric(18,2) not null,
+    status varchar(20) not null check (status in ('SCHEDULED','DUE','OVERDUE','PAID')),
+    reminder_sent_at datetime2(6),
+    paid_at datetime2(6),
+    created_at datetime2(6) not null,
+    updated_at datetime2(6),
+    primary key (id)
+);
+
+create table payments (
+    id bigint not null,
+    disbursement_id bigint not null,
+    user_plafond_id bigint not null,
+    amount numeric(18,2) not null,
+    principal_amount numeric(18,2) not null,
+    interest_amount numeric(18,2) not null,
+    reference varchar(100),
+    note varchar(255),
+    recorded_by bigint,
+    paid_at datetime2(6) not null,
+    primary key (id)
+);
+
+alter table installments
+    add constraint uk_installments_disbursement_number unique (disbursement_id, installment_number);
+
+alter table installments
+    add constraint fk_installments_disbursement_id foreign key (disbursement_id) references disbursements;
+
+alter table payments
+    add constraint fk_payments_disbursement_id foreign key (disbursement_id) references disbursements;
+
+alter table payments
+    add constraint fk_payments_user_plafond_id foreign key (user_plafond_id) references user_plafonds;
+
+alter table payments
+    add constraint fk_payments_recorded_by foreign key (recorded_by) references users;
+
+-- InstallmentDueScheduler: findEventChunk, findReminderChunk (date-range seeks per status)
+create index ix_installments_status_due
+    on installments (status, due_date)
+    include (disbursement_id, amount_due, reminder_sent_at);
+
+-- RepaymentService: findByDisbursementIdOrderByPaidAtDesc
+create index ix_payments_disbursement_paid
+    on payments (disbursement_id, paid_at);
+
+-- CreditReconciliationService: sumPrincipalByLineBetween
+create index ix_payments_user_plafond
+    on payments (user_plafond_id)
+    include (principal_amount);
+
+-- New enum values: replace the generated (unnamed) check constraints. Each
+-- block is a single batch statement so its variables stay in scope.
+begin
+    declare @constraint sysname, @sql nvarchar(400);
+    select @constraint = name from sys.check_constraints
+    where parent_object_id = object_id('credit_ledger_entries') and definition like '%entry_type%';
+    if @constraint is not null
+    begin
+        set @sql = N'alter table credit_ledger_entries drop constraint ' + quotename(@constraint);
+        exec sp_executesql @sql;
+    end;
+    alter table credit_ledger_entries
+        add constraint ck_credit_ledger_entries_entry_type
+        check (entry_type in ('RESERVE','RELEASE','DISBURSE','ADJUST','REPAYMENT'));
+end;
+
+begin
+    declare @constraint sysname, @sql nvarchar(400);
+    select @constraint = name from sys.check_constraints
+    where parent_object_id = object_id('notifications') and definition like '%notification_type%';
+    if @constraint is not null
+    begin
+        set @sql = N'alter table notifications drop constraint ' + quotename(@constraint);
+        exec sp_executesql @sql;
+    end;
+    alter table notifications
+        add constraint ck_notifications_notification_type
+        check (notification_type in ('LOAN_SUBMITTED','LOAN_REVIEWED','LOAN_APPROVED','LOAN_REJECTED',
+            'LOAN_DISBURSED','PAYMENT_REMINDER','PAYMENT_DUE','PAYMENT_OVERDUE','PAYMENT_RECEIVED','SYSTEM'));
+end;
@@ -0,0 +1,11 @@
+-- =====================================================
+-- V11: Late-payment penalty accrued by the end-of-day batch
+-- =====================================================
+
+alter table installments add
+    penalty_amount numeric(18,2) not null constraint df_installments_penalty_amount default 0,
+    paid_penalty numeric(18,2) not null constraint df_installments_paid_penalty default 0,
+    penalty_accrued_through date;
+
+alter table payments add
+    penalty_amount numeric(18,2) not null constraint df_payments_penalty_amount default 0;
@@ -0,0 +1,29 @@
+-- =====================================================
+-- V12: Work-queue leases on the staff queues
+-- Staff claim the next N open items (WorkQueueService); a claimed item is
+-- leased to one staff member until lease_expires_at and is then returned to
+-- the pool. The filtered queue indexes now cover the lease columns, so a
+-- claim reads the index only.
+-- =====================================================
+
+alter table user_plafonds add
+    lease_owner_id bigint,
+    lease_expires_at datetime2(6);
+
+alter table disbursements add
+    lease_owner_id bigint,
+    lease_expires_at datetime2(6);
+
+-- WorkQueueService: PLAFOND_REVIEW, PLAFOND_APPROVAL
+CREATE INDEX ix_user_plafonds_open_queue
+    ON user_plafonds (status, registered_at)
+    INCLUDE (user_id, plafond_id, lease_owner_id, lease_expires_at)
+    WHERE status IN ('PENDING_REVIEW', 'WAITING_APPROVAL')
+    WITH (DROP_EXISTING = ON);
+
+-- WorkQueueService: DISBURSEMENT
+CREATE INDEX ix_disbursements_pending
+    ON disbursements (requested_at)
+    INCLUDE (user_plafond_id, amount, lease_owner_id, lease_expires_at)
+    WHERE status = 'PENDING'
+    WITH (DROP_EXISTING = ON);
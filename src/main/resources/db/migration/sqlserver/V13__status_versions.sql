@@ -0,0 +1,11 @@
+-- =====================================================
+-- V13: Optimistic-lock versions for the application and disbursement workflows
+-- Status moves by compare-and-set (WHERE id = ? AND status = ?); the version
+-- guards the workflow fields written alongside it.
+-- =====================================================
+
+alter table user_plafonds add
+    version bigint not null constraint df_user_plafonds_version default 0;
+
+alter table disbursements add
+    version bigint not null constraint df_disbursements_version default 0;
@@ -0,0 +1,18 @@
+-- =====================================================
+-- V14: Idempotency-Key records while Redis is unavailable
+-- =====================================================
+
+create table idempotency_keys (
+    record_key varchar(300) not null,
+    status varchar(20) not null check (status in ('IN_FLIGHT','COMPLETED')),
+    request_hash varchar(64) not null,
+    response_status int,
+    content_type varchar(100),
+    response_body varbinary(max),
+    created_at datetime2(6) not null,
+    expires_at datetime2(6) not null,
+    primary key (record_key)
+);
+
+create index ix_idempotency_keys_expires
+    on idempotency_keys (expires_at);
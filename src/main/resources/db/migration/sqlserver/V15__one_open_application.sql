@@ -0,0 +1,14 @@
+-- =====================================================
+-- V15: At most one open plafond application per customer
+-- PlafondApplicationService serializes submissions of one customer inside a
+-- node; this index makes the rule hold across nodes. A violation is reported
+-- to the caller as a duplicate application.
+-- Duplicates left by earlier races must be resolved before this runs:
+--   SELECT user_id FROM user_plafonds
+--   WHERE status IN ('PENDING_REVIEW', 'WAITING_APPROVAL')
+--   GROUP BY user_id HAVING COUNT(*) > 1;
+-- =====================================================
+
+CREATE UNIQUE INDEX ux_user_plafonds_open_application
+    ON user_plafonds (user_id)
+    WHERE status IN ('PENDING_REVIEW', 'WAITING_APPROVAL');
@@ -0,0 +1,11 @@
+-- =====================================================
+-- V16: Content metadata on uploaded documents
+-- Uploads are streamed to disk; the type sniffed from the magic bytes, the
+-- size and the SHA-256 are recorded as the bytes are written. Documents
+-- uploaded before this migration have no metadata.
+-- =====================================================
+
+alter table plafond_documents add
+    content_type varchar(100),
+    size_bytes bigint,
+    content_sha256 varchar(64);
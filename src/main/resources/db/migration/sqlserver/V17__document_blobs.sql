@@ -0,0 +1,22 @@
+-- =====================================================
+-- V17: Content-addressed document store
+-- Uploaded documents are stored once per SHA-256 under uploads/blobs/ab/cd/
+-- and shared by every plafond_documents row with that content_sha256.
+-- ref_count counts those rows; blobs left at zero past the grace period are
+-- deleted by ContentAddressedStore's GC. Documents uploaded before this
+-- migration keep their per-upload files under uploads/plafonds/.
+-- =====================================================
+
+CREATE TABLE document_blobs (
+    sha256 varchar(64) NOT NULL PRIMARY KEY,
+    content_type varchar(100) NOT NULL,
+    size_bytes bigint NOT NULL,
+    ref_count int NOT NULL,
+    created_at datetime2(6) NOT NULL,
+    unreferenced_at datetime2(6) NULL
+);
+
+-- GC candidates only
+CREATE INDEX ix_document_blobs_unreferenced
+    ON document_blobs (ref_count, unreferenced_at)
+    WHERE ref_count = 0;
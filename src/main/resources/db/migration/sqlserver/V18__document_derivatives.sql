@@ -0,0 +1,24 @@
+-- =====================================================
+-- V18: Document previews and thumbnails
+-- After an upload commits, DocumentDerivativeService renders a preview and a
+-- thumbnail (first page for PDFs) under uploads/derivatives/, shared per blob
+-- like the document itself. derivative_status is PENDING until then; the
+-- sweep picks PENDING rows up again after a restart or a full queue.
+-- Documents from before the content-addressed store are not rendered.
+-- =====================================================
+
+alter table plafond_documents add
+    preview_url varchar(500),
+    thumbnail_url varchar(500),
+    derivative_status varchar(20);
+
+GO
+
+UPDATE plafond_documents
+SET derivative_status = 'PENDING'
+WHERE file_url LIKE '/uploads/blobs/%';
+
+-- Sweep candidates only
+CREATE INDEX ix_plafond_documents_derivative_pending
+    ON plafond_documents (id)
+    WHERE derivative_status = 'PENDING';
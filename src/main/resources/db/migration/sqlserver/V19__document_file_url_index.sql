@@ -0,0 +1,10 @@
+-- =====================================================
+-- V19: Index plafond_documents.file_url
+-- OrphanedFileCollector checks the files in the upload directory against
+-- file_url in chunks (file_url IN (...)); without an index every chunk
+-- scans the table.
+-- =====================================================
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_plafond_documents_file_url' AND object_id = OBJECT_ID('plafond_documents'))
+    CREATE INDEX ix_plafond_documents_file_url
+        ON plafond_documents (file_url);
@@ -0,0 +1,237 @@
+-- =====================================================
+-- V1: Baseline schema
+-- Full schema as of docs/V6_fix_interest_calculation.sql, generated from the
+-- JPA entities. Only runs on an empty database; existing databases are
+-- baselined at version 6 (spring.flyway.baseline-version) and skip it.
+-- =====================================================
+
+create table customer_profiles (
+    date_of_birth date,
+    created_at datetime2(6),
+    id bigint identity not null,
+    updated_at datetime2(6),
+    user_id bigint not null,
+    address varchar(255),
+    primary key (id)
+);
+
+create table disbursements (
+    amount numeric(18,2) not null,
+    interest_amount numeric(18,2) not null,
+    interest_rate numeric(5,2) not null,
+    request_latitude numeric(10,7),
+    request_longitude numeric(10,7),
+    tenor_month int not null,
+    total_amount numeric(18,2) not null,
+    disbursed_at datetime2(6),
+    disbursed_by bigint,
+    id bigint identity not null,
+    requested_at datetime2(6) not null,
+    user_plafond_id bigint not null,
+    status varchar(30) not null check (status in ('PENDING','DISBURSED','CANCELLED')),
+    note varchar(255),
+    primary key (id)
+);
+
+create table notifications (
+    is_read bit,
+    created_at datetime2(6) not null,
+    id bigint identity not null,
+    read_at datetime2(6),
+    reference_id bigint,
+    user_id bigint not null,
+    notification_type varchar(30) not null check (notification_type in ('LOAN_SUBMITTED','LOAN_REVIEWED','LOAN_APPROVED','LOAN_REJECTED','LOAN_DISBURSED','SYSTEM')),
+    title varchar(100) not null,
+    message varchar(500) not null,
+    primary key (id)
+);
+
+create table password_reset_tokens (
+    is_used bit,
+    created_at datetime2(6) not null,
+    expiry_date datetime2(6) not null,
+    id bigint identity not null,
+    user_id bigint not null,
+    token varchar(255) not null,
+    primary key (id)
+);
+
+create table permissions (
+    id bigint identity not null,
+    code varchar(50) not null,
+    description varchar(255),
+    primary key (id)
+);
+
+create table plafond_documents (
+    id bigint identity not null,
+    uploaded_at datetime2(6) not null,
+    user_plafond_id bigint not null,
+    document_type varchar(30) not null check (document_type in ('KTP','KK','SLIP_GAJI','NPWP','SURAT_KETERANGAN_KERJA','REKENING_KORAN','OTHER')),
+    file_name varchar(100),
+    file_url varchar(500) not null,
+    primary key (id)
+);
+
+create table plafond_histories (
+    action_by_user_id bigint not null,
+    created_at datetime2(6) not null,
+    id bigint identity not null,
+    user_plafond_id bigint not null,
+    new_status varchar(30) not null check (new_status in ('PENDING_REVIEW','WAITING_APPROVAL','APPROVED','REJECTED')),
+    previous_status varchar(30) not null check (previous_status in ('PENDING_REVIEW','WAITING_APPROVAL','APPROVED','REJECTED')),
+    action_by_role varchar(50) not null,
+    note varchar(255),
+    primary key (id)
+);
+
+create table plafonds (
+    is_active bit,
+    max_amount numeric(18,2) not null,
+    created_at datetime2(6) not null,
+    deleted_at datetime2(6),
+    id bigint identity not null,
+    name varchar(100) not null,
+    description varchar(255),
+    primary key (id)
+);
+
+create table role_permissions (
+    permission_id bigint not null,
+    role_id bigint not null,
+    primary key (permission_id, role_id)
+);
+
+create table roles (
+    id bigint identity not null,
+    name varchar(50) not null,
+    description varchar(255),
+    primary key (id)
+);
+
+create table tenor_rates (
+    interest_rate numeric(5,2) not null,
+    is_active bit not null,
+    tenor_month int not null,
+    id bigint identity not null,
+    plafond_id bigint,
+    description varchar(100),
+    primary key (id)
+);
+
+create table user_plafonds (
+    application_latitude numeric(10,7),
+    application_longitude numeric(10,7),
+    approved_limit numeric(18,2),
+    birth_date date,
+    monthly_income numeric(18,2),
+    used_amount numeric(18,2),
+    approved_at datetime2(6),
+    approved_by bigint,
+    id bigint identity not null,
+    plafond_id bigint not null,
+    registered_at datetime2(6) not null,
+    reviewed_at datetime2(6),
+    reviewed_by bigint,
+    user_id bigint not null,
+    marital_status varchar(20),
+    nik varchar(20),
+    phone varchar(20),
+    npwp varchar(25),
+    account_number varchar(30),
+    status varchar(30) not null check (status in ('PENDING_REVIEW','WAITING_APPROVAL','APPROVED','REJECTED')),
+    bank_name varchar(50),
+    birth_place varchar(100),
+    occupation varchar(100),
+    rejection_note varchar(255),
+    primary key (id)
+);
+
+create table user_roles (
+    role_id bigint not null,
+    user_id bigint not null,
+    primary key (role_id, user_id)
+);
+
+create table users (
+    is_active bit,
+    created_at datetime2(6) not null,
+    id bigint identity not null,
+    updated_at datetime2(6),
+    phone varchar(20),
+    username varchar(50) not null,
+    email varchar(100) not null,
+    full_name varchar(100),
+    fcm_token varchar(500),
+    password varchar(255) not null,
+    primary key (id)
+);
+
+alter table customer_profiles
+    add constraint uk_customer_profiles_user_id unique (user_id);
+
+alter table password_reset_tokens
+    add constraint uk_password_reset_tokens_token unique (token);
+
+alter table permissions
+    add constraint uk_permissions_code unique (code);
+
+alter table roles
+    add constraint uk_roles_name unique (name);
+
+alter table users
+    add constraint uk_users_username unique (username);
+
+alter table users
+    add constraint uk_users_email unique (email);
+
+alter table customer_profiles
+    add constraint fk_customer_profiles_user_id foreign key (user_id) references users;
+
+alter table disbursements
+    add constraint fk_disbursements_disbursed_by foreign key (disbursed_by) references users;
+
+alter table disbursements
+    add constraint fk_disbursements_user_plafond_id foreign key (user_plafond_id) references user_plafonds;
+
+alter table notifications
+    add constraint fk_notifications_user_id foreign key (user_id) references users;
+
+alter table password_reset_tokens
+    add constraint fk_password_reset_tokens_user_id foreign key (user_id) references users;
+
+alter table plafond_documents
+    add constraint fk_plafond_documents_user_plafond_id foreign key (user_plafond_id) references user_plafonds;
+
+alter table plafond_histories
+    add constraint fk_plafond_histories_action_by_user_id foreign key (action_by_user_id) references users;
+
+alter table plafond_histories
+    add constraint fk_plafond_histories_user_plafond_id foreign key (user_plafond_id) references user_plafonds;
+
+alter table role_permissions
+    add constraint fk_role_permissions_permission_id foreign key (permission_id) references permissions;
+
+alter table role_permissions
+    add constraint fk_role_permissions_role_id foreign key (role_id) references roles;
+
+alter table tenor_rates
+    add constraint fk_tenor_rates_plafond_id foreign key (plafond_id) references plafonds;
+
+alter table user_plafonds
+    add constraint fk_user_plafonds_approved_by foreign key (approved_by) references users;
+
+alter table user_plafonds
+    add constraint fk_user_plafonds_plafond_id foreign key (plafond_id) references plafonds;
+
+alter table user_plafonds
+    add constraint fk_user_plafonds_reviewed_by foreign key (reviewed_by) references users;
+
+alter table user_plafonds
+    add constraint fk_user_plafonds_user_id foreign key (user_id) references users;
+
+alter table user_roles
+    add constraint fk_user_roles_role_id foreign key (role_id) references roles;
+
+alter table user_roles
+    add constraint fk_user_roles_user_id foreign key (user_id) references users;
@@ -0,0 +1,31 @@
+-- =====================================================
+-- V20: Resumable document uploads
+-- One row per upload in progress. The bytes received so far are in a part
+-- file under the upload directory's staging area; offset_bytes is how many
+-- of them are durable. A chunk is written under lock_token, a short lease
+-- that keeps two requests from appending to the same upload at once. Rows
+-- are deleted when the upload completes, is cancelled, or expires.
+-- =====================================================
+
+create table document_uploads (
+    id varchar(36) not null,
+    user_id bigint not null,
+    user_plafond_id bigint not null,
+    document_type varchar(30) not null check (document_type in ('KTP','KK','SLIP_GAJI','NPWP','SURAT_KETERANGAN_KERJA','REKENING_KORAN','OTHER')),
+    file_name varchar(100),
+    length_bytes bigint not null,
+    offset_bytes bigint not null,
+    lock_token varchar(36),
+    locked_until datetime2(6),
+    created_at datetime2(6) not null,
+    expires_at datetime2(6) not null,
+    primary key (id)
+);
+
+-- Active uploads per customer
+create index ix_document_uploads_user
+    on document_uploads (user_id, expires_at);
+
+-- Expiry sweep
+create index ix_document_uploads_expires
+    on document_uploads (expires_at);
@@ -0,0 +1,28 @@
+-- =====================================================
+-- V21: Bulk disbursement batches
+-- One row per bulk run. disbursements.batch_id links the loans a run paid
+-- out, so the bank transfer file can be generated again from the batch id
+-- when the response that carried it was lost.
+-- =====================================================
+
+create table disbursement_batches (
+    id bigint identity not null,
+    processed_by bigint not null,
+    note varchar(255),
+    processed_count int not null,
+    total_amount numeric(18,2) not null,
+    created_at datetime2(6) not null,
+    primary key (id)
+);
+
+alter table disbursement_batches
+    add constraint fk_disbursement_batches_processed_by foreign key (processed_by) references users;
+
+alter table disbursements add batch_id bigint;
+
+alter table disbursements
+    add constraint fk_disbursements_batch_id foreign key (batch_id) references disbursement_batches;
+
+-- Transfer file of one batch
+create index ix_disbursements_batch
+    on disbursements (batch_id);
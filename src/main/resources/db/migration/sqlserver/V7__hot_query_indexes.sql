@@ -0,0 +1,81 @@
+-- =====================================================
+-- V7: Indexes for hot repository queries
+-- Composite indexes match the @Index declarations on the entities (so H2
+-- test schemas get the same access paths). SQL Server additionally gets
+-- INCLUDE columns to cover the queries and filtered indexes for the work
+-- queues, which JPA cannot express.
+-- =====================================================
+
+-- UserPlafondRepository: findApprovedByUserId, hasPendingApplication,
+-- existsActiveByUserIdAndPlafondId, findActiveWithRemainingLimit
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_user_plafonds_user_status' AND object_id = OBJECT_ID('user_plafonds'))
+    CREATE INDEX ix_user_plafonds_user_status
+        ON user_plafonds (user_id, status)
+        INCLUDE (plafond_id, approved_limit, used_amount, approved_at);
+
+-- UserPlafondRepository: findByStatusOrderByRegisteredAtAsc
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_user_plafonds_status_registered' AND object_id = OBJECT_ID('user_plafonds'))
+    CREATE INDEX ix_user_plafonds_status_registered
+        ON user_plafonds (status, registered_at)
+        INCLUDE (user_id, plafond_id);
+
+-- UserPlafondRepository: findAllPendingReview, findAllWaitingApproval (staff queues)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_user_plafonds_open_queue' AND object_id = OBJECT_ID('user_plafonds'))
+    CREATE INDEX ix_user_plafonds_open_queue
+        ON user_plafonds (status, registered_at)
+        INCLUDE (user_id, plafond_id)
+        WHERE status IN ('PENDING_REVIEW', 'WAITING_APPROVAL');
+
+-- UserPlafondRepository: findAllApproved
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_user_plafonds_approved' AND object_id = OBJECT_ID('user_plafonds'))
+    CREATE INDEX ix_user_plafonds_approved
+        ON user_plafonds (approved_at DESC)
+        INCLUDE (user_id, plafond_id, approved_limit, used_amount)
+        WHERE status = 'APPROVED';
+
+-- DisbursementRepository: findByStatusOrderByRequestedAtAsc, countByStatus
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_disbursements_status_requested' AND object_id = OBJECT_ID('disbursements'))
+    CREATE INDEX ix_disbursements_status_requested
+        ON disbursements (status, requested_at)
+        INCLUDE (user_plafond_id, amount);
+
+-- DisbursementRepository: findAllPending (Back Office queue)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_disbursements_pending' AND object_id = OBJECT_ID('disbursements'))
+    CREATE INDEX ix_disbursements_pending
+        ON disbursements (requested_at)
+        INCLUDE (user_plafond_id, amount)
+        WHERE status = 'PENDING';
+
+-- DisbursementRepository: findByUserPlafondIdOrderByRequestedAtDesc, findByUserId
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_disbursements_user_plafond_requested' AND object_id = OBJECT_ID('disbursements'))
+    CREATE INDEX ix_disbursements_user_plafond_requested
+        ON disbursements (user_plafond_id, requested_at DESC)
+        INCLUDE (status, amount);
+
+-- PlafondHistoryRepository: findMarketingReviewByApplicationId,
+-- findByUserPlafondIdOrderByCreatedAtDesc
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_plafond_histories_application' AND object_id = OBJECT_ID('plafond_histories'))
+    CREATE INDEX ix_plafond_histories_application
+        ON plafond_histories (user_plafond_id, action_by_role, new_status, created_at DESC);
+
+-- NotificationRepository: findByUserIdOrderByCreatedAtDesc,
+-- findByUserIdAndIsReadFalseOrderByCreatedAtDesc, countByUserIdAndIsReadFalse
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_notifications_user_read_created' AND object_id = OBJECT_ID('notifications'))
+    CREATE INDEX ix_notifications_user_read_created
+        ON notifications (user_id, is_read, created_at DESC);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_notifications_unread' AND object_id = OBJECT_ID('notifications'))
+    CREATE INDEX ix_notifications_unread
+        ON notifications (user_id, created_at DESC)
+        WHERE is_read = 0;
+
+-- TenorRateRepository: findActiveByPlafondIdAndTenorMonth, findAllActiveByPlafondId
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_tenor_rates_plafond_tenor_active' AND object_id = OBJECT_ID('tenor_rates'))
+    CREATE INDEX ix_tenor_rates_plafond_tenor_active
+        ON tenor_rates (plafond_id, tenor_month, is_active)
+        INCLUDE (interest_rate);
+
+-- PlafondDocumentRepository: findByUserPlafondId
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ix_plafond_documents_user_plafond' AND object_id = OBJECT_ID('plafond_documents'))
+    CREATE INDEX ix_plafond_documents_user_plafond
+        ON plafond_documents (user_plafond_id);
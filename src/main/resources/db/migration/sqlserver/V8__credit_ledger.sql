@@ -0,0 +1,56 @@
+-- =====================================================
+-- V8: Append-only credit ledger behind user_plafonds.used_amount
+-- =====================================================
+
+create sequence credit_ledger_seq start with 1 increment by 50;
+
+create sequence credit_checkpoint_seq start with 1 increment by 50;
+
+create table credit_ledger_entries (
+    id bigint not null,
+    user_plafond_id bigint not null,
+    entry_type varchar(20) not null check (entry_type in ('RESERVE','RELEASE','DISBURSE','ADJUST')),
+    amount numeric(18,2) not null,
+    used_amount_after numeric(18,2) not null,
+    disbursement_id bigint,
+    note varchar(255),
+    created_at datetime2(6) not null,
+    primary key (id)
+);
+
+create table credit_ledger_checkpoints (
+    id bigint not null,
+    user_plafond_id bigint not null,
+    as_of datetime2(6) not null,
+    used_amount numeric(18,2) not null,
+    created_at datetime2(6) not null,
+    primary key (id)
+);
+
+alter table credit_ledger_entries
+    add constraint fk_credit_ledger_entries_user_plafond_id foreign key (user_plafond_id) references user_plafonds;
+
+alter table credit_ledger_checkpoints
+    add constraint fk_credit_ledger_checkpoints_user_plafond_id foreign key (user_plafond_id) references user_plafonds;
+
+create index ix_credit_ledger_line_created
+    on credit_ledger_entries (user_plafond_id, created_at)
+    include (amount);
+
+create index ix_credit_ledger_created
+    on credit_ledger_entries (created_at)
+    include (user_plafond_id, amount);
+
+create index ix_credit_checkpoints_line_as_of
+    on credit_ledger_checkpoints (user_plafond_id, as_of)
+    include (used_amount);
+
+create index ix_credit_checkpoints_as_of
+    on credit_ledger_checkpoints (as_of);
+
+-- Opening checkpoint for every existing credit line, so replays of lines that
+-- predate the ledger start from their current used amount.
+insert into credit_ledger_checkpoints (id, user_plafond_id, as_of, used_amount, created_at)
+select next value for credit_checkpoint_seq, id, sysdatetime(), coalesce(used_amount, 0), sysdatetime()
+from user_plafonds
+where used_amount is not null and used_amount <> 0;
@@ -0,0 +1,17 @@
+-- =====================================================
+-- V9: Resumable batch job checkpoints (one row per job partition)
+-- =====================================================
+-- Credit reconciliation reads user_plafonds by primary key ranges and
+-- disbursements through ix_disbursements_user_plafond_requested
+-- (user_plafond_id leading, status and amount included), so it needs no
+-- additional index.
+
+create table job_checkpoints (
+    job_name varchar(100) not null,
+    range_end bigint not null,
+    last_processed_id bigint not null,
+    processed_count bigint not null,
+    started_at datetime2(6) not null,
+    updated_at datetime2(6) not null,
+    primary key (job_name)
+);
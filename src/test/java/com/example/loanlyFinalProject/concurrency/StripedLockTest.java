@@ -0,0 +1,67 @@
+package com.example.loanlyFinalProject.concurrency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("StripedLock Unit Tests")
+class StripedLockTest {
+
+  private final StripedLock locks = new StripedLock(1000);
+
+  @Test
+  @DisplayName("Size - Should round the stripe count up to a power of two")
+  void size_ShouldRoundUpToPowerOfTwo() {
+    assertEquals(1024, locks.size());
+    assertEquals(1, new StripedLock(1).size());
+    assertEquals(8, new StripedLock(8).size());
+    assertThrows(IllegalArgumentException.class, () -> new StripedLock(0));
+  }
+
+  @Test
+  @DisplayName("Get - Should return the same lock for the same key")
+  void get_SameKey_ShouldReturnSameLock() {
+    assertSame(locks.get(42L), locks.get(Long.valueOf(42L)));
+  }
+
+  @Test
+  @DisplayName("Get - Should spread sequential ids over the stripes")
+  void get_SequentialIds_ShouldSpreadOverStripes() {
+    Set<Integer> used = new HashSet<>();
+    for (long id = 1; id <= 1024; id++) {
+      used.add(locks.indexFor(id));
+    }
+    assertTrue(used.size() > 600, "Only " + used.size() + " stripes used");
+  }
+
+  @Test
+  @DisplayName("Lock - A held key should block that key only")
+  void lock_HeldKey_ShouldNotBlockOtherKeys() throws Exception {
+    long other = 2L;
+    while (locks.get(other) == locks.get(1L)) {
+      other++;
+    }
+    Lock held = locks.get(1L);
+    held.lock();
+    try {
+      long otherKey = other;
+      assertFalse(CompletableFuture.supplyAsync(() -> tryAndRelease(locks.get(1L))).get());
+      assertTrue(CompletableFuture.supplyAsync(() -> tryAndRelease(locks.get(otherKey))).get());
+    } finally {
+      held.unlock();
+    }
+  }
+
+  private static boolean tryAndRelease(Lock lock) {
+    if (!lock.tryLock()) {
+      return false;
+    }
+    lock.unlock();
+    return true;
+  }
+}
@@ -8,6 +8,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.example.loanlyFinalProject.dto.request.LoginRequest;
 import com.example.loanlyFinalProject.dto.request.RegisterRequest;
 import com.example.loanlyFinalProject.dto.response.AuthResponse;
+import com.example.loanlyFinalProject.idempotency.IdempotencyFilter;
+import com.example.loanlyFinalProject.querystats.QueryCountingFilter;
 import com.example.loanlyFinalProject.security.CustomUserDetailsService;
 import com.example.loanlyFinalProject.security.JwtAuthenticationFilter;
 import com.example.loanlyFinalProject.security.JwtService;
@@ -44,6 +46,10 @@ class AuthControllerTest {
 
   @MockBean private TokenBlacklistService tokenBlacklistService;
 
+  @MockBean private IdempotencyFilter idempotencyFilter;
+
+  @MockBean private QueryCountingFilter queryCountingFilter;
+
   @Test
   @DisplayName("Register - Should return 200 with token")
   void register_ShouldReturnToken_WhenValidRequest() throws Exception {
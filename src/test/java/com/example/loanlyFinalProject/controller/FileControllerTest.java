@@ -0,0 +1,179 @@
+package com.example.loanlyFinalProject.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.storage.ContentAddressedStore;
+import com.example.loanlyFinalProject.storage.DocumentContentType;
+import com.example.loanlyFinalProject.storage.DocumentUrlSigner;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("FileController Integration Tests")
+class FileControllerTest {
+
+  private static final int SIZE = 200_000;
+
+  @Autowired private FileController fileController;
+
+  @Autowired private DocumentUrlSigner urlSigner;
+
+  @Value("${file.upload-dir}")
+  private String uploadDir;
+
+  private byte[] content;
+  private String relativePath;
+  private String etag;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    content = new byte[SIZE];
+    new Random().nextBytes(content);
+    String sha = UUID.randomUUID().toString().replace("-", "");
+    etag = "\"" + sha + "\"";
+    relativePath = ContentAddressedStore.relativePath(sha, DocumentContentType.PDF);
+    Path file = Paths.get(uploadDir).resolve(relativePath);
+    Files.createDirectories(file.getParent());
+    Files.write(file, content);
+  }
+
+  @Test
+  @DisplayName("Download - Should serve the whole file with validators and cache headers")
+  void download_ShouldServeWholeFile() throws Exception {
+    MockHttpServletResponse response = download(urlSigner.sign(relativePath), null);
+
+    assertEquals(200, response.getStatus());
+    assertArrayEquals(content, response.getContentAsByteArray());
+    assertEquals("application/pdf", response.getContentType());
+    assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+    assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+    assertTrue(response.getHeader(HttpHeaders.CACHE_CONTROL).startsWith("private, max-age="));
+    assertTrue(response.getHeader(HttpHeaders.CACHE_CONTROL).endsWith("immutable"));
+  }
+
+  @Test
+  @DisplayName("Download - Should refuse a tampered, expired or escaping link")
+  void download_InvalidLink_ShouldBeForbidden() throws Exception {
+    UriComponents url = UriComponentsBuilder.fromUriString(urlSigner.sign(relativePath)).build();
+    String sig = url.getQueryParams().getFirst("sig");
+    long expires = Long.parseLong(url.getQueryParams().getFirst("expires"));
+
+    assertEquals(403, download(url.getPath() + "?expires=" + expires + "&sig=x", null).getStatus());
+    assertEquals(
+        403,
+        download(url.getPath() + "?expires=" + (expires + 60) + "&sig=" + sig, null).getStatus());
+    assertEquals(403, download(url.getPath() + "?expires=1&sig=" + sig, null).getStatus());
+
+    assertEquals(404, download(urlSigner.sign("../pom.xml"), null).getStatus());
+    assertEquals(404, download(urlSigner.sign("blobs/.staging/x.part"), null).getStatus());
+    assertEquals(404, download(urlSigner.sign("blobs/00/00/missing.pdf"), null).getStatus());
+  }
+
+  @Test
+  @DisplayName("Download - Should answer a matching If-None-Match with 304")
+  void download_IfNoneMatch_ShouldBeNotModified() throws Exception {
+    MockHttpServletRequest request = request(urlSigner.sign(relativePath));
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    fileController.download(
+        Long.parseLong(request.getParameter("expires")),
+        request.getParameter("sig"),
+        request,
+        response);
+
+    assertEquals(304, response.getStatus());
+    assertEquals(0, response.getContentAsByteArray().length);
+  }
+
+  @Test
+  @DisplayName("Download - Should serve single byte ranges and reject unsatisfiable ones")
+  void download_Range_ShouldServePartialContent() throws Exception {
+    String url = urlSigner.sign(relativePath);
+
+    MockHttpServletResponse middle = download(url, "bytes=1000-1999");
+    assertEquals(206, middle.getStatus());
+    assertEquals("bytes 1000-1999/" + SIZE, middle.getHeader(HttpHeaders.CONTENT_RANGE));
+    assertArrayEquals(Arrays.copyOfRange(content, 1000, 2000), middle.getContentAsByteArray());
+
+    MockHttpServletResponse suffix = download(url, "bytes=-500");
+    assertEquals(206, suffix.getStatus());
+    assertArrayEquals(
+        Arrays.copyOfRange(content, SIZE - 500, SIZE), suffix.getContentAsByteArray());
+
+    MockHttpServletResponse open = download(url, "bytes=" + (SIZE - 10) + "-");
+    assertEquals(206, open.getStatus());
+    assertEquals(10, open.getContentAsByteArray().length);
+
+    MockHttpServletResponse beyond = download(url, "bytes=" + SIZE + "-");
+    assertEquals(416, beyond.getStatus());
+    assertEquals("bytes */" + SIZE, beyond.getHeader(HttpHeaders.CONTENT_RANGE));
+
+    MockHttpServletResponse several = download(url, "bytes=0-9,20-29");
+    assertEquals(200, several.getStatus());
+    assertEquals(SIZE, several.getContentAsByteArray().length);
+  }
+
+  @Test
+  @DisplayName("Download - Should hand the range to sendfile when the connector supports it")
+  void download_SendfileSupported_ShouldNotWriteBody() throws Exception {
+    MockHttpServletRequest request = request(urlSigner.sign(relativePath));
+    request.addHeader(HttpHeaders.RANGE, "bytes=100-199");
+    request.setAttribute(FileController.SENDFILE_SUPPORT, Boolean.TRUE);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    fileController.download(
+        Long.parseLong(request.getParameter("expires")),
+        request.getParameter("sig"),
+        request,
+        response);
+
+    assertEquals(206, response.getStatus());
+    assertEquals(100, response.getContentLengthLong());
+    assertEquals(0, response.getContentAsByteArray().length);
+    assertEquals(100L, request.getAttribute(FileController.SENDFILE_START));
+    assertEquals(200L, request.getAttribute(FileController.SENDFILE_END));
+    assertTrue(((String) request.getAttribute(FileController.SENDFILE_FILENAME)).endsWith(".pdf"));
+  }
+
+  private MockHttpServletResponse download(String url, String range) throws Exception {
+    MockHttpServletRequest request = request(url);
+    if (range != null) {
+      request.addHeader(HttpHeaders.RANGE, range);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    fileController.download(
+        Long.parseLong(request.getParameter("expires")),
+        request.getParameter("sig"),
+        request,
+        response);
+    return response;
+  }
+
+  private static MockHttpServletRequest request(String url) {
+    UriComponents components = UriComponentsBuilder.fromUriString(url).build();
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", components.getPath());
+    components
+        .getQueryParams()
+        .forEach((name, values) -> request.addParameter(name, values.get(0)));
+    return request;
+  }
+}
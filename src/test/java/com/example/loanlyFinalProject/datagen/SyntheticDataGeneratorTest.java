@@ -0,0 +1,183 @@
+package com.example.loanlyFinalProject.datagen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.datagen.CustomerGenerator.PlafondTier;
+import com.example.loanlyFinalProject.datagen.CustomerGenerator.ReferenceData;
+import com.example.loanlyFinalProject.datagen.CustomerGenerator.Rows;
+import com.example.loanlyFinalProject.datagen.CustomerGenerator.TenorOption;
+import com.example.loanlyFinalProject.dto.response.ReconciliationReportResponse;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import com.example.loanlyFinalProject.service.CreditReconciliationService;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Generates a few hundred customers into an H2 database of its own and checks the result holds
+ * together: one open application per customer, used amounts that reconcile, and identities that
+ * continue after the generated ids.
+ */
+@SpringBootTest(
+    properties =
+        "spring.datasource.url=jdbc:h2:mem:datagen;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("SyntheticDataGenerator Tests")
+class SyntheticDataGeneratorTest {
+
+  private static final int CUSTOMERS = 300;
+
+  @Autowired private DataSource dataSource;
+
+  @Autowired private PasswordEncoder passwordEncoder;
+
+  @Autowired private ApplicationContext context;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private CreditReconciliationService reconciliationService;
+
+  @Test
+  @DisplayName("Generated data is consistent and the app can keep inserting after it")
+  void generate_producesConsistentData() {
+    DataGeneratorProperties properties = new DataGeneratorProperties();
+    properties.setCustomers(CUSTOMERS);
+    properties.setChunkSize(40);
+    properties.setWriters(3);
+    long usersBefore = count("SELECT COUNT(*) FROM users");
+
+    long rows =
+        new SyntheticDataGenerator(properties, dataSource, passwordEncoder, context).generate();
+
+    assertEquals(CUSTOMERS, count("SELECT COUNT(*) FROM users") - usersBefore);
+    assertEquals(
+        rows,
+        count("SELECT COUNT(*) FROM users")
+            - usersBefore
+            + count("SELECT COUNT(*) FROM user_plafonds")
+            + count("SELECT COUNT(*) FROM plafond_histories")
+            + count("SELECT COUNT(*) FROM plafond_documents")
+            + count("SELECT COUNT(*) FROM document_blobs")
+            + count("SELECT COUNT(*) FROM disbursements")
+            + count("SELECT COUNT(*) FROM notifications")
+            + count(
+                "SELECT COUNT(*) FROM user_roles ur JOIN users u ON u.id = ur.user_id"
+                    + " WHERE u.username LIKE 'customer%'"));
+    assertTrue(count("SELECT COUNT(*) FROM user_plafonds") > CUSTOMERS / 2);
+    assertTrue(count("SELECT COUNT(*) FROM disbursements WHERE status = 'DISBURSED'") > 0);
+
+    // At most one application per customer in the review queue
+    assertEquals(
+        0,
+        count(
+            "SELECT COUNT(*) FROM (SELECT user_id FROM user_plafonds"
+                + " WHERE status IN ('PENDING_REVIEW', 'WAITING_APPROVAL')"
+                + " GROUP BY user_id HAVING COUNT(*) > 1) open_applications"));
+    // Every document points at its blob
+    assertEquals(
+        0,
+        count(
+            "SELECT COUNT(*) FROM plafond_documents d"
+                + " LEFT JOIN document_blobs b ON b.sha256 = d.content_sha256"
+                + " WHERE b.sha256 IS NULL"));
+    assertEquals(0, count("SELECT COUNT(*) FROM user_plafonds WHERE used_amount > approved_limit"));
+
+    ReconciliationReportResponse report = reconciliationService.run(false);
+    assertEquals("COMPLETED", report.getStatus());
+    assertEquals(0, report.getMismatchCount());
+
+    // H2 identities were moved past the generated ids
+    User user =
+        userRepository.save(
+            User.builder()
+                .username("after-datagen")
+                .email("after-datagen@loanly.test")
+                .password("x")
+                .build());
+    assertTrue(user.getId() > count("SELECT MAX(id) FROM users WHERE username <> 'after-datagen'"));
+  }
+
+  @Test
+  @DisplayName("A customer's rows depend only on the seed and its slot")
+  void customer_isDeterministicAndStaysInItsIdSlots() {
+    CustomerGenerator generator = fixedGenerator();
+
+    Rows alone = new Rows();
+    generator.generate(7, alone);
+    Rows batch = new Rows();
+    for (int customer = 0; customer < 10; customer++) {
+      generator.generate(customer, batch);
+    }
+
+    Rows again = new Rows();
+    fixedGenerator().generate(7, again);
+    for (GeneratedTable table : GeneratedTable.values()) {
+      List<Object[]> expected = alone.of(table);
+      List<Object[]> actual = again.of(table);
+      assertEquals(expected.size(), actual.size(), table.tableName);
+      for (int i = 0; i < expected.size(); i++) {
+        assertArrayEquals(expected.get(i), actual.get(i), table.tableName);
+      }
+      // The same customer inside a larger batch comes out identical too
+      for (Object[] row : expected) {
+        assertTrue(
+            batch.of(table).stream().anyMatch(other -> Arrays.equals(row, other)), table.tableName);
+      }
+      if (table.hasIdentity()) {
+        Set<Object> ids = new HashSet<>();
+        for (Object[] row : batch.of(table)) {
+          assertTrue(ids.add(row[0]), "Duplicate id in " + table.tableName);
+        }
+      }
+    }
+  }
+
+  private CustomerGenerator fixedGenerator() {
+    List<TenorOption> tenors =
+        List.of(
+            new TenorOption(3, new BigDecimal("1.50")),
+            new TenorOption(12, new BigDecimal("1.25")));
+    ReferenceData reference =
+        new ReferenceData(
+            List.of(
+                new PlafondTier(1, "Bronze", new BigDecimal("5000000"), tenors),
+                new PlafondTier(2, "Silver", new BigDecimal("15000000"), tenors),
+                new PlafondTier(3, "Gold", new BigDecimal("50000000"), tenors)),
+            4,
+            2,
+            3,
+            5,
+            "hash",
+            LocalDateTime.of(2026, 1, 1, 0, 0));
+    Map<GeneratedTable, Long> idBase = new EnumMap<>(GeneratedTable.class);
+    for (GeneratedTable table : GeneratedTable.values()) {
+      idBase.put(table, 100L);
+    }
+    return new CustomerGenerator(reference, 42, 730, idBase);
+  }
+
+  private long count(String sql) {
+    Long value = jdbcTemplate.queryForObject(sql, Long.class);
+    return value == null ? 0 : value;
+  }
+}
@@ -0,0 +1,108 @@
+package com.example.loanlyFinalProject.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+@DisplayName("Workload Routing Unit Tests")
+class WorkloadRoutingTest {
+
+  private final DataSource oltp = mock(DataSource.class);
+  private final DataSource reporting = mock(DataSource.class);
+  private final DataSource jobs = mock(DataSource.class);
+
+  @AfterEach
+  void tearDown() {
+    WorkloadContext.restore(null);
+  }
+
+  @Test
+  @DisplayName("Unannotated code - Should route to OLTP pool")
+  void unannotated_ShouldRouteToOltp() {
+    TestRoutingDataSource routing = routing();
+
+    assertSame(oltp, routing.currentTarget());
+  }
+
+  @Test
+  @DisplayName("Annotated method - Should route to its pool and restore afterwards")
+  void annotatedMethod_ShouldRouteToDeclaredPool() {
+    TestRoutingDataSource routing = routing();
+    ReportService service = proxy(new ReportService(routing));
+
+    assertSame(reporting, service.report());
+    assertSame(oltp, service.customerWrite());
+    assertSame(oltp, routing.currentTarget());
+  }
+
+  @Test
+  @DisplayName("Class-level annotation - Should apply to every method")
+  void classAnnotation_ShouldApplyToAllMethods() {
+    TestRoutingDataSource routing = routing();
+    JobService service = proxy(new JobService(routing));
+
+    assertSame(jobs, service.run());
+  }
+
+  private TestRoutingDataSource routing() {
+    TestRoutingDataSource routing = new TestRoutingDataSource();
+    routing.setTargetDataSources(
+        Map.of(
+            WorkloadType.OLTP, oltp,
+            WorkloadType.REPORTING, reporting,
+            WorkloadType.BACKGROUND_JOBS, jobs));
+    routing.setDefaultTargetDataSource(oltp);
+    routing.afterPropertiesSet();
+    return routing;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T proxy(T target) {
+    AspectJProxyFactory factory = new AspectJProxyFactory(target);
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new WorkloadAspect());
+    return (T) factory.getProxy();
+  }
+
+  static class TestRoutingDataSource extends WorkloadRoutingDataSource {
+    DataSource currentTarget() {
+      return determineTargetDataSource();
+    }
+  }
+
+  static class ReportService {
+    private final TestRoutingDataSource routing;
+
+    ReportService(TestRoutingDataSource routing) {
+      this.routing = routing;
+    }
+
+    @Workload(WorkloadType.REPORTING)
+    public DataSource report() {
+      return routing.currentTarget();
+    }
+
+    public DataSource customerWrite() {
+      return routing.currentTarget();
+    }
+  }
+
+  @Workload(WorkloadType.BACKGROUND_JOBS)
+  static class JobService {
+    private final TestRoutingDataSource routing;
+
+    JobService(TestRoutingDataSource routing) {
+      this.routing = routing;
+    }
+
+    public DataSource run() {
+      return routing.currentTarget();
+    }
+  }
+}
@@ -0,0 +1,233 @@
+package com.example.loanlyFinalProject.idempotency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+// No Redis in the test profile: the replay cache is skipped and everything goes to the database
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("IdempotencyFilter Integration Tests")
+class IdempotencyFilterTest {
+
+  private static final String PATH = "/api/customer/disbursements";
+  private static final String BODY = "{\"userPlafondId\":1,\"amount\":500000,\"tenorMonth\":3}";
+
+  @Autowired private IdempotencyFilter filter;
+
+  @Autowired private IdempotencyService idempotencyService;
+
+  private final AtomicInteger executions = new AtomicInteger();
+  private String key;
+
+  // Stands in for the controller: echoes the body with a sequence number, like a created resource
+  private final FilterChain service =
+      (request, response) -> {
+        String body = StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8);
+        int n = executions.incrementAndGet();
+        try {
+          Thread.sleep(200);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        response.setContentType("application/json");
+        ((HttpServletResponse) response).setStatus(201);
+        response.getWriter().write("{\"execution\":" + n + ",\"echo\":" + body + "}");
+      };
+
+  @BeforeEach
+  void setUp() {
+    executions.set(0);
+    key = UUID.randomUUID().toString();
+  }
+
+  @Test
+  @DisplayName("Retry - Should replay the stored response without executing again")
+  void retry_ShouldReplayStoredResponse() throws Exception {
+    MockHttpServletResponse first = post(1L, key, BODY);
+    MockHttpServletResponse retry = post(1L, key, BODY);
+
+    assertEquals(1, executions.get());
+    assertEquals(201, first.getStatus());
+    assertEquals(201, retry.getStatus());
+    assertEquals(first.getContentAsString(), retry.getContentAsString());
+    assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+  }
+
+  @Test
+  @DisplayName(
+      "Concurrent duplicates - Should execute once and answer all from the stored response")
+  void concurrentDuplicates_ShouldExecuteOnce() throws Exception {
+    int threads = 6;
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      futures.add(
+          pool.submit(
+              () -> {
+                start.await();
+                return post(7L, key, BODY);
+              }));
+    }
+    start.countDown();
+
+    List<String> bodies = new ArrayList<>();
+    for (Future<MockHttpServletResponse> future : futures) {
+      MockHttpServletResponse response = future.get();
+      assertEquals(201, response.getStatus());
+      bodies.add(response.getContentAsString());
+    }
+    pool.shutdown();
+
+    assertEquals(1, executions.get());
+    assertEquals(1, bodies.stream().distinct().count());
+  }
+
+  @Test
+  @DisplayName("Key reuse - Should reject a different request body with 422")
+  void keyReuse_WithDifferentBody_ShouldBeRejected() throws Exception {
+    post(1L, key, BODY);
+
+    MockHttpServletResponse reused = post(1L, key, BODY.replace("500000", "900000"));
+
+    assertEquals(422, reused.getStatus());
+    assertEquals(1, executions.get());
+  }
+
+  @Test
+  @DisplayName("Scope - Should not share keys between users")
+  void sameKey_DifferentUsers_ShouldExecuteForEach() throws Exception {
+    post(1L, key, BODY);
+    post(2L, key, BODY);
+
+    assertEquals(2, executions.get());
+  }
+
+  @Test
+  @DisplayName("Server error - Should not store 5xx responses so the client can retry")
+  void serverError_ShouldReleaseKey() throws Exception {
+    FilterChain failing =
+        (request, response) -> {
+          executions.incrementAndGet();
+          ((HttpServletResponse) response).setStatus(500);
+        };
+    filter.doFilter(request(1L, key, BODY), new MockHttpServletResponse(), failing);
+
+    MockHttpServletResponse retry = post(1L, key, BODY);
+
+    assertEquals(2, executions.get());
+    assertEquals(201, retry.getStatus());
+  }
+
+  @Test
+  @DisplayName("Slow handler - Should keep the key past the in-flight TTL while it runs")
+  void slowHandler_ShouldRenewInFlightMarker() throws Exception {
+    ReflectionTestUtils.setField(idempotencyService, "inFlightTtlSeconds", 1L);
+    FilterChain slow =
+        (request, response) -> {
+          executions.incrementAndGet();
+          sleep(2500);
+          ((HttpServletResponse) response).setStatus(201);
+        };
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> first =
+          pool.submit(
+              () -> {
+                filter.doFilter(request(1L, key, BODY), new MockHttpServletResponse(), slow);
+                return null;
+              });
+      sleep(1500); // Past the 1 s TTL: only a renewed marker still holds the key
+
+      MockHttpServletResponse duplicate = new MockHttpServletResponse();
+      filter.doFilter(request(1L, key, BODY), duplicate, slow);
+      first.get();
+
+      assertEquals(1, executions.get());
+      assertEquals(201, duplicate.getStatus());
+      assertEquals("true", duplicate.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    } finally {
+      pool.shutdown();
+      ReflectionTestUtils.setField(idempotencyService, "inFlightTtlSeconds", 60L);
+    }
+  }
+
+  @Test
+  @DisplayName("Abandoned key - Should answer a waiting duplicate with 503 and Retry-After")
+  void abandonedKey_ShouldAnswerDuplicateRetryable() throws Exception {
+    FilterChain failing =
+        (request, response) -> {
+          executions.incrementAndGet();
+          sleep(500);
+          ((HttpServletResponse) response).setStatus(500);
+        };
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> first =
+          pool.submit(
+              () -> {
+                filter.doFilter(request(1L, key, BODY), new MockHttpServletResponse(), failing);
+                return null;
+              });
+      sleep(100);
+
+      MockHttpServletResponse duplicate = post(1L, key, BODY);
+      first.get();
+
+      assertEquals(503, duplicate.getStatus());
+      assertEquals("1", duplicate.getHeader("Retry-After"));
+      assertEquals(1, executions.get());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private MockHttpServletResponse post(Long userId, String idempotencyKey, String body)
+      throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request(userId, idempotencyKey, body), response, service);
+    return response;
+  }
+
+  private static MockHttpServletRequest request(Long userId, String idempotencyKey, String body) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+    request.addHeader(IdempotencyFilter.HEADER, idempotencyKey);
+    request.setAttribute("userId", userId);
+    request.setContentType("application/json");
+    request.setContent(body.getBytes(StandardCharsets.UTF_8));
+    return request;
+  }
+}
@@ -0,0 +1,120 @@
+package com.example.loanlyFinalProject.idempotency;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyService Unit Tests")
+class IdempotencyServiceTest {
+
+  private static final String HASH = "a".repeat(64);
+
+  @Mock private RedisIdempotencyStore redisStore;
+
+  @Mock private DatabaseIdempotencyStore databaseStore;
+
+  @InjectMocks private IdempotencyService idempotencyService;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(idempotencyService, "ttlHours", 24L);
+    ReflectionTestUtils.setField(idempotencyService, "inFlightTtlSeconds", 60L);
+    ReflectionTestUtils.setField(idempotencyService, "redisRetrySeconds", 30L);
+  }
+
+  @AfterEach
+  void tearDown() {
+    idempotencyService.shutdown();
+  }
+
+  @Test
+  @DisplayName("Begin - Should see a record completed while Redis was down")
+  void begin_WithRedisMiss_ShouldReturnDatabaseRecord() {
+    // Arrange
+    IdempotencyRecord completed = completed();
+    when(redisStore.get("1:k")).thenReturn(Optional.empty());
+    when(databaseStore.putIfAbsent(eq("1:k"), any(), any())).thenReturn(Optional.of(completed));
+
+    // Act
+    Optional<IdempotencyRecord> earlier = idempotencyService.begin(1L, "k", HASH);
+
+    // Assert
+    assertSame(completed, earlier.orElseThrow());
+  }
+
+  @Test
+  @DisplayName("Begin - Should claim in the database while Redis is down")
+  void begin_WithRedisDown_ShouldClaimInDatabase() {
+    // Arrange
+    IdempotencyRecord inFlight =
+        IdempotencyRecord.builder()
+            .status(IdempotencyRecord.Status.IN_FLIGHT)
+            .requestHash(HASH)
+            .build();
+    when(redisStore.get("1:k")).thenThrow(new RedisConnectionFailureException("down"));
+    when(databaseStore.putIfAbsent(eq("1:k"), any(), any())).thenReturn(Optional.of(inFlight));
+
+    // Act
+    Optional<IdempotencyRecord> earlier = idempotencyService.begin(1L, "k", HASH);
+    idempotencyService.begin(1L, "k", HASH);
+
+    // Assert - the marker of the running request is seen, and Redis is not retried right away
+    assertFalse(earlier.orElseThrow().isCompleted());
+    verify(redisStore, times(1)).get(anyString());
+  }
+
+  @Test
+  @DisplayName("Complete - Should store in the database, then cache in Redis")
+  void complete_ShouldStoreInDatabaseThenCache() {
+    // Arrange
+    IdempotencyRecord record = completed();
+    when(databaseStore.put(eq("1:k"), eq(record), any())).thenReturn(true);
+
+    // Act
+    boolean stored = idempotencyService.complete(1L, "k", record);
+
+    // Assert
+    assertTrue(stored);
+    verify(redisStore).put("1:k", record, Duration.ofHours(24));
+  }
+
+  @Test
+  @DisplayName("Complete - Should report, and not cache, a response the database refused")
+  void complete_WhenKeyTakenOver_ShouldReportFailure() {
+    // Arrange
+    when(databaseStore.put(eq("1:k"), any(), any())).thenReturn(false);
+
+    // Act
+    boolean stored = idempotencyService.complete(1L, "k", completed());
+
+    // Assert
+    assertFalse(stored);
+    verify(redisStore, never()).put(anyString(), any(), any());
+  }
+
+  private static IdempotencyRecord completed() {
+    return IdempotencyRecord.builder()
+        .status(IdempotencyRecord.Status.COMPLETED)
+        .requestHash(HASH)
+        .responseStatus(201)
+        .contentType("application/json")
+        .responseBody("{}".getBytes())
+        .build();
+  }
+}
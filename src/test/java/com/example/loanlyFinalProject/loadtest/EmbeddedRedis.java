@@ -0,0 +1,31 @@
+package com.example.loanlyFinalProject.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import redis.embedded.RedisServer;
+
+/** A real Redis server for a load test run: free port, no persistence. */
+final class EmbeddedRedis {
+
+  private EmbeddedRedis() {}
+
+  /** Starts the server and points {@code spring.data.redis.*} at it. */
+  static RedisServer start(DynamicPropertyRegistry registry) throws IOException {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    RedisServer redis =
+        RedisServer.newRedisServer()
+            .bind("127.0.0.1")
+            .port(port)
+            .setting("save \"\"")
+            .setting("appendonly no")
+            .build();
+    redis.start();
+    registry.add("spring.data.redis.host", () -> "127.0.0.1");
+    registry.add("spring.data.redis.port", () -> port);
+    return redis;
+  }
+}
@@ -0,0 +1,160 @@
+package com.example.loanlyFinalProject.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histograms (HdrHistogram, microseconds) and error counts per endpoint, and the check of
+ * the results against the service level objectives. Failed requests are recorded in the histogram
+ * too, so a fast error does not vanish from the percentiles.
+ */
+final class LoadReport {
+
+  private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+  private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+  private volatile long startNanos = System.nanoTime();
+  private volatile long endNanos;
+
+  void record(String endpoint, long latencyNanos, boolean ok) {
+    Endpoint e = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+    e.latency.recordValue(
+        Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+    if (!ok) {
+      e.errors.increment();
+    }
+  }
+
+  /** Drop everything recorded so far, e.g. at the end of the warm-up. */
+  void reset() {
+    endpoints.clear();
+    startNanos = System.nanoTime();
+  }
+
+  void stop() {
+    endNanos = System.nanoTime();
+  }
+
+  /** Breached objectives, one line each; empty if all were met. */
+  List<String> breaches(Properties slo) {
+    List<String> breaches = new ArrayList<>();
+    for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+      String name = entry.getKey();
+      Histogram h = entry.getValue().latency;
+      check(breaches, slo, name, "p50-ms", h.getValueAtPercentile(50) / 1000.0);
+      check(breaches, slo, name, "p99-ms", h.getValueAtPercentile(99) / 1000.0);
+      check(breaches, slo, name, "error-rate", entry.getValue().errorRate());
+    }
+    return breaches;
+  }
+
+  private static void check(
+      List<String> breaches, Properties slo, String endpoint, String metric, double actual) {
+    String limit = slo.getProperty(endpoint + "." + metric, slo.getProperty("default." + metric));
+    if (limit != null && actual > Double.parseDouble(limit)) {
+      breaches.add(String.format("%s %s: %.3f > %s", endpoint, metric, actual, limit));
+    }
+  }
+
+  /** Latency of {@code endpoint} at {@code percentile}, in milliseconds; 0 when nothing ran. */
+  double percentileMs(String endpoint, double percentile) {
+    Endpoint e = endpoints.get(endpoint);
+    return e == null ? 0 : e.latency.getValueAtPercentile(percentile) / 1000.0;
+  }
+
+  double errorRate(String endpoint) {
+    Endpoint e = endpoints.get(endpoint);
+    return e == null ? 0 : e.errorRate();
+  }
+
+  void print(PrintStream out) {
+    double seconds = elapsedSeconds();
+    out.printf(
+        "%-22s %8s %9s %8s %9s %9s %9s %9s %9s%n",
+        "endpoint",
+        "requests",
+        "req/s",
+        "errors",
+        "p50 ms",
+        "p90 ms",
+        "p99 ms",
+        "p99.9 ms",
+        "max ms");
+    for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+      Histogram h = entry.getValue().latency;
+      out.printf(
+          "%-22s %8d %9.2f %7.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+          entry.getKey(),
+          h.getTotalCount(),
+          h.getTotalCount() / seconds,
+          entry.getValue().errorRate() * 100,
+          h.getValueAtPercentile(50) / 1000.0,
+          h.getValueAtPercentile(90) / 1000.0,
+          h.getValueAtPercentile(99) / 1000.0,
+          h.getValueAtPercentile(99.9) / 1000.0,
+          h.getMaxValue() / 1000.0);
+    }
+  }
+
+  /**
+   * Write {@code summary.json} and one HdrHistogram percentile distribution ({@code .hgrm}, values
+   * in milliseconds) per endpoint to {@code directory}, for plotting or comparing runs.
+   */
+  void write(Path directory, ObjectMapper objectMapper) throws IOException {
+    Files.createDirectories(directory);
+    double seconds = elapsedSeconds();
+    ObjectNode summary = objectMapper.createObjectNode();
+    summary.put("durationSeconds", seconds);
+    ObjectNode all = summary.putObject("endpoints");
+    for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+      Histogram h = entry.getValue().latency;
+      ObjectNode node = all.putObject(entry.getKey());
+      node.put("requests", h.getTotalCount());
+      node.put("throughput", h.getTotalCount() / seconds);
+      node.put("errors", entry.getValue().errors.sum());
+      node.put("errorRate", entry.getValue().errorRate());
+      node.put("p50Ms", h.getValueAtPercentile(50) / 1000.0);
+      node.put("p90Ms", h.getValueAtPercentile(90) / 1000.0);
+      node.put("p99Ms", h.getValueAtPercentile(99) / 1000.0);
+      node.put("p999Ms", h.getValueAtPercentile(99.9) / 1000.0);
+      node.put("maxMs", h.getMaxValue() / 1000.0);
+
+      try (PrintStream hgrm =
+          new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey() + ".hgrm")))) {
+        h.outputPercentileDistribution(hgrm, 1000.0);
+      }
+    }
+    objectMapper
+        .writerWithDefaultPrettyPrinter()
+        .writeValue(directory.resolve("summary.json").toFile(), summary);
+  }
+
+  private double elapsedSeconds() {
+    long end = endNanos != 0 ? endNanos : System.nanoTime();
+    return Math.max(1e-3, (end - startNanos) / 1e9);
+  }
+
+  private static final class Endpoint {
+    final ConcurrentHistogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    final LongAdder errors = new LongAdder();
+
+    double errorRate() {
+      long count = latency.getTotalCount();
+      return count == 0 ? 0 : (double) errors.sum() / count;
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.loanlyFinalProject.loadtest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.Message;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+/**
+ * Stand-ins for the services the app calls out to during the workflow. SMTP and FCM answer after a
+ * fixed delay, as the real ones would, so the request threads that send mail and pushes are held
+ * for a realistic time. Stub-only mocks: invocations are not recorded.
+ */
+@TestConfiguration
+public class LoadTestConfig {
+
+  @Bean
+  public Deliveries deliveries() {
+    return new Deliveries();
+  }
+
+  @Bean
+  public JavaMailSender javaMailSender(
+      Deliveries deliveries, @Value("${loadtest.smtp-latency-ms:150}") long latencyMs) {
+    JavaMailSender mailSender = mock(JavaMailSender.class, withSettings().stubOnly());
+    doAnswer(
+            invocation -> {
+              Thread.sleep(latencyMs);
+              deliveries.mails.incrementAndGet();
+              return null;
+            })
+        .when(mailSender)
+        .send(any(SimpleMailMessage.class));
+    return mailSender;
+  }
+
+  @Bean
+  public FirebaseMessaging firebaseMessaging(
+      Deliveries deliveries, @Value("${loadtest.fcm-latency-ms:80}") long latencyMs)
+      throws Exception {
+    FirebaseMessaging messaging = mock(FirebaseMessaging.class, withSettings().stubOnly());
+    when(messaging.send(any(Message.class)))
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(latencyMs);
+              return "projects/loanly/messages/" + deliveries.pushes.incrementAndGet();
+            });
+    return messaging;
+  }
+
+  /** Mails and pushes the stubs have accepted. */
+  public static class Deliveries {
+    final AtomicLong mails = new AtomicLong();
+    final AtomicLong pushes = new AtomicLong();
+  }
+}
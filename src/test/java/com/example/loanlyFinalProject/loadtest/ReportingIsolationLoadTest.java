@@ -0,0 +1,392 @@
+package com.example.loanlyFinalProject.loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.DataSourcePoolProperties;
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.datasource.WorkloadContext;
+import com.example.loanlyFinalProject.datasource.WorkloadType;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.repository.PlafondHistoryRepository;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.RoleRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import com.example.loanlyFinalProject.security.CustomUserDetails;
+import com.example.loanlyFinalProject.security.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import redis.embedded.RedisServer;
+
+/**
+ * Customer writes keep their latency while staff reporting has every connection of its pool.
+ * Customers submit plafond applications over HTTP at an open, Poisson-distributed rate, first alone
+ * (baseline), then while the {@code reporting} pool is saturated: holders keep each of its
+ * connections in a long staff history read, and staff list requests queue behind them. The run
+ * fails unless the reporting pool was seen saturated and the customer p99 stayed within {@code
+ * isolation.*} of {@code loadtest/slo.properties} of the baseline.
+ *
+ * <p>The holders read on a reporting connection and keep it for {@code loadtest.isolation.hold-ms},
+ * standing in for a read the database takes that long to answer; H2 answers at once, and a
+ * CPU-bound read would measure the machine rather than the pools. Not part of the default build;
+ * run with
+ *
+ * <pre>
+ * mvn -Pload-test test -Dtest=ReportingIsolationLoadTest -Dloadtest.arrival-rate=5
+ * </pre>
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:isolationtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+      "logging.level.com.example.loanlyFinalProject=WARN",
+      // The staff history screens load customer profiles one by one; only their pool use matters
+      "app.query-stats.fail-on-repeated-selects=false"
+    })
+@ActiveProfiles("test")
+@Import({TestConfig.class, LoadTestConfig.class})
+@Tag("load-test")
+@DisplayName("Reporting isolation load test")
+class ReportingIsolationLoadTest {
+
+  private static final String REPORTING_POOL = "loanly-reporting";
+  private static final String OLTP_POOL = "loanly-oltp";
+
+  private static RedisServer redis;
+
+  @DynamicPropertySource
+  static void redisProperties(DynamicPropertyRegistry registry) throws IOException {
+    redis = EmbeddedRedis.start(registry);
+  }
+
+  @AfterAll
+  static void stopRedis() throws IOException {
+    if (redis != null) {
+      redis.stop();
+    }
+  }
+
+  @LocalServerPort private int port;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private RoleRepository roleRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private PlafondHistoryRepository plafondHistoryRepository;
+
+  @Autowired private JwtService jwtService;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Autowired private DataSourcePoolProperties poolProperties;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Value("${loadtest.arrival-rate:5}")
+  private double arrivalRate; // Customers per second
+
+  @Value("${loadtest.warmup-seconds:15}")
+  private long warmupSeconds;
+
+  @Value("${loadtest.duration-seconds:30}")
+  private long durationSeconds;
+
+  @Value("${loadtest.isolation.hold-ms:2000}")
+  private long holdMs;
+
+  private final HttpClient client =
+      HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  private final LoadReport report = new LoadReport();
+  private final String runId = Long.toString(System.currentTimeMillis() % 100_000_000, 36);
+  private final AtomicLong applications = new AtomicLong();
+  private volatile boolean reportingLoad;
+
+  @Test
+  @DisplayName("Customer writes with the reporting pool saturated - p99 should stay flat")
+  void customerWritesWithReportingSaturated() throws Exception {
+    int reportingConnections = poolProperties.pool(WorkloadType.REPORTING).getMaximumPoolSize();
+    long plafondId =
+        plafondRepository.findAll().stream()
+            .min(Comparator.comparing(Plafond::getMaxAmount))
+            .orElseThrow()
+            .getId();
+    int perPhase = (int) Math.ceil(arrivalRate * Math.max(warmupSeconds, durationSeconds) * 1.5);
+    Iterator<String> customers = customerTokens(3 * perPhase + 50).iterator();
+    String staff = token(user("admin", "SUPER_ADMIN"));
+
+    System.out.printf(
+        "%nReporting isolation load test: %.1f customers/s for %d s per phase, %d reporting"
+            + " connections held %d ms per read%n",
+        arrivalRate, durationSeconds, reportingConnections, holdMs);
+
+    customerPhase("warmup", warmupSeconds, customers, plafondId);
+    report.reset();
+    customerPhase("apply-baseline", durationSeconds, customers, plafondId);
+
+    reportingLoad = true;
+    List<Thread> load = new ArrayList<>();
+    for (int i = 0; i < reportingConnections; i++) {
+      load.add(daemon("reporting-holder-" + i, this::holdReportingConnections));
+      load.add(daemon("staff-reader-" + i, () -> readStaffLists(staff)));
+    }
+    PoolSample reporting = new PoolSample(REPORTING_POOL);
+    PoolSample oltp = new PoolSample(OLTP_POOL);
+    Thread sampler =
+        daemon(
+            "pool-sampler",
+            () -> {
+              while (reportingLoad) {
+                reporting.sample();
+                oltp.sample();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+              }
+            });
+    // Let the holders take every connection before customers arrive
+    Thread.sleep(Math.min(holdMs, 1000));
+    customerPhase("apply-saturated", durationSeconds, customers, plafondId);
+    reportingLoad = false;
+    sampler.join();
+    for (Thread thread : load) {
+      thread.join(holdMs + 20_000);
+    }
+    report.stop();
+
+    System.out.println();
+    report.print(System.out);
+    System.out.printf(
+        "reporting pool: max %d active of %d, max %d waiting; oltp pool: max %d waiting%n",
+        reporting.maxActive.get(),
+        reportingConnections,
+        reporting.maxPending.get(),
+        oltp.maxPending.get());
+    report.write(Paths.get("target", "load-test", "reporting-isolation"), objectMapper);
+
+    Properties slo = new Properties();
+    try (InputStream in = getClass().getResourceAsStream("/loadtest/slo.properties")) {
+      slo.load(in);
+    }
+    assertEquals(
+        reportingConnections, reporting.maxActive.get(), "Reporting pool was never saturated");
+    assertTrue(reporting.maxPending.get() > 0, "No staff read waited for a reporting connection");
+    assertEquals(0, report.errorRate("apply-saturated"), "Customer writes failed");
+
+    double baseline = report.percentileMs("apply-baseline", 99);
+    double saturated = report.percentileMs("apply-saturated", 99);
+    double limit =
+        baseline * Double.parseDouble(slo.getProperty("isolation.max-p99-ratio"))
+            + Double.parseDouble(slo.getProperty("isolation.p99-slack-ms"));
+    assertTrue(
+        saturated <= limit,
+        String.format(
+            "Customer p99 %.1f ms with reporting saturated, %.1f ms without (limit %.1f ms)",
+            saturated, baseline, limit));
+  }
+
+  // ========== Customers ==========
+
+  /** Open model, as in the workflow load test: arrivals follow the schedule. */
+  private void customerPhase(
+      String endpoint, long seconds, Iterator<String> customers, long plafondId)
+      throws InterruptedException {
+    ExecutorService executor = Executors.newCachedThreadPool();
+    Random random = new Random(endpoint.hashCode());
+    long next = System.nanoTime();
+    long end = next + TimeUnit.SECONDS.toNanos(seconds);
+    while (next < end && customers.hasNext()) {
+      long now = System.nanoTime();
+      if (now < next) {
+        LockSupport.parkNanos(next - now);
+        continue;
+      }
+      String token = customers.next();
+      executor.execute(() -> apply(endpoint, token, plafondId));
+      next += (long) (-Math.log(1 - random.nextDouble()) / arrivalRate * 1e9);
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS), endpoint + " did not drain");
+  }
+
+  private void apply(String endpoint, String token, long plafondId) {
+    Map<String, Object> application = new LinkedHashMap<>();
+    application.put("plafondId", plafondId);
+    application.put("nik", String.format("3171%012d", applications.incrementAndGet()));
+    application.put("birthPlace", "Jakarta");
+    application.put("birthDate", "1990-05-17");
+    application.put("maritalStatus", "MARRIED");
+    application.put("occupation", "Karyawan Swasta");
+    application.put("monthlyIncome", 8_500_000);
+    application.put("phone", "081234567890");
+    application.put("bankName", "BCA");
+    application.put("accountNumber", "1234567890");
+    try {
+      send(
+          endpoint,
+          request("/api/customer/plafonds/apply", token)
+              .header("Content-Type", "application/json")
+              .header("Idempotency-Key", UUID.randomUUID().toString())
+              .POST(
+                  HttpRequest.BodyPublishers.ofByteArray(
+                      objectMapper.writeValueAsBytes(application))));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      // Recorded as an error by send
+    }
+  }
+
+  /** Customers are created directly, with a token each, so BCrypt stays out of the setup. */
+  private List<String> customerTokens(int count) {
+    List<String> tokens = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      tokens.add(token(user("c" + i, "CUSTOMER")));
+    }
+    return tokens;
+  }
+
+  // ========== Staff reporting ==========
+
+  /** Keep a reporting connection in a staff history read for {@code hold-ms}, over and over. */
+  private void holdReportingConnections() {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    transaction.setReadOnly(true);
+    while (reportingLoad) {
+      WorkloadType previous = WorkloadContext.enter(WorkloadType.REPORTING);
+      try {
+        transaction.executeWithoutResult(
+            status -> {
+              plafondHistoryRepository.findAll();
+              LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(holdMs));
+            });
+      } catch (RuntimeException e) {
+        // Connection timeout while staff readers hold the pool; try again
+      } finally {
+        WorkloadContext.restore(previous);
+      }
+    }
+  }
+
+  /** Staff list and history screens, which wait for the connections the holders keep. */
+  private void readStaffLists(String token) {
+    List<String> paths = List.of("/api/disbursements", "/api/admin/plafond-histories");
+    for (int i = 0; reportingLoad; i++) {
+      try {
+        send("staff-read", request(paths.get(i % paths.size()), token).GET());
+      } catch (InterruptedException e) {
+        return;
+      } catch (IOException e) {
+        // Recorded as an error by send
+      }
+    }
+  }
+
+  /** Highest usage of a pool seen by the sampler, from the HikariCP gauges. */
+  private class PoolSample {
+    final AtomicLong maxActive = new AtomicLong();
+    final AtomicLong maxPending = new AtomicLong();
+    private final Gauge active;
+    private final Gauge pending;
+
+    PoolSample(String pool) {
+      active = meterRegistry.get("hikaricp.connections.active").tag("pool", pool).gauge();
+      pending = meterRegistry.get("hikaricp.connections.pending").tag("pool", pool).gauge();
+    }
+
+    void sample() {
+      maxActive.accumulateAndGet((long) active.value(), Math::max);
+      maxPending.accumulateAndGet((long) pending.value(), Math::max);
+    }
+  }
+
+  // ========== HTTP ==========
+
+  private void send(String endpoint, HttpRequest.Builder request)
+      throws IOException, InterruptedException {
+    long start = System.nanoTime();
+    HttpResponse<String> response;
+    try {
+      response =
+          client.send(
+              request.timeout(Duration.ofSeconds(60)).build(),
+              HttpResponse.BodyHandlers.ofString());
+    } catch (IOException e) {
+      report.record(endpoint, System.nanoTime() - start, false);
+      throw e;
+    }
+    boolean ok = response.statusCode() < 400;
+    report.record(endpoint, System.nanoTime() - start, ok);
+    if (!ok) {
+      throw new IOException(
+          endpoint + " returned " + response.statusCode() + " " + response.body());
+    }
+  }
+
+  private HttpRequest.Builder request(String path, String token) {
+    return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+        .header("Authorization", "Bearer " + token);
+  }
+
+  private User user(String name, String roleName) {
+    String username = "ri" + runId + name;
+    User user =
+        User.builder()
+            .username(username)
+            .email(username + "@loadtest.local")
+            .password("unused")
+            .fullName("Isolation " + name)
+            .build();
+    user.getRoles().add(roleRepository.findByName(roleName).orElseThrow());
+    return userRepository.save(user);
+  }
+
+  private String token(User user) {
+    return jwtService.generateToken(new CustomUserDetails(user));
+  }
+
+  private static Thread daemon(String name, Runnable task) {
+    Thread thread = new Thread(task, "load-test-" + name);
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+}
@@ -0,0 +1,539 @@
+package com.example.loanlyFinalProject.loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.entity.Role;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.repository.RoleRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import redis.embedded.RedisServer;
+
+/**
+ * Drives the credit workflow end to end over HTTP against the app on H2, with a real Redis server
+ * (embedded) and stubbed SMTP and FCM. Customers arrive at an open, Poisson-distributed rate,
+ * independent of how fast the app answers, and each one registers, logs in, applies for the
+ * smallest plafond, uploads two documents, polls its notifications until the application is
+ * approved, requests a disbursement and polls until it is paid out. Marketing, branch manager and
+ * back office staff are a fixed population working their queues: claim, then review, approve or
+ * process each item.
+ *
+ * <p>Prints throughput, latency percentiles and error rate per endpoint, writes them with the
+ * HdrHistogram distributions to {@code target/load-test}, and fails when an endpoint misses its
+ * objective in {@code loadtest/slo.properties}. Not part of the default build; run with
+ *
+ * <pre>
+ * mvn -Pload-test test -Dloadtest.arrival-rate=4 -Dloadtest.duration-seconds=120
+ * </pre>
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+      "file.upload-dir=target/load-test/uploads",
+      "logging.level.com.example.loanlyFinalProject=WARN"
+    })
+@ActiveProfiles("test")
+@Import({TestConfig.class, LoadTestConfig.class})
+@Tag("load-test")
+@DisplayName("Workflow load test")
+class WorkflowLoadTest {
+
+  private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+  private static final String STAFF_PASSWORD = "LoadTest@123";
+  private static final String CUSTOMER_PASSWORD = "Customer@123";
+
+  private static RedisServer redis;
+
+  @DynamicPropertySource
+  static void redisProperties(DynamicPropertyRegistry registry) throws IOException {
+    redis = EmbeddedRedis.start(registry);
+  }
+
+  @AfterAll
+  static void stopRedis() throws IOException {
+    if (redis != null) {
+      redis.stop();
+    }
+  }
+
+  @LocalServerPort private int port;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private RoleRepository roleRepository;
+
+  @Autowired private PasswordEncoder passwordEncoder;
+
+  @Autowired private LoadTestConfig.Deliveries deliveries;
+
+  @Value("${loadtest.arrival-rate:1}")
+  private double arrivalRate; // Customers per second
+
+  @Value("${loadtest.warmup-seconds:15}")
+  private long warmupSeconds;
+
+  @Value("${loadtest.duration-seconds:60}")
+  private long durationSeconds;
+
+  @Value("${loadtest.drain-seconds:120}")
+  private long drainSeconds;
+
+  @Value("${loadtest.staff-per-role:2}")
+  private int staffPerRole;
+
+  @Value("${loadtest.staff-think-ms:100}")
+  private long staffThinkMs;
+
+  @Value("${loadtest.poll-interval-ms:1000}")
+  private long pollIntervalMs;
+
+  @Value("${loadtest.step-timeout-seconds:90}")
+  private long stepTimeoutSeconds;
+
+  @Value("${loadtest.document-kb:200}")
+  private int documentKb;
+
+  private final HttpClient client =
+      HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  private final LoadReport report = new LoadReport();
+  private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+  private final String runId = Long.toString(System.currentTimeMillis() % 100_000_000, 36);
+  private volatile boolean staffWorking = true;
+  private byte[] document;
+
+  @Test
+  @DisplayName("Mixed workflow traffic at an open arrival rate - should meet the SLOs")
+  void workflowUnderLoad() throws Exception {
+    document = scan(documentKb);
+    List<Thread> staff = startStaff();
+    ExecutorService customers = Executors.newCachedThreadPool();
+    AtomicInteger arrivals = new AtomicInteger();
+
+    System.out.printf(
+        "%nWorkflow load test: %.1f customers/s for %d s after %d s warm-up, %d staff per role%n",
+        arrivalRate, durationSeconds, warmupSeconds, staffPerRole);
+
+    // Open model: arrivals follow the schedule whatever the response times; a late tick submits
+    // the customers it owes at once instead of slowing the rate down
+    Random random = new Random(42);
+    long start = System.nanoTime();
+    long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+    long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+    long next = start;
+    boolean measuring = false;
+    while (next < end) {
+      long now = System.nanoTime();
+      if (!measuring && now >= measureFrom) {
+        report.reset();
+        measuring = true;
+      }
+      if (now < next) {
+        LockSupport.parkNanos(next - now);
+        continue;
+      }
+      int customer = arrivals.incrementAndGet();
+      customers.execute(() -> customerJourney(customer));
+      next += (long) (-Math.log(1 - random.nextDouble()) / arrivalRate * 1e9);
+    }
+
+    customers.shutdown();
+    boolean drained = customers.awaitTermination(drainSeconds, TimeUnit.SECONDS);
+    customers.shutdownNow();
+    staffWorking = false;
+    for (Thread thread : staff) {
+      thread.join(TimeUnit.SECONDS.toMillis(30));
+    }
+    report.stop();
+
+    System.out.println();
+    report.print(System.out);
+    System.out.printf(
+        "%d customers arrived; %d mails and %d pushes sent through the stubs%n",
+        arrivals.get(), deliveries.mails.get(), deliveries.pushes.get());
+    failures.stream().limit(10).forEach(f -> System.out.println("  failure: " + f));
+    report.write(Paths.get("target", "load-test"), objectMapper);
+
+    assertTrue(drained, "Customers still in flight " + drainSeconds + " s after the last arrival");
+    Properties slo = new Properties();
+    try (InputStream in = getClass().getResourceAsStream("/loadtest/slo.properties")) {
+      slo.load(in);
+    }
+    List<String> breaches = report.breaches(slo);
+    assertTrue(breaches.isEmpty(), "SLOs missed:\n  " + String.join("\n  ", breaches));
+  }
+
+  // ========== Customers ==========
+
+  private void customerJourney(int n) {
+    long start = System.nanoTime();
+    boolean completed = false;
+    try {
+      String username = "lt" + runId + "c" + n;
+      send(
+          "register",
+          post(
+              "/api/auth/register",
+              null,
+              Map.of(
+                  "username",
+                  username,
+                  "email",
+                  username + "@loadtest.local",
+                  "password",
+                  CUSTOMER_PASSWORD,
+                  "fullName",
+                  "Load Test Customer " + n,
+                  "phone",
+                  String.format("08%010d", n))));
+      String token = login(username, CUSTOMER_PASSWORD, "fcm-" + username);
+
+      long plafondId = smallestPlafond(send("plafonds", get("/api/public/plafonds", null)));
+      long applicationId =
+          send(
+                  "apply",
+                  post("/api/customer/plafonds/apply", token, application(plafondId, n))
+                      .header(IDEMPOTENCY_KEY, UUID.randomUUID().toString()))
+              .path("id")
+              .asLong();
+      for (String documentType : List.of("KTP", "SLIP_GAJI")) {
+        send("upload", upload(applicationId, token, documentType));
+      }
+      awaitNotification(token, "LOAN_APPROVED", applicationId);
+
+      Map<String, Object> disbursement = new LinkedHashMap<>();
+      disbursement.put("userPlafondId", applicationId);
+      disbursement.put("amount", 1_000_000);
+      disbursement.put("tenorMonth", 3);
+      long disbursementId =
+          send(
+                  "disburse",
+                  post("/api/customer/disbursements", token, disbursement)
+                      .header(IDEMPOTENCY_KEY, UUID.randomUUID().toString()))
+              .path("id")
+              .asLong();
+      awaitNotification(token, "LOAN_DISBURSED", disbursementId);
+      completed = true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      failures.add("customer " + n + " interrupted");
+    } catch (Exception e) {
+      failures.add("customer " + n + ": " + e.getMessage());
+    } finally {
+      report.record("workflow", System.nanoTime() - start, completed);
+    }
+  }
+
+  /** Poll the unread notifications, as the app does, until one of the type arrives. */
+  private void awaitNotification(String token, String type, long referenceId) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(stepTimeoutSeconds);
+    while (true) {
+      for (JsonNode notification : send("notifications", get("/api/notifications/unread", token))) {
+        if (notification.path("referenceId").asLong() != referenceId) {
+          continue;
+        }
+        String received = notification.path("type").asText();
+        if (received.equals(type)) {
+          return;
+        }
+        if (received.equals("LOAN_REJECTED")) {
+          throw new IllegalStateException("Application " + referenceId + " was rejected");
+        }
+      }
+      if (System.nanoTime() > deadline) {
+        throw new TimeoutException("No " + type + " for " + referenceId + " in time");
+      }
+      Thread.sleep(pollIntervalMs);
+    }
+  }
+
+  private static long smallestPlafond(JsonNode plafonds) {
+    JsonNode smallest = null;
+    for (JsonNode plafond : plafonds) {
+      if (smallest == null
+          || plafond
+                  .path("maxAmount")
+                  .decimalValue()
+                  .compareTo(smallest.path("maxAmount").decimalValue())
+              < 0) {
+        smallest = plafond;
+      }
+    }
+    assertNotNull(smallest, "No plafonds to apply for");
+    return smallest.path("id").asLong();
+  }
+
+  private static Map<String, Object> application(long plafondId, int n) {
+    Map<String, Object> application = new LinkedHashMap<>();
+    application.put("plafondId", plafondId);
+    application.put("nik", String.format("3171%012d", n));
+    application.put("birthPlace", "Jakarta");
+    application.put("birthDate", "1990-05-17");
+    application.put("maritalStatus", "MARRIED");
+    application.put("occupation", "Karyawan Swasta");
+    application.put("monthlyIncome", 8_500_000);
+    application.put("phone", String.format("08%010d", n));
+    application.put("bankName", "BCA");
+    application.put("accountNumber", String.format("%010d", n));
+    return application;
+  }
+
+  // ========== Staff ==========
+
+  private List<Thread> startStaff() throws Exception {
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 1; i <= staffPerRole; i++) {
+      String marketing = login(staffUser("MARKETING", i), STAFF_PASSWORD, null);
+      threads.add(
+          staffThread(
+              "marketing-" + i,
+              "review-claim",
+              "/api/marketing/plafond-applications/claim?limit=5",
+              marketing,
+              item ->
+                  send(
+                      "review",
+                      post(
+                          "/api/marketing/plafond-applications/review",
+                          marketing,
+                          Map.of(
+                              "applicationId",
+                              item.path("id").asLong(),
+                              "approved",
+                              true,
+                              "note",
+                              "Documents complete")))));
+
+      String branchManager = login(staffUser("BRANCH_MANAGER", i), STAFF_PASSWORD, null);
+      threads.add(
+          staffThread(
+              "branch-manager-" + i,
+              "approve-claim",
+              "/api/branch-manager/plafond-applications/claim?limit=5",
+              branchManager,
+              item ->
+                  send(
+                      "approve",
+                      post(
+                          "/api/branch-manager/plafond-applications/approve",
+                          branchManager,
+                          Map.of(
+                              "applicationId",
+                              item.path("id").asLong(),
+                              "approved",
+                              true,
+                              "approvedLimit",
+                              item.path("plafond").path("maxAmount").decimalValue(),
+                              "note",
+                              "Approved")))));
+
+      String backOffice = login(staffUser("BACK_OFFICE", i), STAFF_PASSWORD, null);
+      threads.add(
+          staffThread(
+              "back-office-" + i,
+              "process-claim",
+              "/api/back-office/disbursements/claim?limit=5",
+              backOffice,
+              item ->
+                  send(
+                      "process",
+                      post(
+                          "/api/back-office/disbursements/" + item.path("id").asLong() + "/process",
+                          backOffice,
+                          null))));
+    }
+    return threads;
+  }
+
+  /** Claim a batch, work through it, and wait a poll interval when the queue is empty. */
+  private Thread staffThread(
+      String name, String claimEndpoint, String claimPath, String token, StaffAction action) {
+    Thread thread =
+        new Thread(
+            () -> {
+              while (staffWorking) {
+                try {
+                  JsonNode items = send(claimEndpoint, post(claimPath, token, null)).path("items");
+                  if (items.isEmpty()) {
+                    Thread.sleep(pollIntervalMs);
+                    continue;
+                  }
+                  for (JsonNode item : items) {
+                    Thread.sleep(staffThinkMs);
+                    action.perform(item);
+                  }
+                } catch (InterruptedException e) {
+                  return;
+                } catch (Exception e) {
+                  failures.add(name + ": " + e.getMessage());
+                  LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pollIntervalMs));
+                }
+              }
+            },
+            "load-test-" + name);
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+
+  private String staffUser(String roleName, int index) {
+    Role role = roleRepository.findByName(roleName).orElseThrow();
+    String username = "lt" + runId + roleName.toLowerCase().replace("_", "") + index;
+    User user =
+        User.builder()
+            .username(username)
+            .email(username + "@loadtest.local")
+            .password(passwordEncoder.encode(STAFF_PASSWORD))
+            .fullName("Load Test " + roleName + " " + index)
+            .build();
+    user.getRoles().add(role);
+    userRepository.save(user);
+    return username;
+  }
+
+  @FunctionalInterface
+  private interface StaffAction {
+    void perform(JsonNode item) throws Exception;
+  }
+
+  // ========== HTTP ==========
+
+  private String login(String username, String password, String fcmToken) throws Exception {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("usernameOrEmail", username);
+    body.put("password", password);
+    if (fcmToken != null) {
+      body.put("fcmToken", fcmToken);
+    }
+    return send("login", post("/api/auth/login", null, body)).path("accessToken").asText();
+  }
+
+  /** Send, record the latency under {@code endpoint}, and return the response's {@code data}. */
+  private JsonNode send(String endpoint, HttpRequest.Builder request)
+      throws IOException, InterruptedException {
+    long start = System.nanoTime();
+    HttpResponse<String> response;
+    try {
+      response =
+          client.send(
+              request.timeout(Duration.ofSeconds(60)).build(),
+              HttpResponse.BodyHandlers.ofString());
+    } catch (IOException e) {
+      report.record(endpoint, System.nanoTime() - start, false);
+      throw e;
+    }
+    boolean ok = response.statusCode() < 400;
+    report.record(endpoint, System.nanoTime() - start, ok);
+    if (!ok) {
+      throw new IOException(
+          endpoint + " returned " + response.statusCode() + " " + response.body());
+    }
+    return objectMapper.readTree(response.body()).path("data");
+  }
+
+  private HttpRequest.Builder get(String path, String token) {
+    return request(path, token).GET();
+  }
+
+  private HttpRequest.Builder post(String path, String token, Object body) throws IOException {
+    if (body == null) {
+      return request(path, token).POST(HttpRequest.BodyPublishers.noBody());
+    }
+    return request(path, token)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+  }
+
+  private HttpRequest.Builder upload(long applicationId, String token, String documentType)
+      throws IOException {
+    String boundary = "loadtest-" + UUID.randomUUID();
+    ByteArrayOutputStream body = new ByteArrayOutputStream(document.length + 512);
+    body.write(
+        ("--"
+                + boundary
+                + "\r\nContent-Disposition: form-data; name=\"documentType\"\r\n\r\n"
+                + documentType
+                + "\r\n--"
+                + boundary
+                + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\""
+                + documentType.toLowerCase()
+                + ".png\"\r\nContent-Type: image/png\r\n\r\n")
+            .getBytes(StandardCharsets.US_ASCII));
+    body.write(document);
+    // Trailing bytes after IEND make every upload a distinct blob, as real scans are
+    body.write(UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII));
+    body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+    return request("/api/customer/plafonds/applications/" + applicationId + "/documents", token)
+        .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+        .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+  }
+
+  private HttpRequest.Builder request(String path, String token) {
+    HttpRequest.Builder request =
+        HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+    if (token != null) {
+      request.header("Authorization", "Bearer " + token);
+    }
+    return request;
+  }
+
+  /** A noisy PNG of roughly {@code kb} kilobytes, standing in for a photographed document. */
+  private static byte[] scan(int kb) throws IOException {
+    int side = (int) Math.sqrt(kb * 1024 / 3.0);
+    BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int y = 0; y < side; y++) {
+      for (int x = 0; x < side; x++) {
+        image.setRGB(x, y, random.nextInt(0x1000000));
+      }
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, "png", out);
+    return out.toByteArray();
+  }
+}
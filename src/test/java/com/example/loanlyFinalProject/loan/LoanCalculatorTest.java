@@ -0,0 +1,151 @@
+package com.example.loanlyFinalProject.loan;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.dto.request.DisbursementRequest;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("LoanCalculator Unit Tests")
+class LoanCalculatorTest {
+
+  private static final List<String> AMOUNTS =
+      List.of("1", "0.01", "999.99", "500000", "1234567.89", "7777777.77", "150000000", "1e12");
+  private static final List<String> RATES = List.of("0", "0.01", "1.25", "1.99", "2.50", "12.75");
+
+  @Test
+  @DisplayName("Flat interest - Should equal the BigDecimal formula used for disbursements")
+  void flatInterest_ShouldMatchBigDecimalFormula() {
+    for (String amountText : AMOUNTS) {
+      BigDecimal amount = new BigDecimal(amountText).setScale(2);
+      for (String rateText : RATES) {
+        BigDecimal rate = new BigDecimal(rateText);
+        for (int tenor : DisbursementRequest.VALID_TENORS) {
+          BigDecimal expected =
+              amount
+                  .multiply(rate.divide(new BigDecimal("100"), 10, RoundingMode.HALF_UP))
+                  .multiply(new BigDecimal(tenor))
+                  .setScale(2, RoundingMode.HALF_UP);
+
+          long interest =
+              LoanCalculator.flatInterest(
+                  LoanCalculator.toMinorUnits(amount), LoanCalculator.toBasisPoints(rate), tenor);
+
+          assertEquals(expected, LoanCalculator.fromMinorUnits(interest), amount + "@" + rate);
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Flat schedule - Should split principal and interest exactly, remainder last")
+  void flatSchedule_ShouldSumExactly() {
+    InstallmentSchedule schedule =
+        LoanCalculator.flat(1_000_001L, 250L, 3, new InstallmentSchedule());
+
+    assertEquals(75_000L, LoanCalculator.flatInterest(1_000_001L, 250L, 3));
+    assertEquals(333_333L, schedule.principalPart(0));
+    assertEquals(333_335L, schedule.principalPart(2));
+    assertEquals(25_000L, schedule.interestPart(0));
+    assertEquals(358_333L, schedule.payment(0));
+    assertEquals(0L, schedule.balanceAfter(2));
+    assertEquals(75_000L, schedule.totalInterest());
+    assertEquals(1_075_001L, schedule.totalPayment());
+  }
+
+  @Test
+  @DisplayName("Annuity schedule - Should match the BigDecimal annuity formula and amortize fully")
+  void annuitySchedule_ShouldMatchReference() {
+    InstallmentSchedule schedule = new InstallmentSchedule();
+    for (String amountText : AMOUNTS) {
+      BigDecimal amount = new BigDecimal(amountText).setScale(2);
+      long principal = LoanCalculator.toMinorUnits(amount);
+      for (String rateText : RATES) {
+        long rateBp = LoanCalculator.toBasisPoints(new BigDecimal(rateText));
+        for (int tenor : DisbursementRequest.VALID_TENORS) {
+          LoanCalculator.annuity(principal, rateBp, tenor, schedule);
+
+          if (rateBp > 0) {
+            assertEquals(
+                referenceLevelPayment(principal, rateBp, tenor),
+                schedule.payment(0),
+                amount + "@" + rateText + "x" + tenor);
+          }
+          long principalSum = 0;
+          long balance = principal;
+          for (int i = 0; i < tenor; i++) {
+            assertEquals(
+                BigDecimal.valueOf(balance)
+                    .multiply(BigDecimal.valueOf(rateBp))
+                    .divide(BigDecimal.valueOf(10_000), 0, RoundingMode.HALF_UP)
+                    .longValueExact(),
+                schedule.interestPart(i));
+            balance -= schedule.principalPart(i);
+            assertEquals(balance, schedule.balanceAfter(i));
+            principalSum += schedule.principalPart(i);
+          }
+          assertEquals(principal, principalSum);
+          assertEquals(0L, schedule.balanceAfter(tenor - 1));
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Level payment - Should agree with exact integer arithmetic")
+  void levelPayment_ShouldAgreeWithExactArithmetic() {
+    Random random = new Random(30);
+    for (int i = 0; i < 20_000; i++) {
+      long principal = 1 + (long) (random.nextDouble() * Math.pow(10, 1 + random.nextInt(14)));
+      long rateBp = 1 + random.nextInt(2_000);
+      int tenor = 1 + random.nextInt(360);
+
+      assertEquals(
+          LoanCalculator.exactLevelPayment(principal, rateBp, tenor),
+          LoanCalculator.levelPayment(principal, rateBp, tenor),
+          principal + "@" + rateBp + "x" + tenor);
+    }
+  }
+
+  @Test
+  @DisplayName("Reused schedule - Should hold the latest loan and grow only when needed")
+  void schedule_ShouldBeReusable() {
+    InstallmentSchedule schedule = new InstallmentSchedule(3);
+
+    LoanCalculator.schedule(InterestType.FLAT, 600_00L, 100L, 24, schedule);
+    LoanCalculator.schedule(InterestType.ANNUITY, 300_00L, 0L, 3, schedule);
+
+    assertEquals(InterestType.ANNUITY, schedule.getInterestType());
+    assertEquals(3, schedule.getTenor());
+    assertEquals(100_00L, schedule.payment(0));
+    assertEquals(0L, schedule.totalInterest());
+  }
+
+  @Test
+  @DisplayName("Conversions - Should reject amounts and rates beyond two decimals")
+  void conversions_ShouldBeExact() {
+    assertEquals(123_456L, LoanCalculator.toMinorUnits(new BigDecimal("1234.56")));
+    assertEquals(250L, LoanCalculator.toBasisPoints(new BigDecimal("2.5")));
+    assertThrows(
+        IllegalArgumentException.class, () -> LoanCalculator.toMinorUnits(new BigDecimal("1.005")));
+    assertThrows(IllegalArgumentException.class, () -> LoanCalculator.flatInterest(0L, 100L, 12));
+  }
+
+  /** P·r·(1+r)^n / ((1+r)^n − 1) in 34-digit decimal arithmetic, rounded half-up. */
+  private static long referenceLevelPayment(long principal, long rateBp, int tenor) {
+    MathContext mc = MathContext.DECIMAL128;
+    BigDecimal rate = BigDecimal.valueOf(rateBp).divide(BigDecimal.valueOf(10_000), mc);
+    BigDecimal growth = BigDecimal.ONE.add(rate).pow(tenor, mc);
+    return BigDecimal.valueOf(principal)
+        .multiply(rate, mc)
+        .multiply(growth, mc)
+        .divide(growth.subtract(BigDecimal.ONE), mc)
+        .setScale(0, RoundingMode.HALF_UP)
+        .longValueExact();
+  }
+}
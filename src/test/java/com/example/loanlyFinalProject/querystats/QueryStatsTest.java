@@ -0,0 +1,111 @@
+package com.example.loanlyFinalProject.querystats;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Every statement counts as slow here, and N+1 requests fail as in the test mode. */
+@SpringBootTest(
+    properties = {
+      "app.query-stats.slow-query-ms=0",
+      "app.query-stats.fail-on-repeated-selects=true"
+    })
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("QueryStats Integration Tests")
+class QueryStatsTest {
+
+  @Autowired private QueryCountingFilter queryCountingFilter;
+
+  @Autowired private QueriesEndpoint queriesEndpoint;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Autowired private UserRepository userRepository;
+
+  @BeforeEach
+  void setUp() {
+    queriesEndpoint.reset();
+  }
+
+  @Test
+  @DisplayName("Repeated select - Should flag the request and fail it in test mode")
+  void repeatedSelect_ShouldFlagAndFail() {
+    double before = flaggedCount("repeated_select");
+
+    RepeatedSelectException e = assertThrows(RepeatedSelectException.class, () -> request(12));
+    assertTrue(e.getMessage().contains("GET /api/test"), e.getMessage());
+
+    List<QueryStats.FlaggedRequest> flagged = queriesEndpoint.report().flaggedRequests();
+    assertEquals(1, flagged.size());
+    assertTrue(flagged.get(0).reasons().contains(QueryStats.Reason.REPEATED_SELECT));
+    assertEquals(12, flagged.get(0).repetitions());
+    assertTrue(flagged.get(0).repeatedSelect().startsWith("select"));
+    assertEquals(before + 1, flaggedCount("repeated_select"));
+  }
+
+  @Test
+  @DisplayName("Within limits - Should not flag the request")
+  void withinLimits_ShouldNotFlag() throws Exception {
+    request(2);
+
+    assertTrue(queriesEndpoint.report().flaggedRequests().isEmpty());
+  }
+
+  @Test
+  @DisplayName("Slow queries - Should group executions by shape with their call site")
+  void slowQueries_ShouldGroupByShapeWithCallSite() {
+    userRepository.findByUsername("nobody-1");
+    userRepository.findByUsername("nobody-2");
+
+    QueryStats.SlowQuery query =
+        queriesEndpoint.report().slowQueries().stream()
+            .filter(q -> q.query().contains("username=?"))
+            .findFirst()
+            .orElseThrow();
+    assertEquals(2, query.slowExecutions());
+    assertTrue(
+        query.callSites().stream().anyMatch(site -> site.startsWith("QueryStatsTest.slowQueries_")),
+        query.callSites().toString());
+    assertTrue(queriesEndpoint.report().hibernate().enabled());
+  }
+
+  @Test
+  @DisplayName("Shapes - Should replace literals and IN lists")
+  void shapes_ShouldReplaceLiteralsAndInLists() {
+    assertEquals(
+        "select u1_0.id from users u1_0 where u1_0.name = ? and u1_0.age > ? and u1_0.id in (?...)",
+        SqlShapes.normalize(
+            "SELECT u1_0.id FROM users u1_0\n WHERE u1_0.name = 'O''Brien' AND u1_0.age > 42"
+                + " AND u1_0.id IN (?, ?,?)"));
+  }
+
+  /** A request that looks up {@code lookups} users one by one. */
+  private void request(int lookups) throws Exception {
+    queryCountingFilter.doFilter(
+        new MockHttpServletRequest("GET", "/api/test"),
+        new MockHttpServletResponse(),
+        (request, response) -> {
+          for (long id = 1; id <= lookups; id++) {
+            userRepository.findById(-id);
+          }
+        });
+  }
+
+  private double flaggedCount(String reason) {
+    var counter = meterRegistry.find(QueryStats.FLAGGED_REQUESTS).tag("reason", reason).counter();
+    return counter != null ? counter.count() : 0;
+  }
+}
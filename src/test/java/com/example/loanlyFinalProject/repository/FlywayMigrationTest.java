@@ -0,0 +1,64 @@
+package com.example.loanlyFinalProject.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import java.util.Arrays;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MSSQLServerContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs the SQL Server migrations against an empty database, then starts the application with {@code
+ * ddl-auto=validate}: a context that comes up means every entity matches the migrated schema. The
+ * H2 tests build their schema from the entities and never see these scripts. Needs Docker; without
+ * it the class is skipped.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Flyway Migration Tests")
+class FlywayMigrationTest {
+
+  @Container
+  static final MSSQLServerContainer<?> sqlServer =
+      new MSSQLServerContainer<>("mcr.microsoft.com/mssql/server:2022-latest").acceptLicense();
+
+  @Autowired private Flyway flyway;
+
+  @DynamicPropertySource
+  static void sqlServerProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", sqlServer::getJdbcUrl);
+    registry.add("spring.datasource.username", sqlServer::getUsername);
+    registry.add("spring.datasource.password", sqlServer::getPassword);
+    registry.add("spring.datasource.driverClassName", sqlServer::getDriverClassName);
+    registry.add("spring.flyway.enabled", () -> "true");
+    registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.SQLServerDialect");
+  }
+
+  @Test
+  @DisplayName("Migrate - Should apply every migration and validate the entities")
+  void migrate_ShouldApplyAllAndValidate() {
+    MigrationInfo[] applied = flyway.info().applied();
+
+    assertTrue(applied.length > 0, "no migration applied");
+    assertEquals(0, flyway.info().pending().length, "pending migrations left");
+    assertTrue(
+        Arrays.stream(applied).allMatch(m -> m.getState() == MigrationState.SUCCESS),
+        () -> "failed migrations: " + Arrays.toString(applied));
+    assertDoesNotThrow(() -> flyway.validate());
+  }
+}
@@ -0,0 +1,218 @@
+package com.example.loanlyFinalProject.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.datasource.StatementListener;
+import com.example.loanlyFinalProject.entity.Disbursement;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.querystats.QueryStats;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Calls each hot repository query, captures the SQL it actually runs (through the data source's
+ * {@link StatementListener}), and fails when H2's EXPLAIN of any of those statements reads a large
+ * table with a full table scan. A changed {@code @Query} or derived query is checked as it now is;
+ * the H2 schema comes from the entity {@code @Index} declarations.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("Repository Query Plan Checks")
+class RepositoryQueryPlanTest {
+
+  /** Tables expected to grow with the customer base; small lookup tables are exempt. */
+  private static final List<String> LARGE_TABLES =
+      List.of(
+          "USER_PLAFONDS",
+          "DISBURSEMENTS",
+          "PLAFOND_HISTORIES",
+          "NOTIFICATIONS",
+          "PLAFOND_DOCUMENTS",
+          "TENOR_RATES");
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private StatementCapture statementCapture;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  @Autowired private DisbursementRepository disbursementRepository;
+
+  @Autowired private PlafondHistoryRepository plafondHistoryRepository;
+
+  @Autowired private NotificationRepository notificationRepository;
+
+  @Autowired private TenorRateRepository tenorRateRepository;
+
+  @Autowired private PlafondDocumentRepository plafondDocumentRepository;
+
+  static Stream<Arguments> hotQueries() {
+    return Stream.of(
+        query(
+            "UserPlafondRepository.findApprovedByUserId",
+            t -> t.userPlafondRepository.findApprovedByUserId(1L)),
+        query(
+            "UserPlafondRepository.hasPendingApplication",
+            t -> t.userPlafondRepository.hasPendingApplication(1L)),
+        query(
+            "UserPlafondRepository.existsActiveByUserIdAndPlafondId",
+            t -> t.userPlafondRepository.existsActiveByUserIdAndPlafondId(1L, 1L)),
+        query(
+            "UserPlafondRepository.findAllPendingReview",
+            t -> t.userPlafondRepository.findAllPendingReview()),
+        query(
+            "UserPlafondRepository.findAllWaitingApproval",
+            t -> t.userPlafondRepository.findAllWaitingApproval()),
+        query(
+            "UserPlafondRepository.findAllApproved",
+            t -> t.userPlafondRepository.findAllApproved()),
+        query(
+            "UserPlafondRepository.findActiveWithRemainingLimit",
+            t -> t.userPlafondRepository.findActiveWithRemainingLimit(1L)),
+        query(
+            "UserPlafondRepository.findHighestApprovedPlafond",
+            t -> t.userPlafondRepository.findHighestApprovedPlafond(1L)),
+        query(
+            "UserPlafondRepository.countByStatus",
+            t ->
+                t.userPlafondRepository.countByStatus(
+                    UserPlafond.PlafondApplicationStatus.PENDING_REVIEW)),
+        query(
+            "UserPlafondRepository.findUsedAmountChunk",
+            t -> t.userPlafondRepository.findUsedAmountChunk(1L, 1000L, PageRequest.of(0, 1000))),
+        query(
+            "DisbursementRepository.sumActiveAmountByLineBetween",
+            t -> t.disbursementRepository.sumActiveAmountByLineBetween(1L, 1000L)),
+        query(
+            "DisbursementRepository.findAllPending",
+            t -> t.disbursementRepository.findAllPending()),
+        query(
+            "DisbursementRepository.countByStatus",
+            t -> t.disbursementRepository.countByStatus(Disbursement.DisbursementStatus.PENDING)),
+        query(
+            "DisbursementRepository.findByUserPlafondIdOrderByRequestedAtDesc",
+            t -> t.disbursementRepository.findByUserPlafondIdOrderByRequestedAtDesc(1L)),
+        query(
+            "DisbursementRepository.findByUserId", t -> t.disbursementRepository.findByUserId(1L)),
+        query(
+            "PlafondHistoryRepository.findMarketingReviewByApplicationId",
+            t -> t.plafondHistoryRepository.findMarketingReviewByApplicationId(1L)),
+        query(
+            "PlafondHistoryRepository.findByUserPlafondIdOrderByCreatedAtDesc",
+            t -> t.plafondHistoryRepository.findByUserPlafondIdOrderByCreatedAtDesc(1L)),
+        query(
+            "NotificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc",
+            t -> t.notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(1L)),
+        query(
+            "NotificationRepository.countByUserIdAndIsReadFalse",
+            t -> t.notificationRepository.countByUserIdAndIsReadFalse(1L)),
+        query(
+            "NotificationRepository.findByUserIdOrderByCreatedAtDesc",
+            t -> t.notificationRepository.findByUserIdOrderByCreatedAtDesc(1L)),
+        query(
+            "TenorRateRepository.findActiveByPlafondIdAndTenorMonth",
+            t -> t.tenorRateRepository.findActiveByPlafondIdAndTenorMonth(1L, 12)),
+        query(
+            "PlafondDocumentRepository.findByUserPlafondId",
+            t -> t.plafondDocumentRepository.findByUserPlafondId(1L)),
+        // Plain JDBC in the collector, so the statement is its own text
+        query(
+            "OrphanedFileCollector.unreferenced",
+            t ->
+                t.jdbcTemplate.queryForList(
+                    "SELECT file_url FROM plafond_documents WHERE file_url IN (?, ?)",
+                    String.class,
+                    "/uploads/plafonds/1/a.jpg",
+                    "/uploads/plafonds/1/b.jpg")));
+  }
+
+  private static Arguments query(String name, Consumer<RepositoryQueryPlanTest> call) {
+    return Arguments.of(name, call);
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("hotQueries")
+  @DisplayName("Hot query - Should not full-scan large tables")
+  void hotQuery_ShouldUseIndex(String repositoryMethod, Consumer<RepositoryQueryPlanTest> call) {
+    List<String> statements = statementCapture.capture(() -> call.accept(this));
+
+    assertFalse(statements.isEmpty(), repositoryMethod + " ran no statement");
+    for (String sql : statements) {
+      String plan = explain(sql);
+      for (String table : LARGE_TABLES) {
+        assertFalse(
+            plan.toUpperCase(Locale.ROOT).contains("PUBLIC." + table + ".TABLESCAN"),
+            () -> repositoryMethod + " scans " + table + ":\n" + plan);
+      }
+    }
+  }
+
+  /** EXPLAIN as a prepared statement, so the captured parameter markers stay unbound. */
+  private String explain(String sql) {
+    return jdbcTemplate.query(
+        connection -> connection.prepareStatement("EXPLAIN " + sql),
+        rs -> {
+          rs.next();
+          return rs.getString(1);
+        });
+  }
+
+  /** Records the SQL run on the calling thread, then hands it on to the query statistics. */
+  static class StatementCapture implements StatementListener {
+
+    private final StatementListener delegate;
+    private final ThreadLocal<List<String>> captured = new ThreadLocal<>();
+
+    StatementCapture(StatementListener delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void executed(String sql, long elapsedNanos) {
+      List<String> statements = captured.get();
+      if (statements != null && sql != null) {
+        statements.add(sql);
+      }
+      delegate.executed(sql, elapsedNanos);
+    }
+
+    List<String> capture(Runnable call) {
+      List<String> statements = new ArrayList<>();
+      captured.set(statements);
+      try {
+        call.run();
+      } finally {
+        captured.remove();
+      }
+      return statements;
+    }
+  }
+
+  @TestConfiguration
+  static class CaptureConfig {
+
+    @Bean
+    @Primary
+    StatementCapture statementCapture(QueryStats queryStats) {
+      return new StatementCapture(queryStats);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.example.loanlyFinalProject.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("HashedTimingWheel Unit Tests")
+class HashedTimingWheelTest {
+
+  private static final long START = 1_000_000L;
+
+  private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, START);
+  private final List<String> fired = new ArrayList<>();
+
+  @Test
+  @DisplayName("Advance - Should fire a task at the end of its deadline tick, never early")
+  void advanceTo_ShouldFireAtEndOfDeadlineTick() {
+    wheel.schedule("a", START + 250);
+
+    assertEquals(0, wheel.advanceTo(START + 299, fired::add));
+    assertEquals(1, wheel.advanceTo(START + 300, fired::add));
+    assertEquals(List.of("a"), fired);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  @DisplayName("Advance - Should fire past deadlines on the next tick")
+  void advanceTo_ShouldFirePastDeadlinesOnNextTick() {
+    wheel.advanceTo(START + 500, fired::add);
+    wheel.schedule("late", START - 10_000);
+
+    assertEquals(1, wheel.advanceTo(START + 600, fired::add));
+    assertEquals(List.of("late"), fired);
+  }
+
+  @Test
+  @DisplayName("Advance - Should wait full revolutions for deadlines beyond one wheel")
+  void advanceTo_ShouldWaitForRemainingRounds() {
+    // 8 ticks of 100 ms per revolution; 2_050 ms is two revolutions and a half out
+    wheel.schedule("far", START + 2_050);
+    wheel.schedule("near", START + 50);
+
+    wheel.advanceTo(START + 2_000, fired::add);
+    assertEquals(List.of("near"), fired);
+    wheel.advanceTo(START + 2_100, fired::add);
+    assertEquals(List.of("near", "far"), fired);
+  }
+
+  @Test
+  @DisplayName("Advance - Should hand over tasks in deadline tick order")
+  void advanceTo_ShouldFireInTickOrder() {
+    wheel.schedule("c", START + 750);
+    wheel.schedule("a", START + 120);
+    wheel.schedule("b", START + 480);
+
+    assertEquals(3, wheel.advanceTo(START + 10_000, fired::add));
+    assertEquals(List.of("a", "b", "c"), fired);
+  }
+
+  @Test
+  @DisplayName("Cancel - Should remove a pending task and refuse a second cancel")
+  void cancel_ShouldRemovePendingTask() {
+    HashedTimingWheel.Timeout<String> first = wheel.schedule("first", START + 150);
+    HashedTimingWheel.Timeout<String> second = wheel.schedule("second", START + 150);
+    wheel.schedule("third", START + 150);
+
+    assertTrue(second.cancel());
+    assertFalse(second.cancel());
+    assertEquals(2, wheel.size());
+
+    wheel.advanceTo(START + 200, fired::add);
+    assertFalse(first.cancel());
+    assertEquals(2, fired.size());
+    assertFalse(fired.contains("second"));
+  }
+}
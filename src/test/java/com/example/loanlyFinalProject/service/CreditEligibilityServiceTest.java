@@ -28,6 +28,8 @@ class CreditEligibilityServiceTest {
 
   @Mock private PlafondRepository plafondRepository;
 
+  @Mock private WorkflowMetrics workflowMetrics;
+
   @InjectMocks private CreditEligibilityService creditEligibilityService;
 
   private Plafond plusPlafond;
@@ -0,0 +1,207 @@
+package com.example.loanlyFinalProject.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.loanlyFinalProject.dto.response.CreditBalanceResponse;
+import com.example.loanlyFinalProject.entity.CreditLedgerCheckpoint;
+import com.example.loanlyFinalProject.entity.CreditLedgerEntry;
+import com.example.loanlyFinalProject.entity.Disbursement;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.repository.CreditLedgerCheckpointRepository;
+import com.example.loanlyFinalProject.repository.CreditLedgerEntryRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CreditLedgerService Unit Tests")
+class CreditLedgerServiceTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+  @Mock private CreditLedgerEntryRepository entryRepository;
+
+  @Mock private CreditLedgerCheckpointRepository checkpointRepository;
+
+  @Mock private UserPlafondRepository userPlafondRepository;
+
+  private CreditLedgerService creditLedgerService;
+
+  private UserPlafond creditLine;
+
+  @BeforeEach
+  void setUp() {
+    creditLedgerService =
+        new CreditLedgerService(
+            entryRepository,
+            checkpointRepository,
+            userPlafondRepository,
+            Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    creditLine =
+        UserPlafond.builder()
+            .id(7L)
+            .status(UserPlafond.PlafondApplicationStatus.APPROVED)
+            .approvedLimit(new BigDecimal("10000000"))
+            .usedAmount(new BigDecimal("2000000"))
+            .build();
+  }
+
+  @Test
+  @DisplayName("Reserve - Should append RESERVE entry and refresh snapshot")
+  void reserve_ShouldAppendEntry_WhenLimitAvailable() {
+    // Arrange
+    when(userPlafondRepository.reserveCredit(7L, new BigDecimal("500000"))).thenReturn(1);
+    when(userPlafondRepository.findUsedAmountById(7L)).thenReturn(new BigDecimal("2500000"));
+
+    // Act
+    BigDecimal usedAfter = creditLedgerService.reserve(creditLine, new BigDecimal("500000"), 99L);
+
+    // Assert
+    ArgumentCaptor<CreditLedgerEntry> captor = ArgumentCaptor.forClass(CreditLedgerEntry.class);
+    verify(entryRepository).save(captor.capture());
+    assertEquals(CreditLedgerEntry.EntryType.RESERVE, captor.getValue().getEntryType());
+    assertEquals(new BigDecimal("500000"), captor.getValue().getAmount());
+    assertEquals(99L, captor.getValue().getDisbursementId());
+    assertEquals(new BigDecimal("2500000"), usedAfter);
+    assertEquals(new BigDecimal("2500000"), creditLine.getUsedAmount());
+  }
+
+  @Test
+  @DisplayName("Reserve - Should throw and write nothing when limit is used up concurrently")
+  void reserve_ShouldThrow_WhenConditionalUpdateMisses() {
+    // Arrange
+    when(userPlafondRepository.reserveCredit(7L, new BigDecimal("9000000"))).thenReturn(0);
+    when(userPlafondRepository.findAvailableLimitById(7L)).thenReturn(new BigDecimal("500000"));
+
+    // Act & Assert
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> creditLedgerService.reserve(creditLine, new BigDecimal("9000000"), 99L));
+    // The row as it is now, not the 8000000 of the entity loaded before the UPDATE
+    assertEquals("Insufficient credit limit. Available: 500000", e.getMessage());
+    verify(entryRepository, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("Reserve - Should refuse to commit a ledger write open longer than the bound")
+  void reserve_ShouldFailCommit_WhenWriterOutlivesBound() {
+    // Arrange
+    ReflectionTestUtils.setField(creditLedgerService, "maxWriterSeconds", 0L);
+    when(userPlafondRepository.reserveCredit(7L, new BigDecimal("500000"))).thenReturn(1);
+    when(userPlafondRepository.findUsedAmountById(7L)).thenReturn(new BigDecimal("2500000"));
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      // Act
+      creditLedgerService.reserve(creditLine, new BigDecimal("500000"), 99L);
+
+      // Assert
+      List<TransactionSynchronization> synchronizations =
+          TransactionSynchronizationManager.getSynchronizations();
+      assertEquals(1, synchronizations.size());
+      assertThrows(IllegalStateException.class, () -> synchronizations.get(0).beforeCommit(false));
+      synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  @DisplayName("Disbursed - Should not bound the transaction, however long a bulk run takes")
+  void recordDisbursed_ShouldNotBoundWriter() {
+    // Arrange
+    Disbursement disbursement =
+        Disbursement.builder()
+            .id(99L)
+            .userPlafond(creditLine)
+            .amount(new BigDecimal("500000"))
+            .build();
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      // Act
+      creditLedgerService.recordDisbursed(List.of(disbursement));
+
+      // Assert
+      assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+      verify(entryRepository).saveAll(anyList());
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  @DisplayName("Replay - Should add entries after the latest checkpoint")
+  void replayBalance_ShouldStartFromCheckpoint() {
+    // Arrange
+    LocalDateTime checkpointAt = LocalDateTime.of(2026, 1, 1, 0, 0);
+    LocalDateTime asOf = LocalDateTime.of(2026, 1, 15, 0, 0);
+    when(userPlafondRepository.findById(7L)).thenReturn(Optional.of(creditLine));
+    when(checkpointRepository.findFirstByUserPlafondIdAndAsOfLessThanEqualOrderByAsOfDesc(7L, asOf))
+        .thenReturn(
+            Optional.of(
+                CreditLedgerCheckpoint.builder()
+                    .asOf(checkpointAt)
+                    .usedAmount(new BigDecimal("1000000"))
+                    .build()));
+    when(entryRepository.sumAmountBetween(7L, checkpointAt, asOf))
+        .thenReturn(new BigDecimal("750000"));
+    when(entryRepository.countBetween(7L, checkpointAt, asOf)).thenReturn(3L);
+
+    // Act
+    CreditBalanceResponse result = creditLedgerService.replayBalance(7L, asOf);
+
+    // Assert
+    assertEquals(new BigDecimal("1750000"), result.getUsedAmount());
+    assertEquals(3L, result.getEntriesReplayed());
+    assertEquals(new BigDecimal("2000000"), result.getCurrentUsedAmount());
+  }
+
+  @Test
+  @DisplayName("Checkpoint - Should add window delta to the previous checkpoint")
+  @SuppressWarnings("unchecked")
+  void checkpoint_ShouldAccumulateOnPreviousCheckpoint() {
+    // Arrange
+    when(checkpointRepository.findLatestAsOf()).thenReturn(Optional.of(NOW.minusHours(1)));
+    when(entryRepository.sumAmountByLineBetween(any(), any()))
+        .thenReturn(List.<Object[]>of(new Object[] {7L, new BigDecimal("-250000")}));
+    when(checkpointRepository.findLatestByUserPlafondIds(List.of(7L)))
+        .thenReturn(
+            List.of(
+                CreditLedgerCheckpoint.builder()
+                    .userPlafond(creditLine)
+                    .usedAmount(new BigDecimal("1000000"))
+                    .build()));
+    when(userPlafondRepository.getReferenceById(7L)).thenReturn(creditLine);
+
+    // Act
+    int written = creditLedgerService.checkpoint();
+
+    // Assert
+    ArgumentCaptor<List<CreditLedgerCheckpoint>> captor = ArgumentCaptor.forClass(List.class);
+    verify(checkpointRepository).saveAll(captor.capture());
+    assertEquals(1, written);
+    assertEquals(new BigDecimal("750000"), captor.getValue().get(0).getUsedAmount());
+    verify(entryRepository).sumAmountByLineBetween(NOW.minusHours(1), NOW);
+    verify(checkpointRepository, times(1)).findLatestByUserPlafondIds(anyList());
+    verifyNoMoreInteractions(entryRepository);
+    verify(userPlafondRepository, never()).adjustUsedAmount(eq(7L), any());
+  }
+}
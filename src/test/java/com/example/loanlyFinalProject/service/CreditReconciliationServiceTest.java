@@ -0,0 +1,178 @@
+package com.example.loanlyFinalProject.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.dto.response.ReconciliationReportResponse;
+import com.example.loanlyFinalProject.entity.Disbursement;
+import com.example.loanlyFinalProject.entity.JobCheckpoint;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.repository.CreditLedgerEntryRepository;
+import com.example.loanlyFinalProject.repository.DisbursementRepository;
+import com.example.loanlyFinalProject.repository.JobCheckpointRepository;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Runs the reconciliation against H2 with a tiny chunk size so keyset paging is exercised. */
+@SpringBootTest(
+    properties = {"app.credit-reconciliation.chunk-size=2", "app.credit-reconciliation.workers=3"})
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("CreditReconciliationService Integration Tests")
+class CreditReconciliationServiceTest {
+
+  @Autowired private CreditReconciliationService reconciliationService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  @Autowired private DisbursementRepository disbursementRepository;
+
+  @Autowired private CreditLedgerEntryRepository entryRepository;
+
+  @Autowired private JobCheckpointRepository jobCheckpointRepository;
+
+  private UserPlafond balanced;
+  private UserPlafond overstated;
+  private UserPlafond unused;
+  private UserPlafond understated;
+
+  @BeforeEach
+  void setUp() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    User user =
+        userRepository.save(
+            User.builder()
+                .username("recon-" + suffix)
+                .email("recon-" + suffix + "@test.com")
+                .password("secret")
+                .build());
+    Plafond plafond =
+        plafondRepository.save(
+            Plafond.builder()
+                .name("Recon " + suffix)
+                .maxAmount(new BigDecimal("10000000"))
+                .build());
+
+    balanced = line(user, plafond, "1000000");
+    disburse(balanced, "1000000", Disbursement.DisbursementStatus.PENDING);
+
+    // Cancelled disbursement was never released
+    overstated = line(user, plafond, "500000");
+    disburse(overstated, "300000", Disbursement.DisbursementStatus.DISBURSED);
+    disburse(overstated, "200000", Disbursement.DisbursementStatus.CANCELLED);
+
+    unused = line(user, plafond, "0");
+
+    // Reservation was lost
+    understated = line(user, plafond, "0");
+    disburse(understated, "400000", Disbursement.DisbursementStatus.PENDING);
+  }
+
+  @Test
+  @DisplayName("Report only - Should flag lines whose used amount differs from disbursements")
+  void run_ShouldReportMismatches() {
+    ReconciliationReportResponse report = reconciliationService.run(false);
+
+    assertEquals("COMPLETED", report.getStatus());
+    assertTrue(report.getLinesChecked() >= 4);
+    Set<Long> flagged = flaggedIds(report);
+    assertTrue(flagged.contains(overstated.getId()));
+    assertTrue(flagged.contains(understated.getId()));
+    assertFalse(flagged.contains(balanced.getId()));
+    assertFalse(flagged.contains(unused.getId()));
+    assertEquals(
+        new BigDecimal("500000.00"), userPlafondRepository.findUsedAmountById(overstated.getId()));
+    assertTrue(
+        jobCheckpointRepository.findPartitions(CreditReconciliationService.JOB_NAME).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Auto-correct - Should move used amount through ADJUST ledger entries")
+  void run_ShouldCorrectMismatches_WhenAutoCorrectEnabled() {
+    ReconciliationReportResponse report = reconciliationService.run(true);
+
+    assertTrue(report.getCorrectedCount() >= 2);
+    assertEquals(0, new BigDecimal("300000").compareTo(usedAmount(overstated)));
+    assertEquals(0, new BigDecimal("400000").compareTo(usedAmount(understated)));
+    assertEquals(
+        1, entryRepository.findByUserPlafondIdOrderByCreatedAtAscIdAsc(overstated.getId()).size());
+
+    ReconciliationReportResponse rerun = reconciliationService.run(false);
+    assertFalse(flaggedIds(rerun).contains(overstated.getId()));
+    assertFalse(flaggedIds(rerun).contains(understated.getId()));
+  }
+
+  @Test
+  @DisplayName("Resume - Should continue from partition checkpoints of an interrupted run")
+  void run_ShouldResumeFromCheckpoint() {
+    jobCheckpointRepository.save(
+        JobCheckpoint.builder()
+            .jobName(CreditReconciliationService.JOB_NAME + "/0")
+            .lastProcessedId(unused.getId())
+            .rangeEnd(understated.getId())
+            .processedCount(42L)
+            .build());
+
+    ReconciliationReportResponse report = reconciliationService.run(false);
+
+    assertTrue(report.isResumed());
+    assertEquals(43, report.getLinesChecked());
+    assertEquals(Set.of(understated.getId()), flaggedIds(report));
+    assertTrue(
+        jobCheckpointRepository.findPartitions(CreditReconciliationService.JOB_NAME).isEmpty());
+  }
+
+  private UserPlafond line(User user, Plafond plafond, String usedAmount) {
+    return userPlafondRepository.save(
+        UserPlafond.builder()
+            .user(user)
+            .plafond(plafond)
+            .status(UserPlafond.PlafondApplicationStatus.APPROVED)
+            .approvedLimit(new BigDecimal("10000000"))
+            .usedAmount(new BigDecimal(usedAmount))
+            .build());
+  }
+
+  private void disburse(UserPlafond line, String amount, Disbursement.DisbursementStatus status) {
+    disbursementRepository.save(
+        Disbursement.builder()
+            .userPlafond(line)
+            .amount(new BigDecimal(amount))
+            .interestRate(new BigDecimal("2.00"))
+            .tenorMonth(12)
+            .interestAmount(BigDecimal.ZERO)
+            .totalAmount(new BigDecimal(amount))
+            .status(status)
+            .build());
+  }
+
+  private BigDecimal usedAmount(UserPlafond line) {
+    return userPlafondRepository.findUsedAmountById(line.getId());
+  }
+
+  private static Set<Long> flaggedIds(ReconciliationReportResponse report) {
+    List<ReconciliationReportResponse.Mismatch> samples = report.getSamples();
+    return samples.stream()
+        .map(ReconciliationReportResponse.Mismatch::getUserPlafondId)
+        .collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,227 @@
+package com.example.loanlyFinalProject.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.dto.request.DirectUploadRequest;
+import com.example.loanlyFinalProject.dto.response.DirectUploadResponse;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.PlafondDocument;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.exception.InvalidTokenException;
+import com.example.loanlyFinalProject.exception.StateConflictException;
+import com.example.loanlyFinalProject.exception.UnsupportedDocumentTypeException;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import com.example.loanlyFinalProject.storage.ContentAddressedStore;
+import com.example.loanlyFinalProject.storage.FakeS3Server;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.UUID;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/** Uploads straight to an S3-compatible bucket, here an in-memory stand-in. */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("Direct upload Integration Tests")
+class DirectUploadTest {
+
+  private static final FakeS3Server S3 = start();
+
+  @DynamicPropertySource
+  static void s3Store(DynamicPropertyRegistry registry) {
+    registry.add("app.document.store.type", () -> "s3");
+    registry.add("app.document.store.s3.endpoint", () -> S3.endpoint().toString());
+    registry.add("app.document.store.s3.region", () -> "us-east-1");
+    registry.add("app.document.store.s3.bucket", () -> FakeS3Server.BUCKET);
+    registry.add("app.document.store.s3.access-key", () -> "test");
+    registry.add("app.document.store.s3.secret-key", () -> "test-secret");
+  }
+
+  @Autowired private StorageService storageService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private Long customerId;
+  private Long applicationId;
+
+  @BeforeEach
+  void setUp() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    User customer =
+        userRepository.save(
+            User.builder()
+                .username("dup-" + suffix)
+                .email("dup-" + suffix + "@test.com")
+                .password("secret")
+                .build());
+    Plafond plafond =
+        plafondRepository.save(
+            Plafond.builder()
+                .name("Direct " + suffix)
+                .maxAmount(new BigDecimal("5000000"))
+                .build());
+    customerId = customer.getId();
+    applicationId =
+        userPlafondRepository
+            .save(
+                UserPlafond.builder()
+                    .user(customer)
+                    .plafond(plafond)
+                    .status(UserPlafond.PlafondApplicationStatus.PENDING_REVIEW)
+                    .build())
+            .getId();
+  }
+
+  @Test
+  @DisplayName("Direct upload - Should store the bucket object as a blob and share duplicates")
+  void directUpload_ShouldStoreBlobAndDeduplicate() throws Exception {
+    byte[] content = png();
+
+    PlafondDocument first = upload(content);
+    PlafondDocument second = upload(content);
+
+    String key = first.getFileUrl().substring("/uploads/".length());
+    assertTrue(first.getFileUrl().startsWith(ContentAddressedStore.urlPrefix()));
+    assertEquals(first.getFileUrl(), second.getFileUrl());
+    assertEquals(sha256(content), first.getContentSha256());
+    assertEquals("image/png", first.getContentType());
+    assertArrayEquals(content, S3.object(key));
+    assertEquals(
+        2,
+        jdbcTemplate.queryForObject(
+            "SELECT ref_count FROM document_blobs WHERE sha256 = ?",
+            Integer.class,
+            first.getContentSha256()));
+
+    // Downloads go to the bucket as well
+    URI download = storageService.directDownloadUrl(key).orElseThrow();
+    HttpResponse<byte[]> response =
+        HttpClient.newHttpClient()
+            .send(
+                HttpRequest.newBuilder(download).build(), HttpResponse.BodyHandlers.ofByteArray());
+    assertArrayEquals(content, response.body());
+  }
+
+  @Test
+  @DisplayName("Complete - Should accept a ticket once, and only from its owner")
+  void complete_ShouldCheckTicket() throws Exception {
+    byte[] content = png();
+    DirectUploadResponse upload =
+        storageService.startDirectUpload(customerId, applicationId, request(content, "image/png"));
+    assertEquals(200, send(upload, content));
+
+    assertThrows(
+        InvalidTokenException.class,
+        () ->
+            storageService.completeDirectUpload(customerId + 1, applicationId, upload.getTicket()));
+    assertThrows(
+        InvalidTokenException.class,
+        () ->
+            storageService.completeDirectUpload(
+                customerId, applicationId, upload.getTicket().replace('.', 'x')));
+
+    storageService.completeDirectUpload(customerId, applicationId, upload.getTicket());
+    assertThrows(
+        StateConflictException.class,
+        () -> storageService.completeDirectUpload(customerId, applicationId, upload.getTicket()));
+  }
+
+  @Test
+  @DisplayName("Complete - Should reject content that is not of the declared type")
+  void complete_WrongType_ShouldReject() throws Exception {
+    byte[] content = "%PDF-1.7 not an image".getBytes(StandardCharsets.US_ASCII);
+    DirectUploadResponse upload =
+        storageService.startDirectUpload(customerId, applicationId, request(content, "image/png"));
+    assertEquals(200, send(upload, content));
+
+    assertThrows(
+        UnsupportedDocumentTypeException.class,
+        () -> storageService.completeDirectUpload(customerId, applicationId, upload.getTicket()));
+    assertThrows(
+        StateConflictException.class,
+        () -> storageService.completeDirectUpload(customerId, applicationId, upload.getTicket()));
+  }
+
+  private PlafondDocument upload(byte[] content) throws Exception {
+    DirectUploadResponse upload =
+        storageService.startDirectUpload(customerId, applicationId, request(content, "image/png"));
+    assertEquals(200, send(upload, content));
+    return storageService.completeDirectUpload(customerId, applicationId, upload.getTicket());
+  }
+
+  private static DirectUploadRequest request(byte[] content, String contentType) throws Exception {
+    return DirectUploadRequest.builder()
+        .documentType(PlafondDocument.DocumentType.KTP)
+        .fileName("ktp.png")
+        .contentType(contentType)
+        .sizeBytes((long) content.length)
+        .sha256(sha256(content))
+        .build();
+  }
+
+  private static int send(DirectUploadResponse upload, byte[] body) throws Exception {
+    HttpRequest.Builder request =
+        HttpRequest.newBuilder(URI.create(upload.getUploadUrl()))
+            .method(upload.getMethod(), HttpRequest.BodyPublishers.ofByteArray(body));
+    upload.getHeaders().forEach(request::header);
+    return HttpClient.newHttpClient()
+        .send(request.build(), HttpResponse.BodyHandlers.discarding())
+        .statusCode();
+  }
+
+  private static String sha256(byte[] content) throws Exception {
+    return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+  }
+
+  // Unique content per call
+  private static byte[] png() throws IOException {
+    BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    g.setColor(new Color(new Random().nextInt()));
+    g.fillRect(0, 0, 32, 24);
+    g.dispose();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, "png", out);
+    return out.toByteArray();
+  }
+
+  private static FakeS3Server start() {
+    try {
+      return new FakeS3Server();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
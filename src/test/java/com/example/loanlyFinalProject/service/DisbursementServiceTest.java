@@ -0,0 +1,252 @@
+package com.example.loanlyFinalProject.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.dto.response.BulkDisbursementResult;
+import com.example.loanlyFinalProject.entity.CreditLedgerEntry;
+import com.example.loanlyFinalProject.entity.Disbursement;
+import com.example.loanlyFinalProject.entity.Notification;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.exception.ResourceNotFoundException;
+import com.example.loanlyFinalProject.repository.CreditLedgerEntryRepository;
+import com.example.loanlyFinalProject.repository.DisbursementRepository;
+import com.example.loanlyFinalProject.repository.InstallmentRepository;
+import com.example.loanlyFinalProject.repository.NotificationRepository;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {"app.disbursement.bulk.lock-chunk-size=2"})
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("DisbursementService Integration Tests")
+class DisbursementServiceTest {
+
+  @Autowired private DisbursementService disbursementService;
+
+  @Autowired private BankTransferFileWriter bankTransferFileWriter;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  @Autowired private DisbursementRepository disbursementRepository;
+
+  @Autowired private InstallmentRepository installmentRepository;
+
+  @Autowired private CreditLedgerEntryRepository entryRepository;
+
+  @Autowired private NotificationRepository notificationRepository;
+
+  private User backOffice;
+  private User customer;
+  private Disbursement bri;
+  private Disbursement bca1;
+  private Disbursement bca2;
+  private Disbursement noAccount;
+  private Disbursement cancelled;
+
+  @BeforeEach
+  void setUp() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    backOffice = user("bo-" + suffix, null);
+    customer = user("bulk-" + suffix, "Budi, Santoso");
+    Plafond plafond =
+        plafondRepository.save(
+            Plafond.builder().name("Bulk " + suffix).maxAmount(new BigDecimal("10000000")).build());
+
+    UserPlafond briLine = line(plafond, "BRI", "0021");
+    UserPlafond bcaLine = line(plafond, "BCA", "7788");
+    UserPlafond noAccountLine = line(plafond, null, null);
+
+    bri = pending(briLine, "1000000", 3);
+    bca1 = pending(bcaLine, "250000.50", 6);
+    bca2 = pending(bcaLine, "300000", 1);
+    noAccount = pending(noAccountLine, "100000", 3);
+    cancelled = disbursement(bcaLine, "100000", 3, Disbursement.DisbursementStatus.CANCELLED);
+  }
+
+  @Test
+  @DisplayName("Bulk process - Should disburse PENDING loans with bank accounts, grouped by bank")
+  void processDisbursements_ShouldDisburseAndGroupByBank() throws Exception {
+    List<Long> ids =
+        List.of(
+            bri.getId(),
+            bca2.getId(),
+            bca1.getId(),
+            noAccount.getId(),
+            cancelled.getId(),
+            bri.getId(),
+            Long.MAX_VALUE);
+
+    BulkDisbursementResult result =
+        disbursementService.processDisbursements(backOffice.getId(), ids, "Batch 1");
+
+    assertEquals(3, result.getProcessedCount());
+    assertEquals(0, new BigDecimal("1550000.50").compareTo(result.getTotalAmount()));
+    assertEquals(
+        List.of(noAccount.getId(), cancelled.getId(), Long.MAX_VALUE), result.getSkippedIds());
+    assertEquals(
+        List.of(bca1.getId(), bca2.getId(), bri.getId()),
+        result.getTransfers().stream()
+            .map(BulkDisbursementResult.BankTransfer::getDisbursementId)
+            .toList());
+
+    Disbursement processed = disbursementRepository.findById(bca1.getId()).orElseThrow();
+    assertEquals(Disbursement.DisbursementStatus.DISBURSED, processed.getStatus());
+    assertNotNull(processed.getDisbursedAt());
+    assertEquals("Batch 1", processed.getNote());
+    assertEquals(
+        Disbursement.DisbursementStatus.PENDING,
+        disbursementRepository.findById(noAccount.getId()).orElseThrow().getStatus());
+    assertEquals(
+        6,
+        installmentRepository.findByDisbursementIdOrderByInstallmentNumberAsc(bca1.getId()).size());
+    assertEquals(
+        1,
+        installmentRepository.findByDisbursementIdOrderByInstallmentNumberAsc(bca2.getId()).size());
+    assertTrue(
+        entryRepository
+            .findByUserPlafondIdOrderByCreatedAtAscIdAsc(bri.getUserPlafond().getId())
+            .stream()
+            .anyMatch(e -> e.getEntryType() == CreditLedgerEntry.EntryType.DISBURSE));
+
+    assertEquals(3, awaitNotifications(3));
+  }
+
+  @Test
+  @DisplayName("Bulk process - Should skip disbursements processed by an earlier call")
+  void processDisbursements_ShouldSkipAlreadyProcessed() {
+    disbursementService.processDisbursements(backOffice.getId(), List.of(bri.getId()), null);
+
+    BulkDisbursementResult again =
+        disbursementService.processDisbursements(backOffice.getId(), List.of(bri.getId()), null);
+
+    assertEquals(0, again.getProcessedCount());
+    assertNull(again.getBatchId());
+    assertEquals(List.of(bri.getId()), again.getSkippedIds());
+    assertEquals(
+        3,
+        installmentRepository.findByDisbursementIdOrderByInstallmentNumberAsc(bri.getId()).size());
+  }
+
+  @Test
+  @DisplayName("Transfer file - Should rebuild the transfers of an earlier bulk run from its batch")
+  void getBatchTransfers_ShouldMatchTheBulkRun() {
+    BulkDisbursementResult result =
+        disbursementService.processDisbursements(
+            backOffice.getId(), List.of(bri.getId(), bca2.getId(), bca1.getId()), "Batch 2");
+
+    assertNotNull(result.getBatchId());
+    assertEquals(result.getTransfers(), disbursementService.getBatchTransfers(result.getBatchId()));
+    assertEquals(
+        result.getBatchId(),
+        disbursementRepository.findById(bca1.getId()).orElseThrow().getBatchId());
+    assertThrows(
+        ResourceNotFoundException.class,
+        () -> disbursementService.getBatchTransfers(Long.MAX_VALUE));
+  }
+
+  @Test
+  @DisplayName("Transfer file - Should write CSV rows and fixed-width bank groups")
+  void bankTransferFile_ShouldWriteBothFormats() throws Exception {
+    BulkDisbursementResult result =
+        disbursementService.processDisbursements(
+            backOffice.getId(), List.of(bri.getId(), bca1.getId(), bca2.getId()), null);
+
+    String csv = write(result, BankTransferFileWriter.Format.CSV);
+    String[] csvLines = csv.split("\r\n");
+    assertEquals(4, csvLines.length);
+    assertEquals("bank_name,account_number,account_name,amount,reference", csvLines[0]);
+    assertEquals("BCA,7788,\"Budi, Santoso\",250000.50,LOANLY-" + bca1.getId(), csvLines[1]);
+    assertTrue(csvLines[3].startsWith("BRI,0021,"));
+
+    String[] records = write(result, BankTransferFileWriter.Format.FIXED_WIDTH).split("\r\n");
+    assertEquals(6, records.length); // H, D, D, H, D, T
+    assertEquals("HBCA                 000002000000000055000050", records[0]);
+    assertTrue(records[1].startsWith("D7788"));
+    assertEquals(109, records[1].length());
+    assertTrue(records[3].startsWith("HBRI"));
+    assertEquals("T00000003000000000155000050", records[5]);
+  }
+
+  private String write(BulkDisbursementResult result, BankTransferFileWriter.Format format)
+      throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    bankTransferFileWriter.write(result.getTransfers(), format, out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  // Notifications are sent by the fan-out executor after commit
+  private long awaitNotifications(int expected) throws InterruptedException {
+    long count = 0;
+    for (int i = 0; i < 50 && count < expected; i++) {
+      count =
+          notificationRepository.findByUserIdOrderByCreatedAtDesc(customer.getId()).stream()
+              .filter(n -> n.getType() == Notification.NotificationType.LOAN_DISBURSED)
+              .count();
+      if (count < expected) {
+        Thread.sleep(100);
+      }
+    }
+    return count;
+  }
+
+  private User user(String username, String fullName) {
+    return userRepository.save(
+        User.builder()
+            .username(username)
+            .email(username + "@test.com")
+            .password("secret")
+            .fullName(fullName)
+            .build());
+  }
+
+  private UserPlafond line(Plafond plafond, String bankName, String accountNumber) {
+    return userPlafondRepository.save(
+        UserPlafond.builder()
+            .user(customer)
+            .plafond(plafond)
+            .status(UserPlafond.PlafondApplicationStatus.APPROVED)
+            .approvedLimit(new BigDecimal("10000000"))
+            .usedAmount(new BigDecimal("2000000"))
+            .bankName(bankName)
+            .accountNumber(accountNumber)
+            .build());
+  }
+
+  private Disbursement pending(UserPlafond line, String amount, int tenor) {
+    return disbursement(line, amount, tenor, Disbursement.DisbursementStatus.PENDING);
+  }
+
+  private Disbursement disbursement(
+      UserPlafond line, String amount, int tenor, Disbursement.DisbursementStatus status) {
+    return disbursementRepository.save(
+        Disbursement.builder()
+            .userPlafond(line)
+            .amount(new BigDecimal(amount))
+            .interestRate(new BigDecimal("2.00"))
+            .tenorMonth(tenor)
+            .interestAmount(BigDecimal.ZERO)
+            .totalAmount(new BigDecimal(amount))
+            .status(status)
+            .build());
+  }
+}
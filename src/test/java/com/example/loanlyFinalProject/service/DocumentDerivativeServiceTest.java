@@ -0,0 +1,233 @@
+package com.example.loanlyFinalProject.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.PlafondDocument;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.repository.PlafondDocumentRepository;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.UUID;
+import javax.imageio.ImageIO;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("DocumentDerivativeService Integration Tests")
+class DocumentDerivativeServiceTest {
+
+  private static final String BOUNDARY = "----loanlyBoundaryDerive";
+  private static final long TIMEOUT_MS = 30_000;
+
+  @Autowired private DocumentDerivativeService derivativeService;
+
+  @Autowired private StorageService storageService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  @Autowired private PlafondDocumentRepository plafondDocumentRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Value("${file.upload-dir}")
+  private String uploadDir;
+
+  private Long applicationId;
+
+  @BeforeEach
+  void setUp() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    User customer =
+        userRepository.save(
+            User.builder()
+                .username("drv-" + suffix)
+                .email("drv-" + suffix + "@test.com")
+                .password("secret")
+                .build());
+    Plafond plafond =
+        plafondRepository.save(
+            Plafond.builder()
+                .name("Derive " + suffix)
+                .maxAmount(new BigDecimal("5000000"))
+                .build());
+    applicationId =
+        userPlafondRepository
+            .save(
+                UserPlafond.builder()
+                    .user(customer)
+                    .plafond(plafond)
+                    .status(UserPlafond.PlafondApplicationStatus.PENDING_REVIEW)
+                    .build())
+            .getId();
+  }
+
+  @Test
+  @DisplayName("Upload - Should render a downscaled preview and thumbnail of an image")
+  void upload_Image_ShouldRenderDerivatives() throws Exception {
+    PlafondDocument document = upload("ktp.png", png(3000, 2000));
+
+    PlafondDocument rendered =
+        awaitStatus(document.getId(), PlafondDocument.DerivativeStatus.READY);
+    BufferedImage preview = ImageIO.read(stored(rendered.getPreviewUrl()).toFile());
+    BufferedImage thumbnail = ImageIO.read(stored(rendered.getThumbnailUrl()).toFile());
+    assertEquals(1600, preview.getWidth());
+    assertEquals(1067, preview.getHeight());
+    assertEquals(320, thumbnail.getWidth());
+    assertEquals(213, thumbnail.getHeight());
+    assertTrue(rendered.getPreviewUrl().endsWith(document.getContentSha256() + "-preview.jpg"));
+  }
+
+  @Test
+  @DisplayName("Upload - Should render the first page of a PDF")
+  void upload_Pdf_ShouldRenderFirstPage() throws Exception {
+    PlafondDocument document = upload("slip.pdf", pdf());
+
+    PlafondDocument rendered =
+        awaitStatus(document.getId(), PlafondDocument.DerivativeStatus.READY);
+    BufferedImage preview = ImageIO.read(stored(rendered.getPreviewUrl()).toFile());
+    assertEquals(1600, preview.getHeight()); // A4 portrait
+    assertTrue(preview.getWidth() < preview.getHeight());
+    assertTrue(Files.exists(stored(rendered.getThumbnailUrl())));
+  }
+
+  @Test
+  @DisplayName("Upload - Should mark a document that cannot be decoded as failed")
+  void upload_Corrupt_ShouldFail() throws Exception {
+    byte[] content = new byte[20_000];
+    new Random().nextBytes(content);
+    content[0] = (byte) 0xFF;
+    content[1] = (byte) 0xD8;
+    content[2] = (byte) 0xFF;
+    PlafondDocument document = upload("ktp.jpg", content);
+
+    PlafondDocument failed = awaitStatus(document.getId(), PlafondDocument.DerivativeStatus.FAILED);
+    assertNull(failed.getPreviewUrl());
+    assertNull(failed.getThumbnailUrl());
+  }
+
+  @Test
+  @DisplayName("Sweep - Should render pending documents the upload did not enqueue")
+  void sweep_ShouldPickUpPendingDocuments() throws Exception {
+    PlafondDocument document = upload("kk.png", png(800, 600));
+    awaitStatus(document.getId(), PlafondDocument.DerivativeStatus.READY);
+
+    // As if the queue had been full: a second document with the same content, never enqueued
+    PlafondDocument pending =
+        plafondDocumentRepository.save(
+            PlafondDocument.builder()
+                .userPlafond(userPlafondRepository.getReferenceById(applicationId))
+                .documentType(PlafondDocument.DocumentType.KK)
+                .fileUrl(document.getFileUrl())
+                .contentType(document.getContentType())
+                .sizeBytes(document.getSizeBytes())
+                .contentSha256(document.getContentSha256())
+                .derivativeStatus(PlafondDocument.DerivativeStatus.PENDING)
+                .build());
+
+    assertTrue(derivativeService.sweep() >= 1);
+    PlafondDocument rendered = awaitStatus(pending.getId(), PlafondDocument.DerivativeStatus.READY);
+    assertEquals(
+        plafondDocumentRepository.findById(document.getId()).orElseThrow().getPreviewUrl(),
+        rendered.getPreviewUrl());
+  }
+
+  private PlafondDocument awaitStatus(Long documentId, PlafondDocument.DerivativeStatus status)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+    while (System.currentTimeMillis() < deadline) {
+      String current =
+          jdbcTemplate.queryForObject(
+              "SELECT derivative_status FROM plafond_documents WHERE id = ?",
+              String.class,
+              documentId);
+      if (status.name().equals(current)) {
+        return plafondDocumentRepository.findById(documentId).orElseThrow();
+      }
+      Thread.sleep(50);
+    }
+    return fail("Document " + documentId + " did not reach " + status);
+  }
+
+  private Path stored(String url) {
+    return Paths.get(uploadDir).resolve(url.substring("/uploads/".length()));
+  }
+
+  private PlafondDocument upload(String filename, byte[] content) throws IOException {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    body.write(
+        ("--"
+                + BOUNDARY
+                + "\r\nContent-Disposition: form-data; name=\"documentType\"\r\n\r\nKTP\r\n--"
+                + BOUNDARY
+                + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\""
+                + filename
+                + "\"\r\nContent-Type: application/octet-stream\r\n\r\n")
+            .getBytes(StandardCharsets.UTF_8));
+    body.write(content);
+    body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/documents");
+    request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+    request.setContent(body.toByteArray());
+    return storageService.uploadPlafondDocument(applicationId, request);
+  }
+
+  // Unique content per call, so every upload is a new blob
+  private static byte[] png(int width, int height) throws IOException {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    g.setColor(new Color(new Random().nextInt()));
+    g.fillRect(0, 0, width / 2, height / 2);
+    g.dispose();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, "png", out);
+    return out.toByteArray();
+  }
+
+  private static byte[] pdf() throws IOException {
+    try (PDDocument document = new PDDocument()) {
+      PDPage page = new PDPage(PDRectangle.A4);
+      document.addPage(page);
+      try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+        content.addRect(50, 50, 200, new Random().nextInt(500) + 100);
+        content.fill();
+      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      document.save(out);
+      return out.toByteArray();
+    }
+  }
+}
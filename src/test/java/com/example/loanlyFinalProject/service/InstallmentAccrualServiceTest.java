@@ -0,0 +1,282 @@
+package com.example.loanlyFinalProject.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.dto.request.PaymentRequest;
+import com.example.loanlyFinalProject.dto.response.AccrualReportResponse;
+import com.example.loanlyFinalProject.dto.response.PaymentResponse;
+import com.example.loanlyFinalProject.entity.Disbursement;
+import com.example.loanlyFinalProject.entity.Installment;
+import com.example.loanlyFinalProject.entity.JobCheckpoint;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.repository.DisbursementRepository;
+import com.example.loanlyFinalProject.repository.InstallmentRepository;
+import com.example.loanlyFinalProject.repository.JobCheckpointRepository;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Runs the end-of-day accrual against H2 with a tiny chunk size so keyset paging is exercised. */
+@SpringBootTest(
+    properties = {
+      "app.installment-accrual.chunk-size=2",
+      "app.installment-accrual.workers=3",
+      "app.installment-accrual.penalty-rate-per-day=0.10"
+    })
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("InstallmentAccrualService Integration Tests")
+class InstallmentAccrualServiceTest {
+
+  private static final LocalDate BUSINESS_DATE = LocalDate.now().minusDays(1);
+
+  @Autowired private InstallmentAccrualService accrualService;
+
+  @Autowired private RepaymentService repaymentService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  @Autowired private DisbursementRepository disbursementRepository;
+
+  @Autowired private InstallmentRepository installmentRepository;
+
+  @Autowired private JobCheckpointRepository jobCheckpointRepository;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private User customer;
+  private Disbursement disbursement;
+  private Installment missed;
+  private Installment overdue;
+  private Installment paid;
+  private Installment dueToday;
+
+  @BeforeEach
+  void setUp() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    customer =
+        userRepository.save(
+            User.builder()
+                .username("accrual-" + suffix)
+                .email("accrual-" + suffix + "@test.com")
+                .password("secret")
+                .build());
+    Plafond plafond =
+        plafondRepository.save(
+            Plafond.builder()
+                .name("Accrual " + suffix)
+                .maxAmount(new BigDecimal("10000000"))
+                .build());
+    UserPlafond line =
+        userPlafondRepository.save(
+            UserPlafond.builder()
+                .user(customer)
+                .plafond(plafond)
+                .status(UserPlafond.PlafondApplicationStatus.APPROVED)
+                .approvedLimit(new BigDecimal("10000000"))
+                .usedAmount(new BigDecimal("3000000"))
+                .build());
+    disbursement =
+        disbursementRepository.save(
+            Disbursement.builder()
+                .userPlafond(line)
+                .amount(new BigDecimal("3000000"))
+                .interestRate(new BigDecimal("2.00"))
+                .tenorMonth(4)
+                .interestAmount(BigDecimal.ZERO)
+                .totalAmount(new BigDecimal("3000000"))
+                .status(Disbursement.DisbursementStatus.DISBURSED)
+                .disbursedAt(LocalDateTime.now().minusMonths(2))
+                .build());
+
+    // Due-date scheduler missed it: DUE for 10 days
+    missed = installment(1, BUSINESS_DATE.minusDays(10), Installment.InstallmentStatus.DUE, null);
+    // Already OVERDUE and accrued through the day before
+    overdue =
+        installment(
+            2,
+            BUSINESS_DATE.minusDays(3),
+            Installment.InstallmentStatus.OVERDUE,
+            BUSINESS_DATE.minusDays(1));
+    paid = installment(3, BUSINESS_DATE.minusDays(10), Installment.InstallmentStatus.PAID, null);
+    dueToday = installment(4, BUSINESS_DATE, Installment.InstallmentStatus.DUE, null);
+  }
+
+  @Test
+  @DisplayName("Run - Should mark missed installments overdue and accrue penalty once per day")
+  void run_ShouldAccruePenaltyIdempotently() {
+    AccrualReportResponse report = accrualService.run(BUSINESS_DATE);
+
+    assertEquals("COMPLETED", report.getStatus());
+    assertTrue(report.getInstallmentsAccrued() >= 2);
+    assertTrue(report.getMarkedOverdue() >= 1);
+    assertFalse(report.getPartitionTimings().isEmpty());
+
+    // 750.000 outstanding × 0.10% × 10 days
+    Installment missedAfter = reload(missed);
+    assertEquals(Installment.InstallmentStatus.OVERDUE, missedAfter.getStatus());
+    assertEquals(0, new BigDecimal("7500").compareTo(missedAfter.getPenaltyAmount()));
+    assertEquals(BUSINESS_DATE, missedAfter.getPenaltyAccruedThrough());
+    // One more day
+    assertEquals(0, new BigDecimal("750").compareTo(reload(overdue).getPenaltyAmount()));
+    assertEquals(0, reload(paid).getPenaltyAmount().signum());
+    assertEquals(Installment.InstallmentStatus.DUE, reload(dueToday).getStatus());
+    assertTrue(
+        jobCheckpointRepository.findPartitions(InstallmentAccrualService.JOB_NAME).isEmpty());
+
+    accrualService.run(BUSINESS_DATE);
+    assertEquals(0, new BigDecimal("7500").compareTo(reload(missed).getPenaltyAmount()));
+  }
+
+  @Test
+  @DisplayName("Resume - Should continue from partition checkpoints and drop other dates")
+  void run_ShouldResumeFromCheckpoint() {
+    String runJob = InstallmentAccrualService.JOB_NAME + "/" + BUSINESS_DATE;
+    jobCheckpointRepository.save(
+        JobCheckpoint.builder()
+            .jobName(runJob + "/0")
+            .lastProcessedId(missed.getId())
+            .rangeEnd(dueToday.getId())
+            .processedCount(7L)
+            .build());
+    jobCheckpointRepository.save(
+        JobCheckpoint.builder()
+            .jobName(InstallmentAccrualService.JOB_NAME + "/" + BUSINESS_DATE.minusDays(5) + "/0")
+            .lastProcessedId(0L)
+            .rangeEnd(1L)
+            .build());
+
+    AccrualReportResponse report = accrualService.run(BUSINESS_DATE);
+
+    assertTrue(report.isResumed());
+    assertEquals(8, report.getInstallmentsScanned());
+    assertEquals(0, reload(missed).getPenaltyAmount().signum());
+    assertEquals(0, new BigDecimal("750").compareTo(reload(overdue).getPenaltyAmount()));
+    assertTrue(
+        jobCheckpointRepository.findPartitions(InstallmentAccrualService.JOB_NAME).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Payment - Should settle accrued penalty before interest and principal")
+  void postPayment_ShouldSettlePenaltyFirst() {
+    accrualService.run(BUSINESS_DATE);
+
+    PaymentRequest request = new PaymentRequest();
+    request.setAmount(new BigDecimal("10000"));
+    PaymentResponse payment =
+        repaymentService.postPayment(customer.getId(), disbursement.getId(), request);
+
+    // Oldest installment first: its 7.500 penalty, then its principal
+    assertEquals(0, new BigDecimal("7500").compareTo(payment.getPenaltyAmount()));
+    assertEquals(0, new BigDecimal("2500").compareTo(payment.getPrincipalAmount()));
+    assertEquals(0, reload(missed).getOutstandingPenalty().signum());
+  }
+
+  @Test
+  @DisplayName("Payment - Should not accrue penalty on amounts paid while the run is in progress")
+  void run_WithPaymentInProgress_ShouldNotChargePaidAmounts() throws Exception {
+    CountDownLatch paymentAllocated = new CountDownLatch(1);
+    CountDownLatch commitPayment = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      // Part-pays the missed installment and keeps its transaction (and row locks) open
+      Future<?> payment =
+          pool.submit(
+              () ->
+                  new TransactionTemplate(transactionManager)
+                      .executeWithoutResult(
+                          status -> {
+                            PaymentRequest request = new PaymentRequest();
+                            request.setAmount(new BigDecimal("300000"));
+                            repaymentService.postPayment(
+                                customer.getId(), disbursement.getId(), request);
+                            paymentAllocated.countDown();
+                            await(commitPayment);
+                          }));
+      await(paymentAllocated);
+
+      // The run reads the installment as unpaid, then waits on the payment's row lock
+      Future<AccrualReportResponse> run = pool.submit(() -> accrualService.run(BUSINESS_DATE));
+      Thread.sleep(300);
+      commitPayment.countDown();
+      payment.get(10, TimeUnit.SECONDS);
+      assertEquals("COMPLETED", run.get(10, TimeUnit.SECONDS).getStatus());
+    } finally {
+      pool.shutdownNow();
+    }
+
+    // 750.000 × 0.10% × 10 days = 7.500 would be charged on the 300.000 already paid
+    Installment missedAfter = reload(missed);
+    assertEquals(0, new BigDecimal("300000").compareTo(missedAfter.getPaidPrincipal()));
+    assertTrue(
+        missedAfter.getPenaltyAmount().compareTo(new BigDecimal("4500")) <= 0,
+        "Penalty on paid principal: " + missedAfter.getPenaltyAmount());
+  }
+
+  @Test
+  @DisplayName("Run - Should reject a business date in the future")
+  void run_ShouldRejectFutureBusinessDate() {
+    assertThrows(
+        IllegalArgumentException.class, () -> accrualService.run(LocalDate.now().plusDays(1)));
+  }
+
+  private Installment installment(
+      int number,
+      LocalDate dueDate,
+      Installment.InstallmentStatus status,
+      LocalDate accruedThrough) {
+    return installmentRepository.save(
+        Installment.builder()
+            .disbursement(disbursement)
+            .installmentNumber(number)
+            .dueDate(dueDate)
+            .principalAmount(new BigDecimal("750000"))
+            .interestAmount(BigDecimal.ZERO)
+            .amountDue(new BigDecimal("750000"))
+            .paidPrincipal(
+                status == Installment.InstallmentStatus.PAID
+                    ? new BigDecimal("750000")
+                    : BigDecimal.ZERO)
+            .status(status)
+            .penaltyAccruedThrough(accruedThrough)
+            .build());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private Installment reload(Installment installment) {
+    return installmentRepository.findById(installment.getId()).orElseThrow();
+  }
+}
@@ -0,0 +1,192 @@
+package com.example.loanlyFinalProject.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.concurrency.StripedLock;
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.dto.request.PlafondApplicationRequest;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.exception.DuplicateResourceException;
+import com.example.loanlyFinalProject.exception.ResourceBusyException;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("Plafond application concurrency Tests")
+class PlafondApplicationConcurrencyTest {
+
+  private static final int THREADS = 32;
+  private static final int ATTEMPTS = 1000;
+  private static final int CUSTOMERS = 200;
+
+  @Autowired private PlafondApplicationService applicationService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  private ExecutorService pool;
+  private String suffix;
+  private Plafond plafond;
+
+  @BeforeEach
+  void setUp() {
+    pool = Executors.newFixedThreadPool(THREADS);
+    suffix = UUID.randomUUID().toString().substring(0, 8);
+    plafond =
+        plafondRepository.save(
+            Plafond.builder().name("Apply " + suffix).maxAmount(new BigDecimal("5000000")).build());
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  @DisplayName(
+      "Apply - Concurrent submissions of one customer should create exactly one application")
+  void apply_SameCustomer_ShouldHaveOneWinner() throws Exception {
+    User customer = user("burst-" + suffix);
+
+    List<Callable<Object>> attempts = new ArrayList<>();
+    for (int i = 0; i < ATTEMPTS; i++) {
+      attempts.add(() -> applicationService.applyForPlafond(customer.getId(), request()));
+    }
+
+    int committed = 0;
+    for (Future<Object> future : runAll(attempts)) {
+      try {
+        future.get();
+        committed++;
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        // The eligibility check reports an open application as IllegalStateException
+        assertTrue(
+            cause instanceof DuplicateResourceException
+                || cause instanceof IllegalStateException
+                || cause instanceof ResourceBusyException,
+            "Unexpected failure: " + cause);
+      }
+    }
+
+    assertEquals(1, committed);
+    assertEquals(1, userPlafondRepository.findByUserIdWithPlafond(customer.getId()).size());
+  }
+
+  @Test
+  @DisplayName("Apply - A lock wait timeout should be retryable, not reported as a duplicate")
+  void apply_LockWaitTimeout_ShouldThrowResourceBusy() throws Exception {
+    User customer = user("busy-" + suffix);
+    StripedLock locks =
+        (StripedLock) ReflectionTestUtils.getField(applicationService, "applicationLocks");
+    Lock stripe = locks.get(customer.getId());
+    CountDownLatch held = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    // Another customer on the same stripe is mid-submission
+    Future<?> holder =
+        pool.submit(
+            () -> {
+              stripe.lock();
+              try {
+                held.countDown();
+                release.await();
+              } finally {
+                stripe.unlock();
+              }
+              return null;
+            });
+    held.await();
+    Object lockWaitMs = ReflectionTestUtils.getField(applicationService, "lockWaitMs");
+    ReflectionTestUtils.setField(applicationService, "lockWaitMs", 50L);
+    try {
+      ResourceBusyException busy =
+          assertThrows(
+              ResourceBusyException.class,
+              () -> applicationService.applyForPlafond(customer.getId(), request()));
+      assertTrue(busy.getRetryAfterSeconds() > 0);
+    } finally {
+      ReflectionTestUtils.setField(applicationService, "lockWaitMs", lockWaitMs);
+      release.countDown();
+      holder.get();
+    }
+
+    assertNotNull(applicationService.applyForPlafond(customer.getId(), request()));
+  }
+
+  // Throughput against an uncontended run is measured by PlafondApplicationThroughputBenchmark
+  @Test
+  @DisplayName("Apply - Concurrent submissions of different customers should all succeed")
+  void apply_DifferentCustomers_ShouldAllSucceed() throws Exception {
+    for (Future<Object> future : runAll(applications("c", CUSTOMERS))) {
+      assertNotNull(future.get());
+    }
+  }
+
+  /** One application each for {@code count} new customers. */
+  private List<Callable<Object>> applications(String prefix, int count) {
+    List<Callable<Object>> attempts = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Long customerId = user(prefix + i + "-" + suffix).getId();
+      attempts.add(() -> applicationService.applyForPlafond(customerId, request()));
+    }
+    return attempts;
+  }
+
+  private List<Future<Object>> runAll(List<Callable<Object>> actions) {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Object>> futures = new ArrayList<>();
+    for (Callable<Object> action : actions) {
+      futures.add(
+          pool.submit(
+              () -> {
+                start.await();
+                return action.call();
+              }));
+    }
+    start.countDown();
+    return futures;
+  }
+
+  private PlafondApplicationRequest request() {
+    PlafondApplicationRequest request = new PlafondApplicationRequest();
+    request.setPlafondId(plafond.getId());
+    request.setNik("3171000000000001");
+    request.setOccupation("Engineer");
+    request.setMonthlyIncome(new BigDecimal("10000000"));
+    request.setBankName("BCA");
+    request.setAccountNumber("1234567890");
+    return request;
+  }
+
+  private User user(String username) {
+    return userRepository.save(
+        User.builder().username(username).email(username + "@test.com").password("secret").build());
+  }
+}
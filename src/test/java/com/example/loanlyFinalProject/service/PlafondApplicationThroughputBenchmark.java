@@ -0,0 +1,152 @@
+package com.example.loanlyFinalProject.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.dto.request.PlafondApplicationRequest;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Plafond submissions of different customers on 32 threads against the same number submitted one
+ * after another. Customers share lock stripes, and sharing must not turn into lock waits or a
+ * convoy: the concurrent run may not be slower than the serial one. Wall-clock bound, so not part
+ * of the default build; run with
+ *
+ * <pre>
+ * mvn test -Dtest=PlafondApplicationThroughputBenchmark -DexcludedTestGroups=
+ * </pre>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@Tag("benchmark")
+@DisplayName("Plafond application throughput benchmark")
+class PlafondApplicationThroughputBenchmark {
+
+  private static final int THREADS = 32;
+  private static final int CUSTOMERS = 200;
+  private static final int WARMUP_CUSTOMERS = 50;
+  // Concurrent customers must go at least as fast as the same number applying one after another
+  private static final double MAX_CONTENDED_RATIO = 1.0;
+  private static final long SLACK_MS = 250;
+
+  @Autowired private PlafondApplicationService applicationService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  private ExecutorService pool;
+  private String suffix;
+  private Plafond plafond;
+
+  @BeforeEach
+  void setUp() {
+    pool = Executors.newFixedThreadPool(THREADS);
+    suffix = UUID.randomUUID().toString().substring(0, 8);
+    plafond =
+        plafondRepository.save(
+            Plafond.builder().name("Bench " + suffix).maxAmount(new BigDecimal("5000000")).build());
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Apply - Different customers should not lose throughput to lock contention")
+  void apply_DifferentCustomers_ShouldKeepThroughput() throws Exception {
+    for (Callable<Object> attempt : applications("warm", WARMUP_CUSTOMERS)) {
+      attempt.call();
+    }
+    List<Callable<Object>> serial = applications("serial", CUSTOMERS);
+    long serialStart = System.nanoTime();
+    for (Callable<Object> attempt : serial) {
+      assertNotNull(attempt.call());
+    }
+    long serialMs = (System.nanoTime() - serialStart) / 1_000_000;
+
+    List<Callable<Object>> attempts = applications("c", CUSTOMERS);
+    long concurrentStart = System.nanoTime();
+    for (Future<Object> future : runAll(attempts)) {
+      assertNotNull(future.get());
+    }
+    long concurrentMs = (System.nanoTime() - concurrentStart) / 1_000_000;
+
+    String summary =
+        String.format(
+            "%d customers on %d threads took %d ms (%.0f/s), one at a time %d ms (%.0f/s)",
+            CUSTOMERS,
+            THREADS,
+            concurrentMs,
+            CUSTOMERS * 1000.0 / Math.max(concurrentMs, 1),
+            serialMs,
+            CUSTOMERS * 1000.0 / Math.max(serialMs, 1));
+    System.out.println(summary);
+    long boundMs = (long) (serialMs * MAX_CONTENDED_RATIO) + SLACK_MS;
+    assertTrue(concurrentMs <= boundMs, summary);
+  }
+
+  /** One application each for {@code count} new customers. */
+  private List<Callable<Object>> applications(String prefix, int count) {
+    List<Callable<Object>> attempts = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Long customerId = user(prefix + i + "-" + suffix).getId();
+      attempts.add(() -> applicationService.applyForPlafond(customerId, request()));
+    }
+    return attempts;
+  }
+
+  private List<Future<Object>> runAll(List<Callable<Object>> actions) {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Object>> futures = new ArrayList<>();
+    for (Callable<Object> action : actions) {
+      futures.add(
+          pool.submit(
+              () -> {
+                start.await();
+                return action.call();
+              }));
+    }
+    start.countDown();
+    return futures;
+  }
+
+  private PlafondApplicationRequest request() {
+    PlafondApplicationRequest request = new PlafondApplicationRequest();
+    request.setPlafondId(plafond.getId());
+    request.setNik("3171000000000001");
+    request.setOccupation("Engineer");
+    request.setMonthlyIncome(new BigDecimal("10000000"));
+    request.setBankName("BCA");
+    request.setAccountNumber("1234567890");
+    return request;
+  }
+
+  private User user(String username) {
+    return userRepository.save(
+        User.builder().username(username).email(username + "@test.com").password("secret").build());
+  }
+}
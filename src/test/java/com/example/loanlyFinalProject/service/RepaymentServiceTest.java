@@ -0,0 +1,279 @@
+package com.example.loanlyFinalProject.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.dto.request.PaymentRequest;
+import com.example.loanlyFinalProject.dto.response.LoanRepaymentResponse;
+import com.example.loanlyFinalProject.dto.response.PaymentResponse;
+import com.example.loanlyFinalProject.entity.CreditLedgerEntry;
+import com.example.loanlyFinalProject.entity.Disbursement;
+import com.example.loanlyFinalProject.entity.Installment;
+import com.example.loanlyFinalProject.entity.Notification;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.repository.CreditLedgerEntryRepository;
+import com.example.loanlyFinalProject.repository.DisbursementRepository;
+import com.example.loanlyFinalProject.repository.InstallmentRepository;
+import com.example.loanlyFinalProject.repository.NotificationRepository;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("RepaymentService Integration Tests")
+class RepaymentServiceTest {
+
+  @Autowired private RepaymentService repaymentService;
+
+  @Autowired private NotificationService notificationService;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  @Autowired private DisbursementRepository disbursementRepository;
+
+  @Autowired private InstallmentRepository installmentRepository;
+
+  @Autowired private CreditLedgerEntryRepository entryRepository;
+
+  @Autowired private NotificationRepository notificationRepository;
+
+  private User customer;
+  private UserPlafond line;
+  private Disbursement disbursement;
+
+  @BeforeEach
+  void setUp() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    customer =
+        userRepository.save(
+            User.builder()
+                .username("repay-" + suffix)
+                .email("repay-" + suffix + "@test.com")
+                .password("secret")
+                .build());
+    Plafond plafond =
+        plafondRepository.save(
+            Plafond.builder()
+                .name("Repay " + suffix)
+                .maxAmount(new BigDecimal("10000000"))
+                .build());
+    line =
+        userPlafondRepository.save(
+            UserPlafond.builder()
+                .user(customer)
+                .plafond(plafond)
+                .status(UserPlafond.PlafondApplicationStatus.APPROVED)
+                .approvedLimit(new BigDecimal("10000000"))
+                .usedAmount(new BigDecimal("1200000"))
+                .build());
+    // 1.200.000 over 3 months at 2% flat: 400.000 principal + 24.000 interest a month
+    disbursement =
+        disbursementRepository.save(
+            Disbursement.builder()
+                .userPlafond(line)
+                .amount(new BigDecimal("1200000"))
+                .interestRate(new BigDecimal("2.00"))
+                .tenorMonth(3)
+                .interestAmount(new BigDecimal("72000"))
+                .totalAmount(new BigDecimal("1272000"))
+                .status(Disbursement.DisbursementStatus.DISBURSED)
+                .disbursedAt(LocalDateTime.of(2030, 1, 31, 10, 0))
+                .build());
+    repaymentService.createSchedule(disbursement);
+  }
+
+  @Test
+  @DisplayName("Schedule - Should create one installment per month, clamped to month end")
+  void createSchedule_ShouldCreateMonthlyInstallments() {
+    List<Installment> installments = installments();
+
+    assertEquals(3, installments.size());
+    assertEquals(LocalDate.of(2030, 2, 28), installments.get(0).getDueDate());
+    assertEquals(LocalDate.of(2030, 3, 31), installments.get(1).getDueDate());
+    for (Installment i : installments) {
+      assertEquals(0, new BigDecimal("424000").compareTo(i.getAmountDue()));
+      assertEquals(Installment.InstallmentStatus.SCHEDULED, i.getStatus());
+    }
+  }
+
+  @Test
+  @DisplayName("Payment - Should settle oldest installments first and release repaid principal")
+  void postPayment_ShouldAllocateInterestFirstAndRepayPrincipal() {
+    PaymentResponse payment =
+        repaymentService.postPayment(customer.getId(), disbursement.getId(), payment("500000"));
+
+    // 424.000 settles installment 1, then 24.000 interest and 52.000 principal of installment 2
+    assertEquals(0, new BigDecimal("48000").compareTo(payment.getInterestAmount()));
+    assertEquals(0, new BigDecimal("452000").compareTo(payment.getPrincipalAmount()));
+    assertEquals(0, new BigDecimal("772000").compareTo(payment.getOutstandingAmount()));
+
+    List<Installment> installments = installments();
+    assertEquals(Installment.InstallmentStatus.PAID, installments.get(0).getStatus());
+    assertEquals(Installment.InstallmentStatus.SCHEDULED, installments.get(1).getStatus());
+    assertEquals(
+        0, new BigDecimal("348000").compareTo(installments.get(1).getOutstandingPrincipal()));
+
+    assertEquals(
+        0,
+        new BigDecimal("748000").compareTo(userPlafondRepository.findUsedAmountById(line.getId())));
+    List<CreditLedgerEntry> entries =
+        entryRepository.findByUserPlafondIdOrderByCreatedAtAscIdAsc(line.getId());
+    assertEquals(
+        CreditLedgerEntry.EntryType.REPAYMENT, entries.get(entries.size() - 1).getEntryType());
+
+    LoanRepaymentResponse repayment = repaymentService.getRepayment(disbursement.getId());
+    assertEquals(LocalDate.of(2030, 3, 31), repayment.getNextDueDate());
+    assertEquals(1, repayment.getPayments().size());
+  }
+
+  @Test
+  @DisplayName("Payment - Should reject amounts above the outstanding balance")
+  void postPayment_ShouldRejectOverpayment() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            repaymentService.postPayment(
+                customer.getId(), disbursement.getId(), payment("1272000.01")));
+    assertEquals(
+        0,
+        new BigDecimal("1200000")
+            .compareTo(userPlafondRepository.findUsedAmountById(line.getId())));
+  }
+
+  @Test
+  @DisplayName("Scheduler - Should fire reminder, due and overdue events from the wheel")
+  void dueScheduler_ShouldFireEventsOnTime() {
+    Installment first = installments().get(0);
+    LocalDate dueDate = first.getDueDate();
+    MutableClock clock = new MutableClock(dueDate.minusDays(3).atTime(7, 0));
+    InstallmentDueScheduler scheduler = dueScheduler(clock, 7);
+
+    scheduler.loadHorizon();
+    assertEquals(0, scheduler.tick());
+    clock.set(dueDate.minusDays(3).atTime(8, 1));
+    scheduler.tick();
+    assertNotNull(installment(first).getReminderSentAt());
+    assertTrue(hasNotification(Notification.NotificationType.PAYMENT_REMINDER));
+
+    clock.set(dueDate.atTime(0, 10));
+    scheduler.loadHorizon();
+    scheduler.tick();
+    assertEquals(Installment.InstallmentStatus.DUE, installment(first).getStatus());
+    assertTrue(hasNotification(Notification.NotificationType.PAYMENT_DUE));
+
+    clock.set(dueDate.plusDays(1).atTime(0, 10));
+    scheduler.loadHorizon();
+    scheduler.tick();
+    assertEquals(Installment.InstallmentStatus.OVERDUE, installment(first).getStatus());
+    assertTrue(hasNotification(Notification.NotificationType.PAYMENT_OVERDUE));
+    assertEquals(Installment.InstallmentStatus.SCHEDULED, installments().get(1).getStatus());
+  }
+
+  @Test
+  @DisplayName("Scheduler - Should catch up only on events missed within the catch-up window")
+  void dueScheduler_ShouldBoundCatchUp() {
+    LocalDate dueDate = installments().get(0).getDueDate();
+    MutableClock clock = new MutableClock(dueDate.plusDays(20).atTime(12, 0));
+
+    int bounded = dueScheduler(clock, 7).loadHorizon();
+    int wide = dueScheduler(clock, 30).loadHorizon();
+
+    // The first installment's DUE and OVERDUE fired 20 days ago: outside a 7-day catch-up
+    assertTrue(wide - bounded >= 2, () -> "bounded " + bounded + ", wide " + wide);
+  }
+
+  private InstallmentDueScheduler dueScheduler(Clock clock, int catchUpDays) {
+    return new InstallmentDueScheduler(
+        installmentRepository,
+        notificationService,
+        transactionManager,
+        clock,
+        1000,
+        512,
+        6,
+        3,
+        0,
+        LocalTime.of(0, 5),
+        LocalTime.of(8, 0),
+        2,
+        catchUpDays);
+  }
+
+  private List<Installment> installments() {
+    return installmentRepository.findByDisbursementIdOrderByInstallmentNumberAsc(
+        disbursement.getId());
+  }
+
+  private Installment installment(Installment installment) {
+    return installmentRepository.findById(installment.getId()).orElseThrow();
+  }
+
+  private boolean hasNotification(Notification.NotificationType type) {
+    return notificationRepository.findByUserIdOrderByCreatedAtDesc(customer.getId()).stream()
+        .anyMatch(n -> n.getType() == type);
+  }
+
+  private static PaymentRequest payment(String amount) {
+    PaymentRequest request = new PaymentRequest();
+    request.setAmount(new BigDecimal(amount));
+    request.setReference("TRX-" + amount);
+    return request;
+  }
+
+  /** Clock the test moves by hand. */
+  private static final class MutableClock extends Clock {
+
+    private Instant instant;
+
+    MutableClock(LocalDateTime start) {
+      set(start);
+    }
+
+    void set(LocalDateTime time) {
+      instant = time.toInstant(ZoneOffset.UTC);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package com.example.loanlyFinalProject.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.dto.request.ResumableUploadRequest;
+import com.example.loanlyFinalProject.dto.response.ResumableUploadResponse;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.PlafondDocument;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.exception.ResourceNotFoundException;
+import com.example.loanlyFinalProject.exception.StateConflictException;
+import com.example.loanlyFinalProject.exception.UnsupportedDocumentTypeException;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import com.example.loanlyFinalProject.storage.ContentAddressedStore;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("Resumable upload Integration Tests")
+class ResumableUploadTest {
+
+  private static final int SIZE = 300_000;
+  private static final byte[] PDF_HEADER = "%PDF-1.7\n".getBytes();
+
+  @Autowired private ResumableUploadService uploadService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  @Autowired private ContentAddressedStore contentStore;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private Long customerId;
+  private Long applicationId;
+
+  @BeforeEach
+  void setUp() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    User customer =
+        userRepository.save(
+            User.builder()
+                .username("tus-" + suffix)
+                .email("tus-" + suffix + "@test.com")
+                .password("secret")
+                .build());
+    Plafond plafond =
+        plafondRepository.save(
+            Plafond.builder()
+                .name("Resumable " + suffix)
+                .maxAmount(new BigDecimal("5000000"))
+                .build());
+    customerId = customer.getId();
+    applicationId =
+        userPlafondRepository
+            .save(
+                UserPlafond.builder()
+                    .user(customer)
+                    .plafond(plafond)
+                    .status(UserPlafond.PlafondApplicationStatus.PENDING_REVIEW)
+                    .build())
+            .getId();
+  }
+
+  @Test
+  @DisplayName("Upload - Should keep the bytes of a dropped chunk and resume from its offset")
+  void upload_DroppedChunk_ShouldResume() throws Exception {
+    byte[] content = pdf();
+    UUID id = create(content.length);
+
+    // The connection drops 100 000 bytes into the first chunk
+    assertThrows(
+        RuntimeException.class,
+        () ->
+            uploadService.append(customerId, applicationId, id, 0, -1, dropping(content, 100_000)));
+    ResumableUploadResponse progress = uploadService.offset(customerId, applicationId, id);
+    assertEquals(100_000, progress.getOffset());
+    assertEquals(content.length, progress.getLength());
+
+    // A retry from a stale offset is refused; the client asks and sends the rest in two chunks
+    assertThrows(StateConflictException.class, () -> append(id, 0, Arrays.copyOf(content, 10)));
+    assertEquals(200_000, append(id, 100_000, Arrays.copyOfRange(content, 100_000, 200_000)));
+    assertEquals(SIZE, append(id, 200_000, Arrays.copyOfRange(content, 200_000, SIZE)));
+
+    PlafondDocument document = uploadService.complete(customerId, applicationId, id);
+
+    assertEquals(sha256(content), document.getContentSha256());
+    assertEquals("application/pdf", document.getContentType());
+    assertEquals(SIZE, document.getSizeBytes());
+    assertFalse(Files.exists(contentStore.resumablePartFile(id)));
+    assertThrows(
+        ResourceNotFoundException.class,
+        () -> uploadService.complete(customerId, applicationId, id));
+  }
+
+  @Test
+  @DisplayName("Upload - Should refuse chunks past the length, early completion and other users")
+  void upload_ShouldEnforceProtocol() throws Exception {
+    byte[] content = pdf();
+    UUID id = create(content.length);
+
+    assertThrows(
+        MaxUploadSizeExceededException.class,
+        () ->
+            uploadService.append(
+                customerId,
+                applicationId,
+                id,
+                0,
+                SIZE + 1,
+                new ByteArrayInputStream(new byte[SIZE + 1])));
+    assertThrows(
+        ResourceNotFoundException.class,
+        () -> uploadService.offset(customerId + 1, applicationId, id));
+    append(id, 0, Arrays.copyOf(content, 1000));
+    assertThrows(
+        StateConflictException.class, () -> uploadService.complete(customerId, applicationId, id));
+
+    uploadService.cancel(customerId, applicationId, id);
+    assertFalse(Files.exists(contentStore.resumablePartFile(id)));
+    assertThrows(
+        ResourceNotFoundException.class, () -> uploadService.offset(customerId, applicationId, id));
+  }
+
+  @Test
+  @DisplayName("Complete - Should drop an upload whose content is not a supported document")
+  void complete_WrongType_ShouldDropUpload() {
+    byte[] content = new byte[5000];
+    new Random().nextBytes(content);
+    content[0] = 'x';
+    UUID id = create(content.length);
+    append(id, 0, content);
+
+    assertThrows(
+        UnsupportedDocumentTypeException.class,
+        () -> uploadService.complete(customerId, applicationId, id));
+    assertFalse(Files.exists(contentStore.resumablePartFile(id)));
+  }
+
+  @Test
+  @DisplayName("Expiry - Should delete expired uploads and their part files")
+  void purgeExpired_ShouldDeleteUploadAndPartFile() {
+    UUID id = create(1000);
+    jdbcTemplate.update(
+        "UPDATE document_uploads SET expires_at = ? WHERE id = ?",
+        LocalDateTime.now().minusMinutes(1),
+        id.toString());
+
+    assertTrue(uploadService.purgeExpired() >= 1);
+    assertFalse(Files.exists(contentStore.resumablePartFile(id)));
+    assertEquals(
+        0,
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM document_uploads WHERE id = ?", Integer.class, id.toString()));
+  }
+
+  private UUID create(long size) {
+    ResumableUploadResponse upload =
+        uploadService.create(
+            customerId,
+            applicationId,
+            ResumableUploadRequest.builder()
+                .documentType(PlafondDocument.DocumentType.SLIP_GAJI)
+                .fileName("slip.pdf")
+                .sizeBytes(size)
+                .build());
+    assertEquals(0, upload.getOffset());
+    return UUID.fromString(upload.getUploadId());
+  }
+
+  private long append(UUID id, long offset, byte[] chunk) {
+    return uploadService
+        .append(
+            customerId, applicationId, id, offset, chunk.length, new ByteArrayInputStream(chunk))
+        .getOffset();
+  }
+
+  private static byte[] pdf() {
+    byte[] content = new byte[SIZE];
+    new Random().nextBytes(content);
+    System.arraycopy(PDF_HEADER, 0, content, 0, PDF_HEADER.length);
+    return content;
+  }
+
+  // A request body that breaks off after {@code limit} bytes
+  private static InputStream dropping(byte[] content, int limit) {
+    return new FilterInputStream(new ByteArrayInputStream(content, 0, limit)) {
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read == -1) {
+          throw new IOException("Connection reset");
+        }
+        return read;
+      }
+    };
+  }
+
+  private static String sha256(byte[] content) throws Exception {
+    return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+  }
+}
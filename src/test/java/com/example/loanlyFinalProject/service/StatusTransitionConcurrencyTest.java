@@ -0,0 +1,227 @@
+package com.example.loanlyFinalProject.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.dto.request.PlafondReviewRequest;
+import com.example.loanlyFinalProject.entity.CreditLedgerEntry;
+import com.example.loanlyFinalProject.entity.Disbursement;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.exception.StateConflictException;
+import com.example.loanlyFinalProject.repository.CreditLedgerEntryRepository;
+import com.example.loanlyFinalProject.repository.DisbursementRepository;
+import com.example.loanlyFinalProject.repository.PlafondHistoryRepository;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("Status transition concurrency Tests")
+class StatusTransitionConcurrencyTest {
+
+  private static final int THREADS = 8;
+  private static final int ROUNDS = 5;
+
+  @Autowired private PlafondApplicationService applicationService;
+
+  @Autowired private DisbursementService disbursementService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  @Autowired private DisbursementRepository disbursementRepository;
+
+  @Autowired private PlafondHistoryRepository historyRepository;
+
+  @Autowired private CreditLedgerEntryRepository entryRepository;
+
+  private ExecutorService pool;
+  private List<User> staff;
+  private User customer;
+  private Plafond plafond;
+
+  @BeforeEach
+  void setUp() {
+    pool = Executors.newFixedThreadPool(THREADS);
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    staff = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      staff.add(user("staff" + i + "-" + suffix));
+    }
+    customer = user("cas-" + suffix);
+    plafond =
+        plafondRepository.save(
+            Plafond.builder().name("CAS " + suffix).maxAmount(new BigDecimal("5000000")).build());
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Transition table - Should only allow forward moves out of open states")
+  void transitionTable_ShouldOnlyAllowForwardMoves() {
+    UserPlafond.PlafondApplicationStatus review =
+        UserPlafond.PlafondApplicationStatus.PENDING_REVIEW;
+    assertTrue(review.canTransitionTo(UserPlafond.PlafondApplicationStatus.WAITING_APPROVAL));
+    assertFalse(review.canTransitionTo(UserPlafond.PlafondApplicationStatus.APPROVED));
+    assertFalse(
+        UserPlafond.PlafondApplicationStatus.REJECTED.canTransitionTo(
+            UserPlafond.PlafondApplicationStatus.APPROVED));
+    assertTrue(
+        Disbursement.DisbursementStatus.PENDING.canTransitionTo(
+            Disbursement.DisbursementStatus.CANCELLED));
+    assertFalse(
+        Disbursement.DisbursementStatus.CANCELLED.canTransitionTo(
+            Disbursement.DisbursementStatus.DISBURSED));
+  }
+
+  @Test
+  @DisplayName("Review - Concurrent approve and reject should commit exactly one action")
+  void review_ConcurrentActions_ShouldCommitExactlyOne() throws Exception {
+    for (int round = 0; round < ROUNDS; round++) {
+      Long applicationId =
+          userPlafondRepository
+              .save(
+                  UserPlafond.builder()
+                      .user(customer)
+                      .plafond(plafond)
+                      .status(UserPlafond.PlafondApplicationStatus.PENDING_REVIEW)
+                      .build())
+              .getId();
+
+      List<Callable<Object>> actions = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        Long reviewerId = staff.get(i).getId();
+        PlafondReviewRequest request = new PlafondReviewRequest();
+        request.setApplicationId(applicationId);
+        request.setApproved(i % 2 == 0);
+        request.setNote("Round " + round);
+        actions.add(() -> applicationService.reviewApplication(reviewerId, request));
+      }
+
+      assertEquals(1, hammer(actions));
+      assertEquals(
+          1, historyRepository.findByUserPlafondIdOrderByCreatedAtDesc(applicationId).size());
+      UserPlafond reviewed = userPlafondRepository.findById(applicationId).orElseThrow();
+      assertNotEquals(UserPlafond.PlafondApplicationStatus.PENDING_REVIEW, reviewed.getStatus());
+      assertEquals(
+          reviewed.getStatus() == UserPlafond.PlafondApplicationStatus.WAITING_APPROVAL,
+          reviewed.getReviewedBy() != null);
+    }
+  }
+
+  @Test
+  @DisplayName("Disbursement - Concurrent process and cancel should commit exactly one action")
+  void disbursement_ConcurrentProcessAndCancel_ShouldCommitExactlyOne() throws Exception {
+    UserPlafond line =
+        userPlafondRepository.save(
+            UserPlafond.builder()
+                .user(customer)
+                .plafond(plafond)
+                .status(UserPlafond.PlafondApplicationStatus.APPROVED)
+                .approvedLimit(new BigDecimal("5000000"))
+                .usedAmount(new BigDecimal("100000").multiply(BigDecimal.valueOf(ROUNDS)))
+                .bankName("BNI")
+                .accountNumber("1234")
+                .build());
+
+    for (int round = 0; round < ROUNDS; round++) {
+      Long disbursementId =
+          disbursementRepository
+              .save(
+                  Disbursement.builder()
+                      .userPlafond(line)
+                      .amount(new BigDecimal("100000"))
+                      .interestRate(new BigDecimal("2.00"))
+                      .tenorMonth(3)
+                      .interestAmount(BigDecimal.ZERO)
+                      .totalAmount(new BigDecimal("100000"))
+                      .status(Disbursement.DisbursementStatus.PENDING)
+                      .build())
+              .getId();
+
+      List<Callable<Object>> actions = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        Long backOfficeId = staff.get(i).getId();
+        actions.add(
+            i % 2 == 0
+                ? () -> disbursementService.processDisbursement(backOfficeId, disbursementId, null)
+                : () -> disbursementService.cancelDisbursement(backOfficeId, disbursementId, "x"));
+      }
+
+      assertEquals(1, hammer(actions));
+      long ledgerEntries =
+          entryRepository.findByUserPlafondIdOrderByCreatedAtAscIdAsc(line.getId()).stream()
+              .filter(e -> disbursementId.equals(e.getDisbursementId()))
+              .filter(
+                  e ->
+                      e.getEntryType() == CreditLedgerEntry.EntryType.DISBURSE
+                          || e.getEntryType() == CreditLedgerEntry.EntryType.RELEASE)
+              .count();
+      assertEquals(1, ledgerEntries);
+    }
+  }
+
+  // Runs all actions at once; returns how many committed. Every other one must be a conflict.
+  private int hammer(List<Callable<Object>> actions) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Object>> futures = new ArrayList<>();
+    for (Callable<Object> action : actions) {
+      futures.add(
+          pool.submit(
+              () -> {
+                start.await();
+                return action.call();
+              }));
+    }
+    start.countDown();
+
+    int committed = 0;
+    for (Future<Object> future : futures) {
+      try {
+        future.get();
+        committed++;
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        assertTrue(
+            cause instanceof StateConflictException
+                || cause instanceof OptimisticLockingFailureException,
+            "Unexpected failure: " + cause);
+      }
+    }
+    return committed;
+  }
+
+  private User user(String username) {
+    return userRepository.save(
+        User.builder().username(username).email(username + "@test.com").password("secret").build());
+  }
+}
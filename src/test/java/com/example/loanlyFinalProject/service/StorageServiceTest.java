@@ -0,0 +1,285 @@
+package com.example.loanlyFinalProject.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.PlafondDocument;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.exception.UnsupportedDocumentTypeException;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import com.example.loanlyFinalProject.storage.ContentAddressedStore;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("StorageService Integration Tests")
+class StorageServiceTest {
+
+  private static final String BOUNDARY = "----loanlyBoundary7MA4YWxk";
+  private static final byte[] JPEG_HEADER = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+
+  @Autowired private StorageService storageService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  @Autowired private ContentAddressedStore contentStore;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Value("${file.upload-dir}")
+  private String uploadDir;
+
+  private Long customerId;
+  private Long applicationId;
+
+  @BeforeEach
+  void setUp() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    User customer =
+        userRepository.save(
+            User.builder()
+                .username("doc-" + suffix)
+                .email("doc-" + suffix + "@test.com")
+                .password("secret")
+                .build());
+    customerId = customer.getId();
+    Plafond plafond =
+        plafondRepository.save(
+            Plafond.builder().name("Docs " + suffix).maxAmount(new BigDecimal("5000000")).build());
+    applicationId =
+        userPlafondRepository
+            .save(
+                UserPlafond.builder()
+                    .user(customer)
+                    .plafond(plafond)
+                    .status(UserPlafond.PlafondApplicationStatus.PENDING_REVIEW)
+                    .build())
+            .getId();
+  }
+
+  @Test
+  @DisplayName("Upload - Should stream the file into the blob store and record its metadata")
+  void upload_ShouldStoreBlobAndMetadata() throws Exception {
+    byte[] content = jpeg(1_500_000);
+    String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+
+    // documentType after the file: the blob is only published once the whole form is read
+    PlafondDocument document =
+        storageService.uploadPlafondDocument(
+            applicationId, multipart(file("ktp.jpeg", content), field("documentType", "KTP")));
+
+    assertEquals(PlafondDocument.DocumentType.KTP, document.getDocumentType());
+    assertEquals("image/jpeg", document.getContentType());
+    assertEquals(content.length, document.getSizeBytes());
+    assertEquals(sha256, document.getContentSha256());
+    assertEquals("ktp.jpeg", document.getFileName());
+    assertEquals(
+        "/uploads/blobs/"
+            + sha256.substring(0, 2)
+            + "/"
+            + sha256.substring(2, 4)
+            + "/"
+            + sha256
+            + ".jpg",
+        document.getFileUrl());
+
+    assertArrayEquals(content, Files.readAllBytes(stored(document)));
+    assertEquals(1, refCount(sha256));
+    assertTrue(stagingListing().isEmpty());
+  }
+
+  @Test
+  @DisplayName("Upload - A duplicate should share the stored blob")
+  void upload_Duplicate_ShouldShareBlob() throws Exception {
+    byte[] content = jpeg(800_000);
+    ContentAddressedStore.StoreStats before = contentStore.stats();
+
+    PlafondDocument first =
+        storageService.uploadPlafondDocument(
+            applicationId, multipart(field("documentType", "KTP"), file("ktp.jpg", content)));
+    PlafondDocument second =
+        storageService.uploadPlafondDocument(
+            applicationId, multipart(field("documentType", "NPWP"), file("again.jpg", content)));
+
+    assertNotEquals(first.getId(), second.getId());
+    assertEquals(first.getFileUrl(), second.getFileUrl());
+    assertEquals(2, refCount(first.getContentSha256()));
+    ContentAddressedStore.StoreStats after = contentStore.stats();
+    assertEquals(2 * content.length, after.logicalBytes() - before.logicalBytes());
+    assertEquals(content.length, after.storedBytes() - before.storedBytes());
+    assertTrue(stagingListing().isEmpty());
+  }
+
+  @Test
+  @DisplayName("GC - Should delete a blob only once it is unreferenced past the grace period")
+  void collectGarbage_ShouldDeleteUnreferencedBlobs() throws Exception {
+    byte[] content = jpeg(50_000);
+    PlafondDocument first =
+        storageService.uploadPlafondDocument(
+            applicationId, multipart(field("documentType", "KTP"), file("ktp.jpg", content)));
+    PlafondDocument second =
+        storageService.uploadPlafondDocument(
+            applicationId, multipart(field("documentType", "KK"), file("kk.jpg", content)));
+    String sha256 = first.getContentSha256();
+
+    storageService.deletePlafondDocument(customerId, applicationId, first.getId());
+    assertEquals(1, refCount(sha256));
+    storageService.deletePlafondDocument(customerId, applicationId, second.getId());
+    assertEquals(0, refCount(sha256));
+
+    contentStore.collectGarbage();
+    assertTrue(Files.exists(stored(first)), "Kept during the grace period");
+
+    jdbcTemplate.update(
+        "UPDATE document_blobs SET unreferenced_at = DATEADD(DAY, -2, CURRENT_TIMESTAMP)"
+            + " WHERE sha256 = ?",
+        sha256);
+    contentStore.collectGarbage();
+    assertFalse(Files.exists(stored(first)));
+    assertEquals(
+        0,
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM document_blobs WHERE sha256 = ?", Integer.class, sha256));
+
+    // Uploading the same content again stores it afresh
+    PlafondDocument again =
+        storageService.uploadPlafondDocument(
+            applicationId, multipart(field("documentType", "KTP"), file("ktp.jpg", content)));
+    assertTrue(Files.exists(stored(again)));
+    assertEquals(1, refCount(sha256));
+  }
+
+  @Test
+  @DisplayName("Upload - Should reject content that is not an accepted type")
+  void upload_UnsupportedType_ShouldBeRejected() throws Exception {
+    byte[] html = "<html><script>alert(1)</script></html>".getBytes(StandardCharsets.UTF_8);
+
+    assertThrows(
+        UnsupportedDocumentTypeException.class,
+        () ->
+            storageService.uploadPlafondDocument(
+                applicationId, multipart(field("documentType", "KTP"), file("ktp.jpg", html))));
+    assertTrue(stagingListing().isEmpty());
+  }
+
+  @Test
+  @DisplayName("Upload - Should reject files over the size limit")
+  void upload_Oversized_ShouldBeRejected() throws Exception {
+    byte[] content = jpeg(10 * 1024 * 1024 + 1);
+
+    assertThrows(
+        MaxUploadSizeExceededException.class,
+        () ->
+            storageService.uploadPlafondDocument(
+                applicationId, multipart(field("documentType", "KTP"), file("big.jpg", content))));
+    assertTrue(stagingListing().isEmpty());
+  }
+
+  @Test
+  @DisplayName("Upload - Should remove the written file when a form field is missing")
+  void upload_MissingDocumentType_ShouldCleanUp() throws Exception {
+    assertThrows(
+        MultipartException.class,
+        () ->
+            storageService.uploadPlafondDocument(
+                applicationId, multipart(file("ktp.jpg", jpeg(1000)))));
+    assertTrue(stagingListing().isEmpty());
+  }
+
+  private List<Path> stagingListing() throws IOException {
+    Path directory = Paths.get(uploadDir, "blobs", ".staging");
+    if (!Files.exists(directory)) {
+      return List.of();
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.toList();
+    }
+  }
+
+  private Path stored(PlafondDocument document) {
+    return Paths.get(uploadDir).resolve(document.getFileUrl().substring("/uploads/".length()));
+  }
+
+  private int refCount(String sha256) {
+    return jdbcTemplate.queryForObject(
+        "SELECT ref_count FROM document_blobs WHERE sha256 = ?", Integer.class, sha256);
+  }
+
+  private static byte[] jpeg(int size) {
+    byte[] content = new byte[size];
+    new Random().nextBytes(content);
+    System.arraycopy(JPEG_HEADER, 0, content, 0, JPEG_HEADER.length);
+    return content;
+  }
+
+  private static byte[] field(String name, String value) {
+    return ("--"
+            + BOUNDARY
+            + "\r\nContent-Disposition: form-data; name=\""
+            + name
+            + "\"\r\n\r\n"
+            + value
+            + "\r\n")
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] file(String filename, byte[] content) throws IOException {
+    ByteArrayOutputStream part = new ByteArrayOutputStream();
+    part.write(
+        ("--"
+                + BOUNDARY
+                + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\""
+                + filename
+                + "\"\r\nContent-Type: application/octet-stream\r\n\r\n")
+            .getBytes(StandardCharsets.UTF_8));
+    part.write(content);
+    part.write("\r\n".getBytes(StandardCharsets.UTF_8));
+    return part.toByteArray();
+  }
+
+  private static MockHttpServletRequest multipart(byte[]... parts) throws IOException {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    for (byte[] part : parts) {
+      body.write(part);
+    }
+    body.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/documents");
+    request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+    request.setContent(body.toByteArray());
+    return request;
+  }
+}
@@ -0,0 +1,184 @@
+package com.example.loanlyFinalProject.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.dto.request.PlafondReviewRequest;
+import com.example.loanlyFinalProject.dto.response.UserPlafondResponse;
+import com.example.loanlyFinalProject.dto.response.WorkQueueClaimResponse;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("WorkQueueService Integration Tests")
+class WorkQueueServiceTest {
+
+  private static final int APPLICATIONS = 40;
+  private static final int REVIEWERS = 4;
+
+  @Autowired private WorkQueueService workQueueService;
+
+  @Autowired private PlafondApplicationService applicationService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private List<User> reviewers;
+  private List<Long> applicationIds;
+
+  @BeforeEach
+  void setUp() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    reviewers = new ArrayList<>();
+    for (int i = 0; i < REVIEWERS; i++) {
+      reviewers.add(user("mkt" + i + "-" + suffix));
+    }
+    User customer = user("wq-" + suffix);
+    Plafond plafond =
+        plafondRepository.save(
+            Plafond.builder().name("Queue " + suffix).maxAmount(new BigDecimal("5000000")).build());
+
+    applicationIds = new ArrayList<>();
+    for (int i = 0; i < APPLICATIONS; i++) {
+      applicationIds.add(
+          userPlafondRepository
+              .save(
+                  UserPlafond.builder()
+                      .user(customer)
+                      .plafond(plafond)
+                      .status(UserPlafond.PlafondApplicationStatus.PENDING_REVIEW)
+                      .build())
+              .getId());
+    }
+  }
+
+  @Test
+  @DisplayName("Claim - Concurrent reviewers should get disjoint leases covering the queue")
+  void claim_ConcurrentReviewers_ShouldGetDisjointLeases() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(REVIEWERS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<List<Long>>> results = new ArrayList<>();
+    for (User reviewer : reviewers) {
+      Callable<List<Long>> drain =
+          () -> {
+            start.await();
+            List<Long> claimed = new ArrayList<>();
+            List<Long> batch;
+            do {
+              batch =
+                  workQueueService
+                      .claim(WorkQueueService.Queue.PLAFOND_REVIEW, reviewer.getId(), 3)
+                      .ids();
+              claimed.addAll(batch);
+            } while (!batch.isEmpty());
+            return claimed;
+          };
+      results.add(pool.submit(drain));
+    }
+    start.countDown();
+
+    Set<Long> seen = new HashSet<>();
+    for (Future<List<Long>> result : results) {
+      for (Long id : result.get()) {
+        assertTrue(seen.add(id), "Application " + id + " was leased twice");
+      }
+    }
+    pool.shutdown();
+
+    assertTrue(seen.containsAll(applicationIds));
+    UserPlafond leased = userPlafondRepository.findById(applicationIds.get(0)).orElseThrow();
+    assertNotNull(leased.getLeaseOwnerId());
+    assertNotNull(leased.getLeaseExpiresAt());
+  }
+
+  @Test
+  @DisplayName("Claim - Expired leases should return to the pool")
+  void claim_ExpiredLease_ShouldBeReclaimable() {
+    Long first = claimAll(reviewers.get(0)).get(0);
+
+    assertFalse(claimAll(reviewers.get(1)).contains(first));
+
+    jdbcTemplate.update(
+        "UPDATE user_plafonds SET lease_expires_at = DATEADD(MINUTE, -1, CURRENT_TIMESTAMP)"
+            + " WHERE id = ?",
+        first);
+
+    assertTrue(claimAll(reviewers.get(1)).contains(first));
+    assertEquals(
+        reviewers.get(1).getId(),
+        userPlafondRepository.findById(first).orElseThrow().getLeaseOwnerId());
+  }
+
+  @Test
+  @DisplayName("Review - Should refuse applications leased to another reviewer")
+  void review_LeasedToAnother_ShouldBeRefused() {
+    WorkQueueClaimResponse<UserPlafondResponse> claim =
+        applicationService.claimApplications(
+            reviewers.get(0).getId(), WorkQueueService.Queue.PLAFOND_REVIEW, 1);
+    Long id = claim.getItems().get(0).getId();
+    assertEquals("PENDING_REVIEW", claim.getItems().get(0).getStatus());
+
+    PlafondReviewRequest request = new PlafondReviewRequest();
+    request.setApplicationId(id);
+    request.setApproved(true);
+    request.setNote("OK");
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> applicationService.reviewApplication(reviewers.get(1).getId(), request));
+
+    UserPlafondResponse reviewed =
+        applicationService.reviewApplication(reviewers.get(0).getId(), request);
+    assertEquals("WAITING_APPROVAL", reviewed.getStatus());
+    UserPlafond saved = userPlafondRepository.findById(id).orElseThrow();
+    assertNull(saved.getLeaseOwnerId());
+    assertNull(saved.getLeaseExpiresAt());
+  }
+
+  // Claims in batches until the queue is empty for this reviewer
+  private List<Long> claimAll(User reviewer) {
+    List<Long> claimed = new ArrayList<>();
+    List<Long> batch;
+    do {
+      batch =
+          workQueueService.claim(WorkQueueService.Queue.PLAFOND_REVIEW, reviewer.getId(), 50).ids();
+      claimed.addAll(batch);
+    } while (!batch.isEmpty());
+    return applicationIds.stream().filter(claimed::contains).toList();
+  }
+
+  private User user(String username) {
+    return userRepository.save(
+        User.builder().username(username).email(username + "@test.com").password("secret").build());
+  }
+}
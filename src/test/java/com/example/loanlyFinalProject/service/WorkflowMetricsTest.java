@@ -0,0 +1,198 @@
+package com.example.loanlyFinalProject.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.dto.request.PlafondReviewRequest;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.exception.StateConflictException;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "app.metrics.scrape-token=" + WorkflowMetricsTest.SCRAPE_TOKEN)
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("WorkflowMetrics Integration Tests")
+class WorkflowMetricsTest {
+
+  static final String SCRAPE_TOKEN = "test-scrape-token";
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Autowired private WorkflowMetrics workflowMetrics;
+
+  @Autowired private PlafondApplicationService plafondApplicationService;
+
+  @Autowired private NotificationService notificationService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  private User marketing;
+  private UserPlafond application;
+
+  @BeforeEach
+  void setUp() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    marketing = user("mkt-" + suffix);
+    Plafond plafond =
+        plafondRepository.save(
+            Plafond.builder()
+                .name("Metrics " + suffix)
+                .maxAmount(new BigDecimal("5000000"))
+                .build());
+    application =
+        userPlafondRepository.save(
+            UserPlafond.builder()
+                .user(user("cust-" + suffix))
+                .plafond(plafond)
+                .status(UserPlafond.PlafondApplicationStatus.PENDING_REVIEW)
+                .build());
+  }
+
+  @Test
+  @DisplayName("Review - Should count the committed transition, the rejection and the call time")
+  void review_ShouldRecordTransitionRejectionAndTimer() {
+    double transitions = transitions("PENDING_REVIEW", "REJECTED");
+    double rejections = count("workflow.rejections", "stage", "marketing");
+    long calls = reviewCalls("none");
+
+    plafondApplicationService.reviewApplication(
+        marketing.getId(),
+        PlafondReviewRequest.builder()
+            .applicationId(application.getId())
+            .approved(false)
+            .note("Incomplete")
+            .build());
+
+    assertEquals(transitions + 1, transitions("PENDING_REVIEW", "REJECTED"));
+    assertEquals(rejections + 1, count("workflow.rejections", "stage", "marketing"));
+    assertEquals(calls + 1, reviewCalls("none"));
+  }
+
+  @Test
+  @DisplayName("Failed review - Should time the call but count no transition")
+  void failedReview_ShouldNotCountTransition() {
+    plafondApplicationService.reviewApplication(
+        marketing.getId(),
+        PlafondReviewRequest.builder().applicationId(application.getId()).approved(true).build());
+    double transitions = transitions("PENDING_REVIEW", "WAITING_APPROVAL");
+    long failures = reviewCalls(StateConflictException.class.getSimpleName());
+
+    // Already reviewed: the second attempt is rolled back
+    assertThrows(
+        StateConflictException.class,
+        () ->
+            plafondApplicationService.reviewApplication(
+                marketing.getId(),
+                PlafondReviewRequest.builder()
+                    .applicationId(application.getId())
+                    .approved(true)
+                    .build()));
+
+    assertEquals(transitions, transitions("PENDING_REVIEW", "WAITING_APPROVAL"));
+    assertEquals(failures + 1, reviewCalls(StateConflictException.class.getSimpleName()));
+  }
+
+  @Test
+  @DisplayName("Queue gauges - Should report the database counts after a refresh")
+  void queueGauges_ShouldReflectDatabaseCounts() {
+    workflowMetrics.refreshQueueSizes();
+
+    assertEquals(
+        userPlafondRepository.countByStatus(UserPlafond.PlafondApplicationStatus.PENDING_REVIEW),
+        meterRegistry.get("workflow.queue.size").tag("queue", "pending_review").gauge().value());
+  }
+
+  @Test
+  @DisplayName("Prometheus - Should require the scrape token or a super admin")
+  void prometheus_ShouldBeProtected() throws Exception {
+    mockMvc.perform(get("/actuator/prometheus")).andExpect(status().is4xxClientError());
+    mockMvc
+        .perform(get("/actuator/prometheus").header("Authorization", "Bearer wrong-token"))
+        .andExpect(status().is4xxClientError());
+
+    // Timers appear with their first call
+    notificationService.getUnreadCount(marketing.getId());
+    String body =
+        mockMvc
+            .perform(get("/actuator/prometheus").header("Authorization", "Bearer " + SCRAPE_TOKEN))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    assertTrue(body.contains("service_calls_seconds_bucket"));
+    assertTrue(body.contains("workflow_queue_size"));
+  }
+
+  @Test
+  @DisplayName("Metrics - Should be readable by super admins only")
+  void metrics_ShouldRequireSuperAdmin() throws Exception {
+    mockMvc
+        .perform(
+            get("/actuator/metrics/hikaricp.connections")
+                .with(SecurityMockMvcRequestPostProcessors.user("cust").roles("CUSTOMER")))
+        .andExpect(status().isForbidden());
+    mockMvc
+        .perform(
+            get("/actuator/metrics")
+                .with(SecurityMockMvcRequestPostProcessors.user("admin").roles("SUPER_ADMIN")))
+        .andExpect(status().isOk());
+  }
+
+  private double transitions(String from, String to) {
+    Counter counter =
+        meterRegistry
+            .find("workflow.transitions")
+            .tags("workflow", "application", "from", from, "to", to)
+            .counter();
+    return counter == null ? 0 : counter.count();
+  }
+
+  private double count(String name, String key, String value) {
+    Counter counter = meterRegistry.find(name).tag(key, value).counter();
+    return counter == null ? 0 : counter.count();
+  }
+
+  private long reviewCalls(String exception) {
+    Timer timer =
+        meterRegistry
+            .find(WorkflowMetrics.SERVICE_TIMER)
+            .tags("method", "reviewApplication", "exception", exception)
+            .timer();
+    return timer == null ? 0 : timer.count();
+  }
+
+  private User user(String username) {
+    return userRepository.save(
+        User.builder().username(username).email(username + "@test.com").password("secret").build());
+  }
+}
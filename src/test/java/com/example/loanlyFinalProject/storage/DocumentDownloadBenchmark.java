@@ -0,0 +1,237 @@
+package com.example.loanlyFinalProject.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.entity.Role;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.repository.RoleRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import com.example.loanlyFinalProject.security.CustomUserDetails;
+import com.example.loanlyFinalProject.security.JwtService;
+import com.example.loanlyFinalProject.service.TokenBlacklistService;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Concurrent document downloads over HTTP: signed URLs through the file endpoint (Tomcat sendfile)
+ * versus the previous static resource handler, for whole files and for 256 KB ranges as a PDF
+ * viewer requests them. Reports latency percentiles, throughput and server CPU per download. Not
+ * part of the default build; run with
+ *
+ * <pre>
+ * mvn test -Dtest=DocumentDownloadBenchmark -DexcludedTestGroups=
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Import({TestConfig.class, DocumentDownloadBenchmark.StaticUploadsConfig.class})
+@Tag("benchmark")
+@DisplayName("Document download benchmark")
+class DocumentDownloadBenchmark {
+
+  private static final int FILE_SIZE = 8 * 1024 * 1024;
+  private static final int FILES = 16;
+  private static final int RANGE_SIZE = 256 * 1024;
+  private static final int CLIENTS = 8;
+  private static final int DOWNLOADS = 256;
+
+  @LocalServerPort private int port;
+
+  @MockBean private TokenBlacklistService tokenBlacklistService;
+
+  @Autowired private JwtService jwtService;
+
+  @Autowired private RoleRepository roleRepository;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private DocumentUrlSigner urlSigner;
+
+  @Value("${file.upload-dir}")
+  private String uploadDir;
+
+  private final HttpClient client =
+      HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  private final List<String> relativePaths = new ArrayList<>();
+  private String token;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Random random = new Random(42);
+    byte[] content = new byte[FILE_SIZE];
+    for (int i = 0; i < FILES; i++) {
+      random.nextBytes(content);
+      String sha = UUID.randomUUID().toString().replace("-", "");
+      String relativePath = ContentAddressedStore.relativePath(sha, DocumentContentType.PDF);
+      Path file = Paths.get(uploadDir).resolve(relativePath);
+      Files.createDirectories(file.getParent());
+      Files.write(file, content);
+      relativePaths.add(relativePath);
+    }
+
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    Role customerRole = roleRepository.findByName("CUSTOMER").orElseThrow();
+    User customer =
+        User.builder()
+            .username("dl-" + suffix)
+            .email("dl-" + suffix + "@test.com")
+            .password("secret")
+            .build();
+    customer.getRoles().add(customerRole);
+    token = jwtService.generateToken(new CustomUserDetails(userRepository.save(customer)));
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    deleteTree(Paths.get(uploadDir));
+  }
+
+  @Test
+  @DisplayName("Concurrent 8 MB downloads - signed sendfile vs static resources")
+  void concurrentDownloads() throws Exception {
+    IntFunction<String> signed = i -> urlSigner.sign(relativePaths.get(i % FILES));
+    IntFunction<String> legacy = i -> "/bench/uploads/" + relativePaths.get(i % FILES);
+
+    run(legacy, CLIENTS * 2, false); // Warm up both paths
+    run(signed, CLIENTS * 2, false);
+
+    System.out.printf(
+        "%nDocument download benchmark: %d downloads of %d MB files, %d concurrent clients%n",
+        DOWNLOADS, FILE_SIZE / (1024 * 1024), CLIENTS);
+    System.out.printf(
+        "%-16s %9s %9s %9s %10s %16s%n",
+        "path", "p50 ms", "p99 ms", "max ms", "MB/s", "CPU ms/download");
+    run(legacy, DOWNLOADS, false).print("static full");
+    run(signed, DOWNLOADS, false).print("signed full");
+    run(legacy, DOWNLOADS * 4, true).print("static 256K");
+    run(signed, DOWNLOADS * 4, true).print("signed 256K");
+  }
+
+  private Result run(IntFunction<String> url, int downloads, boolean ranged) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+    List<Future<long[]>> futures = new ArrayList<>();
+    long cpuBefore = processCpuNanos();
+    long start = System.nanoTime();
+    for (int i = 0; i < downloads; i++) {
+      String path = url.apply(i);
+      futures.add(pool.submit(() -> download(path, ranged)));
+    }
+    List<Long> latencies = new ArrayList<>();
+    long bytes = 0;
+    for (Future<long[]> future : futures) {
+      long[] result = future.get();
+      latencies.add(result[0]);
+      bytes += result[1];
+    }
+    long elapsed = System.nanoTime() - start;
+    long cpu = processCpuNanos() - cpuBefore;
+    pool.shutdown();
+    return new Result(downloads, latencies, bytes, elapsed, cpu);
+  }
+
+  // Returns latency and body size
+  private long[] download(String path, boolean ranged) throws Exception {
+    HttpRequest.Builder request =
+        HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .header("Authorization", "Bearer " + token);
+    if (ranged) {
+      long offset = ThreadLocalRandom.current().nextLong(FILE_SIZE / RANGE_SIZE) * RANGE_SIZE;
+      request.header("Range", "bytes=" + offset + "-" + (offset + RANGE_SIZE - 1));
+    }
+
+    long start = System.nanoTime();
+    HttpResponse<byte[]> response =
+        client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    long latency = System.nanoTime() - start;
+    assertEquals(ranged ? 206 : 200, response.statusCode());
+    assertEquals(ranged ? RANGE_SIZE : FILE_SIZE, response.body().length);
+    return new long[] {latency, response.body().length};
+  }
+
+  // Includes the client threads, which do the same work on both paths
+  private static long processCpuNanos() {
+    return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+        .getProcessCpuTime();
+  }
+
+  private static void deleteTree(Path root) throws IOException {
+    if (!Files.exists(root)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(root)) {
+      for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(p);
+      }
+    }
+  }
+
+  private record Result(
+      int downloads, List<Long> latencies, long bytes, long elapsedNanos, long cpuNanos) {
+
+    void print(String name) {
+      List<Long> sorted = new ArrayList<>(latencies);
+      Collections.sort(sorted);
+      System.out.printf(
+          "%-16s %9.1f %9.1f %9.1f %10.1f %16.2f%n",
+          name,
+          percentile(sorted, 0.50) / 1e6,
+          percentile(sorted, 0.99) / 1e6,
+          sorted.get(sorted.size() - 1) / 1e6,
+          bytes / (1024.0 * 1024.0) / (elapsedNanos / 1e9),
+          cpuNanos / 1e6 / downloads);
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+      int index = (int) Math.ceil(p * sorted.size()) - 1;
+      return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+  }
+
+  /** The download path before signed URLs: the upload directory as static resources. */
+  static class StaticUploadsConfig implements WebMvcConfigurer {
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+      registry
+          .addResourceHandler("/bench/uploads/**")
+          .addResourceLocations(Paths.get(uploadDir).toAbsolutePath().toUri().toString());
+    }
+  }
+}
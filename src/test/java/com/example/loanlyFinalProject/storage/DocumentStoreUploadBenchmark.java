@@ -0,0 +1,145 @@
+package com.example.loanlyFinalProject.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+/**
+ * Time to get one 32 MB document into each store: a local rename, one PUT to the bucket, parallel
+ * multipart, and a client PUT to a pre-signed URL, for which this node only signs and then checks
+ * the result. The bucket is the in-memory stand-in throttled per connection, as a remote bucket is
+ * bounded by per-connection bandwidth rather than by the disk. Not part of the default build; run
+ * with
+ *
+ * <pre>
+ * mvn test -Dtest=DocumentStoreUploadBenchmark -DexcludedTestGroups=
+ * </pre>
+ */
+@Tag("benchmark")
+@DisplayName("Document store upload benchmark")
+class DocumentStoreUploadBenchmark {
+
+  private static final int FILE_SIZE = 32 * 1024 * 1024;
+  private static final long LINK_BYTES_PER_SECOND = 40L * 1024 * 1024;
+  private static final int PART_SIZE = 8 * 1024 * 1024;
+  private static final int MAX_CONCURRENT_PARTS = 4;
+  private static final int ROUNDS = 5;
+
+  @TempDir Path directory;
+
+  private FakeS3Server s3;
+  private S3AsyncClient client;
+  private S3Presigner presigner;
+  private byte[] content;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    s3 = new FakeS3Server();
+    s3.throttle(LINK_BYTES_PER_SECOND);
+    client = s3.client();
+    presigner = s3.presigner();
+    content = new byte[FILE_SIZE];
+    new Random(42).nextBytes(content);
+  }
+
+  @AfterEach
+  void tearDown() {
+    client.close();
+    presigner.close();
+    s3.close();
+  }
+
+  @Test
+  @DisplayName("Upload - Compare local, single PUT, parallel multipart and direct uploads")
+  void compareUploadPaths() throws Exception {
+    DocumentStore local = new LocalDocumentStore(directory.resolve("store"));
+    DocumentStore single =
+        new S3DocumentStore(client, presigner, FakeS3Server.BUCKET, PART_SIZE, Long.MAX_VALUE, 1);
+    DocumentStore multipart =
+        new S3DocumentStore(
+            client, presigner, FakeS3Server.BUCKET, PART_SIZE, PART_SIZE, MAX_CONCURRENT_PARTS);
+    String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+
+    report("local rename", i -> local.put("blobs/local-" + i, file(), "application/pdf"));
+    report("S3 single PUT", i -> single.put("blobs/single-" + i, file(), "application/pdf"));
+    report(
+        "S3 multipart x" + MAX_CONCURRENT_PARTS,
+        i -> multipart.put("blobs/multi-" + i, file(), "application/pdf"));
+
+    HttpClient http = HttpClient.newHttpClient();
+    long[] nodeNanos = new long[ROUNDS];
+    report(
+        "direct PUT (client)",
+        i -> {
+          String key = "blobs/.staging/direct-" + i;
+          long start = System.nanoTime();
+          DirectUpload upload =
+              multipart
+                  .directUpload(key, "application/pdf", FILE_SIZE, sha256, Duration.ofMinutes(5))
+                  .orElseThrow();
+          nodeNanos[i] = System.nanoTime() - start;
+
+          HttpRequest.Builder request =
+              HttpRequest.newBuilder(upload.url())
+                  .method(upload.method(), HttpRequest.BodyPublishers.ofByteArray(content));
+          upload.headers().forEach(request::header);
+          assertEquals(
+              200, http.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode());
+
+          // What completing costs this node: size, sniff and the server-side move
+          start = System.nanoTime();
+          assertEquals(FILE_SIZE, multipart.size(key).orElseThrow());
+          multipart.readPrefix(key, DocumentContentType.SNIFF_LENGTH);
+          multipart.move(key, "blobs/direct-" + i);
+          nodeNanos[i] += System.nanoTime() - start;
+        });
+    Arrays.sort(nodeNanos);
+    System.out.printf(
+        "%-24s median %7.1f ms on this node%n", "direct PUT (node)", nodeNanos[ROUNDS / 2] / 1e6);
+
+    assertArrayEquals(content, s3.object("blobs/multi-0"));
+  }
+
+  private void report(String name, Round round) throws Exception {
+    long[] nanos = new long[ROUNDS];
+    for (int i = 0; i < ROUNDS; i++) {
+      long start = System.nanoTime();
+      round.run(i);
+      nanos[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(nanos);
+    double median = nanos[ROUNDS / 2] / 1e6;
+    System.out.printf(
+        "%-24s median %7.1f ms  %7.1f MB/s%n",
+        name, median, FILE_SIZE / (1024.0 * 1024.0) / (median / 1000));
+  }
+
+  private Path file() throws IOException {
+    Path file = Files.createTempFile(directory, "upload-", ".part");
+    Files.write(file, content);
+    return file;
+  }
+
+  @FunctionalInterface
+  private interface Round {
+    void run(int round) throws Exception;
+  }
+}
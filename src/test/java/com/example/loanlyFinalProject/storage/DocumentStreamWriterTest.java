@@ -0,0 +1,147 @@
+package com.example.loanlyFinalProject.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.exception.UnsupportedDocumentTypeException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+@DisplayName("DocumentStreamWriter Unit Tests")
+class DocumentStreamWriterTest {
+
+  private static final byte[] PNG_HEADER = {
+    (byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0x0D
+  };
+
+  @TempDir Path directory;
+
+  @Test
+  @DisplayName("Write - Should hash, measure and sniff the content in one pass")
+  void write_ShouldHashMeasureAndSniff() throws Exception {
+    byte[] content = png(300_000);
+
+    StagedDocument staged =
+        DocumentStreamWriter.write(new ByteArrayInputStream(content), directory, 1_000_000);
+
+    assertEquals(DocumentContentType.PNG, staged.contentType());
+    assertEquals(content.length, staged.sizeBytes());
+    assertEquals(
+        HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)),
+        staged.sha256());
+    assertArrayEquals(content, Files.readAllBytes(staged.partFile()));
+
+    Path target = directory.resolve("ktp.png");
+    staged.moveTo(target);
+    assertTrue(Files.exists(target));
+    assertEquals(1, fileCount());
+  }
+
+  @Test
+  @DisplayName("Write - Should accept a file shorter than the sniff window")
+  void write_ShortFile_ShouldBeSniffed() throws Exception {
+    byte[] content = "%PDF-1".getBytes(StandardCharsets.US_ASCII);
+
+    StagedDocument staged =
+        DocumentStreamWriter.write(new ByteArrayInputStream(content), directory, 1_000);
+
+    assertEquals(DocumentContentType.PDF, staged.contentType());
+  }
+
+  @Test
+  @DisplayName("Write - Should stop reading once the size limit is passed")
+  void write_Oversized_ShouldStopEarlyAndClean() throws Exception {
+    CountingStream in = new CountingStream(new ByteArrayInputStream(png(5_000_000)));
+
+    assertThrows(
+        MaxUploadSizeExceededException.class,
+        () -> DocumentStreamWriter.write(in, directory, 1_000_000));
+
+    assertTrue(in.count.get() <= 1_000_000 + DocumentStreamWriter.BUFFER_SIZE);
+    assertEquals(0, fileCount());
+  }
+
+  @Test
+  @DisplayName("Write - Should reject unknown content after the first buffer")
+  void write_UnknownType_ShouldRejectEarlyAndClean() throws Exception {
+    byte[] content = new byte[2_000_000];
+    content[0] = 'M';
+    content[1] = 'Z';
+    CountingStream in = new CountingStream(new ByteArrayInputStream(content));
+
+    assertThrows(
+        UnsupportedDocumentTypeException.class,
+        () -> DocumentStreamWriter.write(in, directory, 10_000_000));
+
+    assertTrue(in.count.get() <= DocumentStreamWriter.BUFFER_SIZE);
+    assertEquals(0, fileCount());
+  }
+
+  @Test
+  @DisplayName("Sniff - Should recognize every accepted type by its magic bytes")
+  void sniff_ShouldRecognizeMagicBytes() {
+    assertEquals(DocumentContentType.PNG, sniff(PNG_HEADER));
+    assertEquals(
+        DocumentContentType.JPEG, sniff(new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}));
+    assertEquals(
+        DocumentContentType.WEBP, sniff("RIFF\0\0\0\0WEBP".getBytes(StandardCharsets.US_ASCII)));
+    assertNull(sniff("RIFF\0\0\0\0WAVE".getBytes(StandardCharsets.US_ASCII)));
+    assertNull(sniff("<html>".getBytes(StandardCharsets.US_ASCII)));
+  }
+
+  private static DocumentContentType sniff(byte[] head) {
+    return DocumentContentType.sniff(head, head.length).orElse(null);
+  }
+
+  private static byte[] png(int size) {
+    byte[] content = new byte[size];
+    new Random(size).nextBytes(content);
+    System.arraycopy(PNG_HEADER, 0, content, 0, PNG_HEADER.length);
+    return content;
+  }
+
+  private long fileCount() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.count();
+    }
+  }
+
+  private static final class CountingStream extends InputStream {
+    private final InputStream delegate;
+    private final AtomicLong count = new AtomicLong();
+
+    CountingStream(InputStream delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = delegate.read();
+      if (b >= 0) {
+        count.incrementAndGet();
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = delegate.read(b, off, len);
+      if (n > 0) {
+        count.addAndGet(n);
+      }
+      return n;
+    }
+  }
+}
@@ -0,0 +1,345 @@
+package com.example.loanlyFinalProject.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.Role;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.RoleRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import com.example.loanlyFinalProject.security.CustomUserDetails;
+import com.example.loanlyFinalProject.security.JwtService;
+import com.example.loanlyFinalProject.service.TokenBlacklistService;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Concurrent 10 MB document uploads over HTTP: streamed versus the previous path (servlet multipart
+ * spooled to a temp file, then copied into place), and new content versus duplicates of a stored
+ * blob. Reports disk bytes written per upload from /proc/self/io, latency percentiles and the
+ * storage saved by deduplication. Not part of the default build; run with
+ *
+ * <pre>
+ * mvn test -Dtest=DocumentUploadBenchmark -DexcludedTestGroups=
+ * </pre>
+ *
+ * Servlet multipart is switched on lazily here only so the buffered baseline can still bind a
+ * {@link MultipartFile}; the streaming endpoint never touches it.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.servlet.multipart.enabled=true",
+      "spring.servlet.multipart.resolve-lazily=true",
+      "spring.servlet.multipart.max-file-size=20MB",
+      "spring.servlet.multipart.max-request-size=20MB"
+    })
+@ActiveProfiles("test")
+@Import({TestConfig.class, DocumentUploadBenchmark.BufferedUploadController.class})
+@Tag("benchmark")
+@DisplayName("Document upload benchmark")
+class DocumentUploadBenchmark {
+
+  private static final int FILE_SIZE = 10 * 1024 * 1024;
+  private static final int CLIENTS = 8;
+  private static final int UPLOADS_PER_CLIENT = 6;
+  private static final String BOUNDARY = "----loanlyBenchBoundary";
+
+  @LocalServerPort private int port;
+
+  @MockBean private TokenBlacklistService tokenBlacklistService;
+
+  @Autowired private JwtService jwtService;
+
+  @Autowired private RoleRepository roleRepository;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  @Autowired private ContentAddressedStore contentStore;
+
+  @Value("${file.upload-dir}")
+  private String uploadDir;
+
+  private final HttpClient client =
+      HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  private byte[] payload;
+  private String token;
+  private Long applicationId;
+
+  @BeforeEach
+  void setUp() {
+    payload = new byte[FILE_SIZE];
+    new Random(42).nextBytes(payload);
+    payload[0] = (byte) 0xFF;
+    payload[1] = (byte) 0xD8;
+    payload[2] = (byte) 0xFF;
+
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    Role customerRole = roleRepository.findByName("CUSTOMER").orElseThrow();
+    User customer =
+        User.builder()
+            .username("bench-" + suffix)
+            .email("bench-" + suffix + "@test.com")
+            .password("secret")
+            .build();
+    customer.getRoles().add(customerRole);
+    customer = userRepository.save(customer);
+    token = jwtService.generateToken(new CustomUserDetails(customer));
+
+    Plafond plafond =
+        plafondRepository.save(
+            Plafond.builder().name("Bench " + suffix).maxAmount(new BigDecimal("5000000")).build());
+    applicationId =
+        userPlafondRepository
+            .save(
+                UserPlafond.builder()
+                    .user(customer)
+                    .plafond(plafond)
+                    .status(UserPlafond.PlafondApplicationStatus.PENDING_REVIEW)
+                    .build())
+            .getId();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    deleteTree(Paths.get(uploadDir));
+  }
+
+  @Test
+  @DisplayName("Concurrent 10 MB uploads - streamed vs buffered")
+  void concurrentUploads() throws Exception {
+    String streamed = "/api/customer/plafonds/applications/" + applicationId + "/documents";
+    String buffered = "/bench/buffered/" + applicationId;
+
+    run(streamed, CLIENTS, this::unique); // Warm up both paths
+    run(buffered, CLIENTS, this::unique);
+
+    Result bufferedResult = run(buffered, CLIENTS * UPLOADS_PER_CLIENT, this::unique);
+    Result streamedResult = run(streamed, CLIENTS * UPLOADS_PER_CLIENT, this::unique);
+
+    System.out.printf(
+        "%nDocument upload benchmark: %d x %d MB uploads, %d concurrent clients%n",
+        CLIENTS * UPLOADS_PER_CLIENT, FILE_SIZE / (1024 * 1024), CLIENTS);
+    System.out.printf(
+        "%-9s %14s %19s %9s %9s %9s %10s%n",
+        "path", "disk MB/upload", "cancelled MB/upload", "p50 ms", "p99 ms", "max ms", "MB/s");
+    bufferedResult.print("buffered");
+    streamedResult.print("streamed");
+  }
+
+  @Test
+  @DisplayName("Concurrent 10 MB uploads - new content vs duplicates of stored content")
+  void duplicateUploads() throws Exception {
+    String streamed = "/api/customer/plafonds/applications/" + applicationId + "/documents";
+    int uploads = CLIENTS * UPLOADS_PER_CLIENT;
+    run(streamed, CLIENTS, this::unique); // Warm up
+
+    ContentAddressedStore.StoreStats before = contentStore.stats();
+    Result firstResult = run(streamed, uploads, this::unique);
+    Result duplicateResult = run(streamed, uploads, i -> payload);
+    ContentAddressedStore.StoreStats after = contentStore.stats();
+
+    System.out.printf(
+        "%nDocument dedup benchmark: %d new + %d duplicate 10 MB uploads, %d concurrent clients%n",
+        uploads, uploads, CLIENTS);
+    System.out.printf(
+        "%-9s %14s %19s %9s %9s %9s %10s%n",
+        "upload", "disk MB/upload", "cancelled MB/upload", "p50 ms", "p99 ms", "max ms", "MB/s");
+    firstResult.print("new");
+    duplicateResult.print("duplicate");
+    double mb = 1024.0 * 1024.0;
+    long logical = after.logicalBytes() - before.logicalBytes();
+    long stored = after.storedBytes() - before.storedBytes();
+    System.out.printf(
+        "Storage: %.0f MB of documents held in %.0f MB of blobs (%.0f MB, %.0f%% saved)%n",
+        logical / mb, stored / mb, (logical - stored) / mb, 100.0 * (logical - stored) / logical);
+  }
+
+  // Same size and type as the payload, different hash for every upload
+  private byte[] unique(int i) {
+    byte[] content = payload.clone();
+    long stamp = UUID.randomUUID().getMostSignificantBits();
+    for (int b = 0; b < 8; b++) {
+      content[16 + b] = (byte) (stamp >>> (8 * b));
+    }
+    return content;
+  }
+
+  private Result run(String path, int uploads, IntFunction<byte[]> content) throws Exception {
+    Map<String, Long> before = procIo();
+    ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+    List<Future<Long>> futures = new ArrayList<>();
+    long start = System.nanoTime();
+    for (int i = 0; i < uploads; i++) {
+      int index = i;
+      futures.add(pool.submit(() -> upload(path, content.apply(index))));
+    }
+    List<Long> latencies = new ArrayList<>();
+    for (Future<Long> future : futures) {
+      latencies.add(future.get());
+    }
+    long elapsed = System.nanoTime() - start;
+    pool.shutdown();
+    Map<String, Long> after = procIo();
+    return new Result(uploads, latencies, elapsed, before, after);
+  }
+
+  private long upload(String path, byte[] content) throws Exception {
+    byte[] head =
+        ("--"
+                + BOUNDARY
+                + "\r\nContent-Disposition: form-data; name=\"documentType\"\r\n\r\nSLIP_GAJI\r\n--"
+                + BOUNDARY
+                + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"slip.jpg\""
+                + "\r\nContent-Type: image/jpeg\r\n\r\n")
+            .getBytes(StandardCharsets.US_ASCII);
+    byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+    HttpRequest request =
+        HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+            .POST(
+                HttpRequest.BodyPublishers.concat(
+                    HttpRequest.BodyPublishers.ofByteArray(head),
+                    HttpRequest.BodyPublishers.ofByteArray(content),
+                    HttpRequest.BodyPublishers.ofByteArray(tail)))
+            .build();
+
+    long start = System.nanoTime();
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    long latency = System.nanoTime() - start;
+    assertEquals(200, response.statusCode(), response.body());
+    return latency;
+  }
+
+  // Empty when the platform has no /proc/self/io
+  private static Map<String, Long> procIo() throws IOException {
+    Map<String, Long> io = new HashMap<>();
+    Path proc = Paths.get("/proc/self/io");
+    if (Files.isReadable(proc)) {
+      for (String line : Files.readAllLines(proc)) {
+        String[] kv = line.split(":\\s*");
+        io.put(kv[0], Long.parseLong(kv[1].trim()));
+      }
+    }
+    return io;
+  }
+
+  private static void deleteTree(Path root) throws IOException {
+    if (!Files.exists(root)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(root)) {
+      for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(p);
+      }
+    }
+  }
+
+  private record Result(
+      int uploads,
+      List<Long> latencies,
+      long elapsedNanos,
+      Map<String, Long> before,
+      Map<String, Long> after) {
+
+    void print(String name) {
+      List<Long> sorted = new ArrayList<>(latencies);
+      Collections.sort(sorted);
+      double mb = 1024.0 * 1024.0;
+      System.out.printf(
+          "%-9s %14s %19s %9.0f %9.0f %9.0f %10.1f%n",
+          name,
+          perUpload("write_bytes", mb),
+          perUpload("cancelled_write_bytes", mb),
+          percentile(sorted, 0.50) / 1e6,
+          percentile(sorted, 0.99) / 1e6,
+          sorted.get(sorted.size() - 1) / 1e6,
+          uploads * (FILE_SIZE / mb) / (elapsedNanos / 1e9));
+    }
+
+    // Bytes written by files deleted before writeback (temp files) show up as cancelled writes
+    private String perUpload(String counter, double mb) {
+      if (!before.containsKey(counter)) {
+        return "n/a";
+      }
+      return String.format("%.1f", (after.get(counter) - before.get(counter)) / mb / uploads);
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+      int index = (int) Math.ceil(p * sorted.size()) - 1;
+      return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+  }
+
+  /** The upload path before streaming: bind a spooled MultipartFile, then copy it into place. */
+  @RestController
+  static class BufferedUploadController {
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @PostMapping("/bench/buffered/{applicationId}")
+    ResponseEntity<Void> upload(
+        @PathVariable Long applicationId,
+        @RequestParam("file") MultipartFile file,
+        @RequestParam("documentType") String documentType)
+        throws IOException {
+      Path directory = Paths.get(uploadDir, "plafonds", String.valueOf(applicationId));
+      Files.createDirectories(directory);
+      Files.copy(
+          file.getInputStream(),
+          directory.resolve(documentType.toLowerCase() + "_" + UUID.randomUUID() + ".jpg"),
+          StandardCopyOption.REPLACE_EXISTING);
+      return ResponseEntity.ok().build();
+    }
+  }
+}
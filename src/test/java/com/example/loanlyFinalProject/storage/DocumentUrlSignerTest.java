@@ -0,0 +1,62 @@
+package com.example.loanlyFinalProject.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+@DisplayName("DocumentUrlSigner Unit Tests")
+class DocumentUrlSignerTest {
+
+  private static final String SECRET = "test-secret-for-document-urls";
+  private static final String PATH = "blobs/ab/cd/abcd.pdf";
+
+  @Test
+  @DisplayName("Sign - Should verify until expiry and round the expiry up to the minute")
+  void sign_ShouldVerifyUntilExpiry() {
+    Instant now = Instant.parse("2026-01-01T10:00:10Z");
+    UriComponents url = parse(signer(now).sign(PATH));
+    long expires = Long.parseLong(url.getQueryParams().getFirst("expires"));
+    String sig = url.getQueryParams().getFirst("sig");
+
+    assertEquals("/files/" + PATH, url.getPath());
+    assertEquals(Instant.parse("2026-01-01T10:06:00Z").getEpochSecond(), expires);
+    assertEquals(signer(now).sign(PATH), signer(now.plusSeconds(30)).sign(PATH));
+
+    assertTrue(signer(now).verify(PATH, expires, sig));
+    assertTrue(signer(Instant.ofEpochSecond(expires)).verify(PATH, expires, sig));
+    assertFalse(signer(Instant.ofEpochSecond(expires + 1)).verify(PATH, expires, sig));
+  }
+
+  @Test
+  @DisplayName("Verify - Should reject a changed path, expiry or key")
+  void verify_Tampered_ShouldBeRejected() {
+    Instant now = Instant.parse("2026-01-01T10:00:00Z");
+    UriComponents url = parse(signer(now).sign(PATH));
+    long expires = Long.parseLong(url.getQueryParams().getFirst("expires"));
+    String sig = url.getQueryParams().getFirst("sig");
+
+    assertFalse(signer(now).verify("blobs/ab/cd/other.pdf", expires, sig));
+    assertFalse(signer(now).verify(PATH, expires + 60, sig));
+    assertFalse(signer(now).verify(PATH, expires, null));
+    assertFalse(
+        new DocumentUrlSigner("another-secret", 300, clock(now)).verify(PATH, expires, sig));
+  }
+
+  private static DocumentUrlSigner signer(Instant now) {
+    return new DocumentUrlSigner(SECRET, 300, clock(now));
+  }
+
+  private static Clock clock(Instant now) {
+    return Clock.fixed(now, ZoneOffset.UTC);
+  }
+
+  private static UriComponents parse(String url) {
+    return UriComponentsBuilder.fromUriString(url).build();
+  }
+}
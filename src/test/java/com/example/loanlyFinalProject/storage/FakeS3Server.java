@@ -0,0 +1,363 @@
+package com.example.loanlyFinalProject.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+/**
+ * An in-memory, path-style S3 endpoint with just the calls {@link S3DocumentStore} makes: object
+ * PUT, GET (with a range), HEAD, DELETE, copy and multipart uploads. Like S3 it rejects a body that
+ * does not match its {@code x-amz-checksum-sha256} header, and returns MD5 ETags, which the SDK
+ * checks. Signatures are not verified. Request bodies can be throttled to a bandwidth per
+ * connection, to see what parallel parts buy over a slow link.
+ */
+public class FakeS3Server implements AutoCloseable {
+
+  public static final String BUCKET = "documents";
+
+  private static final Pattern PART_NUMBER = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newFixedThreadPool(32);
+  private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+  private final Map<String, ConcurrentSkipListMap<Integer, byte[]>> uploads =
+      new ConcurrentHashMap<>();
+  private final AtomicInteger partsInFlight = new AtomicInteger();
+  private final AtomicInteger maxPartsInFlight = new AtomicInteger();
+  private volatile long bytesPerSecond; // 0 for no limit
+
+  public FakeS3Server() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+    server.setExecutor(executor);
+    server.createContext("/", this::handle);
+    server.start();
+  }
+
+  public URI endpoint() {
+    return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+  }
+
+  public S3AsyncClient client() {
+    return S3AsyncClient.builder()
+        .endpointOverride(endpoint())
+        .region(Region.US_EAST_1)
+        .credentialsProvider(credentials())
+        .serviceConfiguration(configuration())
+        .build();
+  }
+
+  public S3Presigner presigner() {
+    return S3Presigner.builder()
+        .endpointOverride(endpoint())
+        .region(Region.US_EAST_1)
+        .credentialsProvider(credentials())
+        .serviceConfiguration(configuration())
+        .build();
+  }
+
+  public void throttle(long bytesPerSecond) {
+    this.bytesPerSecond = bytesPerSecond;
+  }
+
+  public byte[] object(String key) {
+    return objects.get(key);
+  }
+
+  public int maxPartsInFlight() {
+    return maxPartsInFlight.get();
+  }
+
+  public int pendingMultipartUploads() {
+    return uploads.size();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  // ========== REQUESTS ==========
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      String path = exchange.getRequestURI().getPath();
+      String prefix = "/" + BUCKET + "/";
+      if (!path.startsWith(prefix)) {
+        reply(exchange, 404, error("NoSuchBucket"));
+        return;
+      }
+      String key = path.substring(prefix.length());
+      Map<String, String> query = query(exchange.getRequestURI());
+      switch (exchange.getRequestMethod()) {
+        case "PUT" -> {
+          if (query.containsKey("partNumber")) {
+            uploadPart(exchange, query);
+          } else if (exchange.getRequestHeaders().containsKey("x-amz-copy-source")) {
+            copy(exchange, key);
+          } else {
+            put(exchange, key);
+          }
+        }
+        case "POST" -> {
+          if (query.containsKey("uploads")) {
+            String uploadId = UUID.randomUUID().toString();
+            uploads.put(uploadId, new ConcurrentSkipListMap<>());
+            reply(
+                exchange,
+                200,
+                "<InitiateMultipartUploadResult><Bucket>"
+                    + BUCKET
+                    + "</Bucket><Key>"
+                    + key
+                    + "</Key><UploadId>"
+                    + uploadId
+                    + "</UploadId></InitiateMultipartUploadResult>");
+          } else {
+            complete(exchange, key, query.get("uploadId"));
+          }
+        }
+        case "GET" -> get(exchange, key);
+        case "HEAD" -> {
+          byte[] object = objects.get(key);
+          if (object == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+          }
+          exchange.getResponseHeaders().set("ETag", etag(object));
+          exchange.getResponseHeaders().set("Content-Length", Long.toString(object.length));
+          exchange.sendResponseHeaders(200, -1);
+        }
+        case "DELETE" -> {
+          if (query.containsKey("uploadId")) {
+            uploads.remove(query.get("uploadId"));
+          } else {
+            objects.remove(key);
+          }
+          exchange.sendResponseHeaders(204, -1);
+        }
+        default -> reply(exchange, 405, error("MethodNotAllowed"));
+      }
+    }
+  }
+
+  private void put(HttpExchange exchange, String key) throws IOException {
+    byte[] body = read(exchange);
+    String checksum = exchange.getRequestHeaders().getFirst("x-amz-checksum-sha256");
+    if (checksum != null
+        && !checksum.equals(Base64.getEncoder().encodeToString(digest("SHA-256", body)))) {
+      reply(exchange, 400, error("BadDigest"));
+      return;
+    }
+    objects.put(key, body);
+    exchange.getResponseHeaders().set("ETag", etag(body));
+    exchange.sendResponseHeaders(200, -1);
+  }
+
+  private void uploadPart(HttpExchange exchange, Map<String, String> query) throws IOException {
+    int inFlight = partsInFlight.incrementAndGet();
+    maxPartsInFlight.accumulateAndGet(inFlight, Math::max);
+    try {
+      byte[] body = read(exchange);
+      ConcurrentSkipListMap<Integer, byte[]> parts = uploads.get(query.get("uploadId"));
+      if (parts == null) {
+        reply(exchange, 404, error("NoSuchUpload"));
+        return;
+      }
+      parts.put(Integer.parseInt(query.get("partNumber")), body);
+      exchange.getResponseHeaders().set("ETag", etag(body));
+      exchange.sendResponseHeaders(200, -1);
+    } finally {
+      partsInFlight.decrementAndGet();
+    }
+  }
+
+  private void complete(HttpExchange exchange, String key, String uploadId) throws IOException {
+    String manifest = new String(read(exchange), StandardCharsets.UTF_8);
+    ConcurrentSkipListMap<Integer, byte[]> parts = uploads.remove(uploadId);
+    if (parts == null) {
+      reply(exchange, 404, error("NoSuchUpload"));
+      return;
+    }
+    Matcher listed = PART_NUMBER.matcher(manifest);
+    int expected = 1;
+    while (listed.find()) {
+      if (Integer.parseInt(listed.group(1)) != expected++) {
+        reply(exchange, 400, error("InvalidPartOrder"));
+        return;
+      }
+    }
+    if (expected - 1 != parts.size()) {
+      reply(exchange, 400, error("InvalidPart"));
+      return;
+    }
+    int size = parts.values().stream().mapToInt(p -> p.length).sum();
+    byte[] object = new byte[size];
+    int offset = 0;
+    for (byte[] part : parts.values()) {
+      System.arraycopy(part, 0, object, offset, part.length);
+      offset += part.length;
+    }
+    objects.put(key, object);
+    String etag =
+        "\"" + HexFormat.of().formatHex(digest("MD5", object)) + "-" + parts.size() + "\"";
+    reply(
+        exchange,
+        200,
+        "<CompleteMultipartUploadResult><Bucket>"
+            + BUCKET
+            + "</Bucket><Key>"
+            + key
+            + "</Key><ETag>"
+            + etag
+            + "</ETag></CompleteMultipartUploadResult>");
+  }
+
+  private void copy(HttpExchange exchange, String key) throws IOException {
+    String source = exchange.getRequestHeaders().getFirst("x-amz-copy-source");
+    source = URLDecoder.decode(source, StandardCharsets.UTF_8);
+    source = source.startsWith("/") ? source.substring(1) : source;
+    byte[] object = objects.get(source.substring(BUCKET.length() + 1));
+    if (object == null) {
+      reply(exchange, 404, error("NoSuchKey"));
+      return;
+    }
+    objects.put(key, object);
+    reply(
+        exchange,
+        200,
+        "<CopyObjectResult><ETag>"
+            + etag(object)
+            + "</ETag><LastModified>2026-01-01T00:00:00.000Z</LastModified></CopyObjectResult>");
+  }
+
+  private void get(HttpExchange exchange, String key) throws IOException {
+    byte[] object = objects.get(key);
+    if (object == null) {
+      reply(exchange, 404, error("NoSuchKey"));
+      return;
+    }
+    String range = exchange.getRequestHeaders().getFirst("Range");
+    exchange.getResponseHeaders().set("ETag", etag(object));
+    if (range == null) {
+      exchange.sendResponseHeaders(200, object.length);
+      exchange.getResponseBody().write(object);
+      return;
+    }
+    String[] bounds = range.substring("bytes=".length()).split("-");
+    int start = Integer.parseInt(bounds[0]);
+    int end = Math.min(object.length - 1, Integer.parseInt(bounds[1]));
+    byte[] slice = Arrays.copyOfRange(object, start, end + 1);
+    exchange
+        .getResponseHeaders()
+        .set("Content-Range", "bytes " + start + "-" + end + "/" + object.length);
+    exchange.sendResponseHeaders(206, slice.length);
+    exchange.getResponseBody().write(slice);
+  }
+
+  // ========== HELPER METHODS ==========
+
+  // At most bytesPerSecond, as if over a slow link
+  private byte[] read(HttpExchange exchange) throws IOException {
+    InputStream in = exchange.getRequestBody();
+    long limit = bytesPerSecond;
+    if (limit <= 0) {
+      return in.readAllBytes();
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[64 * 1024];
+    long start = System.nanoTime();
+    long total = 0;
+    int read;
+    while ((read = in.read(buffer)) > 0) {
+      out.write(buffer, 0, read);
+      total += read;
+      long due = start + total * 1_000_000_000L / limit;
+      long wait = due - System.nanoTime();
+      if (wait > 0) {
+        try {
+          Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException("Interrupted");
+        }
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static void reply(HttpExchange exchange, int status, String xml) throws IOException {
+    byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/xml");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private static String error(String code) {
+    return "<Error><Code>" + code + "</Code><Message>" + code + "</Message></Error>";
+  }
+
+  private static String etag(byte[] object) {
+    return "\"" + HexFormat.of().formatHex(digest("MD5", object)) + "\"";
+  }
+
+  private static Map<String, String> query(URI uri) {
+    Map<String, String> query = new HashMap<>();
+    if (uri.getRawQuery() != null) {
+      for (String pair : uri.getRawQuery().split("&")) {
+        int eq = pair.indexOf('=');
+        query.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+      }
+    }
+    return query;
+  }
+
+  private static byte[] digest(String algorithm, byte[] bytes) {
+    try {
+      return MessageDigest.getInstance(algorithm).digest(bytes);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static StaticCredentialsProvider credentials() {
+    return StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test-secret"));
+  }
+
+  private static S3Configuration configuration() {
+    return S3Configuration.builder()
+        .pathStyleAccessEnabled(true)
+        .chunkedEncodingEnabled(false)
+        .build();
+  }
+}
@@ -0,0 +1,94 @@
+package com.example.loanlyFinalProject.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Orphan GC over a blob tree of {@value #FILES} files, every one referenced so each run does the
+ * full walk and check, at increasing parallelism. Not part of the default build; run with
+ *
+ * <pre>
+ * mvn test -Dtest=OrphanedFileCollectorBenchmark -DexcludedTestGroups=
+ * </pre>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@Tag("benchmark")
+@DisplayName("Orphaned file collector benchmark")
+class OrphanedFileCollectorBenchmark {
+
+  private static final int FILES = 200_000;
+  private static final Instant NOW = Instant.parse("2026-03-01T04:00:00Z");
+
+  @TempDir Path root;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  @DisplayName("Collect - Walk a large blob tree at increasing parallelism")
+  void collect_LargeTree() throws Exception {
+    Random random = new Random(7);
+    FileTime old = FileTime.from(NOW.minus(Duration.ofDays(2)));
+    List<Object[]> rows = new ArrayList<>(FILES);
+    for (int i = 0; i < FILES; i++) {
+      byte[] hash = new byte[32];
+      random.nextBytes(hash);
+      String sha256 = HexFormat.of().formatHex(hash);
+      Path file = root.resolve(ContentAddressedStore.relativePath(sha256, DocumentContentType.PNG));
+      Files.createDirectories(file.getParent());
+      Files.write(file, new byte[] {1});
+      Files.setLastModifiedTime(file, old);
+      rows.add(new Object[] {sha256, LocalDateTime.now()});
+    }
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO document_blobs (sha256, content_type, size_bytes, ref_count, created_at)"
+            + " VALUES (?, 'image/png', 1, 1, ?)",
+        rows);
+
+    for (int parallelism : new int[] {1, 2, 4, 8}) {
+      OrphanedFileCollector collector =
+          new OrphanedFileCollector(
+              jdbcTemplate,
+              Clock.fixed(NOW, ZoneOffset.UTC),
+              new SimpleMeterRegistry(),
+              root.toString(),
+              24,
+              OrphanedFileCollector.Action.QUARANTINE,
+              168,
+              parallelism);
+      collector.collect(); // Warm-up
+      long start = System.nanoTime();
+      OrphanedFileCollector.OrphanReport report = collector.collect();
+      double seconds = (System.nanoTime() - start) / 1e9;
+
+      assertEquals(FILES, report.scannedFiles());
+      assertEquals(0, report.orphanFiles());
+      System.out.printf(
+          "parallelism %d: %6.2f s, %,9.0f files/s%n", parallelism, seconds, FILES / seconds);
+    }
+  }
+}
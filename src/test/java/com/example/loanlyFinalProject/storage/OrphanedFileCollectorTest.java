@@ -0,0 +1,229 @@
+package com.example.loanlyFinalProject.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.entity.Plafond;
+import com.example.loanlyFinalProject.entity.PlafondDocument;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.entity.UserPlafond;
+import com.example.loanlyFinalProject.repository.PlafondDocumentRepository;
+import com.example.loanlyFinalProject.repository.PlafondRepository;
+import com.example.loanlyFinalProject.repository.UserPlafondRepository;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@DisplayName("OrphanedFileCollector Integration Tests")
+class OrphanedFileCollectorTest {
+
+  private static final Instant NOW = Instant.parse("2026-03-01T04:00:00Z");
+  private static final Instant OLD = NOW.minus(Duration.ofDays(2));
+
+  @TempDir Path root;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PlafondRepository plafondRepository;
+
+  @Autowired private UserPlafondRepository userPlafondRepository;
+
+  @Autowired private PlafondDocumentRepository plafondDocumentRepository;
+
+  private UserPlafond application;
+
+  @BeforeEach
+  void setUp() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    User customer =
+        userRepository.save(
+            User.builder()
+                .username("orph-" + suffix)
+                .email("orph-" + suffix + "@test.com")
+                .password("secret")
+                .build());
+    Plafond plafond =
+        plafondRepository.save(
+            Plafond.builder()
+                .name("Orphan " + suffix)
+                .maxAmount(new BigDecimal("5000000"))
+                .build());
+    application =
+        userPlafondRepository.save(
+            UserPlafond.builder()
+                .user(customer)
+                .plafond(plafond)
+                .status(UserPlafond.PlafondApplicationStatus.PENDING_REVIEW)
+                .build());
+  }
+
+  @Test
+  @DisplayName("Collect - Should quarantine only old files that nothing references")
+  void collect_ShouldQuarantineUnreferencedFiles() throws Exception {
+    String referencedSha = sha();
+    String orphanSha = sha();
+    blobRow(referencedSha);
+    String legacyDir = "plafonds/" + application.getId() + "/";
+    documentRow(legacyDir + "KTP_ref.jpg");
+
+    Path referencedLegacy = file(legacyDir + "KTP_ref.jpg", 100, OLD);
+    Path orphanLegacy = file(legacyDir + "KTP_replaced.jpg", 200, OLD);
+    Path youngOrphan = file(legacyDir + "KTP_in_flight.jpg", 300, NOW.minusSeconds(60));
+    Path referencedBlob = file(ContentAddressedStore.relativePath(referencedSha, png()), 400, OLD);
+    Path referencedThumb =
+        file(
+            ContentAddressedStore.derivativePath(referencedSha, DerivativeKind.THUMBNAIL), 10, OLD);
+    Path orphanBlob = file(ContentAddressedStore.relativePath(orphanSha, png()), 500, OLD);
+    Path orphanPreview =
+        file(ContentAddressedStore.derivativePath(orphanSha, DerivativeKind.PREVIEW), 50, OLD);
+    Path staleStaging = file("blobs/.staging/upload-1.part", 600, OLD);
+
+    OrphanedFileCollector.OrphanReport report =
+        collector(NOW, OrphanedFileCollector.Action.QUARANTINE).collect();
+
+    assertEquals(8, report.scannedFiles());
+    assertEquals(4, report.orphanFiles());
+    assertEquals(200 + 500 + 50 + 600, report.orphanBytes());
+    assertEquals(0, report.reclaimedBytes());
+    for (Path kept : new Path[] {referencedLegacy, youngOrphan, referencedBlob, referencedThumb}) {
+      assertTrue(Files.exists(kept), kept + " was removed");
+    }
+    for (Path orphan : new Path[] {orphanLegacy, orphanBlob, orphanPreview, staleStaging}) {
+      assertFalse(Files.exists(orphan), orphan + " was kept");
+      assertTrue(Files.exists(quarantined(NOW, orphan)), orphan + " was not quarantined");
+    }
+  }
+
+  @Test
+  @DisplayName("Purge - Should delete expired quarantine and restore files referenced again")
+  void purge_ShouldDeleteOrRestore() throws Exception {
+    String lateSha = sha();
+    Path late = file(ContentAddressedStore.relativePath(lateSha, png()), 700, OLD);
+    Path orphan = file("plafonds/" + application.getId() + "/KK_old.pdf", 800, OLD);
+    collector(NOW, OrphanedFileCollector.Action.QUARANTINE).collect();
+    assertFalse(Files.exists(late));
+
+    // The upload that wrote it commits after all
+    blobRow(lateSha);
+    Instant later = NOW.plus(Duration.ofDays(8));
+    OrphanedFileCollector.OrphanReport report =
+        collector(later, OrphanedFileCollector.Action.QUARANTINE).collect();
+
+    assertEquals(1, report.restoredFiles());
+    assertEquals(800, report.reclaimedBytes());
+    assertTrue(Files.exists(late));
+    assertFalse(Files.exists(orphan));
+    assertFalse(Files.exists(root.resolve(".orphans").resolve("20260301T040000Z")));
+  }
+
+  @Test
+  @DisplayName("Collect - Should delete orphans across many directories and chunks in delete mode")
+  void collect_DeleteMode_ShouldHandleManyDirectories() throws Exception {
+    int referenced = 0;
+    for (int d = 0; d < 3; d++) {
+      for (int f = 0; f < 400 * (d + 1) / 2; f++) {
+        String path = "plafonds/" + application.getId() + "-" + d + "/doc-" + f + ".jpg";
+        file(path, 10, OLD);
+        if (f % 3 == 0) {
+          documentRow(path);
+          referenced++;
+        }
+      }
+    }
+    file("blobs/ab/cd/not-a-hash.jpg", 10, OLD);
+
+    OrphanedFileCollector.OrphanReport report =
+        collector(NOW, OrphanedFileCollector.Action.DELETE).collect();
+
+    assertEquals(1201, report.scannedFiles());
+    assertEquals(1201 - referenced, report.orphanFiles());
+    assertEquals((1201 - referenced) * 10L, report.reclaimedBytes());
+    try (Stream<Path> files = Files.walk(root)) {
+      assertEquals(referenced, files.filter(Files::isRegularFile).count());
+    }
+  }
+
+  private OrphanedFileCollector collector(Instant now, OrphanedFileCollector.Action action) {
+    return new OrphanedFileCollector(
+        jdbcTemplate,
+        Clock.fixed(now, ZoneOffset.UTC),
+        new SimpleMeterRegistry(),
+        root.toString(),
+        24,
+        action,
+        168,
+        4);
+  }
+
+  private Path quarantined(Instant run, Path file) {
+    return root.resolve(".orphans")
+        .resolve(
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+                .withZone(ZoneOffset.UTC)
+                .format(run))
+        .resolve(root.relativize(file));
+  }
+
+  private Path file(String relativePath, int size, Instant modified) throws IOException {
+    Path file = root.resolve(relativePath);
+    Files.createDirectories(file.getParent());
+    Files.write(file, new byte[size]);
+    Files.setLastModifiedTime(file, FileTime.from(modified));
+    return file;
+  }
+
+  private void documentRow(String relativePath) {
+    plafondDocumentRepository.save(
+        PlafondDocument.builder()
+            .userPlafond(application)
+            .documentType(PlafondDocument.DocumentType.KTP)
+            .fileUrl("/uploads/" + relativePath)
+            .build());
+  }
+
+  private void blobRow(String sha256) {
+    jdbcTemplate.update(
+        "INSERT INTO document_blobs (sha256, content_type, size_bytes, ref_count, created_at)"
+            + " VALUES (?, 'image/png', 1, 1, ?)",
+        sha256,
+        LocalDateTime.now());
+  }
+
+  private static DocumentContentType png() {
+    return DocumentContentType.PNG;
+  }
+
+  private static String sha() {
+    byte[] bytes = new byte[32];
+    new Random().nextBytes(bytes);
+    return HexFormat.of().formatHex(bytes);
+  }
+}
@@ -0,0 +1,168 @@
+package com.example.loanlyFinalProject.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+@DisplayName("S3DocumentStore Unit Tests")
+class S3DocumentStoreTest {
+
+  private static final int PART_SIZE = 5 * 1024 * 1024;
+  private static final int MAX_CONCURRENT_PARTS = 3;
+
+  @TempDir Path directory;
+
+  private FakeS3Server s3;
+  private S3AsyncClient client;
+  private S3Presigner presigner;
+  private S3DocumentStore store;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    s3 = new FakeS3Server();
+    client = s3.client();
+    presigner = s3.presigner();
+    store =
+        new S3DocumentStore(
+            client,
+            presigner,
+            FakeS3Server.BUCKET,
+            PART_SIZE,
+            PART_SIZE * 2L,
+            MAX_CONCURRENT_PARTS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    client.close();
+    presigner.close();
+    s3.close();
+  }
+
+  @Test
+  @DisplayName("Put - Should store a small file in one request and read it back")
+  void put_SmallFile_ShouldRoundTrip() throws Exception {
+    byte[] content = bytes(300_000);
+
+    store.put("blobs/ab/cd/small.png", file(content), "image/png");
+
+    assertArrayEquals(content, s3.object("blobs/ab/cd/small.png"));
+    assertEquals(content.length, store.size("blobs/ab/cd/small.png").orElseThrow());
+    assertArrayEquals(Arrays.copyOf(content, 12), store.readPrefix("blobs/ab/cd/small.png", 12));
+    assertArrayEquals(content, store.read("blobs/ab/cd/small.png", Files::readAllBytes));
+    assertEquals(0, s3.maxPartsInFlight());
+    assertEquals(0, fileCount(), "The local file is consumed");
+  }
+
+  @Test
+  @DisplayName("Put - Should upload a large file as parts sent in parallel")
+  void put_LargeFile_ShouldUploadPartsInParallel() throws Exception {
+    byte[] content = bytes(PART_SIZE * 5 + 12_345);
+    s3.throttle(50L * 1024 * 1024); // So parts overlap
+
+    store.put("blobs/ef/01/large.pdf", file(content), "application/pdf");
+
+    assertArrayEquals(content, s3.object("blobs/ef/01/large.pdf"));
+    assertTrue(s3.maxPartsInFlight() > 1, "Parts were sent one at a time");
+    assertTrue(s3.maxPartsInFlight() <= MAX_CONCURRENT_PARTS);
+    assertEquals(0, s3.pendingMultipartUploads());
+  }
+
+  @Test
+  @DisplayName("Move and delete - Should copy within the bucket and tolerate missing objects")
+  void moveAndDelete_ShouldWorkServerSide() throws Exception {
+    byte[] content = bytes(1000);
+    store.put("blobs/.staging/direct-1", file(content), "image/png");
+
+    store.move("blobs/.staging/direct-1", "blobs/12/34/moved.png");
+
+    assertFalse(store.exists("blobs/.staging/direct-1"));
+    assertArrayEquals(content, s3.object("blobs/12/34/moved.png"));
+    store.delete("blobs/12/34/moved.png");
+    store.delete("blobs/12/34/moved.png");
+    assertTrue(store.size("blobs/12/34/moved.png").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Direct upload - Should only accept the declared content at the signed URL")
+  void directUpload_ShouldOnlyAcceptDeclaredContent() throws Exception {
+    byte[] content = bytes(64_000);
+    String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    DirectUpload upload =
+        store
+            .directUpload(
+                "blobs/.staging/direct-2",
+                "image/png",
+                content.length,
+                sha256,
+                Duration.ofMinutes(5))
+            .orElseThrow();
+    assertEquals("PUT", upload.method());
+    assertFalse(upload.headers().keySet().stream().anyMatch(h -> h.equalsIgnoreCase("host")));
+
+    byte[] tampered = content.clone();
+    tampered[100] ^= 1;
+    assertEquals(400, send(upload, tampered));
+    assertNull(s3.object("blobs/.staging/direct-2"));
+
+    assertEquals(200, send(upload, content));
+    assertArrayEquals(content, s3.object("blobs/.staging/direct-2"));
+
+    HttpResponse<byte[]> download =
+        HttpClient.newHttpClient()
+            .send(
+                HttpRequest.newBuilder(
+                        store
+                            .downloadUrl(
+                                "blobs/.staging/direct-2", "image/png", Duration.ofMinutes(5))
+                            .orElseThrow())
+                    .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+    assertArrayEquals(content, download.body());
+  }
+
+  private static int send(DirectUpload upload, byte[] body) throws Exception {
+    HttpRequest.Builder request =
+        HttpRequest.newBuilder(upload.url())
+            .method(upload.method(), HttpRequest.BodyPublishers.ofByteArray(body));
+    upload.headers().forEach(request::header);
+    return HttpClient.newHttpClient()
+        .send(request.build(), HttpResponse.BodyHandlers.discarding())
+        .statusCode();
+  }
+
+  private Path file(byte[] content) throws IOException {
+    Path file = Files.createTempFile(directory, "upload-", ".part");
+    Files.write(file, content);
+    return file;
+  }
+
+  private long fileCount() throws IOException {
+    try (var files = Files.list(directory)) {
+      return files.count();
+    }
+  }
+
+  private static byte[] bytes(int length) {
+    byte[] content = new byte[length];
+    new Random().nextBytes(content);
+    return content;
+  }
+}
@@ -0,0 +1,151 @@
+package com.example.loanlyFinalProject.tracing;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import com.example.loanlyFinalProject.config.TestConfig;
+import com.example.loanlyFinalProject.entity.User;
+import com.example.loanlyFinalProject.repository.UserRepository;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Requests are traced down to their JDBC, Redis and flush calls: the slow-request log carries the
+ * breakdown, and every span reaches an OTLP endpoint, here a stand-in that keeps what it receives.
+ * Redis is not running in tests, so the blacklist check fails fast but is still observed.
+ */
+@SpringBootTest(
+    properties = {"management.tracing.sampling.probability=1.0", "app.tracing.slow-request-ms=0"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+@ExtendWith(OutputCaptureExtension.class)
+@DisplayName("Request tracing Integration Tests")
+class RequestTracingTest {
+
+  /** Span names (as the bridge writes them) of the request, its controller and its calls. */
+  private static final String[] SPANS = {
+    "http post /api/auth/login", "auth-controller#login", "jdbc execute-query", "redis"
+  };
+
+  private static final Queue<String> exported = new ConcurrentLinkedQueue<>();
+  private static final HttpServer collector = startCollector();
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private UserRepository userRepository;
+
+  @DynamicPropertySource
+  static void otlpEndpoint(DynamicPropertyRegistry registry) {
+    registry.add(
+        "management.otlp.tracing.endpoint",
+        () -> "http://127.0.0.1:" + collector.getAddress().getPort() + "/v1/traces");
+  }
+
+  @AfterAll
+  static void stopCollector() {
+    collector.stop(0);
+  }
+
+  @Test
+  @DisplayName("Breakdown - Should count connection checkouts, statements and flushes")
+  void breakdown_ShouldCountJdbcAndFlush() {
+    LatencyBreakdown breakdown = LatencyBreakdown.start();
+    try {
+      String username = "trace-" + UUID.randomUUID().toString().substring(0, 8);
+      userRepository.save(
+          User.builder().username(username).email(username + "@test.com").password("x").build());
+    } finally {
+      breakdown.stop();
+    }
+
+    assertTrue(breakdown.calls(Dependency.POOL) >= 1);
+    assertTrue(breakdown.calls(Dependency.DB) >= 1);
+    assertTrue(breakdown.calls(Dependency.FLUSH) >= 1);
+    assertEquals(0, breakdown.calls(Dependency.REDIS));
+    assertFalse(breakdown.summary(0).contains("redis="));
+
+    // Nothing is collected once stopped
+    int statements = breakdown.calls(Dependency.DB);
+    LatencyBreakdown.record(Dependency.DB, 1);
+    assertEquals(statements, breakdown.calls(Dependency.DB));
+  }
+
+  @Test
+  @DisplayName("Slow request - Should log the breakdown and export the spans over OTLP")
+  void slowRequest_ShouldLogBreakdownAndExportSpans(CapturedOutput output) throws Exception {
+    mockMvc.perform(
+        post("/api/auth/login")
+            .header("Authorization", "Bearer not-a-jwt")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"usernameOrEmail\":\"nobody\",\"password\":\"wrong-password\"}"));
+
+    String line =
+        output
+            .getOut()
+            .lines()
+            .filter(l -> l.contains("Slow request POST /api/auth/login"))
+            .findFirst()
+            .orElseThrow();
+    assertTrue(line.contains("redis=") && line.contains("db=") && line.contains("other="), line);
+
+    // Spans are exported in batches, a few seconds apart
+    long deadline = System.currentTimeMillis() + 30_000;
+    while (!exportedAll(SPANS) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(200);
+    }
+    assertTrue(exportedAll(SPANS));
+  }
+
+  private static boolean exportedAll(String... names) {
+    String all = String.join("\n", exported);
+    for (String name : names) {
+      if (!all.contains(name)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** OTLP/HTTP traces arrive as protobuf, in which span names and attribute keys are plain text. */
+  private static HttpServer startCollector() {
+    try {
+      HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 16);
+      server.createContext(
+          "/v1/traces",
+          exchange -> {
+            exported.add(
+                new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+          });
+      server.start();
+      return server;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}